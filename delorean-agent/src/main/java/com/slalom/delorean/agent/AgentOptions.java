@@ -0,0 +1,105 @@
+package com.slalom.delorean.agent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Options of the {@link DeloreanAgent}, parsed from the agent argument string, e.g.
+ * {@code -javaagent:delorean-agent.jar=packages=com.acme,org.example;exclude=com.acme.generated;verbose=true}.
+ * <p>
+ * Packages are kept as internal name prefixes ({@code com/acme/}) so they can be compared against the class names handed to a
+ * {@link java.lang.instrument.ClassFileTransformer} without converting them.
+ */
+final class AgentOptions {
+
+    /**
+     * Never rewritten: the JDK itself and the library the rewritten calls delegate to
+     */
+    static final List<String> DEFAULT_EXCLUDES = Collections.unmodifiableList(Arrays.asList(
+            "com/slalom/delorean/", "java/", "javax/", "jdk/", "sun/", "com/sun/"));
+
+    private final List<String> packages;
+    private final List<String> excludes;
+    private final boolean verbose;
+
+    AgentOptions(final List<String> packages, final List<String> excludes, final boolean verbose) {
+        this.packages = Collections.unmodifiableList(new ArrayList<>(packages));
+        this.excludes = Collections.unmodifiableList(new ArrayList<>(excludes));
+        this.verbose = verbose;
+    }
+
+    /**
+     * @param arguments The agent argument string, may be null
+     * @return The parsed options
+     * @throws IllegalArgumentException If the string contains an unknown option
+     */
+    static AgentOptions parse(final String arguments) {
+        final List<String> packages = new ArrayList<>();
+        final List<String> excludes = new ArrayList<>(DEFAULT_EXCLUDES);
+        boolean verbose = false;
+
+        if (arguments != null) {
+            for (String option : arguments.split(";")) {
+                if (option.trim().isEmpty()) {
+                    continue;
+                }
+                final int separator = option.indexOf('=');
+                final String name = (separator < 0 ? option : option.substring(0, separator)).trim();
+                final String value = separator < 0 ? "" : option.substring(separator + 1).trim();
+                switch (name) {
+                    case "packages":
+                        packages.addAll(toPrefixes(value));
+                        break;
+                    case "exclude":
+                        excludes.addAll(toPrefixes(value));
+                        break;
+                    case "verbose":
+                        verbose = value.isEmpty() || Boolean.parseBoolean(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown delorean-agent option '" + name + "' in '" + arguments + "'");
+                }
+            }
+        }
+        return new AgentOptions(packages, excludes, verbose);
+    }
+
+    private static List<String> toPrefixes(final String packageNames) {
+        final List<String> prefixes = new ArrayList<>();
+        for (String packageName : packageNames.split(",")) {
+            final String trimmed = packageName.trim();
+            if (!trimmed.isEmpty()) {
+                prefixes.add(trimmed.replace('.', '/') + (trimmed.endsWith(".") ? "" : "/"));
+            }
+        }
+        return prefixes;
+    }
+
+    /**
+     * @return The internal name prefixes of the packages whose classes are rewritten
+     */
+    List<String> getPackages() {
+        return packages;
+    }
+
+    /**
+     * @return The internal name prefixes of the packages never rewritten, including {@link #DEFAULT_EXCLUDES}
+     */
+    List<String> getExcludes() {
+        return excludes;
+    }
+
+    /**
+     * @return Whether the agent reports the classes it rewrites on standard error
+     */
+    boolean isVerbose() {
+        return verbose;
+    }
+
+    @Override
+    public String toString() {
+        return "packages=" + packages + ", exclude=" + excludes + ", verbose=" + verbose;
+    }
+}
@@ -0,0 +1,107 @@
+package com.slalom.delorean.agent;
+
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Method visitor replacing the system clock calls with their {@link com.slalom.delorean.DateFactory} equivalent:
+ * <ul>
+ * <li>{@code System.currentTimeMillis()} with {@code DateFactory.epochMillis()}</li>
+ * <li>{@code Instant.now()} with {@code DateFactory.instant()}</li>
+ * <li>{@code LocalDate.now()} and {@code LocalDate.now(ZoneId)} with {@code DateFactory.today()} and {@code DateFactory.today(ZoneId)}</li>
+ * <li>{@code LocalDateTime.now()} and {@code LocalDateTime.now(ZoneId)} with {@code DateFactory.now()} and {@code DateFactory.now(ZoneId)}</li>
+ * <li>{@code new Date()} with {@code new Date(DateFactory.epochMillis())}</li>
+ * </ul>
+ * Method references to the static methods above (e.g. {@code Instant::now}) are replaced as well. Every replacement has the same stack effect as the
+ * original call, so the method's frames are left untouched.
+ */
+final class DateFactoryCalls extends MethodVisitor {
+
+    static final String DATE_FACTORY = "com/slalom/delorean/DateFactory";
+
+    private static final String DATE = "java/util/Date";
+    private static final Set<String> CLOCK_CLASSES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "java/lang/System", "java/time/Instant", "java/time/LocalDate", "java/time/LocalDateTime", DATE)));
+
+    //Keyed by owner + name + descriptor of the original static method, valued by the name of the DateFactory method with the same descriptor
+    private static final Map<String, String> STATIC_REPLACEMENTS = new HashMap<>();
+
+    static {
+        STATIC_REPLACEMENTS.put("java/lang/System.currentTimeMillis()J", "epochMillis");
+        STATIC_REPLACEMENTS.put("java/time/Instant.now()Ljava/time/Instant;", "instant");
+        STATIC_REPLACEMENTS.put("java/time/LocalDate.now()Ljava/time/LocalDate;", "today");
+        STATIC_REPLACEMENTS.put("java/time/LocalDate.now(Ljava/time/ZoneId;)Ljava/time/LocalDate;", "today");
+        STATIC_REPLACEMENTS.put("java/time/LocalDateTime.now()Ljava/time/LocalDateTime;", "now");
+        STATIC_REPLACEMENTS.put("java/time/LocalDateTime.now(Ljava/time/ZoneId;)Ljava/time/LocalDateTime;", "now");
+    }
+
+    private final Runnable onRewrite;
+
+    /**
+     * @param next      The visitor receiving the rewritten method
+     * @param onRewrite Called for every call replaced
+     */
+    DateFactoryCalls(final MethodVisitor next, final Runnable onRewrite) {
+        super(Opcodes.ASM9, next);
+        this.onRewrite = onRewrite;
+    }
+
+    /**
+     * @param internalName The internal name of the owner of a method reference
+     * @return Whether the owner declares one of the replaced methods
+     */
+    static boolean isClockClass(final String internalName) {
+        return CLOCK_CLASSES.contains(internalName);
+    }
+
+    @Override
+    public void visitMethodInsn(final int opcode, final String owner, final String name, final String descriptor, final boolean isInterface) {
+        if (opcode == Opcodes.INVOKESTATIC && CLOCK_CLASSES.contains(owner)) {
+            final String replacement = STATIC_REPLACEMENTS.get(owner + '.' + name + descriptor);
+            if (replacement != null) {
+                onRewrite.run();
+                super.visitMethodInsn(Opcodes.INVOKESTATIC, DATE_FACTORY, replacement, descriptor, false);
+                return;
+            }
+        } else if (opcode == Opcodes.INVOKESPECIAL && DATE.equals(owner) && "<init>".equals(name) && "()V".equals(descriptor)) {
+            //The uninitialized Date is already on the stack, push the millis and call the Date(long) constructor instead
+            onRewrite.run();
+            super.visitMethodInsn(Opcodes.INVOKESTATIC, DATE_FACTORY, "epochMillis", "()J", false);
+            super.visitMethodInsn(Opcodes.INVOKESPECIAL, DATE, "<init>", "(J)V", false);
+            return;
+        }
+        super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+    }
+
+    @Override
+    public void visitInvokeDynamicInsn(final String name, final String descriptor, final Handle bootstrapMethodHandle,
+                                       final Object... bootstrapMethodArguments) {
+        final Object[] arguments = bootstrapMethodArguments.clone();
+        for (int i = 0; i < arguments.length; i++) {
+            if (arguments[i] instanceof Handle) {
+                arguments[i] = replace((Handle) arguments[i]);
+            }
+        }
+        super.visitInvokeDynamicInsn(name, descriptor, bootstrapMethodHandle, arguments);
+    }
+
+    private Handle replace(final Handle handle) {
+        if (handle.getTag() != Opcodes.H_INVOKESTATIC || !CLOCK_CLASSES.contains(handle.getOwner())) {
+            return handle;
+        }
+        final String replacement = STATIC_REPLACEMENTS.get(handle.getOwner() + '.' + handle.getName() + handle.getDesc());
+        if (replacement == null) {
+            return handle;
+        }
+        onRewrite.run();
+        return new Handle(Opcodes.H_INVOKESTATIC, DATE_FACTORY, replacement, handle.getDesc(), false);
+    }
+}
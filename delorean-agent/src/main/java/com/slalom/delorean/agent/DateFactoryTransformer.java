@@ -0,0 +1,159 @@
+package com.slalom.delorean.agent;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.security.ProtectionDomain;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rewrites the system clock calls of the classes in the configured packages to {@link com.slalom.delorean.DateFactory}, see {@link DateFactoryCalls}.
+ * <p>
+ * Most classes a JVM loads are not of interest, so they are discarded as cheaply as possible: first by comparing the class name against the package
+ * prefixes, then by scanning the constant pool for a method reference to one of the clock classes. Only classes which pass both are visited and
+ * written again, and only when their class loader can see DateFactory.
+ */
+final class DateFactoryTransformer implements ClassFileTransformer {
+
+    private static final int CONSTANT_METHODREF = 10;
+
+    private final String[] packages;
+    private final String[] excludes;
+    private final boolean verbose;
+    private final AtomicInteger rewritten = new AtomicInteger();
+    private final Map<ClassLoader, Boolean> dateFactoryVisible = Collections.synchronizedMap(new WeakHashMap<>());
+
+    DateFactoryTransformer(final AgentOptions options) {
+        this.packages = toArray(options.getPackages());
+        this.excludes = toArray(options.getExcludes());
+        this.verbose = options.isVerbose();
+    }
+
+    @Override
+    public byte[] transform(final ClassLoader loader, final String className, final Class<?> classBeingRedefined,
+                            final ProtectionDomain protectionDomain, final byte[] classfileBuffer) {
+        if (loader == null || className == null || classBeingRedefined != null || !matches(className)) {
+            return null;
+        }
+
+        try {
+            return rewrite(loader, className, classfileBuffer);
+        } catch (RuntimeException | LinkageError e) {
+            //The JVM silently drops exceptions thrown by transformers, report it and load the class unchanged
+            System.err.println("[delorean-agent] Failed to rewrite " + className + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * @param className The internal name of a class
+     * @return Whether the class is in one of the configured packages and not excluded
+     */
+    boolean matches(final String className) {
+        for (String exclude : excludes) {
+            if (className.startsWith(exclude)) {
+                return false;
+            }
+        }
+        for (String prefix : packages) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param loader          The loader defining the class
+     * @param className       The internal name of the class
+     * @param classfileBuffer The class file
+     * @return The rewritten class file, or null when the class does not read the system clock
+     */
+    byte[] rewrite(final ClassLoader loader, final String className, final byte[] classfileBuffer) {
+        final ClassReader reader = new ClassReader(classfileBuffer);
+        if (!referencesClockClass(reader) || !canSeeDateFactory(loader)) {
+            return null;
+        }
+
+        final ClassWriter writer = new ClassWriter(reader, ClassWriter.COMPUTE_MAXS);
+        final RewritingClassVisitor visitor = new RewritingClassVisitor(writer);
+        reader.accept(visitor, 0);
+        if (!visitor.rewritten) {
+            return null;
+        }
+
+        rewritten.incrementAndGet();
+        if (verbose) {
+            System.err.println("[delorean-agent] Rewrote " + className.replace('/', '.'));
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * @return The number of classes rewritten so far
+     */
+    int getRewrittenCount() {
+        return rewritten.get();
+    }
+
+    private static boolean referencesClockClass(final ClassReader reader) {
+        final char[] buffer = new char[reader.getMaxStringLength()];
+        for (int i = 1; i < reader.getItemCount(); i++) {
+            final int offset = reader.getItem(i);
+            //Offsets point just past the tag and are 0 for the unusable slot following a long or double constant
+            if (offset > 0 && reader.readByte(offset - 1) == CONSTANT_METHODREF
+                    && DateFactoryCalls.isClockClass(reader.readClass(offset, buffer))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean canSeeDateFactory(final ClassLoader loader) {
+        final Boolean visible = dateFactoryVisible.get(loader);
+        if (visible != null) {
+            return visible;
+        }
+        //Loaded outside the map's lock, another thread may hold the class loader's lock while waiting for it
+        final boolean loaded = loadsDateFactory(loader);
+        dateFactoryVisible.put(loader, loaded);
+        return loaded;
+    }
+
+    private static boolean loadsDateFactory(final ClassLoader loader) {
+        try {
+            Class.forName(DateFactoryCalls.DATE_FACTORY.replace('/', '.'), false, loader);
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static String[] toArray(final List<String> prefixes) {
+        return prefixes.toArray(new String[0]);
+    }
+
+    private static final class RewritingClassVisitor extends ClassVisitor {
+
+        private boolean rewritten;
+
+        RewritingClassVisitor(final ClassVisitor next) {
+            super(Opcodes.ASM9, next);
+        }
+
+        @Override
+        public MethodVisitor visitMethod(final int access, final String name, final String descriptor, final String signature,
+                                         final String[] exceptions) {
+            final MethodVisitor next = super.visitMethod(access, name, descriptor, signature, exceptions);
+            return next == null ? null : new DateFactoryCalls(next, () -> rewritten = true);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.slalom.delorean.agent;
+
+import java.lang.instrument.Instrumentation;
+
+/**
+ * Java agent which rewrites calls reading the system clock ({@code System.currentTimeMillis()}, {@code Instant.now()}, {@code LocalDate.now()},
+ * {@code LocalDateTime.now()} and {@code new Date()}) in the configured packages to the matching {@link com.slalom.delorean.DateFactory} methods, so
+ * code which was never written against DateFactory still follows the Test Date.
+ * <p>
+ * Start the application with {@code -javaagent:delorean-agent.jar=packages=com.acme}, see {@link AgentOptions} for the options. Classes are rewritten
+ * as they are loaded, so when the agent is attached to a running JVM only classes loaded afterwards are affected.
+ */
+public final class DeloreanAgent {
+
+    private DeloreanAgent() {
+    }
+
+    /**
+     * Entry point when the agent is started with {@code -javaagent}
+     *
+     * @param arguments       The agent argument string
+     * @param instrumentation The JVM's instrumentation
+     */
+    public static void premain(final String arguments, final Instrumentation instrumentation) {
+        install(arguments, instrumentation);
+    }
+
+    /**
+     * Entry point when the agent is attached to a running JVM
+     *
+     * @param arguments       The agent argument string
+     * @param instrumentation The JVM's instrumentation
+     */
+    public static void agentmain(final String arguments, final Instrumentation instrumentation) {
+        install(arguments, instrumentation);
+    }
+
+    static DateFactoryTransformer install(final String arguments, final Instrumentation instrumentation) {
+        final AgentOptions options = AgentOptions.parse(arguments);
+        if (options.getPackages().isEmpty()) {
+            System.err.println("[delorean-agent] No packages configured, nothing will be rewritten. Use -javaagent:delorean-agent.jar=packages=com.acme");
+            return null;
+        }
+
+        final DateFactoryTransformer transformer = new DateFactoryTransformer(options);
+        instrumentation.addTransformer(transformer, false);
+        if (options.isVerbose()) {
+            System.err.println("[delorean-agent] Installed with " + options);
+        }
+        return transformer;
+    }
+}
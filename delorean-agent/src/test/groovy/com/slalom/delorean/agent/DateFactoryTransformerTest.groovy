@@ -0,0 +1,163 @@
+package com.slalom.delorean.agent
+
+import com.acme.clocks.Clocks
+import com.acme.clocks.NoClocks
+import com.slalom.delorean.DateFactory
+import spock.lang.Specification
+import java.time.Instant
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.ZoneId
+import java.time.ZoneOffset
+
+class DateFactoryTransformerTest extends Specification {
+
+    private static final LocalDateTime TEST_DATE_TIME = LocalDateTime.of(1985, 10, 26, 1, 21)
+    private static final ZoneId TOKYO = ZoneId.of("Asia/Tokyo")
+
+    def transformer = new DateFactoryTransformer(AgentOptions.parse("packages=com.acme"))
+    def loader = new RewritingClassLoader(transformer)
+
+    def cleanup() {
+        DateFactory.clearTestDate()
+        DateFactory.clearGlobalTestDate()
+    }
+
+    static long epochMillis(LocalDateTime dateTime) {
+        dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+    }
+
+    def "Rewritten system clock calls follow the Test Date"() {
+        given:
+        def clocks = loader.loadClass(Clocks.name).newInstance()
+        DateFactory.setTestDate(TEST_DATE_TIME)
+
+        expect:
+        clocks.currentTimeMillis() == epochMillis(TEST_DATE_TIME)
+        clocks.instant() == Instant.ofEpochMilli(epochMillis(TEST_DATE_TIME))
+        clocks.today() == TEST_DATE_TIME.toLocalDate()
+        clocks.now() == TEST_DATE_TIME
+        clocks.today(TOKYO) == LocalDateTime.now(DateFactory.testingClock.withZone(TOKYO)).toLocalDate()
+        clocks.now(TOKYO) == LocalDateTime.now(DateFactory.testingClock.withZone(TOKYO))
+        clocks.date().time == epochMillis(TEST_DATE_TIME)
+        clocks.instantSupplier().get() == Instant.ofEpochMilli(epochMillis(TEST_DATE_TIME))
+        loader.loadClass(Clocks.Timestamp.name).newInstance().time == epochMillis(TEST_DATE_TIME)
+    }
+
+    def "Calls which do not read the clock keep their behaviour"() {
+        given:
+        def clocks = loader.loadClass(Clocks.name).newInstance()
+        DateFactory.setTestDate(TEST_DATE_TIME)
+
+        expect:
+        clocks.date(42L).time == 42L
+        Math.abs(clocks.nanoTime() - System.nanoTime()) < 60_000_000_000L
+    }
+
+    def "Rewritten calls read the system clock when not time traveling"() {
+        given:
+        def clocks = loader.loadClass(Clocks.name).newInstance()
+
+        expect:
+        Math.abs(clocks.currentTimeMillis() - System.currentTimeMillis()) < 1000
+        clocks.today(ZoneOffset.UTC) == LocalDate.now(ZoneOffset.UTC)
+    }
+
+    def "Rewritten classes follow the global Test Date on every thread"() {
+        given:
+        def clocks = loader.loadClass(Clocks.name).newInstance()
+        DateFactory.setGlobalTestDate(TEST_DATE_TIME.toLocalDate())
+        def today = null
+
+        when:
+        def thread = new Thread({ today = clocks.today() })
+        thread.start()
+        thread.join()
+
+        then:
+        today == TEST_DATE_TIME.toLocalDate()
+    }
+
+    def "Only classes in the configured packages which reference a clock class are rewritten"() {
+        when:
+        loader.loadClass(Clocks.name)
+        def noClocks = loader.loadClass(NoClocks.name).newInstance()
+
+        then:
+        noClocks.twice(21) == 42
+        transformer.getRewrittenCount() == 1
+        transformer.rewrite(loader, internalName(NoClocks), classBytes(NoClocks)) == null
+        transformer.transform(loader, "org/example/Clocks", null, null, classBytes(Clocks)) == null
+    }
+
+    def "Classes are not rewritten when their loader cannot see DateFactory"() {
+        given:
+        def isolated = new ClassLoader(null as ClassLoader) {}
+
+        expect:
+        transformer.transform(isolated, internalName(Clocks), null, null, classBytes(Clocks)) == null
+        transformer.transform(null, internalName(Clocks), null, null, classBytes(Clocks)) == null
+    }
+
+    def "Redefined classes and invalid class files are left unchanged"() {
+        expect:
+        transformer.transform(loader, internalName(Clocks), Clocks, null, classBytes(Clocks)) == null
+        transformer.transform(loader, internalName(Clocks), null, null, [0xCA, 0xFE] as byte[]) == null
+    }
+
+    def "Package prefixes honour the exclusions"() {
+        given:
+        def filter = new DateFactoryTransformer(AgentOptions.parse("packages=com.acme,com.slalom;exclude=com.acme.generated"))
+
+        expect:
+        filter.matches(className) == matches
+
+        where:
+        className                           | matches
+        "com/acme/Service"                  | true
+        "com/acme/billing/Invoice"          | true
+        "com/acme/generated/Stub"           | false
+        "com/acmecorp/Service"              | false
+        "com/slalom/delorean/DateFactory"   | false
+        "com/slalom/other/Service"          | true
+        "java/util/Date"                    | false
+    }
+
+    static String internalName(Class<?> type) {
+        type.name.replace('.', '/')
+    }
+
+    static byte[] classBytes(Class<?> type) {
+        DateFactoryTransformerTest.getResourceAsStream("/" + internalName(type) + ".class").bytes
+    }
+
+    /**
+     * Loads the com.acme classes itself, passing them through the transformer the way the JVM does when the agent is installed
+     */
+    static class RewritingClassLoader extends ClassLoader {
+
+        private final DateFactoryTransformer transformer
+
+        RewritingClassLoader(DateFactoryTransformer transformer) {
+            super(DateFactoryTransformerTest.classLoader)
+            this.transformer = transformer
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) {
+            if (!name.startsWith("com.acme.")) {
+                return super.loadClass(name, resolve)
+            }
+            synchronized (getClassLoadingLock(name)) {
+                def loaded = findLoadedClass(name)
+                if (loaded == null) {
+                    def internalName = name.replace('.', '/')
+                    def original = getParent().getResourceAsStream(internalName + ".class").bytes
+                    def bytes = transformer.transform(this, internalName, null, null, original) ?: original
+                    loaded = defineClass(name, bytes, 0, bytes.length)
+                }
+                loaded
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.slalom.delorean.agent
+
+import spock.lang.Specification
+import java.lang.instrument.Instrumentation
+
+class DeloreanAgentTest extends Specification {
+
+    def "Agent installs a transformer for the configured packages"() {
+        given:
+        def instrumentation = Mock(Instrumentation)
+
+        when:
+        def transformer = DeloreanAgent.install("packages=com.acme", instrumentation)
+
+        then:
+        1 * instrumentation.addTransformer(_ as DateFactoryTransformer, false)
+        transformer.matches("com/acme/Service")
+    }
+
+    def "Agent does not install a transformer without packages"() {
+        given:
+        def instrumentation = Mock(Instrumentation)
+
+        when:
+        def transformer = DeloreanAgent.install(arguments, instrumentation)
+
+        then:
+        transformer == null
+        0 * instrumentation._
+
+        where:
+        arguments << [null, "", "verbose"]
+    }
+
+    def "Options are parsed into internal name prefixes"() {
+        when:
+        def options = AgentOptions.parse(" packages = com.acme, org.example.;exclude=com.acme.generated ;verbose=true;")
+
+        then:
+        options.packages == ["com/acme/", "org/example/"]
+        options.excludes == AgentOptions.DEFAULT_EXCLUDES + ["com/acme/generated/"]
+        options.verbose
+    }
+
+    def "Unknown options are rejected"() {
+        when:
+        AgentOptions.parse("packages=com.acme;package=org.example")
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message.contains("'package'")
+    }
+}
@@ -0,0 +1,61 @@
+package com.acme.clocks;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.function.Supplier;
+
+/**
+ * Application code reading the system clock directly, rewritten by the agent in the tests
+ */
+public class Clocks {
+
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    public Instant instant() {
+        return Instant.now();
+    }
+
+    public LocalDate today() {
+        return LocalDate.now();
+    }
+
+    public LocalDate today(ZoneId zone) {
+        return LocalDate.now(zone);
+    }
+
+    public LocalDateTime now() {
+        return LocalDateTime.now();
+    }
+
+    public LocalDateTime now(ZoneId zone) {
+        return LocalDateTime.now(zone);
+    }
+
+    public Date date() {
+        return new Date();
+    }
+
+    public Date date(long millis) {
+        return new Date(millis);
+    }
+
+    public Supplier<Instant> instantSupplier() {
+        return Instant::now;
+    }
+
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    public static class Timestamp extends Date {
+
+        public Timestamp() {
+            super();
+        }
+    }
+}
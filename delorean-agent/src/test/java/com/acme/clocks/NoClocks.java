@@ -0,0 +1,13 @@
+package com.acme.clocks;
+
+import java.time.Duration;
+
+/**
+ * Application code which does not read the system clock, left untouched by the agent
+ */
+public class NoClocks {
+
+    public long twice(long value) {
+        return Duration.ofMillis(value).multipliedBy(2).toMillis();
+    }
+}
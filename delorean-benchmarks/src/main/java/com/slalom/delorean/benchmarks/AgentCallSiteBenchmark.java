@@ -0,0 +1,85 @@
+package com.slalom.delorean.benchmarks;
+
+import com.slalom.delorean.DateFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the system clock calls the delorean-agent rewrites with the {@link DateFactory} calls it rewrites them to, i.e. the cost a call site pays
+ * once its class has been rewritten.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AgentCallSiteBenchmark {
+
+    @Param
+    public TravelMode travel;
+
+    @Setup
+    public void setup() {
+        travel.apply();
+    }
+
+    @TearDown
+    public void tearDown() {
+        TravelMode.reset();
+    }
+
+    @Benchmark
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Benchmark
+    public long rewrittenCurrentTimeMillis() {
+        return DateFactory.epochMillis();
+    }
+
+    @Benchmark
+    public Instant instantNow() {
+        return Instant.now();
+    }
+
+    @Benchmark
+    public Instant rewrittenInstantNow() {
+        return DateFactory.instant();
+    }
+
+    @Benchmark
+    public LocalDate localDateNow() {
+        return LocalDate.now();
+    }
+
+    @Benchmark
+    public LocalDate rewrittenLocalDateNow() {
+        return DateFactory.today();
+    }
+
+    @Benchmark
+    public Date newDate() {
+        return new Date();
+    }
+
+    @Benchmark
+    public Date rewrittenNewDate() {
+        return new Date(DateFactory.epochMillis());
+    }
+}
@@ -0,0 +1,72 @@
+package com.slalom.delorean.benchmarks;
+
+import com.slalom.delorean.ClockSnapshot;
+import com.slalom.delorean.DateFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures stamping a batch of records with the current epoch millis: once per record through {@link DateFactory}, once per record through a
+ * {@link ClockSnapshot}, and once per batch with {@link DateFactory#fillEpochMillis(long[])}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchStampBenchmark {
+
+    @Param
+    public TravelMode travel;
+
+    @Param({"1024"})
+    public int records;
+
+    private long[] timestamps;
+
+    @Setup
+    public void setup() {
+        travel.apply();
+        timestamps = new long[records];
+    }
+
+    @TearDown
+    public void tearDown() {
+        TravelMode.reset();
+    }
+
+    @Benchmark
+    public long[] perRecord() {
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamps[i] = DateFactory.epochMillis();
+        }
+        return timestamps;
+    }
+
+    @Benchmark
+    public long[] snapshot() {
+        final ClockSnapshot snapshot = DateFactory.clockSnapshot();
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamps[i] = snapshot.epochMillis();
+        }
+        return timestamps;
+    }
+
+    @Benchmark
+    public long[] fill() {
+        DateFactory.fillEpochMillis(timestamps);
+        return timestamps;
+    }
+}
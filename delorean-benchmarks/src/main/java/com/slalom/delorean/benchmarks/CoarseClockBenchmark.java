@@ -0,0 +1,67 @@
+package com.slalom.delorean.benchmarks;
+
+import com.slalom.delorean.CoarseTimeSource;
+import com.slalom.delorean.DateFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading the current time through {@link DateFactory} with the system time source against a {@link CoarseTimeSource} ticking every
+ * millisecond, with time travel applied on top.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CoarseClockBenchmark {
+
+    @Param
+    public TravelMode travel;
+
+    @Param({"false", "true"})
+    public boolean coarse;
+
+    private CoarseTimeSource source;
+
+    @Setup
+    public void setup() {
+        if (coarse) {
+            source = CoarseTimeSource.start(Duration.ofMillis(1));
+            DateFactory.setTimeSource(source);
+        }
+        travel.apply();
+    }
+
+    @TearDown
+    public void tearDown() {
+        TravelMode.reset();
+        if (source != null) {
+            source.close();
+        }
+    }
+
+    @Benchmark
+    public long epochMillis() {
+        return DateFactory.epochMillis();
+    }
+
+    @Benchmark
+    public LocalDateTime now() {
+        return DateFactory.now();
+    }
+}
@@ -0,0 +1,127 @@
+package com.slalom.delorean.benchmarks;
+
+import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties;
+import com.slalom.delorean.interceptors.inbound.InboundRequestInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.util.WebUtils;
+import javax.servlet.http.Cookie;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the inbound time travel date lookup of {@link InboundRequestInterceptor} with the previous implementation ({@link #legacyLookup()}), which
+ * read the cookie through {@link WebUtils#getCookie} and wrapped both the cookie and header values in an {@link Optional}.
+ * <p>
+ * Each request carries {@link #cookies} unrelated cookies. Like a servlet container the request parses its {@code Cookie} header into a
+ * {@link Cookie} array when {@code getCookies()} is first called, so the legacy lookup pays for parsing every cookie.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CookieLookupBenchmark {
+
+    private static final String TEST_DATE = "2015-10-21";
+
+    @Param
+    public InboundRequestInterceptorBenchmark.Source source;
+
+    @Param({"0", "30"})
+    public int cookies;
+
+    private InboundRequestInterceptor interceptor;
+    private MockHttpServletResponse response;
+    private String headerName;
+    private String cookieName;
+    private String cookieHeader;
+
+    @Setup
+    public void setup() {
+        TimeMachineConfigurationProperties properties = new TimeMachineConfigurationProperties();
+        properties.getCookie().setEnabled(true);
+        interceptor = new InboundRequestInterceptor(properties);
+        response = new MockHttpServletResponse();
+        headerName = properties.getHeaderName();
+        cookieName = properties.getCookie().getName();
+
+        StringBuilder header = new StringBuilder();
+        for (int i = 0; i < cookies; i++) {
+            header.append(header.length() == 0 ? "" : "; ").append("cookie").append(i).append("=value").append(i);
+        }
+        if (source == InboundRequestInterceptorBenchmark.Source.COOKIE) {
+            header.append(header.length() == 0 ? "" : "; ").append(cookieName).append('=').append(TEST_DATE);
+        }
+        cookieHeader = header.length() == 0 ? null : header.toString();
+    }
+
+    @Benchmark
+    public boolean preHandle() throws Exception {
+        ContainerRequest request = newRequest();
+        boolean proceed = interceptor.preHandle(request, response, null);
+        interceptor.afterCompletion(request, response, null, null);
+        return proceed;
+    }
+
+    @Benchmark
+    public String legacyLookup() {
+        ContainerRequest request = newRequest();
+        String timeTravelDateString = null;
+        timeTravelDateString = Optional.ofNullable(WebUtils.getCookie(request, cookieName)).map(Cookie::getValue).orElse(timeTravelDateString);
+        return Optional.ofNullable(request.getHeader(headerName)).orElse(timeTravelDateString);
+    }
+
+    //A fresh request per invocation, as the container parses cookies once per request
+    private ContainerRequest newRequest() {
+        ContainerRequest request = new ContainerRequest();
+        if (cookieHeader != null) {
+            request.addHeader("Cookie", cookieHeader);
+        }
+        if (source == InboundRequestInterceptorBenchmark.Source.HEADER) {
+            request.addHeader(headerName, TEST_DATE);
+        }
+        return request;
+    }
+
+    /**
+     * Request which, like a servlet container, lazily parses its {@code Cookie} header into {@link Cookie}s
+     */
+    private static class ContainerRequest extends MockHttpServletRequest {
+        private Cookie[] parsedCookies;
+
+        @Override
+        public Cookie[] getCookies() {
+            if (parsedCookies == null) {
+                parsedCookies = parse(getHeader("Cookie"));
+            }
+            return parsedCookies.length == 0 ? null : parsedCookies;
+        }
+
+        private static Cookie[] parse(String header) {
+            if (header == null) {
+                return new Cookie[0];
+            }
+            List<Cookie> result = new ArrayList<>();
+            for (String pair : header.split(";")) {
+                int separator = pair.indexOf('=');
+                result.add(new Cookie(pair.substring(0, separator).trim(), pair.substring(separator + 1).trim()));
+            }
+            return result.toArray(new Cookie[result.size()]);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.slalom.delorean.benchmarks;
+
+import com.slalom.delorean.DateFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of obtaining the current date/time through {@link DateFactory} with and without a test date set.
+ * <p>
+ * Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm} of the DateFactory benchmarks with their {@code baseline} counterparts, which call
+ * {@code java.time} directly with a pre-built clock. When not time traveling equal values mean DateFactory adds zero bytes per call on top of the
+ * returned value itself, and {@link #timeTraveling()} should report zero bytes per op. With a global test date {@link #timeTraveling()} costs a
+ * ThreadLocal read plus a single volatile read.
+ * <p>
+ * The zone benchmarks read the current date/time in a zone other than the default, {@link #epochMillis()} should report zero bytes per op in every mode.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DateFactoryBenchmark {
+
+    @Param
+    public TravelMode travel;
+
+    private Clock systemClock;
+    private ZoneId zone;
+
+    @Setup
+    public void setup() {
+        travel.apply();
+        systemClock = Clock.systemDefaultZone();
+        zone = ZoneId.of("Asia/Tokyo");
+    }
+
+    @TearDown
+    public void tearDown() {
+        TravelMode.reset();
+    }
+
+    @Benchmark
+    public boolean timeTraveling() {
+        return DateFactory.timeTraveling();
+    }
+
+    @Benchmark
+    public LocalDateTime now() {
+        return DateFactory.now();
+    }
+
+    @Benchmark
+    public LocalDate today() {
+        return DateFactory.today();
+    }
+
+    @Benchmark
+    public String currentDateTimeString() {
+        return DateFactory.currentDateTimeString();
+    }
+
+    @Benchmark
+    public String getTestDateString() {
+        return DateFactory.getTestDateString();
+    }
+
+    @Benchmark
+    public LocalDateTime nowAtZone() {
+        return DateFactory.now(zone);
+    }
+
+    @Benchmark
+    public LocalDate todayAtZone() {
+        return DateFactory.today(zone);
+    }
+
+    @Benchmark
+    public ZonedDateTime currentDateTimeAtZone() {
+        return DateFactory.currentDateTimeAtZone(zone);
+    }
+
+    @Benchmark
+    public long epochMillis() {
+        return DateFactory.epochMillis();
+    }
+
+    @Benchmark
+    public LocalDateTime baselineNow() {
+        return LocalDateTime.now(systemClock);
+    }
+
+    @Benchmark
+    public LocalDate baselineToday() {
+        return LocalDate.now(systemClock);
+    }
+}
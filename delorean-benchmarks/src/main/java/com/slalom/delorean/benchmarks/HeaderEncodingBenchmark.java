@@ -0,0 +1,74 @@
+package com.slalom.delorean.benchmarks;
+
+import com.slalom.delorean.DateFactory;
+import com.slalom.delorean.IsoDateParser;
+import com.slalom.delorean.TimeTravelContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ISO and compact outbound header encodings end to end: a sender encoding the header of a new test date, and a receiver decoding it into a
+ * clock. Both bypass the caches which normally amortize this work (the context's cached value and the inbound parse cache), i.e. this is the cost of a
+ * test date the first time it crosses a hop.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HeaderEncodingBenchmark {
+
+    @Param({"DATE", "DATE_TIME", "OFFSET"})
+    public TravelMode travel;
+
+    private Clock clock;
+    private String iso;
+    private String compact;
+
+    @Setup
+    public void setup() {
+        travel.apply();
+        clock = DateFactory.getTestContext().getClock();
+        iso = TimeTravelContext.of(clock).getHeaderValue();
+        compact = TimeTravelContext.of(clock).getCompactHeaderValue();
+        TravelMode.reset();
+    }
+
+    @TearDown
+    public void tearDown() {
+        TravelMode.reset();
+    }
+
+    @Benchmark
+    public Clock isoEncodeDecode() {
+        return IsoDateParser.parse(TimeTravelContext.of(clock).getHeaderValue()).toClock();
+    }
+
+    @Benchmark
+    public Clock compactEncodeDecode() {
+        return IsoDateParser.parse(TimeTravelContext.of(clock).getCompactHeaderValue()).toClock();
+    }
+
+    @Benchmark
+    public IsoDateParser.Result isoDecode() {
+        return IsoDateParser.parse(iso);
+    }
+
+    @Benchmark
+    public IsoDateParser.Result compactDecode() {
+        return IsoDateParser.parse(compact);
+    }
+}
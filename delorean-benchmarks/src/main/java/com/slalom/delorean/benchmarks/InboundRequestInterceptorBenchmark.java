@@ -0,0 +1,84 @@
+package com.slalom.delorean.benchmarks;
+
+import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties;
+import com.slalom.delorean.interceptors.inbound.InboundRequestInterceptor;
+import com.slalom.delorean.metrics.MicrometerTimeMachineMetrics;
+import com.slalom.delorean.metrics.TimeMachineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import javax.servlet.http.Cookie;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full {@link InboundRequestInterceptor} round trip (preHandle followed by afterCompletion) for requests carrying the time travel date in
+ * a header, in a cookie, or not at all. With {@link #metrics} enabled the interceptor records to a Micrometer {@link SimpleMeterRegistry}, compare
+ * {@code gc.alloc.rate.norm} with and without metrics to verify the instrumentation adds no allocations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InboundRequestInterceptorBenchmark {
+
+    private static final String TEST_DATE = "2015-10-21";
+
+    /**
+     * Where the inbound request carries the time travel date
+     */
+    public enum Source {
+        HEADER, COOKIE, NONE
+    }
+
+    @Param
+    public Source source;
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private InboundRequestInterceptor interceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() {
+        TimeMachineConfigurationProperties properties = new TimeMachineConfigurationProperties();
+        properties.getCookie().setEnabled(true);
+        interceptor = new InboundRequestInterceptor(properties, null,
+                metrics ? new MicrometerTimeMachineMetrics(new SimpleMeterRegistry()) : TimeMachineMetrics.NOOP);
+
+        request = new MockHttpServletRequest("GET", "/");
+        response = new MockHttpServletResponse();
+
+        switch (source) {
+            case HEADER:
+                request.addHeader(properties.getHeaderName(), TEST_DATE);
+                break;
+            case COOKIE:
+                request.setCookies(new Cookie(properties.getCookie().getName(), TEST_DATE));
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Benchmark
+    public boolean preHandle() throws Exception {
+        boolean proceed = interceptor.preHandle(request, response, null);
+        interceptor.afterCompletion(request, response, null, null);
+        return proceed;
+    }
+}
@@ -0,0 +1,138 @@
+package com.slalom.delorean.benchmarks;
+
+import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties;
+import com.slalom.delorean.interceptors.inbound.InboundRequestInterceptor;
+import com.slalom.delorean.interceptors.outbound.ApacheHttpClientOutboundTimeMachineRequestInterceptor;
+import com.slalom.delorean.interceptors.outbound.OkHttp3OutboundTimeMachineRequestInterceptor;
+import com.slalom.delorean.interceptors.outbound.SpringRestTemplateTimeMachineOutboundRequestInterceptor;
+import okhttp3.Request;
+import org.apache.http.message.BasicHttpRequest;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the interceptors switched off at runtime ({@code slalom.delorean.active=false}) with not installing them at all. The {@code notInstalled}
+ * benchmarks do exactly what the client library or servlet container would do without the interceptor. A global test date and a time travel request
+ * header are in place throughout, so any work the switched off interceptors do would show up.
+ * <p>
+ * Run with {@code -prof gc}: each {@code disabled} benchmark should report the same zero bytes per op as its {@code notInstalled} counterpart.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class KillSwitchBenchmark {
+
+    private InboundRequestInterceptor inboundInterceptor;
+    private MockHttpServletRequest inboundRequest;
+    private MockHttpServletResponse inboundResponse;
+
+    private OkHttp3OutboundTimeMachineRequestInterceptor okHttpInterceptor;
+    private RecordingChain okHttpChain;
+
+    private ApacheHttpClientOutboundTimeMachineRequestInterceptor apacheInterceptor;
+    private BasicHttpRequest apacheRequest;
+    private HttpContext apacheContext;
+
+    private SpringRestTemplateTimeMachineOutboundRequestInterceptor restTemplateInterceptor;
+    private MockClientHttpRequest restTemplateRequest;
+    private ClientHttpRequestExecution restTemplateExecution;
+    private byte[] body;
+
+    @Setup
+    public void setup() {
+        TravelMode.GLOBAL_DATE.apply();
+
+        TimeMachineConfigurationProperties properties = new TimeMachineConfigurationProperties();
+        properties.setActive(false);
+
+        inboundInterceptor = new InboundRequestInterceptor(properties);
+        inboundRequest = new MockHttpServletRequest("GET", "/");
+        inboundRequest.addHeader(properties.getHeaderName(), "2015-10-21");
+        inboundResponse = new MockHttpServletResponse();
+
+        okHttpInterceptor = new OkHttp3OutboundTimeMachineRequestInterceptor(properties);
+        okHttpChain = new RecordingChain(new Request.Builder().url("http://localhost/").build());
+
+        apacheInterceptor = new ApacheHttpClientOutboundTimeMachineRequestInterceptor(properties);
+        apacheRequest = new BasicHttpRequest("GET", "/");
+        apacheContext = new BasicHttpContext();
+
+        restTemplateInterceptor = new SpringRestTemplateTimeMachineOutboundRequestInterceptor(properties);
+        restTemplateRequest = new MockClientHttpRequest(HttpMethod.GET, URI.create("http://localhost/"));
+        restTemplateExecution = (request, requestBody) -> null;
+        body = new byte[0];
+    }
+
+    @TearDown
+    public void tearDown() {
+        TravelMode.reset();
+    }
+
+    @Benchmark
+    public boolean inboundNotInstalled() {
+        return true;
+    }
+
+    @Benchmark
+    public boolean inboundDisabled() throws Exception {
+        boolean proceed = inboundInterceptor.preHandle(inboundRequest, inboundResponse, null);
+        inboundInterceptor.afterCompletion(inboundRequest, inboundResponse, null, null);
+        return proceed;
+    }
+
+    @Benchmark
+    public Request okHttp3NotInstalled() {
+        okHttpChain.proceed(okHttpChain.request());
+        return okHttpChain.proceeded;
+    }
+
+    @Benchmark
+    public Request okHttp3Disabled() throws IOException {
+        okHttpInterceptor.intercept(okHttpChain);
+        return okHttpChain.proceeded;
+    }
+
+    @Benchmark
+    public BasicHttpRequest apacheHttpClientNotInstalled() {
+        return apacheRequest;
+    }
+
+    @Benchmark
+    public BasicHttpRequest apacheHttpClientDisabled() {
+        apacheInterceptor.process(apacheRequest, apacheContext);
+        return apacheRequest;
+    }
+
+    @Benchmark
+    public ClientHttpResponse restTemplateNotInstalled() throws IOException {
+        return restTemplateExecution.execute(restTemplateRequest, body);
+    }
+
+    @Benchmark
+    public ClientHttpResponse restTemplateDisabled() throws IOException {
+        return restTemplateInterceptor.intercept(restTemplateRequest, body, restTemplateExecution);
+    }
+}
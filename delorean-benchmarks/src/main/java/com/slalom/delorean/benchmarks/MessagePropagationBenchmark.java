@@ -0,0 +1,72 @@
+package com.slalom.delorean.benchmarks;
+
+import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties;
+import com.slalom.delorean.DateFactory;
+import com.slalom.delorean.interceptors.inbound.KafkaTimeMachineRecordHandler;
+import com.slalom.delorean.interceptors.outbound.KafkaProducerTimeMachineInterceptor;
+import com.slalom.delorean.propagation.TimeTravelPropagator;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per message cost of propagating the time travel date through Kafka record headers: the producer interceptor adding the header to a new
+ * record, and the record handler extracting it and time traveling around a no-op delegate. The records built include Kafka's own header allocations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MessagePropagationBenchmark {
+
+    @Param
+    public TravelMode travel;
+
+    private KafkaProducerTimeMachineInterceptor<String, String> interceptor;
+    private KafkaTimeMachineRecordHandler<String, String> handler;
+    private ConsumerRecord<String, String> consumed;
+    private Blackhole blackhole;
+
+    @Setup
+    public void setup(final Blackhole blackhole) {
+        this.blackhole = blackhole;
+        final TimeTravelPropagator propagator = new TimeTravelPropagator(new TimeMachineConfigurationProperties());
+        interceptor = new KafkaProducerTimeMachineInterceptor<>(propagator);
+        handler = new KafkaTimeMachineRecordHandler<>(propagator, record -> this.blackhole.consume(DateFactory.epochMillis()));
+
+        travel.apply();
+        final ProducerRecord<String, String> sent = interceptor.onSend(new ProducerRecord<>("orders", "key", "value"));
+        consumed = new ConsumerRecord<>("orders", 0, 0L, "key", "value");
+        sent.headers().forEach(header -> consumed.headers().add(header));
+    }
+
+    @TearDown
+    public void tearDown() {
+        TravelMode.reset();
+    }
+
+    @Benchmark
+    public ProducerRecord<String, String> send() {
+        return interceptor.onSend(new ProducerRecord<>("orders", "key", "value"));
+    }
+
+    @Benchmark
+    public void consume() {
+        handler.accept(consumed);
+    }
+}
@@ -0,0 +1,104 @@
+package com.slalom.delorean.benchmarks;
+
+import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties;
+import com.slalom.delorean.interceptors.outbound.ApacheHttpClientOutboundTimeMachineRequestInterceptor;
+import com.slalom.delorean.interceptors.outbound.OkHttp3OutboundTimeMachineRequestInterceptor;
+import com.slalom.delorean.interceptors.outbound.SpringRestTemplateTimeMachineOutboundRequestInterceptor;
+import okhttp3.Request;
+import org.apache.http.message.BasicHttpRequest;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of the OkHttp3, Apache HttpClient and RestTemplate outbound interceptors injecting (or skipping) the Time Machine header.
+ * Requests are reused across invocations, so reported allocations are those made by the interceptors and the client libraries' header handling.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OutboundRequestInterceptorBenchmark {
+
+    @Param
+    public TravelMode travel;
+
+    private String headerName;
+
+    private OkHttp3OutboundTimeMachineRequestInterceptor okHttpInterceptor;
+    private RecordingChain okHttpChain;
+
+    private ApacheHttpClientOutboundTimeMachineRequestInterceptor apacheInterceptor;
+    private BasicHttpRequest apacheRequest;
+    private HttpContext apacheContext;
+
+    private SpringRestTemplateTimeMachineOutboundRequestInterceptor restTemplateInterceptor;
+    private MockClientHttpRequest restTemplateRequest;
+    private ClientHttpRequestExecution restTemplateExecution;
+    private byte[] body;
+
+    @Setup
+    public void setup() {
+        travel.apply();
+
+        TimeMachineConfigurationProperties properties = new TimeMachineConfigurationProperties();
+        headerName = properties.getOutboundRequestHeader().getName();
+
+        okHttpInterceptor = new OkHttp3OutboundTimeMachineRequestInterceptor(properties);
+        okHttpChain = new RecordingChain(new Request.Builder().url("http://localhost/").build());
+
+        apacheInterceptor = new ApacheHttpClientOutboundTimeMachineRequestInterceptor(properties);
+        apacheRequest = new BasicHttpRequest("GET", "/");
+        apacheContext = new BasicHttpContext();
+
+        restTemplateInterceptor = new SpringRestTemplateTimeMachineOutboundRequestInterceptor(properties);
+        restTemplateRequest = new MockClientHttpRequest(HttpMethod.GET, URI.create("http://localhost/"));
+        restTemplateExecution = (request, requestBody) -> null;
+        body = new byte[0];
+    }
+
+    @TearDown
+    public void tearDown() {
+        TravelMode.reset();
+    }
+
+    @Benchmark
+    public void okHttp3(Blackhole blackhole) throws IOException {
+        okHttpInterceptor.intercept(okHttpChain);
+        blackhole.consume(okHttpChain.proceeded);
+    }
+
+    @Benchmark
+    public void apacheHttpClient(Blackhole blackhole) {
+        apacheInterceptor.process(apacheRequest, apacheContext);
+        blackhole.consume(apacheRequest.getFirstHeader(headerName));
+        apacheRequest.removeHeaders(headerName);
+    }
+
+    @Benchmark
+    public void restTemplate(Blackhole blackhole) throws IOException {
+        restTemplateInterceptor.intercept(restTemplateRequest, body, restTemplateExecution);
+        blackhole.consume(restTemplateRequest.getHeaders().getFirst(headerName));
+        restTemplateRequest.getHeaders().remove(headerName);
+    }
+}
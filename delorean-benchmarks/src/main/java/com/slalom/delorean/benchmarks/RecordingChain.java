@@ -0,0 +1,34 @@
+package com.slalom.delorean.benchmarks;
+
+import okhttp3.Connection;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Minimal OkHttp3 chain which records the request passed on by the interceptor rather than executing it
+ */
+final class RecordingChain implements Interceptor.Chain {
+    private final Request request;
+    Request proceeded;
+
+    RecordingChain(final Request request) {
+        this.request = request;
+    }
+
+    @Override
+    public Request request() {
+        return request;
+    }
+
+    @Override
+    public Response proceed(final Request request) {
+        this.proceeded = request;
+        return null;
+    }
+
+    @Override
+    public Connection connection() {
+        return null;
+    }
+}
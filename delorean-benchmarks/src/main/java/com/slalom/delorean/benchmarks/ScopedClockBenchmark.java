@@ -0,0 +1,63 @@
+package com.slalom.delorean.benchmarks;
+
+import com.slalom.delorean.DateFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures scoping a test clock to a unit of work with {@link DateFactory#runAt(Clock, Runnable)}, and the cost of spawning a thread while time
+ * traveling - which includes copying the inheritable test date to the new thread.
+ * <p>
+ * Run the spawn benchmark with {@code -jvmArgsAppend -Dcom.slalom.delorean.inheritable=false} to compare against a non-inheritable test date.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScopedClockBenchmark {
+
+    @Param
+    public TravelMode travel;
+
+    private Clock scopedClock;
+    private Runnable task;
+
+    @Setup
+    public void setup() {
+        travel.apply();
+        scopedClock = DateFactory.clockFor(LocalDate.of(1955, 11, 5));
+        task = DateFactory::today;
+    }
+
+    @TearDown
+    public void tearDown() {
+        TravelMode.reset();
+    }
+
+    @Benchmark
+    public void runAt() {
+        DateFactory.runAt(scopedClock, task);
+    }
+
+    @Benchmark
+    public void spawnThread() throws InterruptedException {
+        Thread thread = new Thread(task);
+        thread.start();
+        thread.join();
+    }
+}
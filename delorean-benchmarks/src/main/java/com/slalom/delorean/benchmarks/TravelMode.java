@@ -0,0 +1,90 @@
+package com.slalom.delorean.benchmarks;
+
+import com.slalom.delorean.DateFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The time travel states benchmarks are parameterized over
+ */
+public enum TravelMode {
+
+    /**
+     * No test date set - DateFactory uses the system clock
+     */
+    NONE {
+        @Override
+        public void apply() {
+            reset();
+        }
+    },
+
+    /**
+     * Time traveling to a fixed date with the time portion sourced from the system clock
+     */
+    DATE {
+        @Override
+        public void apply() {
+            reset();
+            DateFactory.setTestDate(LocalDate.of(2015, 10, 21));
+        }
+    },
+
+    /**
+     * Time traveling to a fixed instant
+     */
+    DATE_TIME {
+        @Override
+        public void apply() {
+            reset();
+            DateFactory.setTestDate(LocalDateTime.of(2015, 10, 21, 16, 29));
+        }
+    },
+
+    /**
+     * Time traveling to a fixed date set globally rather than on the benchmark thread
+     */
+    GLOBAL_DATE {
+        @Override
+        public void apply() {
+            reset();
+            DateFactory.setGlobalTestDate(LocalDate.of(2015, 10, 21));
+        }
+    },
+
+    /**
+     * Time traveling three days ahead of the system clock
+     */
+    OFFSET {
+        @Override
+        public void apply() {
+            reset();
+            DateFactory.setTestClock(DateFactory.offsetClock(Duration.ofDays(3)));
+        }
+    },
+
+    /**
+     * Time traveling from a fixed date/time at 60 times real time
+     */
+    SCALED {
+        @Override
+        public void apply() {
+            reset();
+            DateFactory.setTestClock(DateFactory.scaledClock(60, LocalDateTime.of(2015, 10, 21, 16, 29)));
+        }
+    };
+
+    /**
+     * Configures DateFactory for this mode on the calling thread
+     */
+    public abstract void apply();
+
+    /**
+     * Clears any test date set on the calling thread or globally
+     */
+    public static void reset() {
+        DateFactory.clearTestDate();
+        DateFactory.clearGlobalTestDate();
+    }
+}
@@ -1,8 +1,10 @@
 package com.slalom.autoconfiguration.delorean;
 
 import com.slalom.delorean.interceptors.outbound.ApacheHttpClientOutboundTimeMachineRequestInterceptor;
+import com.slalom.delorean.metrics.TimeMachineMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -26,9 +28,9 @@ public class TimeMachineApacheHttpClientAutoConfiguration {
 
     @Bean
     @ConditionalOnProperty(prefix = "slalom.delorean.outboundRequestHeader", name = "enabled", havingValue = "true", matchIfMissing = true)
-    public ApacheHttpClientOutboundTimeMachineRequestInterceptor deLoreanApacheHttpClientRequestInterceptor() {
+    public ApacheHttpClientOutboundTimeMachineRequestInterceptor deLoreanApacheHttpClientRequestInterceptor(ObjectProvider<TimeMachineMetrics> metrics) {
         log.trace("Adding ApacheHttpClientOutboundRequestInterceptor to context");
-        return new ApacheHttpClientOutboundTimeMachineRequestInterceptor(properties);
+        return new ApacheHttpClientOutboundTimeMachineRequestInterceptor(properties, TimeMachineAutoConfiguration.metricsOrNoop(metrics));
     }
 
 }
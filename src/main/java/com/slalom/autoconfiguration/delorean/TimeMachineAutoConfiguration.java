@@ -1,19 +1,37 @@
 package com.slalom.autoconfiguration.delorean;
 
+import com.slalom.delorean.cluster.SharedFileTimeTravelBroadcaster;
+import com.slalom.delorean.cluster.TimeTravelBroadcaster;
+import com.slalom.delorean.cluster.TimeTravelCluster;
+import com.slalom.delorean.concurrent.TimeTravelScheduler;
+import com.slalom.delorean.concurrent.TimeTravelTaskDecorator;
+import com.slalom.delorean.concurrent.TimeTravelTaskExecutorPostProcessor;
 import com.slalom.delorean.interceptors.inbound.InboundRequestInterceptor;
+import com.slalom.delorean.interceptors.inbound.InboundTimeTravelFilter;
+import com.slalom.delorean.interceptors.inbound.TenantKeyExtractor;
+import com.slalom.delorean.metrics.TimeMachineMetrics;
+import com.slalom.delorean.session.InMemoryTimeTravelSessionStore;
+import com.slalom.delorean.session.TimeTravelSessionStore;
+import com.slalom.delorean.spring.boot.clock.CoarseClockLifecycle;
 import com.slalom.delorean.spring.boot.controller.TimeMachineController;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+import javax.servlet.DispatcherType;
+import java.nio.file.Paths;
+import java.time.Duration;
 
 @Configuration
 @ConditionalOnWebApplication
@@ -30,35 +48,140 @@ public class TimeMachineAutoConfiguration {
         this.properties = properties;
     }
 
-    //Enable setting test time based on inbound request headers
-    @Bean
-    @ConditionalOnProperty(prefix = "slalom.delorean.inboundRequestHeader", name = "enabled", havingValue = "true", matchIfMissing = true)
-    public InboundRequestInterceptor deLoreanInboundRequestInterceptor() {
-        log.info("slalom.delorean.inboundRequestHeader set to true - adding InboundRequestInterceptor to context");
-        return new InboundRequestInterceptor(properties);
+    //Prefer an application provided TenantKeyExtractor, else fall back to the configured tenant header (if any)
+    private static TenantKeyExtractor resolveTenantKeyExtractor(TimeMachineConfigurationProperties properties, TenantKeyExtractor tenantKeyExtractor) {
+        if (tenantKeyExtractor != null) {
+            return tenantKeyExtractor;
+        }
+        return properties.getTenantHeaderName() == null ? null : TenantKeyExtractor.fromHeader(properties.getTenantHeaderName());
+    }
+
+    //Record metrics when a TimeMachineMetrics bean (e.g. from TimeMachineMetricsAutoConfiguration) is available
+    static TimeMachineMetrics metricsOrNoop(ObjectProvider<TimeMachineMetrics> metrics) {
+        TimeMachineMetrics available = metrics.getIfAvailable();
+        return available == null ? TimeMachineMetrics.NOOP : available;
     }
 
     //If setting DateFactory via a cookie is desired inject a Controller to allow it
     @Bean
     @ConditionalOnProperty(prefix = "slalom.delorean.cookie", name = "enabled", havingValue = "true", matchIfMissing = false)
-    public TimeMachineController timeMachineController() {
+    public TimeMachineController timeMachineController(ObjectProvider<TimeTravelSessionStore> sessionStore) {
         log.info("Registering TimeMachineController");
-        return new TimeMachineController(properties);
+        return new TimeMachineController(properties, sessionStore.getIfAvailable());
+    }
+
+    //Issue session tokens as the Time Machine cookie, unless the application provides its own (e.g. shared) store
+    @Bean
+    @ConditionalOnProperty(prefix = "slalom.delorean.session", name = "enabled", havingValue = "true")
+    @ConditionalOnMissingBean
+    public TimeTravelSessionStore deLoreanSessionStore() {
+        log.info("Registering InMemoryTimeTravelSessionStore");
+        return new InMemoryTimeTravelSessionStore(Duration.ofMillis(properties.getSession().getTtlMillis()), properties.getSession().getMaxSessions());
     }
 
+    //Propagate the time travel date to tasks handed to Spring TaskExecutors (e.g. @Async methods)
+    @Bean
+    public TimeTravelTaskDecorator deLoreanTaskDecorator() {
+        return new TimeTravelTaskDecorator();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "slalom.delorean.taskExecutor", name = "decorate", havingValue = "true", matchIfMissing = true)
+    public static TimeTravelTaskExecutorPostProcessor deLoreanTaskExecutorPostProcessor() {
+        log.info("Registering TimeTravelTaskDecorator with ThreadPoolTaskExecutors");
+        return new TimeTravelTaskExecutorPostProcessor(new TimeTravelTaskDecorator());
+    }
+
+    //Serve DateFactory reads from a cached system time, refreshed by a ticker thread which runs while the context is running
+    @Bean
+    @ConditionalOnProperty(prefix = "slalom.delorean.coarseClock", name = "enabled", havingValue = "true")
+    public CoarseClockLifecycle deLoreanCoarseClock() {
+        return new CoarseClockLifecycle(Duration.ofMillis(properties.getCoarseClock().getResolutionMillis()));
+    }
+
+    //Schedule @Scheduled methods and other TaskScheduler tasks against the DateFactory clock, unless the application defines its own taskScheduler
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(prefix = "slalom.delorean.scheduler", name = "enabled", havingValue = "true")
+    @ConditionalOnMissingBean(name = "taskScheduler")
+    public TimeTravelScheduler taskScheduler() {
+        log.info("Registering TimeTravelScheduler as the taskScheduler");
+        return new TimeTravelScheduler(properties.getScheduler().getPoolSize(), Duration.ofMillis(properties.getScheduler().getMaxWaitMillis()));
+    }
+
+    //Exchange global test dates with the other nodes through a shared file, unless the application provides its own channel
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "slalom.delorean.cluster", name = "enabled", havingValue = "true")
+    @ConditionalOnMissingBean
+    public TimeTravelBroadcaster deLoreanBroadcaster() {
+        if (properties.getCluster().getFile() == null) {
+            throw new IllegalStateException("slalom.delorean.cluster.file must be set when slalom.delorean.cluster.enabled is true");
+        }
+        log.info("Exchanging global test dates through {}", properties.getCluster().getFile());
+        return new SharedFileTimeTravelBroadcaster(Paths.get(properties.getCluster().getFile()),
+                Duration.ofMillis(properties.getCluster().getPollIntervalMillis()));
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "slalom.delorean.cluster", name = "enabled", havingValue = "true")
+    public TimeTravelCluster deLoreanCluster(TimeTravelBroadcaster deLoreanBroadcaster) {
+        return new TimeTravelCluster(properties.getCluster().getNodeId(), deLoreanBroadcaster);
+    }
+
+    //Enable setting test time based on inbound request headers
     @Configuration
-    protected static class TimeMachineMvcConfiguration extends WebMvcConfigurerAdapter {
+    @ConditionalOnProperty(prefix = "slalom.delorean.inboundRequestHeader", name = "enabled", havingValue = "true", matchIfMissing = true)
+    protected static class TimeMachineInboundConfiguration {
+
+        //Enable setting test time based on inbound request headers via a Spring MVC HandlerInterceptor (default)
+        @Configuration
+        @ConditionalOnProperty(prefix = "slalom.delorean", name = "inboundMode", havingValue = "interceptor", matchIfMissing = true)
+        protected static class TimeMachineInterceptorConfiguration {
+
+            @Bean
+            public InboundRequestInterceptor deLoreanInboundRequestInterceptor(TimeMachineConfigurationProperties properties,
+                    ObjectProvider<TenantKeyExtractor> tenantKeyExtractor, ObjectProvider<TimeMachineMetrics> metrics,
+                    ObjectProvider<TimeTravelSessionStore> sessionStore) {
+                log.info("slalom.delorean.inboundRequestHeader set to true - adding InboundRequestInterceptor to context");
+                return new InboundRequestInterceptor(properties, resolveTenantKeyExtractor(properties, tenantKeyExtractor.getIfAvailable()),
+                        metricsOrNoop(metrics), sessionStore.getIfAvailable());
+            }
 
-        private InboundRequestInterceptor timeMachineRequestInterceptor;
+            @Configuration
+            protected static class TimeMachineMvcConfiguration extends WebMvcConfigurerAdapter {
 
-        protected TimeMachineMvcConfiguration(@Autowired InboundRequestInterceptor deLoreanInboundRequestInterceptor) {
-            this.timeMachineRequestInterceptor = deLoreanInboundRequestInterceptor;
+                private InboundRequestInterceptor timeMachineRequestInterceptor;
+
+                protected TimeMachineMvcConfiguration(@Autowired InboundRequestInterceptor deLoreanInboundRequestInterceptor) {
+                    this.timeMachineRequestInterceptor = deLoreanInboundRequestInterceptor;
+                }
+
+                @Override
+                public void addInterceptors(InterceptorRegistry registry) {
+                    log.debug("Registering TimeMachineRequestInterceptor with WebMvcConfiguration");
+                    registry.addInterceptor(this.timeMachineRequestInterceptor);
+                }
+            }
         }
 
-        @Override
-        public void addInterceptors(InterceptorRegistry registry) {
-            log.debug("Registering TimeMachineRequestInterceptor with WebMvcConfiguration");
-            registry.addInterceptor(this.timeMachineRequestInterceptor);
+        //Enable setting test time based on inbound request headers via a Servlet Filter, covering requests which never reach Spring MVC
+        @Configuration
+        @ConditionalOnProperty(prefix = "slalom.delorean", name = "inboundMode", havingValue = "filter")
+        protected static class TimeMachineFilterConfiguration {
+
+            @Bean
+            public FilterRegistrationBean deLoreanInboundTimeTravelFilter(TimeMachineConfigurationProperties properties,
+                    ObjectProvider<TenantKeyExtractor> tenantKeyExtractor, ObjectProvider<TimeMachineMetrics> metrics,
+                    ObjectProvider<TimeTravelSessionStore> sessionStore) {
+                log.info("slalom.delorean.inboundMode set to filter - adding InboundTimeTravelFilter to context");
+                InboundTimeTravelFilter filter = new InboundTimeTravelFilter(properties,
+                        resolveTenantKeyExtractor(properties, tenantKeyExtractor.getIfAvailable()), metricsOrNoop(metrics),
+                        sessionStore.getIfAvailable());
+
+                FilterRegistrationBean registration = new FilterRegistrationBean(filter);
+                registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC, DispatcherType.ERROR);
+                registration.setOrder(filter.getOrder());
+                return registration;
+            }
         }
     }
 
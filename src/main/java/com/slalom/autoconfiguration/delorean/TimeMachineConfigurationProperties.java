@@ -1,6 +1,8 @@
 package com.slalom.autoconfiguration.delorean;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.Ordered;
+import java.lang.management.ManagementFactory;
 
 @ConfigurationProperties(prefix = "slalom.delorean")
 public class TimeMachineConfigurationProperties {
@@ -8,12 +10,60 @@ public class TimeMachineConfigurationProperties {
     private static final String TIME_MACHINE_HEADER = "X-Delorean-Time-Machine";
     private static final String TIME_MACHINE_COOKIE = "Delorean-Time-Machine";
     private static final String PATH = "time-machine";
+    private static final int PARSE_CACHE_SIZE = 256;
+    private static final int FILTER_ORDER = Ordered.HIGHEST_PRECEDENCE + 10;
+    private static final long COARSE_CLOCK_RESOLUTION_MILLIS = 1L;
+    private static final long SCHEDULER_MAX_WAIT_MILLIS = 1000L;
+    private static final long SESSION_TTL_MILLIS = 60 * 60 * 1000L;
+    private static final int MAX_SESSIONS = 10_000;
+    private static final long CLUSTER_POLL_INTERVAL_MILLIS = 50L;
+
+    /**
+     * How inbound requests are processed
+     */
+    public enum InboundMode {
+        /**
+         * Spring MVC HandlerInterceptor, only requests dispatched to an MVC handler time travel
+         */
+        INTERCEPTOR,
+
+        /**
+         * Servlet Filter ahead of the DispatcherServlet, all requests (including static resources, error and async dispatches) time travel
+         */
+        FILTER
+    }
+
+    /**
+     * How outbound requests carry the time travel date/time
+     */
+    public enum HeaderEncoding {
+        /**
+         * ISO formatted dates, date/times and time warp specifications, understood by every Delorean version
+         */
+        ISO,
+
+        /**
+         * Base 36 epoch days, seconds and offsets (e.g. {@code ~dcyp}), only understood by Delorean versions which support the compact encoding
+         */
+        COMPACT
+    }
 
     private boolean enabled = true;
+    //Runtime kill switch read by the interceptors on every request, see setActive(boolean)
+    private volatile boolean active = true;
     private String headerName = TIME_MACHINE_HEADER;
+    private int parseCacheSize = PARSE_CACHE_SIZE;
+    private String tenantHeaderName;
+    private InboundMode inboundMode = InboundMode.INTERCEPTOR;
+    private int filterOrder = FILTER_ORDER;
 
     private final OutboundHeader outboundRequestHeader = new OutboundHeader();
     private final CookieTestDateProvider cookie = new CookieTestDateProvider();
+    private final TaskExecutorPropagation taskExecutor = new TaskExecutorPropagation();
+    private final CoarseClock coarseClock = new CoarseClock();
+    private final Scheduler scheduler = new Scheduler();
+    private final Session session = new Session();
+    private final Cluster cluster = new Cluster();
 
     public boolean isEnabled() {
         return enabled;
@@ -21,6 +71,26 @@ public class TimeMachineConfigurationProperties {
 
     public void setEnabled(final boolean enabled) {
         this.enabled = enabled;
+        if (!enabled) {
+            this.active = false;
+        }
+    }
+
+    /**
+     * @return True if the inbound and outbound interceptors should currently process requests, else false
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Switches the inbound and outbound interceptors on or off at runtime. While inactive they pass requests straight through without reading any
+     * request headers or cookies. Initially active unless Delorean is disabled.
+     *
+     * @param active Whether the interceptors should process requests
+     */
+    public void setActive(final boolean active) {
+        this.active = active;
     }
 
     public String getHeaderName() {
@@ -31,6 +101,38 @@ public class TimeMachineConfigurationProperties {
         this.headerName = headerName;
     }
 
+    public int getParseCacheSize() {
+        return parseCacheSize;
+    }
+
+    public void setParseCacheSize(final int parseCacheSize) {
+        this.parseCacheSize = parseCacheSize;
+    }
+
+    public String getTenantHeaderName() {
+        return tenantHeaderName;
+    }
+
+    public void setTenantHeaderName(final String tenantHeaderName) {
+        this.tenantHeaderName = tenantHeaderName;
+    }
+
+    public InboundMode getInboundMode() {
+        return inboundMode;
+    }
+
+    public void setInboundMode(final InboundMode inboundMode) {
+        this.inboundMode = inboundMode;
+    }
+
+    public int getFilterOrder() {
+        return filterOrder;
+    }
+
+    public void setFilterOrder(final int filterOrder) {
+        this.filterOrder = filterOrder;
+    }
+
     public OutboundHeader getOutboundRequestHeader() {
         return outboundRequestHeader;
     }
@@ -39,9 +141,30 @@ public class TimeMachineConfigurationProperties {
         return cookie;
     }
 
+    public TaskExecutorPropagation getTaskExecutor() {
+        return taskExecutor;
+    }
+
+    public CoarseClock getCoarseClock() {
+        return coarseClock;
+    }
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    public Session getSession() {
+        return session;
+    }
+
+    public Cluster getCluster() {
+        return cluster;
+    }
+
     public static class OutboundHeader {
         private boolean enabled = true;
         private String name = TIME_MACHINE_HEADER;
+        private HeaderEncoding encoding = HeaderEncoding.ISO;
 
         public boolean isEnabled() {
             return enabled;
@@ -58,6 +181,14 @@ public class TimeMachineConfigurationProperties {
         public void setName(final String name) {
             this.name = name;
         }
+
+        public HeaderEncoding getEncoding() {
+            return encoding;
+        }
+
+        public void setEncoding(final HeaderEncoding encoding) {
+            this.encoding = encoding;
+        }
     }
 
     public static class CookieTestDateProvider {
@@ -89,4 +220,150 @@ public class TimeMachineConfigurationProperties {
             this.path = path;
         }
     }
+
+    public static class TaskExecutorPropagation {
+        private boolean decorate = true;
+
+        public boolean isDecorate() {
+            return decorate;
+        }
+
+        public void setDecorate(final boolean decorate) {
+            this.decorate = decorate;
+        }
+    }
+
+    /**
+     * Serve DateFactory reads from a cached system time refreshed by a background thread, see {@link com.slalom.delorean.CoarseTimeSource}
+     */
+    public static class CoarseClock {
+        private boolean enabled = false;
+        private long resolutionMillis = COARSE_CLOCK_RESOLUTION_MILLIS;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getResolutionMillis() {
+            return resolutionMillis;
+        }
+
+        public void setResolutionMillis(final long resolutionMillis) {
+            this.resolutionMillis = resolutionMillis;
+        }
+    }
+
+    /**
+     * Register a {@link com.slalom.delorean.concurrent.TimeTravelScheduler} as the application's {@code taskScheduler}
+     */
+    public static class Scheduler {
+        private boolean enabled = false;
+        private int poolSize = Runtime.getRuntime().availableProcessors();
+        private long maxWaitMillis = SCHEDULER_MAX_WAIT_MILLIS;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(final int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public long getMaxWaitMillis() {
+            return maxWaitMillis;
+        }
+
+        public void setMaxWaitMillis(final long maxWaitMillis) {
+            this.maxWaitMillis = maxWaitMillis;
+        }
+    }
+
+    /**
+     * Issue opaque session tokens rather than the test date itself as the Time Machine cookie, see
+     * {@link com.slalom.delorean.session.TimeTravelSessionStore}
+     */
+    public static class Session {
+        private boolean enabled = false;
+        private long ttlMillis = SESSION_TTL_MILLIS;
+        private int maxSessions = MAX_SESSIONS;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getTtlMillis() {
+            return ttlMillis;
+        }
+
+        public void setTtlMillis(final long ttlMillis) {
+            this.ttlMillis = ttlMillis;
+        }
+
+        public int getMaxSessions() {
+            return maxSessions;
+        }
+
+        public void setMaxSessions(final int maxSessions) {
+            this.maxSessions = maxSessions;
+        }
+    }
+
+    /**
+     * Keep the global test date of every node in step, see {@link com.slalom.delorean.cluster.TimeTravelCluster}
+     */
+    public static class Cluster {
+        private boolean enabled = false;
+        private String file;
+        private long pollIntervalMillis = CLUSTER_POLL_INTERVAL_MILLIS;
+        //The JVM's name is pid@host, unique per process
+        private String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public void setFile(final String file) {
+            this.file = file;
+        }
+
+        public long getPollIntervalMillis() {
+            return pollIntervalMillis;
+        }
+
+        public void setPollIntervalMillis(final long pollIntervalMillis) {
+            this.pollIntervalMillis = pollIntervalMillis;
+        }
+
+        public String getNodeId() {
+            return nodeId;
+        }
+
+        public void setNodeId(final String nodeId) {
+            this.nodeId = nodeId;
+        }
+    }
 }
@@ -0,0 +1,51 @@
+package com.slalom.autoconfiguration.delorean;
+
+import com.slalom.delorean.cluster.TimeTravelCluster;
+import com.slalom.delorean.session.TimeTravelSessionStore;
+import com.slalom.delorean.spring.boot.endpoint.TimeMachineEndpoint;
+import com.slalom.delorean.spring.boot.endpoint.TimeMachineMvcEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.Endpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(TimeMachineConfigurationProperties.class)
+@ConditionalOnProperty(prefix = "slalom.delorean", name = "enabled", havingValue = "true")
+@ConditionalOnClass(Endpoint.class)
+public class TimeMachineEndpointAutoConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(TimeMachineEndpointAutoConfiguration.class);
+
+    private final TimeMachineConfigurationProperties properties;
+
+    public TimeMachineEndpointAutoConfiguration(@Autowired TimeMachineConfigurationProperties properties) {
+        this.properties = properties;
+    }
+
+    //Report, and allow switching, whether the interceptors are active via the /delorean actuator endpoint, as well as listing and revoking sessions
+    //and setting the cluster wide global test date
+    @Bean
+    @ConditionalOnMissingBean
+    public TimeMachineEndpoint deLoreanEndpoint(ObjectProvider<TimeTravelSessionStore> sessionStore, ObjectProvider<TimeTravelCluster> cluster) {
+        log.trace("Adding TimeMachineEndpoint to context");
+        return new TimeMachineEndpoint(properties, sessionStore.getIfAvailable(), cluster.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnWebApplication
+    @ConditionalOnBean(TimeMachineEndpoint.class)
+    public TimeMachineMvcEndpoint deLoreanMvcEndpoint(TimeMachineEndpoint deLoreanEndpoint) {
+        return new TimeMachineMvcEndpoint(deLoreanEndpoint);
+    }
+}
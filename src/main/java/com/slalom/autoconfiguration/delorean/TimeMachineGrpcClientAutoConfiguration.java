@@ -0,0 +1,28 @@
+package com.slalom.autoconfiguration.delorean;
+
+import com.slalom.delorean.interceptors.outbound.GrpcClientTimeMachineInterceptor;
+import com.slalom.delorean.propagation.TimeTravelPropagator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "slalom.delorean", name = "enabled", havingValue = "true")
+@ConditionalOnClass(io.grpc.ClientInterceptor.class)
+@AutoConfigureAfter(TimeMachinePropagationAutoConfiguration.class)
+public class TimeMachineGrpcClientAutoConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(TimeMachineGrpcClientAutoConfiguration.class);
+
+    @Bean
+    @ConditionalOnProperty(prefix = "slalom.delorean.outboundRequestHeader", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public GrpcClientTimeMachineInterceptor deLoreanGrpcClientInterceptor(TimeTravelPropagator deLoreanTimeTravelPropagator) {
+        log.trace("Adding GrpcClientTimeMachineInterceptor to context");
+        return new GrpcClientTimeMachineInterceptor(deLoreanTimeTravelPropagator);
+    }
+
+}
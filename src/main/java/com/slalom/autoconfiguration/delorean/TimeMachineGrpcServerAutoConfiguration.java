@@ -0,0 +1,28 @@
+package com.slalom.autoconfiguration.delorean;
+
+import com.slalom.delorean.interceptors.inbound.GrpcServerTimeMachineInterceptor;
+import com.slalom.delorean.propagation.TimeTravelPropagator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "slalom.delorean", name = "enabled", havingValue = "true")
+@ConditionalOnClass(io.grpc.ServerInterceptor.class)
+@AutoConfigureAfter(TimeMachinePropagationAutoConfiguration.class)
+public class TimeMachineGrpcServerAutoConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(TimeMachineGrpcServerAutoConfiguration.class);
+
+    @Bean
+    @ConditionalOnProperty(prefix = "slalom.delorean.inboundRequestHeader", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public GrpcServerTimeMachineInterceptor deLoreanGrpcServerInterceptor(TimeTravelPropagator deLoreanTimeTravelPropagator) {
+        log.trace("Adding GrpcServerTimeMachineInterceptor to context");
+        return new GrpcServerTimeMachineInterceptor(deLoreanTimeTravelPropagator);
+    }
+
+}
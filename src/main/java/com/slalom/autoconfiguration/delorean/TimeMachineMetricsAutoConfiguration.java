@@ -0,0 +1,32 @@
+package com.slalom.autoconfiguration.delorean;
+
+import com.slalom.delorean.metrics.MicrometerTimeMachineMetrics;
+import com.slalom.delorean.metrics.TimeMachineMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "slalom.delorean", name = "enabled", havingValue = "true")
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnBean(MeterRegistry.class)
+@AutoConfigureAfter(name = "io.micrometer.spring.autoconfigure.MetricsAutoConfiguration")
+public class TimeMachineMetricsAutoConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(TimeMachineMetricsAutoConfiguration.class);
+
+    //Record Delorean activity with Micrometer when a MeterRegistry is available
+    @Bean
+    @ConditionalOnMissingBean(TimeMachineMetrics.class)
+    public MicrometerTimeMachineMetrics deLoreanMetrics(MeterRegistry meterRegistry) {
+        log.info("Registering Delorean metrics with {}", meterRegistry.getClass().getSimpleName());
+        return new MicrometerTimeMachineMetrics(meterRegistry);
+    }
+}
@@ -1,8 +1,10 @@
 package com.slalom.autoconfiguration.delorean;
 
 import com.slalom.delorean.interceptors.outbound.OkHttp3OutboundTimeMachineRequestInterceptor;
+import com.slalom.delorean.metrics.TimeMachineMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -26,9 +28,9 @@ public class TimeMachineOkHttp3AutoConfiguration {
 
     @Bean
     @ConditionalOnProperty(prefix = "slalom.delorean.outboundRequestHeader", name = "enabled", havingValue = "true", matchIfMissing = true)
-    public OkHttp3OutboundTimeMachineRequestInterceptor deLoreanOkHttp3OutboundRequestInterceptor() {
+    public OkHttp3OutboundTimeMachineRequestInterceptor deLoreanOkHttp3OutboundRequestInterceptor(ObjectProvider<TimeMachineMetrics> metrics) {
         log.trace("Adding OkHttp3OutboundRequestInterceptor to context");
-        return new OkHttp3OutboundTimeMachineRequestInterceptor(properties);
+        return new OkHttp3OutboundTimeMachineRequestInterceptor(properties, TimeMachineAutoConfiguration.metricsOrNoop(metrics));
     }
 
 }
@@ -0,0 +1,37 @@
+package com.slalom.autoconfiguration.delorean;
+
+import com.slalom.delorean.metrics.TimeMachineMetrics;
+import com.slalom.delorean.propagation.TimeTravelPropagator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(TimeMachineConfigurationProperties.class)
+@ConditionalOnProperty(prefix = "slalom.delorean", name = "enabled", havingValue = "true")
+@AutoConfigureAfter(TimeMachineMetricsAutoConfiguration.class)
+public class TimeMachinePropagationAutoConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(TimeMachinePropagationAutoConfiguration.class);
+
+    private final TimeMachineConfigurationProperties properties;
+
+    public TimeMachinePropagationAutoConfiguration(@Autowired TimeMachineConfigurationProperties properties) {
+        this.properties = properties;
+    }
+
+    //Propagate the time travel date through message headers, e.g. via the Kafka interceptors which Kafka creates itself
+    @Bean
+    @ConditionalOnMissingBean
+    public TimeTravelPropagator deLoreanTimeTravelPropagator(ObjectProvider<TimeMachineMetrics> metrics) {
+        log.trace("Adding TimeTravelPropagator to context");
+        return new TimeTravelPropagator(properties, TimeMachineAutoConfiguration.metricsOrNoop(metrics));
+    }
+}
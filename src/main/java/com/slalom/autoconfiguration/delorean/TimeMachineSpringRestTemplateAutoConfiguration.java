@@ -1,8 +1,10 @@
 package com.slalom.autoconfiguration.delorean;
 
 import com.slalom.delorean.interceptors.outbound.SpringRestTemplateTimeMachineOutboundRequestInterceptor;
+import com.slalom.delorean.metrics.TimeMachineMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -27,8 +29,8 @@ public class TimeMachineSpringRestTemplateAutoConfiguration {
 
     @Bean
     @ConditionalOnProperty(prefix = "slalom.delorean.outboundRequestHeader", name = "enabled", havingValue = "true", matchIfMissing = true)
-    public SpringRestTemplateTimeMachineOutboundRequestInterceptor deLoreanSpringRestTemplateOutboundRequestInterceptor() {
+    public SpringRestTemplateTimeMachineOutboundRequestInterceptor deLoreanSpringRestTemplateOutboundRequestInterceptor(ObjectProvider<TimeMachineMetrics> metrics) {
         log.trace("Adding SpringRestTemplateOutboundRequestInterceptor to context");
-        return new SpringRestTemplateTimeMachineOutboundRequestInterceptor(properties);
+        return new SpringRestTemplateTimeMachineOutboundRequestInterceptor(properties, TimeMachineAutoConfiguration.metricsOrNoop(metrics));
     }
 }
@@ -0,0 +1,118 @@
+package com.slalom.delorean;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The clock resolved by {@link DateFactory} at the time the snapshot was taken (see {@link DateFactory#clockSnapshot()}), for code that reads the current
+ * date/time many times in a row, e.g. stamping each record of a batch.
+ * <p>
+ * Reading a snapshot skips the ThreadLocal and global lookups DateFactory makes on every call. The snapshot keeps the clock rather than an instant, so a
+ * date-only, offset or scaled test clock keeps moving with the system clock. Later changes to the test date do not affect an existing snapshot.
+ */
+public final class ClockSnapshot {
+
+    private final Clock clock;
+    private final ZoneClockCache zoneClocks;
+
+    ClockSnapshot(final Clock clock) {
+        this.clock = Objects.requireNonNull(clock);
+        this.zoneClocks = new ZoneClockCache(clock);
+    }
+
+    /**
+     * @return The captured clock
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Returns the captured clock adjusted to the provided zone, reusing the adjusted clocks of recently used zones
+     *
+     * @param zone The zone to read the clock in
+     * @return The captured clock in the provided zone
+     */
+    public Clock getClock(final ZoneId zone) {
+        return zoneClocks.withZone(zone);
+    }
+
+    /**
+     * @return The current date of the captured clock
+     */
+    public LocalDate today() {
+        return LocalDate.now(clock);
+    }
+
+    /**
+     * @param zone The zone to obtain the date in
+     * @return The current date of the captured clock in the provided zone
+     */
+    public LocalDate today(final ZoneId zone) {
+        return LocalDate.now(zoneClocks.withZone(zone));
+    }
+
+    /**
+     * @return The current date/time of the captured clock
+     */
+    public LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    /**
+     * @param zone The zone to obtain the date/time in
+     * @return The current date/time of the captured clock in the provided zone
+     */
+    public LocalDateTime now(final ZoneId zone) {
+        return LocalDateTime.now(zoneClocks.withZone(zone));
+    }
+
+    /**
+     * @return The current instant of the captured clock
+     */
+    public Instant instant() {
+        return clock.instant();
+    }
+
+    /**
+     * @return The current epoch millis of the captured clock
+     */
+    public long epochMillis() {
+        return clock.millis();
+    }
+
+    /**
+     * Stamps every element of the provided array with the captured clock's current epoch millis, see {@link #fillEpochMillis(long[], int, int)}
+     *
+     * @param timestamps The array to fill
+     * @return The epoch millis the array was filled with
+     */
+    public long fillEpochMillis(final long[] timestamps) {
+        return fillEpochMillis(timestamps, 0, timestamps.length);
+    }
+
+    /**
+     * Stamps a range of the provided array with the captured clock's current epoch millis. The clock is read once, so every record of the batch shares
+     * the same timestamp and filling the range is a plain array fill.
+     *
+     * @param timestamps The array to fill
+     * @param fromIndex  The index of the first element to fill, inclusive
+     * @param toIndex    The index of the last element to fill, exclusive
+     * @return The epoch millis the range was filled with
+     */
+    public long fillEpochMillis(final long[] timestamps, final int fromIndex, final int toIndex) {
+        final long millis = clock.millis();
+        Arrays.fill(timestamps, fromIndex, toIndex, millis);
+        return millis;
+    }
+
+    @Override
+    public String toString() {
+        return "ClockSnapshot[" + clock + "]";
+    }
+}
@@ -0,0 +1,99 @@
+package com.slalom.delorean;
+
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link TimeSource} serving cached readings which a background ticker thread refreshes at a fixed resolution, for callers reading the current time at
+ * very high rates that can tolerate it being up to one resolution stale. Readings are a single volatile read.
+ * <p>
+ * Install with {@link DateFactory#setTimeSource(TimeSource)}. Closing the source stops the ticker and reinstates {@link TimeSource#SYSTEM} if the source
+ * is still installed.
+ */
+public final class CoarseTimeSource implements TimeSource, AutoCloseable {
+
+    private static final String THREAD_NAME = "delorean-coarse-clock";
+
+    private final Duration resolution;
+    private final long resolutionNanos;
+    private final Thread ticker;
+
+    private volatile long millis;
+    private volatile long nanoTime;
+    private volatile boolean running = true;
+
+    private CoarseTimeSource(final Duration resolution) {
+        this.resolution = resolution;
+        this.resolutionNanos = resolution.toNanos();
+        tick();
+
+        ticker = new Thread(this::run, THREAD_NAME);
+        ticker.setDaemon(true);
+    }
+
+    /**
+     * Creates a source and starts its ticker thread
+     *
+     * @param resolution How often the cached readings are refreshed, must be positive
+     * @return The running source
+     */
+    public static CoarseTimeSource start(final Duration resolution) {
+        if (resolution.isNegative() || resolution.isZero()) {
+            throw new IllegalArgumentException("Resolution must be positive: " + resolution);
+        }
+        final CoarseTimeSource source = new CoarseTimeSource(resolution);
+        source.ticker.start();
+        return source;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return millis;
+    }
+
+    @Override
+    public long nanoTime() {
+        return nanoTime;
+    }
+
+    /**
+     * @return How often the cached readings are refreshed
+     */
+    public Duration getResolution() {
+        return resolution;
+    }
+
+    /**
+     * @return True until the source is closed
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops the ticker thread, reinstating {@link TimeSource#SYSTEM} if this source is installed in {@link DateFactory}
+     */
+    @Override
+    public void close() {
+        DateFactory.resetTimeSource(this);
+        running = false;
+        LockSupport.unpark(ticker);
+    }
+
+    @Override
+    public String toString() {
+        return "CoarseTimeSource[" + resolution + "]";
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(this, resolutionNanos);
+            tick();
+        }
+    }
+
+    private void tick() {
+        nanoTime = System.nanoTime();
+        millis = System.currentTimeMillis();
+    }
+}
@@ -2,13 +2,25 @@ package com.slalom.delorean;
 
 
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Provides a mechanism for setting a date/time for testing purposes
@@ -17,12 +29,35 @@ import java.time.format.DateTimeFormatter;
  * <p>
  * The value set is saved in ThreadLocal storage so all calls made on the same thread will get the same date/time. If no test date is explicitly set,
  * then the default system date/time is used
+ * <p>
+ * A global test date may also be set for the whole process, along with per-tenant test dates that inbound request interceptors apply to requests for
+ * that tenant. The most specific setting wins: a test date set on the current thread (e.g. from a request header, cookie or tenant) takes precedence
+ * over the global test date, which takes precedence over the system clock. Global and tenant settings are published as a single immutable snapshot, so
+ * reading them costs one volatile read and never locks.
+ * <p>
+ * Methods without a zone read the clock in the system default zone as of when DateFactory was loaded. The zone accepting methods (e.g.
+ * {@link #now(ZoneId)}) reuse the zone adjusted clocks of recently used zones, so they only allocate the returned value.
  */
 public class DateFactory {
 
-    private static ThreadLocal<Clock> timeMachineClock = new InheritableThreadLocal<>();
+    //Set to false to stop new threads inheriting the creating thread's test date (e.g. when spawning many short lived threads), relying on
+    //runAt/callAt and the com.slalom.delorean.concurrent decorators to hand the test date to other threads instead
+    private static final String INHERITABLE_PROPERTY = "com.slalom.delorean.inheritable";
+
+    private static ThreadLocal<TimeTravelContext> timeMachineClock =
+            Boolean.parseBoolean(System.getProperty(INHERITABLE_PROPERTY, "true")) ? new InheritableThreadLocal<>() : new ThreadLocal<>();
     private static final ZoneId defaultZone = ZoneId.systemDefault();
 
+    //Installed source of the system time, see setTimeSource(TimeSource)
+    private static final AtomicReference<TimeSource> timeSource = new AtomicReference<>(TimeSource.SYSTEM);
+
+    //Shared system clock used when not time traveling - avoids allocating a new Clock (and resolving the default zone) on every call
+    private static final Clock systemClock = new SystemTimeClock(defaultZone);
+    private static final ClockSnapshot systemSnapshot = new ClockSnapshot(systemClock);
+
+    private static final AtomicReference<Overrides> overrides = new AtomicReference<>(Overrides.NONE);
+    private static final List<Runnable> globalClockListeners = new CopyOnWriteArrayList<>();
+
     private DateFactory() {
 
     }
@@ -33,7 +68,7 @@ public class DateFactory {
      * @param testingDate The fixed date to be used
      */
     public static void setTestDate(final LocalDate testingDate) {
-        timeMachineClock.set(new FixedDateClock(testingDate));
+        timeMachineClock.set(TimeTravelContext.of(clockFor(testingDate)));
     }
 
     /**
@@ -42,7 +77,53 @@ public class DateFactory {
      * @param testingDateTime The fixed date/time to be used
      */
     public static void setTestDate(final LocalDateTime testingDateTime) {
-        timeMachineClock.set(Clock.fixed(testingDateTime.atZone(defaultZone).toInstant(), defaultZone));
+        timeMachineClock.set(TimeTravelContext.of(clockFor(testingDateTime)));
+    }
+
+    /**
+     * Builds the clock {@link #setTestDate(LocalDate)} would use for a fixed date. The returned clock is immutable so may be cached and shared between
+     * threads, then installed via {@link #setTestClock(Clock)}.
+     *
+     * @param testingDate The fixed date to be used
+     * @return A clock with the provided date and the time portion sourced from the system clock
+     */
+    public static Clock clockFor(final LocalDate testingDate) {
+        return new FixedDateClock(testingDate);
+    }
+
+    /**
+     * Builds the clock {@link #setTestDate(LocalDateTime)} would use for a fixed instant. The returned clock is immutable so may be cached and shared
+     * between threads, then installed via {@link #setTestClock(Clock)}.
+     *
+     * @param testingDateTime The fixed date/time to be used
+     * @return A clock fixed at the provided date/time in the system default timezone
+     */
+    public static Clock clockFor(final LocalDateTime testingDateTime) {
+        return Clock.fixed(testingDateTime.atZone(defaultZone).toInstant(), defaultZone);
+    }
+
+    /**
+     * Builds a clock which runs in real time, shifted from the current time by the provided offset (e.g. three days ahead). The clock measures elapsed
+     * time with {@link TimeSource#nanoTime()} from the moment it is created, so may be cached and shared between threads, then installed via
+     * {@link #setTestClock(Clock)}.
+     *
+     * @param offset The amount to shift the current time by, may be negative
+     * @return A clock running in real time, shifted by the offset, in the system default timezone
+     */
+    public static Clock offsetClock(final Duration offset) {
+        return TimeWarpClock.offset(offset, defaultZone);
+    }
+
+    /**
+     * Builds a clock which starts at the provided date/time the moment it is created and then runs rate times faster than real time, e.g. a rate of 720
+     * passes a month of test time in an hour. Readings are computed from the start with {@link TimeSource#nanoTime()}, so never drift from one another.
+     *
+     * @param rate   How many times faster than real time the clock runs, must be positive
+     * @param anchor The date/time the clock starts at
+     * @return A clock starting at the anchor, in the system default timezone
+     */
+    public static Clock scaledClock(final long rate, final LocalDateTime anchor) {
+        return TimeWarpClock.scaled(rate, anchor.atZone(defaultZone).toInstant(), defaultZone);
     }
 
 
@@ -52,7 +133,89 @@ public class DateFactory {
      * @param clock
      */
     public static void setTestClock(final Clock clock) {
-        timeMachineClock.set(clock);
+        setTestContext(clock == null ? null : TimeTravelContext.of(clock));
+    }
+
+    /**
+     * Sets the test date based on a prebuilt {@link TimeTravelContext}. As contexts are immutable they may be cached and shared between threads, avoiding
+     * recomputing the outbound header value each time the same date/time is installed.
+     *
+     * @param context The time travel context, or null to clear any configured test date
+     */
+    public static void setTestContext(final TimeTravelContext context) {
+        if (context == null) {
+            timeMachineClock.remove();
+        } else {
+            timeMachineClock.set(context);
+        }
+    }
+
+    /**
+     * Returns the time travel context in effect for the current thread
+     *
+     * @return The test context set on the current thread, else the global test context, or null if neither is set
+     */
+    public static TimeTravelContext getTestContext() {
+        return context();
+    }
+
+    /**
+     * Captures the test context set on the current thread so that it can be handed to another thread with {@link #restoreTestContext(TimeTravelContext)}.
+     * Unlike {@link #getTestContext()} this ignores the global test context, which all threads see anyway.
+     *
+     * @return The test context set on the current thread or null if none set
+     */
+    public static TimeTravelContext captureTestContext() {
+        return timeMachineClock.get();
+    }
+
+    /**
+     * Installs a previously captured test context on the current thread, returning the context it replaces so that the caller can reinstate it (usually
+     * in a finally block) once done. Restoring null clears the current thread's test date, so a pooled thread is left as it was found.
+     *
+     * @param context The captured test context, may be null
+     * @return The test context previously set on the current thread or null if none was set
+     */
+    public static TimeTravelContext restoreTestContext(final TimeTravelContext context) {
+        final TimeTravelContext previous = timeMachineClock.get();
+        setTestContext(context);
+        return previous;
+    }
+
+    /**
+     * Runs a task with the provided test clock in effect on the current thread, then reinstates whatever test date was previously set on the thread.
+     * Tasks the task hands to other threads only see the clock if those threads inherit it or are decorated by
+     * {@link com.slalom.delorean.concurrent.TimeTravelTasks}.
+     *
+     * @param clock The clock to be used while the task runs, or null to run the task without a thread test date
+     * @param task  The task to run
+     */
+    public static void runAt(final Clock clock, final Runnable task) {
+        final TimeTravelContext previous = restoreTestContext(clock == null ? null : TimeTravelContext.of(clock));
+        try {
+            task.run();
+        } finally {
+            restoreTestContext(previous);
+        }
+    }
+
+    /**
+     * Calls a task with the provided test clock in effect on the current thread, then reinstates whatever test date was previously set on the thread
+     *
+     * @param clock The clock to be used while the task runs, or null to run the task without a thread test date
+     * @param task  The task to call
+     * @param <V>   The result type of the task
+     * @return The result of the task
+     * @throws Exception If thrown by the task
+     * @see #runAt(Clock, Runnable)
+     */
+    public static <V> V callAt(final Clock clock, final Callable<V> task) throws Exception {
+        final TimeTravelContext previous = restoreTestContext(clock == null ? null : TimeTravelContext.of(clock));
+        try {
+            return task.call();
+        } finally {
+            restoreTestContext(previous);
+        }
     }
 
     /**
@@ -65,19 +228,133 @@ public class DateFactory {
     /**
      * Returns the current set testing timeMachineClock
      *
-     * @return The current testing Clock or null if none set
+     * @return The current testing Clock (set on the current thread or globally) or null if none set
      */
     public static Clock getTestingClock() {
-        return timeMachineClock.get();
+        final TimeTravelContext context = context();
+        return context == null ? null : context.getClock();
     }
 
     /**
      * Returns whether time travel is in effect
      *
-     * @return True if time travel is currently enabled, else false
+     * @return True if time travel is currently enabled for the current thread or globally, else false
      */
     public static boolean timeTraveling() {
-        return timeMachineClock.get() != null;
+        return context() != null;
+    }
+
+    /**
+     * Sets a global test date to a fixed date, used by all threads without a test date of their own
+     *
+     * @param testingDate The fixed date to be used
+     */
+    public static void setGlobalTestDate(final LocalDate testingDate) {
+        setGlobalTestClock(clockFor(testingDate));
+    }
+
+    /**
+     * Sets a global test date to a fixed instant in time, used by all threads without a test date of their own
+     *
+     * @param testingDateTime The fixed date/time to be used
+     */
+    public static void setGlobalTestDate(final LocalDateTime testingDateTime) {
+        setGlobalTestClock(clockFor(testingDateTime));
+    }
+
+    /**
+     * Sets a global test clock, used by all threads without a test date of their own
+     *
+     * @param clock The clock to be used, or null to clear the global test date
+     */
+    public static void setGlobalTestClock(final Clock clock) {
+        final TimeTravelContext context = clock == null ? null : TimeTravelContext.of(clock);
+        overrides.updateAndGet(current -> new Overrides(context, current.tenants));
+        for (Runnable listener : globalClockListeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Clears any configured global test date. Test dates set on individual threads are unaffected.
+     */
+    public static void clearGlobalTestDate() {
+        setGlobalTestClock(null);
+    }
+
+    /**
+     * Returns the global time travel context
+     *
+     * @return The global test context or null if none set
+     */
+    public static TimeTravelContext getGlobalTestContext() {
+        return overrides.get().global;
+    }
+
+    /**
+     * Registers a listener notified (on the calling thread) each time the global test clock is set or cleared, e.g. so a scheduler can re-evaluate when
+     * its pending tasks are due
+     *
+     * @param listener The listener to notify
+     */
+    public static void addGlobalClockListener(final Runnable listener) {
+        globalClockListeners.add(Objects.requireNonNull(listener));
+    }
+
+    /**
+     * @param listener The listener to stop notifying
+     */
+    public static void removeGlobalClockListener(final Runnable listener) {
+        globalClockListeners.remove(listener);
+    }
+
+    /**
+     * Sets the test clock for a tenant. The clock is applied by inbound request interceptors to requests they resolve to the tenant, unless the request
+     * provides its own test date.
+     *
+     * @param tenant The tenant key
+     * @param clock  The clock to be used, or null to clear the tenant's test date
+     */
+    public static void setTenantTestClock(final String tenant, final Clock clock) {
+        Objects.requireNonNull(tenant);
+        final TimeTravelContext context = clock == null ? null : TimeTravelContext.of(clock);
+        overrides.updateAndGet(current -> {
+            Map<String, TimeTravelContext> tenants = new HashMap<>(current.tenants);
+            if (context == null) {
+                tenants.remove(tenant);
+            } else {
+                tenants.put(tenant, context);
+            }
+            return new Overrides(current.global, tenants.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(tenants));
+        });
+    }
+
+    /**
+     * Clears any test date configured for a tenant
+     *
+     * @param tenant The tenant key
+     */
+    public static void clearTenantTestDate(final String tenant) {
+        setTenantTestClock(tenant, null);
+    }
+
+    /**
+     * Returns the time travel context configured for a tenant
+     *
+     * @param tenant The tenant key
+     * @return The tenant's test context or null if none set
+     */
+    public static TimeTravelContext getTenantTestContext(final String tenant) {
+        return tenant == null ? null : overrides.get().tenants.get(tenant);
+    }
+
+    /**
+     * Returns all configured tenant time travel contexts
+     *
+     * @return An immutable snapshot of the tenant test contexts keyed by tenant
+     */
+    public static Map<String, TimeTravelContext> getTenantTestContexts() {
+        return overrides.get().tenants;
     }
 
 
@@ -87,13 +364,8 @@ public class DateFactory {
      * @return True if time travel is enabled and set to a fixed instant, else false
      */
     public static boolean fixedInstant() {
-        if (!timeTraveling()) {
-            return false;
-        }
-
-        //Since we cannot access the package private Clock.FixedClock we need to check by name
-        String clockType = clock().getClass().getCanonicalName();
-        return "java.Time.Clock.FixedClock".equalsIgnoreCase(clockType) ? true : false;
+        final TimeTravelContext context = context();
+        return context != null && context.isFixedInstant();
     }
 
     /**
@@ -115,6 +387,66 @@ public class DateFactory {
         return LocalDateTime.now(clock());
     }
 
+    /**
+     * Returns the current date in the provided zone
+     *
+     * @param zone The zone to obtain the date in
+     * @return If a test date is set this will return the test date (for a fixed instant, its date in the provided zone), else the system clock's date
+     * in the provided zone
+     */
+    public static LocalDate today(final ZoneId zone) {
+        return LocalDate.now(clock(zone));
+    }
+
+    /**
+     * Returns the current date/time in the provided zone
+     *
+     * @param zone The zone to obtain the date/time in
+     * @return If a test date is set this will return the test date along with the system clock's time in the provided zone, if a test date/time is set
+     * this will return it in the provided zone, else the system clock's date/time in the provided zone
+     */
+    public static LocalDateTime now(final ZoneId zone) {
+        return LocalDateTime.now(clock(zone));
+    }
+
+    /**
+     * @return The current instant of the test clock (if set) or else the system clock
+     */
+    public static Instant instant() {
+        return clock().instant();
+    }
+
+    /**
+     * Returns the current epoch millis of the test clock (if set) or else the system clock, without allocating
+     *
+     * @return The current milliseconds since 1970-01-01T00:00Z
+     */
+    public static long epochMillis() {
+        return clock().millis();
+    }
+
+    /**
+     * Captures the clock currently in effect for this thread, so code reading the current date/time many times in a row (e.g. stamping each record of a
+     * batch) only resolves it once. Snapshots are shared per test date, so taking one does not allocate.
+     *
+     * @return The snapshot of the test clock (if set) or else the system clock
+     */
+    public static ClockSnapshot clockSnapshot() {
+        final TimeTravelContext context = context();
+        return context == null ? systemSnapshot : context.getSnapshot();
+    }
+
+    /**
+     * Stamps every element of the provided array with the current epoch millis, reading the clock once (see
+     * {@link ClockSnapshot#fillEpochMillis(long[], int, int)})
+     *
+     * @param timestamps The array to fill
+     * @return The epoch millis the array was filled with
+     */
+    public static long fillEpochMillis(final long[] timestamps) {
+        return clockSnapshot().fillEpochMillis(timestamps);
+    }
+
     /**
      * Synonym for {@link #today()}
      */
@@ -133,18 +465,11 @@ public class DateFactory {
      * Returns an ISO Formatted String representation of the configured date/time or null if none is configured.
      *
      * @return If the time travel date/time is set to a fixed date, the string will contain only a date (e.g. 2016-01-01). If set to a fixed instant the
-     * string will contain a full datetime (e.g. 2016-01-01T16:30:30)
+     * string will contain a full datetime (e.g. 2016-01-01T16:30:30). For fixed dates and instants the string is computed once when the test date is set.
      */
     public static String getTestDateString() {
-        if (!timeTraveling()) {
-            return null;
-        }
-
-        if (fixedInstant()) {
-            return currentDateTimeString();
-        }
-
-        return currentDateString();
+        final TimeTravelContext context = context();
+        return context == null ? null : context.getHeaderValue();
     }
 
     /**
@@ -173,10 +498,10 @@ public class DateFactory {
      * "UTC/Greenwich" this will return a ZoneDateTime for 2016-10-21 12:30:00
      *
      * @param zone The timezone used to obtain the time portion of the resulting ZonedDateTime
-     * @return
+     * @return The current date/time in the provided zone
      */
     public static ZonedDateTime currentDateTimeAtZone(ZoneId zone) {
-        return ZonedDateTime.now(clock().withZone(zone));
+        return ZonedDateTime.now(clock(zone));
     }
 
 
@@ -184,19 +509,39 @@ public class DateFactory {
      * Implementation of a clock that returns an instant with a fixed date portion, but with the time set to the current time in
      * the provided (defaulting to system) timezone. This clock is not meant for distributed or public use so does not implement serializable as recommended
      * in the {@link Clock} documentation.
+     * <p>
+     * Unless a zone offset transition affects the date, both the offset of the fixed date and the window in which the system clock's current offset is
+     * valid are precomputed, so reading the clock is plain arithmetic on
+     * {@link TimeSource#currentTimeMillis()}. On transition days the time of day is resolved through {@link ZonedDateTime} to keep gap and overlap handling.
      */
-    private static final class FixedDateClock extends Clock  {
+    static final class FixedDateClock extends Clock  {
+        private static final long MILLIS_PER_DAY = 86_400_000L;
+        private static final long SECONDS_PER_DAY = 86_400L;
+        private static final long MAX_OFFSET_SECONDS = 18 * 60 * 60;
+
         private final LocalDate date;
         private final ZoneId zone;
+        private final ZoneRules rules;
+        private final boolean transitionDay;
+        private final long dayStartMillis;
+
+        //The system clock's offset and the window of instants it applies to, replaced whenever the system clock moves outside of the window
+        private volatile OffsetWindow systemOffset = OffsetWindow.EMPTY;
 
         FixedDateClock(LocalDate date, ZoneId zone) {
             this.zone = zone;
             this.date = date;
+            this.rules = zone.getRules();
+            this.transitionDay = isTransitionDay(date, rules);
+            this.dayStartMillis = transitionDay ? 0 : date.atStartOfDay().toEpochSecond(rules.getOffset(date.atStartOfDay())) * 1000;
         }
 
         FixedDateClock(LocalDate date) {
-            this.zone = ZoneId.systemDefault();
-            this.date = date;
+            this(date, ZoneId.systemDefault());
+        }
+
+        LocalDate getDate() {
+            return date;
         }
 
         @Override
@@ -214,12 +559,30 @@ public class DateFactory {
 
         @Override
         public long millis() {
-            return date.atTime(LocalTime.now(zone)).atZone(zone).toInstant().toEpochMilli();
+            return millisAt(currentTimeMillis());
         }
 
         @Override
         public Instant instant() {
-            return date.atTime(LocalTime.now(zone)).atZone(zone).toInstant();
+            return Instant.ofEpochMilli(millisAt(currentTimeMillis()));
+        }
+
+        /**
+         * @param systemMillis The system clock's current epoch millis
+         * @return The epoch millis of the system clock's time of day on the fixed date
+         */
+        long millisAt(final long systemMillis) {
+            OffsetWindow window = systemOffset;
+            if (systemMillis < window.fromMillis || systemMillis >= window.untilMillis) {
+                window = OffsetWindow.of(rules, systemMillis);
+                systemOffset = window;
+            }
+
+            final long millisOfDay = Math.floorMod(systemMillis + window.offsetMillis, MILLIS_PER_DAY);
+            if (!transitionDay) {
+                return dayStartMillis + millisOfDay;
+            }
+            return date.atTime(LocalTime.ofNanoOfDay(millisOfDay * 1_000_000L)).atZone(zone).toInstant().toEpochMilli();
         }
 
         @Override
@@ -240,10 +603,181 @@ public class DateFactory {
         public String toString() {
             return "FixedDateClock[" + date + "," + zone + "]";
         }
+
+        /**
+         * A date is a transition day if any of its local times falls in the gap or overlap of a transition, or its local times do not all share a
+         * single offset. Only transitions within the maximum offset either side of the date can affect its local times.
+         */
+        private static boolean isTransitionDay(final LocalDate date, final ZoneRules rules) {
+            if (rules.isFixedOffset()) {
+                return false;
+            }
+
+            final long dayStart = date.atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+            final long dayEnd = dayStart + SECONDS_PER_DAY;
+            ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochSecond(dayStart - MAX_OFFSET_SECONDS - 1));
+            while (transition != null && transition.toEpochSecond() <= dayEnd + MAX_OFFSET_SECONDS) {
+                final int before = transition.getOffsetBefore().getTotalSeconds();
+                final int after = transition.getOffsetAfter().getTotalSeconds();
+                final long localFrom = transition.toEpochSecond() + Math.min(before, after);
+                final long localTo = transition.toEpochSecond() + Math.max(before, after);
+                if (localFrom < dayEnd && localTo >= dayStart) {
+                    return true;
+                }
+                transition = rules.nextTransition(transition.getInstant());
+            }
+
+            return !rules.getOffset(date.atStartOfDay()).equals(rules.getOffset(date.atTime(LocalTime.MAX)));
+        }
     }
 
+    /**
+     * The system clock, reading the installed {@link TimeSource} rather than {@link System} directly
+     */
+    private static final class SystemTimeClock extends Clock {
+        private final ZoneId zone;
+
+        SystemTimeClock(final ZoneId zone) {
+            this.zone = zone;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            if (zone.equals(this.zone)) {  // intentional NPE
+                return this;
+            }
+            return new SystemTimeClock(zone);
+        }
 
+        @Override
+        public long millis() {
+            return currentTimeMillis();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(currentTimeMillis());
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof SystemTimeClock && zone.equals(((SystemTimeClock) obj).zone);
+        }
+
+        @Override
+        public int hashCode() {
+            return zone.hashCode() + 1;
+        }
+
+        @Override
+        public String toString() {
+            return "SystemTimeClock[" + zone + "]";
+        }
+    }
+
+    /**
+     * Immutable offset of a zone along with the range of epoch millis, from inclusive to until exclusive, for which it is valid
+     */
+    private static final class OffsetWindow {
+        static final OffsetWindow EMPTY = new OffsetWindow(Long.MAX_VALUE, Long.MIN_VALUE, 0);
+
+        final long fromMillis;
+        final long untilMillis;
+        final long offsetMillis;
+
+        private OffsetWindow(final long fromMillis, final long untilMillis, final long offsetMillis) {
+            this.fromMillis = fromMillis;
+            this.untilMillis = untilMillis;
+            this.offsetMillis = offsetMillis;
+        }
+
+        static OffsetWindow of(final ZoneRules rules, final long epochMillis) {
+            final Instant instant = Instant.ofEpochMilli(epochMillis);
+            final long offsetMillis = rules.getOffset(instant).getTotalSeconds() * 1000L;
+            if (rules.isFixedOffset()) {
+                return new OffsetWindow(Long.MIN_VALUE, Long.MAX_VALUE, offsetMillis);
+            }
+
+            //Transitions fall on whole seconds, so looking back from the next milli finds a transition at exactly epochMillis
+            final ZoneOffsetTransition previous = rules.previousTransition(instant.plusMillis(1));
+            final ZoneOffsetTransition next = rules.nextTransition(instant);
+            return new OffsetWindow(previous == null ? Long.MIN_VALUE : previous.toEpochSecond() * 1000,
+                    next == null ? Long.MAX_VALUE : next.toEpochSecond() * 1000, offsetMillis);
+        }
+    }
+
+
+    /**
+     * Installs the source of the system time which the system clock, fixed date clocks and time warp clocks read, e.g. a {@link CoarseTimeSource}. Fixed
+     * instant clocks are not affected.
+     *
+     * @param source The source to install, null reinstates {@link TimeSource#SYSTEM}
+     */
+    public static void setTimeSource(final TimeSource source) {
+        timeSource.set(source == null ? TimeSource.SYSTEM : source);
+    }
+
+    /**
+     * @return The installed source of the system time
+     */
+    public static TimeSource getTimeSource() {
+        return timeSource.get();
+    }
+
+    /**
+     * Reinstates {@link TimeSource#SYSTEM} if the provided source is still installed
+     */
+    static void resetTimeSource(final TimeSource source) {
+        timeSource.compareAndSet(source, TimeSource.SYSTEM);
+    }
+
+    static long currentTimeMillis() {
+        return timeSource.get().currentTimeMillis();
+    }
+
+    static long nanoTime() {
+        return timeSource.get().nanoTime();
+    }
+
+    /**
+     * Resolves the clock to use for the current thread with a single ThreadLocal read and (if not set on the thread) a single volatile read of the global
+     * overrides, falling back to the shared system clock when not time traveling
+     */
     private static Clock clock() {
-        return timeMachineClock.get() == null ? Clock.systemDefaultZone() : timeMachineClock.get();
+        final TimeTravelContext context = context();
+        return context == null ? systemClock : context.getClock();
+    }
+
+    /**
+     * Resolves the clock to use for the current thread adjusted to the provided zone, reusing previously adjusted clocks
+     */
+    private static Clock clock(final ZoneId zone) {
+        final TimeTravelContext context = context();
+        return context == null ? systemSnapshot.getClock(zone) : context.getClock(zone);
+    }
+
+    private static TimeTravelContext context() {
+        final TimeTravelContext context = timeMachineClock.get();
+        return context != null ? context : overrides.get().global;
+    }
+
+    /**
+     * Immutable snapshot of the global and per-tenant time travel contexts
+     */
+    private static final class Overrides {
+        static final Overrides NONE = new Overrides(null, Collections.emptyMap());
+
+        final TimeTravelContext global;
+        final Map<String, TimeTravelContext> tenants;
+
+        Overrides(final TimeTravelContext global, final Map<String, TimeTravelContext> tenants) {
+            this.global = global;
+            this.tenants = tenants;
+        }
     }
 }
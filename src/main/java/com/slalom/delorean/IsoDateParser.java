@@ -0,0 +1,486 @@
+package com.slalom.delorean;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Single pass parser for the ISO formatted dates and date/times accepted as time travel values, i.e. {@code YYYY-MM-DD} and
+ * {@code YYYY-MM-DDTHH:mm[:ss[.fffffffff]]}, along with time warp specifications:
+ * <ul>
+ * <li>{@code +P3D} or {@code -PT6H} - an ISO-8601 duration of days, hours, minutes and seconds by which to offset the current time (see
+ * {@link DateFactory#offsetClock(Duration)})</li>
+ * <li>{@code x60@2016-10-21T00:00} - a rate at which time runs from an anchor date or date/time (see {@link DateFactory#scaledClock(long, LocalDateTime)})
+ * </li>
+ * </ul>
+ * as well as the compact values sent by outbound interceptors configured for the compact encoding: a {@code ~}, a mode flag and a base 36 number, i.e.
+ * {@code ~d} and the epoch day of a fixed date, {@code ~i} and the epoch second of a fixed date/time (read as if it were UTC) or {@code ~o} and an offset
+ * in seconds.
+ * <p>
+ * Unlike {@link java.time.format.DateTimeFormatter#parse(CharSequence)} this parser reads the characters directly and reports malformed input via
+ * {@link Result#getFailure()} rather than by throwing, so rejecting garbage input costs neither an exception nor a stack trace. Only four digit years
+ * are supported.
+ */
+public final class IsoDateParser {
+
+    /**
+     * Reason a value could not be parsed
+     */
+    public enum Failure {
+        /**
+         * The value was null or empty
+         */
+        EMPTY,
+
+        /**
+         * The value did not match {@code YYYY-MM-DD[THH:mm[:ss[.fffffffff]]]} , a time warp specification or a compact value
+         */
+        MALFORMED,
+
+        /**
+         * The value was well formed but one of its fields was out of range, e.g. {@code 2017-02-30}
+         */
+        INVALID_VALUE
+    }
+
+    private static final Result EMPTY = new Result(null, null, Failure.EMPTY);
+    private static final Result MALFORMED = new Result(null, null, Failure.MALFORMED);
+    private static final Result INVALID_VALUE = new Result(null, null, Failure.INVALID_VALUE);
+
+    private static final char SCALE_PREFIX = 'x';
+    private static final char SCALE_ANCHOR = '@';
+    private static final long MAX_RATE = 1_000_000L;
+
+    static final char COMPACT_PREFIX = '~';
+    static final char COMPACT_DATE = 'd';
+    static final char COMPACT_DATE_TIME = 'i';
+    static final char COMPACT_OFFSET = 'o';
+    //Dates and date/times are limited to the four digit years of the ISO values, the resulting values never have more than 10 base 36 digits
+    static final long MIN_EPOCH_DAY = LocalDate.of(0, 1, 1).toEpochDay();
+    static final long MAX_EPOCH_DAY = LocalDate.of(9999, 12, 31).toEpochDay();
+    private static final long SECONDS_PER_DAY = 86_400L;
+    //Offsets beyond the years supported by dates and date/times are rejected, so offset clocks never overflow when read
+    static final long MAX_OFFSET_SECONDS = ChronoUnit.YEARS.getDuration().multipliedBy(10_000L).getSeconds();
+    private static final int MAX_COMPACT_DIGITS = 12;
+
+    private static final int DATE_LENGTH = 10;
+    private static final int DATE_HOUR_MINUTE_LENGTH = 16;
+    private static final int DATE_TIME_LENGTH = 19;
+    private static final int MAX_FRACTION_DIGITS = 9;
+
+    //Offset components in the order they must appear, indexing their length in seconds
+    private static final int DAYS = 1;
+    private static final int HOURS = 2;
+    private static final int MINUTES = 3;
+    private static final int SECONDS = 4;
+    private static final long[] OFFSET_UNIT_SECONDS = {0L, SECONDS_PER_DAY, 3_600L, 60L, 1L};
+
+    private IsoDateParser() {
+
+    }
+
+    /**
+     * Parses the provided value as either an ISO local date or ISO local date/time
+     *
+     * @param text The value to parse
+     * @return The result of parsing the value, never null
+     */
+    public static Result parse(final CharSequence text) {
+        if (text == null || text.length() == 0) {
+            return EMPTY;
+        }
+
+        final char first = text.charAt(0);
+        if (first == '+' || first == '-') {
+            return parseOffset(text);
+        }
+        if (first == SCALE_PREFIX) {
+            return parseScaled(text);
+        }
+        if (first == COMPACT_PREFIX) {
+            return parseCompact(text);
+        }
+
+        final int length = text.length();
+        if (length < DATE_LENGTH || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return MALFORMED;
+        }
+
+        final int year = digits(text, 0, 4);
+        final int month = digits(text, 5, 2);
+        final int day = digits(text, 8, 2);
+        if (year < 0 || month < 0 || day < 0) {
+            return MALFORMED;
+        }
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return INVALID_VALUE;
+        }
+
+        if (length == DATE_LENGTH) {
+            return new Result(LocalDate.of(year, month, day), null, null);
+        }
+
+        final char separator = text.charAt(DATE_LENGTH);
+        if ((separator != 'T' && separator != 't') || length < DATE_HOUR_MINUTE_LENGTH || text.charAt(13) != ':') {
+            return MALFORMED;
+        }
+
+        final int hour = digits(text, 11, 2);
+        final int minute = digits(text, 14, 2);
+        if (hour < 0 || minute < 0) {
+            return MALFORMED;
+        }
+
+        int second = 0;
+        int nano = 0;
+        if (length > DATE_HOUR_MINUTE_LENGTH) {
+            if (length < DATE_TIME_LENGTH || text.charAt(DATE_HOUR_MINUTE_LENGTH) != ':') {
+                return MALFORMED;
+            }
+            second = digits(text, 17, 2);
+            if (second < 0) {
+                return MALFORMED;
+            }
+
+            if (length > DATE_TIME_LENGTH) {
+                final int fractionDigits = length - DATE_TIME_LENGTH - 1;
+                if (text.charAt(DATE_TIME_LENGTH) != '.' || fractionDigits < 1 || fractionDigits > MAX_FRACTION_DIGITS) {
+                    return MALFORMED;
+                }
+                nano = digits(text, DATE_TIME_LENGTH + 1, fractionDigits);
+                if (nano < 0) {
+                    return MALFORMED;
+                }
+                for (int i = fractionDigits; i < MAX_FRACTION_DIGITS; i++) {
+                    nano *= 10;
+                }
+            }
+        }
+
+        if (hour > 23 || minute > 59 || second > 59) {
+            return INVALID_VALUE;
+        }
+
+        return new Result(null, LocalDateTime.of(year, month, day, hour, minute, second, nano), null);
+    }
+
+    /**
+     * Reads the {@code PnDTnHnMnS} subset of ISO-8601 durations (as written by {@link Duration#toString()}) following the sign: unsigned components in
+     * that order, each optional but at least one present, with up to nine fraction digits on the seconds. Only the seconds can have a fraction, so it
+     * is always the last component read.
+     */
+    private static Result parseOffset(final CharSequence text) {
+        final int length = text.length();
+        if (length < 4 || (text.charAt(1) != 'P' && text.charAt(1) != 'p')) {
+            return MALFORMED;
+        }
+
+        long seconds = 0;
+        int nano = 0;
+        boolean time = false;
+        int lastUnit = 0;
+        int i = 2;
+        while (i < length) {
+            if (text.charAt(i) == 'T' || text.charAt(i) == 't') {
+                if (time || ++i == length) {
+                    return MALFORMED;
+                }
+                time = true;
+                continue;
+            }
+
+            final int start = i;
+            long amount = 0;
+            boolean overflow = false;
+            for (; i < length; i++) {
+                final int digit = text.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                overflow |= amount > (Long.MAX_VALUE - digit) / 10;
+                amount = amount * 10 + digit;
+            }
+            if (i == start || i == length) {
+                return MALFORMED;
+            }
+
+            if (text.charAt(i) == '.' && time) {
+                final int fractionStart = ++i;
+                while (i < length && i - fractionStart < MAX_FRACTION_DIGITS && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                    i++;
+                }
+                final int fractionDigits = i - fractionStart;
+                if (fractionDigits == 0 || i == length || Character.toUpperCase(text.charAt(i)) != 'S') {
+                    return MALFORMED;
+                }
+                nano = digits(text, fractionStart, fractionDigits);
+                for (int n = fractionDigits; n < MAX_FRACTION_DIGITS; n++) {
+                    nano *= 10;
+                }
+            }
+
+            final int unit = offsetUnit(text.charAt(i++), time);
+            if (unit <= lastUnit) {
+                return MALFORMED;
+            }
+            lastUnit = unit;
+
+            final long unitSeconds = OFFSET_UNIT_SECONDS[unit];
+            if (overflow || amount > (Long.MAX_VALUE - seconds) / unitSeconds) {
+                return INVALID_VALUE;
+            }
+            seconds += amount * unitSeconds;
+        }
+        if (lastUnit == 0) {
+            return MALFORMED;
+        }
+        if (seconds > MAX_OFFSET_SECONDS) {
+            return INVALID_VALUE;
+        }
+
+        return new Result(text.charAt(0) == '-' ? Duration.ofSeconds(-seconds, -nano) : Duration.ofSeconds(seconds, nano), 0L, null);
+    }
+
+    /**
+     * @return The index into {@link #OFFSET_UNIT_SECONDS} of a duration unit designator, or 0 if it is not one valid in the date or time part
+     */
+    private static int offsetUnit(final char designator, final boolean time) {
+        switch (Character.toUpperCase(designator)) {
+            case 'D':
+                return time ? 0 : DAYS;
+            case 'H':
+                return time ? HOURS : 0;
+            case 'M':
+                return time ? MINUTES : 0;
+            case 'S':
+                return time ? SECONDS : 0;
+            default:
+                return 0;
+        }
+    }
+
+    private static Result parseScaled(final CharSequence text) {
+        final int length = text.length();
+        long rate = 0;
+        int i = 1;
+        for (; i < length && text.charAt(i) != SCALE_ANCHOR; i++) {
+            final int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || rate > MAX_RATE) {
+                return MALFORMED;
+            }
+            rate = rate * 10 + digit;
+        }
+        if (i == 1 || i == length) {
+            return MALFORMED;
+        }
+        if (rate < 1 || rate > MAX_RATE) {
+            return INVALID_VALUE;
+        }
+
+        final Result anchor = parse(text.subSequence(i + 1, length));
+        if (!anchor.isSuccess() || anchor.rate != 0 || anchor.offset != null) {
+            return anchor.failure == Failure.INVALID_VALUE ? INVALID_VALUE : MALFORMED;
+        }
+        return new Result(anchor.date != null ? anchor.date.atStartOfDay() : anchor.dateTime, rate);
+    }
+
+    private static Result parseCompact(final CharSequence text) {
+        final int length = text.length();
+        if (length < 3) {
+            return MALFORMED;
+        }
+
+        final boolean negative = text.charAt(2) == '-';
+        final int start = negative ? 3 : 2;
+        if (start == length || length - start > MAX_COMPACT_DIGITS) {
+            return MALFORMED;
+        }
+        long value = 0;
+        for (int i = start; i < length; i++) {
+            final int digit = base36Digit(text.charAt(i));
+            if (digit < 0) {
+                return MALFORMED;
+            }
+            value = value * 36 + digit;
+        }
+        if (negative) {
+            value = -value;
+        }
+
+        switch (text.charAt(1)) {
+            case COMPACT_DATE:
+                if (value < MIN_EPOCH_DAY || value > MAX_EPOCH_DAY) {
+                    return INVALID_VALUE;
+                }
+                return new Result(LocalDate.ofEpochDay(value), null, null);
+            case COMPACT_DATE_TIME:
+                final long epochDay = Math.floorDiv(value, SECONDS_PER_DAY);
+                if (epochDay < MIN_EPOCH_DAY || epochDay > MAX_EPOCH_DAY) {
+                    return INVALID_VALUE;
+                }
+                return new Result(null, LocalDateTime.ofEpochSecond(value, 0, ZoneOffset.UTC), null);
+            case COMPACT_OFFSET:
+                if (Math.abs(value) > MAX_OFFSET_SECONDS) {
+                    return INVALID_VALUE;
+                }
+                return new Result(Duration.ofSeconds(value), 0L, null);
+            default:
+                return MALFORMED;
+        }
+    }
+
+    /**
+     * Reads a run of decimal digits
+     *
+     * @return The value of the digits, or -1 if any character in the range is not a digit
+     */
+    private static int digits(final CharSequence text, final int start, final int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            final int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * @return The value of a lower case base 36 digit (as written by {@link Long#toString(long, int)}), or -1 if the character is not one
+     */
+    private static int base36Digit(final char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 10;
+        }
+        return -1;
+    }
+
+    private static int lengthOfMonth(final int year, final int month) {
+        switch (month) {
+            case 2:
+                return ((year & 3) == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * The outcome of parsing a value - exactly one of {@link #getDate()}, {@link #getDateTime()}, {@link #getOffset()} or {@link #getFailure()} is non-null,
+     * except for scaled values which have both a {@link #getRate()} and an anchor {@link #getDateTime()}
+     */
+    public static final class Result {
+        private final LocalDate date;
+        private final LocalDateTime dateTime;
+        private final Duration offset;
+        private final long rate;
+        private final Failure failure;
+
+        private Result(final LocalDate date, final LocalDateTime dateTime, final Failure failure) {
+            this(date, dateTime, null, 0L, failure);
+        }
+
+        private Result(final Duration offset, final long rate, final Failure failure) {
+            this(null, null, offset, rate, failure);
+        }
+
+        private Result(final LocalDateTime anchor, final long rate) {
+            this(null, anchor, null, rate, null);
+        }
+
+        private Result(final LocalDate date, final LocalDateTime dateTime, final Duration offset, final long rate, final Failure failure) {
+            this.date = date;
+            this.dateTime = dateTime;
+            this.offset = offset;
+            this.rate = rate;
+            this.failure = failure;
+        }
+
+        /**
+         * @return True if the value was parsed successfully, else false
+         */
+        public boolean isSuccess() {
+            return failure == null;
+        }
+
+        /**
+         * @return The parsed date if the value was a date without a time portion, else null
+         */
+        public LocalDate getDate() {
+            return date;
+        }
+
+        /**
+         * @return The parsed date/time if the value included a time portion, or the anchor of a scaled value, else null
+         */
+        public LocalDateTime getDateTime() {
+            return dateTime;
+        }
+
+        /**
+         * @return The parsed offset if the value was an offset (e.g. {@code +P3D}), else null
+         */
+        public Duration getOffset() {
+            return offset;
+        }
+
+        /**
+         * @return The parsed rate if the value was scaled (e.g. {@code x60@2016-10-21T00:00}), else 0
+         */
+        public long getRate() {
+            return rate;
+        }
+
+        /**
+         * @return The reason the value could not be parsed, or null if it was parsed successfully
+         */
+        public Failure getFailure() {
+            return failure;
+        }
+
+        /**
+         * Builds the time travel clock for the parsed value, see {@link DateFactory#clockFor(LocalDate)}, {@link DateFactory#clockFor(LocalDateTime)},
+         * {@link DateFactory#offsetClock(Duration)} and {@link DateFactory#scaledClock(long, LocalDateTime)}. Offset and scaled clocks start running when
+         * they are built.
+         *
+         * @return The clock for the parsed value or null if the value could not be parsed
+         */
+        public Clock toClock() {
+            if (date != null) {
+                return DateFactory.clockFor(date);
+            }
+            if (offset != null) {
+                return DateFactory.offsetClock(offset);
+            }
+            if (rate != 0) {
+                return DateFactory.scaledClock(rate, dateTime);
+            }
+            return dateTime == null ? null : DateFactory.clockFor(dateTime);
+        }
+
+        @Override
+        public String toString() {
+            if (failure != null) {
+                return failure.toString();
+            }
+            if (offset != null) {
+                return offset.isNegative() ? "-" + offset.negated() : "+" + offset;
+            }
+            if (rate != 0) {
+                return "x" + rate + "@" + dateTime;
+            }
+            return date != null ? date.toString() : dateTime.toString();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.slalom.delorean;
+
+/**
+ * Source of the system time the {@link DateFactory} clocks are based on. Time travel (fixed dates, offsets and scaled clocks) is applied on top of the
+ * readings of the installed source, see {@link DateFactory#setTimeSource(TimeSource)}.
+ */
+public interface TimeSource {
+
+    /**
+     * Reads the time directly from {@link System}
+     */
+    TimeSource SYSTEM = new TimeSource() {
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public String toString() {
+            return "TimeSource[SYSTEM]";
+        }
+    };
+
+    /**
+     * @return The current epoch millis, see {@link System#currentTimeMillis()}
+     */
+    long currentTimeMillis();
+
+    /**
+     * @return The current value of a monotonic nanosecond timer, only meaningful relative to other readings, see {@link System#nanoTime()}
+     */
+    long nanoTime();
+}
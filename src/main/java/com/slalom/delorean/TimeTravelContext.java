@@ -0,0 +1,240 @@
+package com.slalom.delorean;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+
+/**
+ * Immutable pairing of a time travel {@link Clock} with the ISO formatted value used to propagate it to downstream systems (see
+ * {@link DateFactory#getTestDateString()}).
+ * <p>
+ * For fixed date, fixed instant and offset clocks the value never changes, so it is formatted once (the first time it is requested) and shared by every
+ * outbound request made while the context is in effect. For any other clock the value is derived from the clock each time it is requested. The same
+ * applies to the compact value, see {@link #getCompactHeaderValue()}.
+ */
+public final class TimeTravelContext {
+
+    private final Clock clock;
+    private final boolean fixedInstant;
+    private final boolean fixed;
+    private final ClockSnapshot snapshot;
+
+    //Lazily formatted for fixed clocks. Racing threads format the same immutable String, so the field needs no synchronization
+    private String headerValue;
+    //Lazily encoded for fixed clocks. Unlike a String an array is not safely published by its own fields, hence volatile
+    private volatile byte[] headerBytes;
+    private String compactHeaderValue;
+    private volatile byte[] compactHeaderBytes;
+
+    private TimeTravelContext(final Clock clock, final boolean fixedInstant, final boolean fixed) {
+        this.clock = clock;
+        this.fixedInstant = fixedInstant;
+        this.fixed = fixed;
+        this.snapshot = new ClockSnapshot(clock);
+    }
+
+    /**
+     * Creates a context for the provided clock. If the clock is a fixed date or fixed instant clock its header value is only formatted once.
+     *
+     * @param clock The time travel clock
+     * @return The context for the clock
+     */
+    public static TimeTravelContext of(final Clock clock) {
+        Objects.requireNonNull(clock);
+
+        if (clock instanceof DateFactory.FixedDateClock) {
+            return new TimeTravelContext(clock, false, true);
+        }
+        if (clock instanceof TimeWarpClock) {
+            //An offset clock propagates its (constant) offset, a scaled clock its current date/time
+            return new TimeTravelContext(clock, false, !((TimeWarpClock) clock).isScaled());
+        }
+
+        final boolean fixedInstant = isFixedClock(clock);
+        return new TimeTravelContext(clock, fixedInstant, fixedInstant);
+    }
+
+    /**
+     * @return The time travel clock
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Returns the time travel clock adjusted to the provided zone. The adjusted clocks for the most recently used zones are cached, so repeatedly reading
+     * the clock in the same zone does not build a new clock.
+     *
+     * @param zone The zone to read the clock in
+     * @return The time travel clock in the provided zone
+     */
+    public Clock getClock(final ZoneId zone) {
+        return snapshot.getClock(zone);
+    }
+
+    /**
+     * @return The snapshot of this context's clock, shared by every {@link DateFactory#clockSnapshot()} taken while the context is in effect
+     */
+    ClockSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return True if the clock is fixed to a single instant, else false
+     */
+    public boolean isFixedInstant() {
+        return fixedInstant;
+    }
+
+    /**
+     * @return True if the clock is a fixed date, fixed instant or offset clock, whose readings do not depend on when the clock was built, so the context
+     * may be shared by any number of requests. False if the clock (e.g. a scaled clock) started running when it was built.
+     */
+    public boolean isFixed() {
+        return fixed;
+    }
+
+    /**
+     * Returns how fast this context's clock runs relative to real time, e.g. for working out how long to wait for a date/time of the clock to arrive
+     *
+     * @return 0 if the clock is fixed to a single instant, the rate of a scaled clock (see {@link DateFactory#scaledClock(long, LocalDateTime)}), else 1
+     */
+    public long getRate() {
+        if (fixedInstant) {
+            return 0L;
+        }
+        return clock instanceof TimeWarpClock ? ((TimeWarpClock) clock).getRate() : 1L;
+    }
+
+    /**
+     * Returns the ISO formatted representation of this context's date/time
+     *
+     * @return A date/time (e.g. 2016-01-01T16:30:30) for a fixed instant clock, the time warp specification (e.g. +P3D) for offset and scaled clocks,
+     * otherwise the clock's current date (e.g. 2016-01-01)
+     */
+    public String getHeaderValue() {
+        if (!fixed) {
+            return formatHeaderValue();
+        }
+
+        String value = headerValue;
+        if (value == null) {
+            value = formatHeaderValue();
+            headerValue = value;
+        }
+        return value;
+    }
+
+    /**
+     * Returns {@link #getHeaderValue()} encoded as UTF-8, e.g. for binary message headers. For fixed date, fixed instant and offset clocks the value is
+     * only encoded once and the same array is returned every time, so callers must not modify it.
+     *
+     * @return The UTF-8 encoded header value
+     */
+    public byte[] getHeaderBytes() {
+        if (!fixed) {
+            return formatHeaderValue().getBytes(StandardCharsets.UTF_8);
+        }
+
+        byte[] bytes = headerBytes;
+        if (bytes == null) {
+            bytes = getHeaderValue().getBytes(StandardCharsets.UTF_8);
+            headerBytes = bytes;
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the compact representation of this context's date/time, which {@link IsoDateParser} decodes with a handful of integer operations rather
+     * than parsing the fields of an ISO value. Clocks without a compact representation (scaled clocks, fractional seconds and offsets, years outside of
+     * 0000-9999) fall back to {@link #getHeaderValue()}.
+     *
+     * @return {@code ~d} and the base 36 epoch day for a fixed date (e.g. {@code ~dcyp} for 2016-01-01), {@code ~i} and the base 36 epoch second of the
+     * date/time read as if it were UTC for a fixed instant, {@code ~o} and the base 36 number of seconds for an offset, else the ISO value
+     */
+    public String getCompactHeaderValue() {
+        if (!fixed) {
+            return formatHeaderValue();
+        }
+
+        String value = compactHeaderValue;
+        if (value == null) {
+            value = formatCompactHeaderValue();
+            compactHeaderValue = value;
+        }
+        return value;
+    }
+
+    /**
+     * Returns {@link #getCompactHeaderValue()} encoded as UTF-8, encoded once for fixed clocks, see {@link #getHeaderBytes()}
+     *
+     * @return The UTF-8 encoded compact header value
+     */
+    public byte[] getCompactHeaderBytes() {
+        if (!fixed) {
+            return formatHeaderValue().getBytes(StandardCharsets.UTF_8);
+        }
+
+        byte[] bytes = compactHeaderBytes;
+        if (bytes == null) {
+            bytes = getCompactHeaderValue().getBytes(StandardCharsets.UTF_8);
+            compactHeaderBytes = bytes;
+        }
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "TimeTravelContext[" + clock + "]";
+    }
+
+    private String formatHeaderValue() {
+        if (clock instanceof TimeWarpClock) {
+            return ((TimeWarpClock) clock).getSpec();
+        }
+        if (fixedInstant) {
+            return LocalDateTime.now(clock).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        }
+        if (clock instanceof DateFactory.FixedDateClock) {
+            return ((DateFactory.FixedDateClock) clock).getDate().format(DateTimeFormatter.ISO_LOCAL_DATE);
+        }
+        return LocalDate.now(clock).format(DateTimeFormatter.ISO_LOCAL_DATE);
+    }
+
+    private String formatCompactHeaderValue() {
+        if (clock instanceof TimeWarpClock) {
+            final Duration offset = ((TimeWarpClock) clock).getOffset();
+            if (offset != null && offset.getNano() == 0) {
+                return compact(IsoDateParser.COMPACT_OFFSET, offset.getSeconds());
+            }
+        } else if (clock instanceof DateFactory.FixedDateClock) {
+            final long epochDay = ((DateFactory.FixedDateClock) clock).getDate().toEpochDay();
+            if (epochDay >= IsoDateParser.MIN_EPOCH_DAY && epochDay <= IsoDateParser.MAX_EPOCH_DAY) {
+                return compact(IsoDateParser.COMPACT_DATE, epochDay);
+            }
+        } else if (fixedInstant) {
+            final LocalDateTime dateTime = LocalDateTime.now(clock);
+            final long epochDay = dateTime.toLocalDate().toEpochDay();
+            if (dateTime.getNano() == 0 && epochDay >= IsoDateParser.MIN_EPOCH_DAY && epochDay <= IsoDateParser.MAX_EPOCH_DAY) {
+                return compact(IsoDateParser.COMPACT_DATE_TIME, dateTime.toEpochSecond(ZoneOffset.UTC));
+            }
+        }
+        return getHeaderValue();
+    }
+
+    private static String compact(final char mode, final long value) {
+        return new StringBuilder(14).append(IsoDateParser.COMPACT_PREFIX).append(mode).append(Long.toString(value, 36)).toString();
+    }
+
+    private static boolean isFixedClock(final Clock clock) {
+        //Since we cannot access the package private Clock.FixedClock we need to check by name
+        String clockType = clock.getClass().getCanonicalName();
+        return "java.Time.Clock.FixedClock".equalsIgnoreCase(clockType);
+    }
+}
@@ -0,0 +1,152 @@
+package com.slalom.delorean;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+/**
+ * Clock which starts at a given instant and then advances at a multiple of real time, measured with {@link TimeSource#nanoTime()} rather than the
+ * wall clock. Each reading is computed from the starting point (start + elapsed &times; rate) rather than accumulated, so readings never drift from one
+ * another, and no date/time objects are built to compute them.
+ * <p>
+ * Two flavours are created by {@link DateFactory}:
+ * <ul>
+ * <li>offset clocks ({@code +P3D}) which start at the current time plus an offset and advance in real time</li>
+ * <li>scaled clocks ({@code x60@2016-10-21T00:00}) which start at an anchor date/time and advance {@code rate} times faster than real time</li>
+ * </ul>
+ * Clocks derived via {@link #withZone(ZoneId)} share the starting point of the original clock.
+ */
+final class TimeWarpClock extends Clock {
+
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long startSecond;
+    private final long startNano;
+    private final long startNanoTime;
+    private final long rate;
+    private final Duration offset;
+    private final ZoneId zone;
+
+    private TimeWarpClock(final long startSecond, final long startNano, final long startNanoTime, final long rate, final Duration offset,
+            final ZoneId zone) {
+        this.startSecond = startSecond;
+        this.startNano = startNano;
+        this.startNanoTime = startNanoTime;
+        this.rate = rate;
+        this.offset = offset;
+        this.zone = zone;
+    }
+
+    /**
+     * @param offset The amount to shift the current time by
+     * @param zone   The zone of the clock
+     * @return A clock running in real time, shifted by the offset
+     */
+    static TimeWarpClock offset(final Duration offset, final ZoneId zone) {
+        Objects.requireNonNull(offset);
+        final long nanoTime = DateFactory.nanoTime();
+        final Instant start = Instant.ofEpochMilli(DateFactory.currentTimeMillis()).plus(offset);
+        return new TimeWarpClock(start.getEpochSecond(), start.getNano(), nanoTime, 1L, offset, zone);
+    }
+
+    /**
+     * @param rate   How many times faster than real time the clock runs, must be positive
+     * @param anchor The instant the clock starts at
+     * @param zone   The zone of the clock
+     * @return A clock starting now at the anchor and running rate times faster than real time
+     */
+    static TimeWarpClock scaled(final long rate, final Instant anchor, final ZoneId zone) {
+        if (rate < 1) {
+            throw new IllegalArgumentException("Rate must be positive: " + rate);
+        }
+        return new TimeWarpClock(anchor.getEpochSecond(), anchor.getNano(), DateFactory.nanoTime(), rate, null, zone);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(final ZoneId zone) {
+        if (zone.equals(this.zone)) {  // intentional NPE
+            return this;
+        }
+        return new TimeWarpClock(startSecond, startNano, startNanoTime, rate, offset, zone);
+    }
+
+    @Override
+    public long millis() {
+        final long elapsed = elapsedNanos();
+        final long nanos = startNano + scaledNanos(elapsed);
+        return Math.addExact(Math.multiplyExact(epochSecond(elapsed, nanos), 1000L), Math.floorMod(nanos, NANOS_PER_SECOND) / NANOS_PER_MILLI);
+    }
+
+    @Override
+    public Instant instant() {
+        final long elapsed = elapsedNanos();
+        final long nanos = startNano + scaledNanos(elapsed);
+        return Instant.ofEpochSecond(epochSecond(elapsed, nanos), Math.floorMod(nanos, NANOS_PER_SECOND));
+    }
+
+    /**
+     * @return How many times faster than real time this clock runs, 1 for offset clocks
+     */
+    long getRate() {
+        return rate;
+    }
+
+    /**
+     * @return The offset of an offset clock, null for a scaled clock
+     */
+    Duration getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return True if this clock runs faster than real time, false if it is an offset clock
+     */
+    boolean isScaled() {
+        return offset == null;
+    }
+
+    /**
+     * Returns the time warp specification which recreates this clock, for propagation to downstream systems. Offset clocks return their offset (e.g.
+     * {@code +PT72H}); scaled clocks return their rate anchored at the clock's current date/time (e.g. {@code x60@2016-10-21T05:31:12.345}) so that a
+     * clock created from it continues from where this clock is now.
+     *
+     * @return The specification
+     */
+    String getSpec() {
+        if (offset != null) {
+            return offset.isNegative() ? "-" + offset.negated() : "+" + offset;
+        }
+        //LocalDateTime.toString() is ISO-8601 (omitting zero seconds) and much cheaper than a DateTimeFormatter
+        return "x" + rate + "@" + LocalDateTime.ofInstant(instant(), zone).truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    @Override
+    public String toString() {
+        return "TimeWarpClock[" + (offset != null ? getSpec() : "x" + rate) + "," + zone + "]";
+    }
+
+    private long elapsedNanos() {
+        //A coarse time source may not have ticked since the clock was created
+        return Math.max(0L, DateFactory.nanoTime() - startNanoTime);
+    }
+
+    //Whole seconds and remaining nanos of the elapsed time are scaled separately as elapsed nanos times the rate overflows within hours at high rates
+    private long scaledNanos(final long elapsed) {
+        return Math.multiplyExact(elapsed % NANOS_PER_SECOND, rate);
+    }
+
+    private long epochSecond(final long elapsed, final long nanos) {
+        final long scaledSeconds = Math.multiplyExact(elapsed / NANOS_PER_SECOND, rate);
+        return Math.addExact(Math.addExact(startSecond, scaledSeconds), Math.floorDiv(nanos, NANOS_PER_SECOND));
+    }
+}
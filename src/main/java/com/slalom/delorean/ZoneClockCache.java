@@ -0,0 +1,52 @@
+package com.slalom.delorean;
+
+import java.time.Clock;
+import java.time.ZoneId;
+import java.util.Objects;
+
+/**
+ * Small cache of a clock's zone-adjusted variants (see {@link Clock#withZone(ZoneId)}), so repeatedly reading a clock in the same few zones does not
+ * build a new clock each time.
+ * <p>
+ * The cached clocks are published as an immutable array which lookups scan without locking. Once the cache is full the oldest zone is replaced.
+ */
+final class ZoneClockCache {
+
+    private static final int SIZE_LIMIT = 8;
+    private static final Clock[] EMPTY = new Clock[0];
+
+    private final Clock clock;
+
+    //Racing threads may each add a clock, losing one of them - which only costs a later cache miss
+    private volatile Clock[] zoneClocks = EMPTY;
+
+    ZoneClockCache(final Clock clock) {
+        this.clock = Objects.requireNonNull(clock);
+    }
+
+    /**
+     * @param zone The zone to read the clock in
+     * @return The clock adjusted to the provided zone
+     */
+    Clock withZone(final ZoneId zone) {
+        if (zone == clock.getZone()) {
+            return clock;
+        }
+
+        final Clock[] clocks = zoneClocks;
+        for (Clock zoneClock : clocks) {
+            final ZoneId cachedZone = zoneClock.getZone();
+            if (cachedZone == zone || cachedZone.equals(zone)) {
+                return zoneClock;
+            }
+        }
+
+        final Clock zoneClock = clock.withZone(zone);
+        final int size = Math.min(clocks.length + 1, SIZE_LIMIT);
+        final Clock[] updated = new Clock[size];
+        System.arraycopy(clocks, clocks.length + 1 - size, updated, 0, size - 1);
+        updated[size - 1] = zoneClock;
+        zoneClocks = updated;
+        return zoneClock;
+    }
+}
@@ -0,0 +1,57 @@
+package com.slalom.delorean.cluster;
+
+import com.slalom.delorean.DateFactory;
+import com.slalom.delorean.TimeSource;
+
+/**
+ * Hybrid logical clock versioning {@link TimeTravelUpdate}s. Timestamps pack the epoch millis of the system clock into the upper 48 bits and a logical
+ * counter into the lower 16 bits, so they stay close to physical time while never going backwards on a node, even when its system clock does, and
+ * always moving past every timestamp the node has received.
+ * <p>
+ * Physical time is read from the system time source (see {@link DateFactory#getTimeSource()}), never from the time travel clock.
+ */
+final class HybridLogicalClock {
+
+    static final int LOGICAL_BITS = 16;
+
+    private final TimeSource timeSource;
+    private long last;
+
+    /**
+     * @param timeSource The source of physical time, null for the source installed in {@link DateFactory}
+     */
+    HybridLogicalClock(final TimeSource timeSource) {
+        this.timeSource = timeSource;
+    }
+
+    /**
+     * @return A timestamp for a local event (e.g. an update made on this node), greater than any timestamp previously returned
+     */
+    synchronized long tick() {
+        last = Math.max(last + 1, physicalTimestamp());
+        return last;
+    }
+
+    /**
+     * Moves the clock past a timestamp received from another node
+     *
+     * @param remote The received timestamp
+     * @return A timestamp greater than both the received timestamp and any timestamp previously returned
+     */
+    synchronized long receive(final long remote) {
+        last = Math.max(Math.max(last, remote) + 1, physicalTimestamp());
+        return last;
+    }
+
+    private long physicalTimestamp() {
+        return (timeSource == null ? DateFactory.getTimeSource() : timeSource).currentTimeMillis() << LOGICAL_BITS;
+    }
+
+    /**
+     * @param timestamp A timestamp
+     * @return The timestamp as {@code millis.counter}
+     */
+    static String toString(final long timestamp) {
+        return (timestamp >>> LOGICAL_BITS) + "." + (timestamp & ((1 << LOGICAL_BITS) - 1));
+    }
+}
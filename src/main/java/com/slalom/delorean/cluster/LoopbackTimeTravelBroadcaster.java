@@ -0,0 +1,36 @@
+package com.slalom.delorean.cluster;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * {@link TimeTravelBroadcaster} delivering updates to the listeners subscribed to the same instance, on the publishing thread. Stands in for a real
+ * channel for a single node, or connects several {@link TimeTravelCluster}s within one JVM (e.g. in tests).
+ */
+public class LoopbackTimeTravelBroadcaster implements TimeTravelBroadcaster {
+
+    private final List<Consumer<TimeTravelUpdate>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(final TimeTravelUpdate update) {
+        for (Consumer<TimeTravelUpdate> listener : listeners) {
+            listener.accept(update);
+        }
+    }
+
+    @Override
+    public void subscribe(final Consumer<TimeTravelUpdate> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void unsubscribe(final Consumer<TimeTravelUpdate> listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void close() {
+        listeners.clear();
+    }
+}
@@ -0,0 +1,165 @@
+package com.slalom.delorean.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * {@link TimeTravelBroadcaster} exchanging updates through a file all nodes can reach, e.g. on a local disk for nodes running on one host or on a shared
+ * volume. The file only holds the latest update: publishing replaces it (under a lock on a sibling {@code .lock} file, and only if the update is newer
+ * than the one already there), and each node polls it for changes. Nodes joining later therefore receive the current update on their first poll.
+ * <p>
+ * Polling costs a read of a file of a few dozen bytes per interval, and bounds the propagation latency to roughly one interval.
+ */
+public class SharedFileTimeTravelBroadcaster implements TimeTravelBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedFileTimeTravelBroadcaster.class);
+
+    //File locks are held by the whole JVM, so publishers within one JVM must also be serialized among themselves
+    private static final Object PUBLISH_LOCK = new Object();
+
+    private final Path file;
+    private final Path lockFile;
+    private final long pollIntervalNanos;
+    private final List<Consumer<TimeTravelUpdate>> listeners = new CopyOnWriteArrayList<>();
+
+    private Thread poller;
+    private volatile boolean closed;
+    private String lastSeen;
+
+    /**
+     * @param file         The file to exchange updates through, its directory must exist
+     * @param pollInterval How often to check the file for a new update
+     */
+    public SharedFileTimeTravelBroadcaster(final Path file, final Duration pollInterval) {
+        this.file = file.toAbsolutePath();
+        this.lockFile = this.file.resolveSibling(this.file.getFileName() + ".lock");
+        this.pollIntervalNanos = pollInterval.toNanos();
+        if (pollIntervalNanos <= 0) {
+            throw new IllegalArgumentException("Poll interval must be positive: " + pollInterval);
+        }
+    }
+
+    @Override
+    public void publish(final TimeTravelUpdate update) {
+        Objects.requireNonNull(update);
+        synchronized (PUBLISH_LOCK) {
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                final FileLock lock = channel.lock();
+                try {
+                    replace(update);
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to publish " + update + " to " + file, e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void subscribe(final Consumer<TimeTravelUpdate> listener) {
+        if (closed) {
+            throw new IllegalStateException("Broadcaster is closed");
+        }
+        listeners.add(Objects.requireNonNull(listener));
+        if (poller == null) {
+            poller = new Thread(this::poll, "delorean-time-travel-file");
+            poller.setDaemon(true);
+            poller.start();
+        }
+    }
+
+    @Override
+    public void unsubscribe(final Consumer<TimeTravelUpdate> listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        listeners.clear();
+        if (poller != null) {
+            LockSupport.unpark(poller);
+        }
+    }
+
+    /**
+     * @return The file updates are exchanged through
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    private void poll() {
+        while (!closed) {
+            try {
+                final String encoded = read();
+                if (encoded != null && !encoded.equals(lastSeen)) {
+                    lastSeen = encoded;
+                    final TimeTravelUpdate update = decode(encoded);
+                    if (update != null) {
+                        for (Consumer<TimeTravelUpdate> listener : listeners) {
+                            listener.accept(update);
+                        }
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Unable to read time travel update from {}", file, e);
+            }
+            LockSupport.parkNanos(this, pollIntervalNanos);
+        }
+    }
+
+    //Only called while holding the lock on the lock file
+    private void replace(final TimeTravelUpdate update) throws IOException {
+        final TimeTravelUpdate current = decode(read());
+        if (current != null && !update.isNewerThan(current)) {
+            log.debug("Not publishing {}, the shared file already holds the newer {}", update, current);
+            return;
+        }
+
+        final Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, update.encode().getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private String read() throws IOException {
+        try {
+            return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private TimeTravelUpdate decode(final String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return null;
+        }
+        try {
+            return TimeTravelUpdate.decode(encoded);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring unreadable time travel update in {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+}
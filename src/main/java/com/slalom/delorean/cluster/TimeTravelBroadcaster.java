@@ -0,0 +1,37 @@
+package com.slalom.delorean.cluster;
+
+import java.util.function.Consumer;
+
+/**
+ * Channel over which the nodes of a cluster exchange {@link TimeTravelUpdate}s, see {@link TimeTravelCluster}.
+ * <p>
+ * Delivery is at least once and in any order: listeners may receive an update more than once, their own updates, or an older update after a newer one,
+ * as {@link TimeTravelCluster} only applies updates newer than the last it applied. A channel only carrying the latest update (as
+ * {@link SharedFileTimeTravelBroadcaster} does) is therefore sufficient.
+ */
+public interface TimeTravelBroadcaster extends AutoCloseable {
+
+    /**
+     * Sends an update to the other nodes
+     *
+     * @param update The update to send
+     * @throws java.io.UncheckedIOException If the update could not be sent
+     */
+    void publish(TimeTravelUpdate update);
+
+    /**
+     * @param listener Notified of the updates received, possibly on a thread of the broadcaster
+     */
+    void subscribe(Consumer<TimeTravelUpdate> listener);
+
+    /**
+     * @param listener The listener to stop notifying
+     */
+    void unsubscribe(Consumer<TimeTravelUpdate> listener);
+
+    /**
+     * Stops receiving updates, releasing any resources held
+     */
+    @Override
+    void close();
+}
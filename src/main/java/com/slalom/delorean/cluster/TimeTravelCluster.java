@@ -0,0 +1,136 @@
+package com.slalom.delorean.cluster;
+
+import com.slalom.delorean.DateFactory;
+import com.slalom.delorean.IsoDateParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.time.Clock;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the global test date (see {@link DateFactory#setGlobalTestClock(Clock)}) of every node of a cluster in step: global test dates set through the
+ * cluster are applied locally and broadcast to the other nodes, which apply them as they receive them.
+ * <p>
+ * Each update is stamped by the node's {@link HybridLogicalClock}, which also moves past the timestamp of every update received. A node only applies an
+ * update newer than the last one it applied, so late or repeated deliveries never take a node back to an earlier global test date and all nodes
+ * settle on the same latest update. Updates are applied one at a time, the check and the change of the global test date being atomic.
+ * <p>
+ * Fixed dates and instants resolve to the same clock on every node. Offsets and accelerated clocks are resolved by each node as it applies the update,
+ * so are relative to that node's system clock and the moment the update reached it.
+ */
+public class TimeTravelCluster implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(TimeTravelCluster.class);
+
+    private final String nodeId;
+    private final TimeTravelBroadcaster broadcaster;
+    private final Consumer<Clock> globalClock;
+    private final HybridLogicalClock hybridClock;
+    private final Consumer<TimeTravelUpdate> listener = this::apply;
+
+    //Guarded by this
+    private TimeTravelUpdate lastApplied;
+
+    /**
+     * Subscribes to the broadcaster, the broadcaster remains owned by the caller
+     *
+     * @param nodeId      The id of this node, unique within the cluster
+     * @param broadcaster The channel the nodes exchange updates through
+     */
+    public TimeTravelCluster(final String nodeId, final TimeTravelBroadcaster broadcaster) {
+        this(nodeId, broadcaster, DateFactory::setGlobalTestClock, new HybridLogicalClock(null));
+    }
+
+    TimeTravelCluster(final String nodeId, final TimeTravelBroadcaster broadcaster, final Consumer<Clock> globalClock,
+            final HybridLogicalClock hybridClock) {
+        if (!TimeTravelUpdate.isValidNodeId(nodeId)) {
+            throw new IllegalArgumentException("Invalid node id: " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.broadcaster = Objects.requireNonNull(broadcaster);
+        this.globalClock = Objects.requireNonNull(globalClock);
+        this.hybridClock = Objects.requireNonNull(hybridClock);
+        broadcaster.subscribe(listener);
+    }
+
+    /**
+     * Sets the global test date on every node
+     *
+     * @param testDate An ISO formatted date, date/time or time warp specification, see {@link IsoDateParser}
+     * @return The update broadcast
+     * @throws IllegalArgumentException If the test date cannot be parsed
+     */
+    public TimeTravelUpdate setGlobalTestDate(final String testDate) {
+        final IsoDateParser.Result result = IsoDateParser.parse(testDate);
+        if (!result.isSuccess()) {
+            throw new IllegalArgumentException("Unable to parse date " + testDate + " for time travel: " + result.getFailure());
+        }
+        return publish(testDate);
+    }
+
+    /**
+     * Clears the global test date on every node
+     *
+     * @return The update broadcast
+     */
+    public TimeTravelUpdate clearGlobalTestDate() {
+        return publish(null);
+    }
+
+    /**
+     * Applies an update received from the cluster, unless this node already applied the same or a newer update
+     *
+     * @param update The update
+     * @return True if the update was applied
+     */
+    public synchronized boolean apply(final TimeTravelUpdate update) {
+        hybridClock.receive(update.getTimestamp());
+        if (!update.isNewerThan(lastApplied)) {
+            log.trace("Ignoring {}, already applied {}", update, lastApplied);
+            return false;
+        }
+
+        Clock clock = null;
+        if (update.getTestDate() != null) {
+            final IsoDateParser.Result result = IsoDateParser.parse(update.getTestDate());
+            if (!result.isSuccess()) {
+                log.warn("Ignoring {}, unable to parse its test date: {}", update, result.getFailure());
+                return false;
+            }
+            clock = result.toClock();
+        }
+
+        globalClock.accept(clock);
+        lastApplied = update;
+        log.debug("Applied {}", update);
+        return true;
+    }
+
+    /**
+     * @return The last update applied on this node, or null if none has been applied
+     */
+    public synchronized TimeTravelUpdate getLastApplied() {
+        return lastApplied;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Stops applying updates from the cluster. The global test date is left as it is.
+     */
+    @Override
+    public void close() {
+        broadcaster.unsubscribe(listener);
+    }
+
+    private TimeTravelUpdate publish(final String testDate) {
+        final TimeTravelUpdate update = new TimeTravelUpdate(hybridClock.tick(), nodeId, testDate);
+        apply(update);
+        broadcaster.publish(update);
+        log.info("Broadcast {}", update);
+        return update;
+    }
+}
@@ -0,0 +1,137 @@
+package com.slalom.delorean.cluster;
+
+import java.util.Objects;
+
+/**
+ * A change to the global test date (see {@link com.slalom.delorean.DateFactory#setGlobalTestClock(java.time.Clock)}) broadcast to every node of a
+ * cluster. Updates are versioned by the hybrid logical clock timestamp of the node which made the change, ties between nodes being broken by the nodes'
+ * ids, so every node orders a given set of updates the same way and keeps the latest.
+ * <p>
+ * The test date travels in its ISO form (see {@link com.slalom.delorean.IsoDateParser}) and is resolved to a clock by each node as it applies it.
+ */
+public final class TimeTravelUpdate implements Comparable<TimeTravelUpdate> {
+
+    private static final String FORMAT_VERSION = "1";
+    private static final char SEPARATOR = '|';
+
+    private final long timestamp;
+    private final String origin;
+    private final String testDate;
+
+    /**
+     * @param timestamp The hybrid logical clock timestamp the update was made at, see {@link HybridLogicalClock}
+     * @param origin    The id of the node which made the update
+     * @param testDate  The ISO formatted global test date, or null if the update clears the global test date
+     */
+    public TimeTravelUpdate(final long timestamp, final String origin, final String testDate) {
+        this.timestamp = timestamp;
+        this.origin = Objects.requireNonNull(origin);
+        this.testDate = testDate;
+        if (!isValidNodeId(origin)) {
+            throw new IllegalArgumentException("Invalid node id: " + origin);
+        }
+        if (testDate != null && (testDate.isEmpty() || testDate.indexOf('\n') >= 0 || testDate.indexOf('\r') >= 0)) {
+            throw new IllegalArgumentException("Invalid test date: " + testDate);
+        }
+    }
+
+    /**
+     * @param nodeId A node id
+     * @return True if the id is non-empty and free of line breaks and {@code |}, so can be encoded
+     */
+    static boolean isValidNodeId(final String nodeId) {
+        if (nodeId.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < nodeId.length(); i++) {
+            final char c = nodeId.charAt(i);
+            if (c == SEPARATOR || c == '\n' || c == '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes an update encoded by {@link #encode()}
+     *
+     * @param encoded The encoded update
+     * @return The update
+     * @throws IllegalArgumentException If the value is not an encoded update
+     */
+    public static TimeTravelUpdate decode(final String encoded) {
+        final int versionEnd = encoded.indexOf(SEPARATOR);
+        final int timestampEnd = versionEnd < 0 ? -1 : encoded.indexOf(SEPARATOR, versionEnd + 1);
+        final int originEnd = timestampEnd < 0 ? -1 : encoded.indexOf(SEPARATOR, timestampEnd + 1);
+        if (originEnd < 0 || !FORMAT_VERSION.equals(encoded.substring(0, versionEnd))) {
+            throw new IllegalArgumentException("Not a time travel update: " + encoded);
+        }
+
+        final long timestamp;
+        try {
+            timestamp = Long.parseLong(encoded.substring(versionEnd + 1, timestampEnd));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a time travel update: " + encoded, e);
+        }
+        final String testDate = encoded.substring(originEnd + 1);
+        return new TimeTravelUpdate(timestamp, encoded.substring(timestampEnd + 1, originEnd), testDate.isEmpty() ? null : testDate);
+    }
+
+    /**
+     * @return The update as a single line of text, i.e. {@code 1|timestamp|origin|testDate}
+     */
+    public String encode() {
+        return FORMAT_VERSION + SEPARATOR + timestamp + SEPARATOR + origin + SEPARATOR + (testDate == null ? "" : testDate);
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    /**
+     * @return The ISO formatted global test date, or null if the update clears the global test date
+     */
+    public String getTestDate() {
+        return testDate;
+    }
+
+    /**
+     * @param other Another update
+     * @return True if this update was made after the other update
+     */
+    public boolean isNewerThan(final TimeTravelUpdate other) {
+        return other == null || compareTo(other) > 0;
+    }
+
+    @Override
+    public int compareTo(final TimeTravelUpdate other) {
+        final int byTimestamp = Long.compare(timestamp, other.timestamp);
+        return byTimestamp != 0 ? byTimestamp : origin.compareTo(other.origin);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof TimeTravelUpdate)) {
+            return false;
+        }
+        final TimeTravelUpdate update = (TimeTravelUpdate) other;
+        return timestamp == update.timestamp && origin.equals(update.origin) && Objects.equals(testDate, update.testDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(timestamp, origin, testDate);
+    }
+
+    @Override
+    public String toString() {
+        return "TimeTravelUpdate[" + (testDate == null ? "clear" : testDate) + " from " + origin + " at " + HybridLogicalClock.toString(timestamp) + "]";
+    }
+}
@@ -0,0 +1,28 @@
+package com.slalom.delorean.concurrent;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+/**
+ * {@link Executor} decorator which runs each task with the time travel context of the thread that submitted it.
+ * <p>
+ * For example, to propagate the test date into {@link java.util.concurrent.CompletableFuture} stages:
+ * <pre>
+ * CompletableFuture.supplyAsync(supplier, new TimeTravelExecutor(ForkJoinPool.commonPool()));
+ * </pre>
+ *
+ * @see TimeTravelTasks
+ */
+public class TimeTravelExecutor implements Executor {
+
+    private final Executor delegate;
+
+    public TimeTravelExecutor(final Executor delegate) {
+        this.delegate = Objects.requireNonNull(delegate);
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        delegate.execute(TimeTravelTasks.wrap(command));
+    }
+}
@@ -0,0 +1,45 @@
+package com.slalom.delorean.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ScheduledExecutorService} decorator which runs each task with the time travel context of the thread that scheduled it. Periodic tasks run every
+ * execution with the context captured when they were scheduled.
+ * <p>
+ * Note that only the dates returned by {@link com.slalom.delorean.DateFactory} within the tasks are affected - delays are still measured against the
+ * system clock.
+ *
+ * @see TimeTravelTasks
+ */
+public class TimeTravelScheduledExecutorService extends TimeTravelExecutorService implements ScheduledExecutorService {
+
+    private final ScheduledExecutorService delegate;
+
+    public TimeTravelScheduledExecutorService(final ScheduledExecutorService delegate) {
+        super(delegate);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(final Runnable command, final long delay, final TimeUnit unit) {
+        return delegate.schedule(TimeTravelTasks.wrap(command), delay, unit);
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(final Callable<V> callable, final long delay, final TimeUnit unit) {
+        return delegate.schedule(TimeTravelTasks.wrap(callable), delay, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(final Runnable command, final long initialDelay, final long period, final TimeUnit unit) {
+        return delegate.scheduleAtFixedRate(TimeTravelTasks.wrap(command), initialDelay, period, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(final Runnable command, final long initialDelay, final long delay, final TimeUnit unit) {
+        return delegate.scheduleWithFixedDelay(TimeTravelTasks.wrap(command), initialDelay, delay, unit);
+    }
+}
@@ -0,0 +1,506 @@
+package com.slalom.delorean.concurrent;
+
+import com.slalom.delorean.DateFactory;
+import com.slalom.delorean.TimeTravelContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.PeriodicTrigger;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+import org.springframework.scheduling.support.TaskUtils;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link ScheduledExecutorService} and Spring {@link TaskScheduler} whose delays, start times and triggers are measured against the global
+ * {@link DateFactory} clock (the global test clock if set, else the system clock) rather than the wall clock. Moving the global test date to the end of
+ * the month fires the month-end jobs scheduled for it, and an accelerated global clock fires periodic jobs correspondingly faster.
+ * <p>
+ * Pending tasks are kept in a priority queue ordered by the clock time they are due. A dispatcher thread hands due tasks to a fixed size pool of worker
+ * threads, so tasks due together run in parallel. The dispatcher re-evaluates the queue whenever the global test clock changes, otherwise it sleeps until
+ * the next task is due (allowing for the rate of a scaled clock) but never longer than the configured maximum wait.
+ * <p>
+ * Tasks run without a thread test date, so see the global clock. When the clock jumps past several executions of a fixed rate task they are coalesced
+ * into one. Cron and other triggers are evaluated against the clock: a trigger's first evaluation sees the clock's current time as the last completion
+ * time, and a {@link PeriodicTrigger}'s initial delay is counted from the clock's current time. When the global clock changes, queued tasks which
+ * would now be due earlier are brought forward: cron and other triggers are evaluated against the new clock time, so a cron task queued for 2026 fires
+ * in 2015 once the clock is moved back to 2015, while delayed one-shot, fixed rate, fixed delay and periodic trigger tasks wait no longer than they were
+ * queued to wait. Only one-shot tasks scheduled for a given {@link Date} keep their due time. Tasks are never pushed back, so jumping forward still fires
+ * the tasks jumped past. Shutting down cancels all pending tasks, tasks already
+ * running are allowed to complete.
+ */
+public class TimeTravelScheduler extends AbstractExecutorService implements ScheduledExecutorService, TaskScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(TimeTravelScheduler.class);
+
+    private static final String THREAD_NAME = "delorean-scheduler";
+    private static final Duration MAX_WAIT = Duration.ofSeconds(1);
+
+    private final ExecutorService workers;
+    private final long maxWaitNanos;
+    private final Thread dispatcher;
+    private final Runnable clockListener = this::clockChanged;
+
+    private final PriorityQueue<ScheduledTask<?>> queue = new PriorityQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private volatile boolean shutdown;
+
+    /**
+     * @param poolSize The number of worker threads running due tasks
+     */
+    public TimeTravelScheduler(final int poolSize) {
+        this(poolSize, MAX_WAIT);
+    }
+
+    /**
+     * @param poolSize The number of worker threads running due tasks
+     * @param maxWait  The longest the dispatcher sleeps before reading the clock again, bounding how late tasks fire when a clock other than the global
+     *                 test clock jumps or accelerates
+     */
+    public TimeTravelScheduler(final int poolSize, final Duration maxWait) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("Pool size must be positive: " + poolSize);
+        }
+        if (maxWait.isNegative() || maxWait.isZero()) {
+            throw new IllegalArgumentException("Maximum wait must be positive: " + maxWait);
+        }
+        this.maxWaitNanos = maxWait.toNanos();
+        this.workers = Executors.newFixedThreadPool(poolSize, threadFactory(THREAD_NAME + "-"));
+
+        dispatcher = threadFactory(THREAD_NAME).newThread(this::dispatch);
+        DateFactory.addGlobalClockListener(clockListener);
+        dispatcher.start();
+    }
+
+    /**
+     * @return The current epoch millis of the clock tasks are scheduled against - the global test clock if set, else the system clock
+     */
+    public long clockMillis() {
+        final TimeTravelContext global = DateFactory.getGlobalTestContext();
+        return global == null ? DateFactory.getTimeSource().currentTimeMillis() : global.getClock().millis();
+    }
+
+    /**
+     * @return The number of tasks waiting to become due
+     */
+    public int getQueueSize() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //ScheduledExecutorService
+
+    @Override
+    public ScheduledFuture<?> schedule(final Runnable command, final long delay, final TimeUnit unit) {
+        return enqueue(new ScheduledTask<Void>(Executors.callable(command, null), dueIn(delay, unit), 0L, null, false));
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(final Callable<V> callable, final long delay, final TimeUnit unit) {
+        return enqueue(new ScheduledTask<>(Objects.requireNonNull(callable), dueIn(delay, unit), 0L, null, false));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(final Runnable command, final long initialDelay, final long period, final TimeUnit unit) {
+        return enqueue(new ScheduledTask<Void>(Executors.callable(command, null), dueIn(initialDelay, unit), positive(unit.toMillis(period)), null, false));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(final Runnable command, final long initialDelay, final long delay, final TimeUnit unit) {
+        return enqueue(new ScheduledTask<Void>(Executors.callable(command, null), dueIn(initialDelay, unit), -positive(unit.toMillis(delay)), null, false));
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        schedule(command, 0L, TimeUnit.MILLISECONDS);
+    }
+
+    //TaskScheduler - periodic tasks log and suppress errors rather than stopping, as Spring's own schedulers do
+
+    @Override
+    public ScheduledFuture<?> schedule(final Runnable task, final Trigger trigger) {
+        final Date first = firstExecution(trigger, clockMillis());
+        if (first == null) {
+            return null;
+        }
+        return enqueue(new ScheduledTask<Void>(Executors.callable(errorHandling(task, true), null), first.getTime(), 0L, trigger, false));
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(final Runnable task, final Date startTime) {
+        return enqueue(new ScheduledTask<Void>(Executors.callable(errorHandling(task, false), null), startTime.getTime(), 0L, null, true));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(final Runnable task, final Date startTime, final long period) {
+        return enqueue(new ScheduledTask<Void>(Executors.callable(errorHandling(task, true), null), startTime.getTime(), positive(period), null, false));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(final Runnable task, final long period) {
+        return scheduleAtFixedRate(task, new Date(clockMillis()), period);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(final Runnable task, final Date startTime, final long delay) {
+        return enqueue(new ScheduledTask<Void>(Executors.callable(errorHandling(task, true), null), startTime.getTime(), -positive(delay), null, false));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(final Runnable task, final long delay) {
+        return scheduleWithFixedDelay(task, new Date(clockMillis()), delay);
+    }
+
+    //Lifecycle
+
+    @Override
+    public void shutdown() {
+        for (ScheduledTask<?> task : stop()) {
+            task.cancel(false);
+        }
+        workers.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        final List<Runnable> pending = new ArrayList<>(stop());
+        for (Runnable task : pending) {
+            ((ScheduledTask<?>) task).cancel(false);
+        }
+        workers.shutdownNow();
+        return pending;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown && !dispatcher.isAlive() && workers.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        TimeUnit.NANOSECONDS.timedJoin(dispatcher, Math.max(1L, deadline - System.nanoTime()));
+        return workers.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS) && !dispatcher.isAlive();
+    }
+
+    @Override
+    public String toString() {
+        return "TimeTravelScheduler[queued=" + getQueueSize() + ", shutdown=" + shutdown + "]";
+    }
+
+    private List<ScheduledTask<?>> stop() {
+        DateFactory.removeGlobalClockListener(clockListener);
+        lock.lock();
+        try {
+            shutdown = true;
+            final List<ScheduledTask<?>> pending = new ArrayList<>(queue);
+            queue.clear();
+            changed.signalAll();
+            return pending;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private <V> ScheduledTask<V> enqueue(final ScheduledTask<V> task) {
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new RejectedExecutionException(this + " has been shut down");
+            }
+            queue(task);
+            return task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void reschedule(final ScheduledTask<?> task) {
+        lock.lock();
+        try {
+            if (!shutdown) {
+                queue(task);
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        task.cancel(false);
+    }
+
+    private void queue(final ScheduledTask<?> task) {
+        task.waitMillis = Math.max(0L, task.dueMillis - clockMillis());
+        queue.offer(task);
+        changed.signal();
+    }
+
+    private void remove(final ScheduledTask<?> task) {
+        lock.lock();
+        try {
+            if (queue.remove(task)) {
+                changed.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void clockChanged() {
+        lock.lock();
+        try {
+            final long now = clockMillis();
+            final List<ScheduledTask<?>> earlier = new ArrayList<>();
+            final Iterator<ScheduledTask<?>> tasks = queue.iterator();
+            while (tasks.hasNext()) {
+                final ScheduledTask<?> task = tasks.next();
+                final long next = task.nextAfterClockChange(now);
+                //A task's due time orders the queue, so it is only changed while the task is out of the queue
+                if (next < task.dueMillis) {
+                    tasks.remove();
+                    task.dueMillis = next;
+                    earlier.add(task);
+                }
+            }
+            queue.addAll(earlier);
+            if (!earlier.isEmpty()) {
+                log.debug("Clock changed, brought {} tasks forward", earlier.size());
+            }
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatch() {
+        //Worker threads are created by the dispatcher, so clearing its test date keeps them (and the tasks they run) on the global clock
+        DateFactory.clearTestDate();
+        lock.lock();
+        try {
+            while (!shutdown) {
+                final ScheduledTask<?> next = queue.peek();
+                if (next == null) {
+                    changed.await();
+                    continue;
+                }
+
+                final long delayMillis = next.dueMillis - clockMillis();
+                if (delayMillis > 0) {
+                    changed.awaitNanos(waitNanos(delayMillis));
+                    continue;
+                }
+
+                queue.poll();
+                try {
+                    workers.execute(next);
+                } catch (RejectedExecutionException e) {
+                    next.cancel(false);
+                }
+            }
+        } catch (InterruptedException e) {
+            log.warn("{} dispatcher interrupted, no further tasks will be run", this);
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Converts a delay in clock time to real time, a fixed instant clock never reaches a later time by itself
+    private long waitNanos(final long delayMillis) {
+        final TimeTravelContext global = DateFactory.getGlobalTestContext();
+        final long rate = global == null ? 1L : global.getRate();
+        if (rate == 0L) {
+            return maxWaitNanos;
+        }
+        return Math.min(TimeUnit.MILLISECONDS.toNanos(delayMillis) / rate, maxWaitNanos);
+    }
+
+    //PeriodicTrigger times its first execution from System.currentTimeMillis() rather than the trigger context, so its initial delay is carried over
+    private static Date firstExecution(final Trigger trigger, final long now) {
+        if (trigger instanceof PeriodicTrigger) {
+            final long wallNow = System.currentTimeMillis();
+            final Date first = trigger.nextExecutionTime(new SimpleTriggerContext());
+            return new Date(now + Math.max(0L, first.getTime() - wallNow));
+        }
+        return trigger.nextExecutionTime(new SimpleTriggerContext(null, null, new Date(now)));
+    }
+
+    private long dueIn(final long delay, final TimeUnit unit) {
+        final long now = clockMillis();
+        final long delayMillis = unit.toMillis(Math.max(0L, delay));
+        return delayMillis > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + delayMillis;
+    }
+
+    private static long positive(final long period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive: " + period);
+        }
+        return period;
+    }
+
+    private static Runnable errorHandling(final Runnable task, final boolean repeating) {
+        return TaskUtils.decorateTaskWithErrorHandler(Objects.requireNonNull(task), null, repeating);
+    }
+
+    private static ThreadFactory threadFactory(final String name) {
+        final AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, name.endsWith("-") ? name + count.incrementAndGet() : name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * A pending task, ordered by the clock time it is due and then by the order it was scheduled in
+     */
+    private final class ScheduledTask<V> extends FutureTask<V> implements RunnableScheduledFuture<V> {
+        private final long sequenceNumber = sequence.getAndIncrement();
+
+        //Positive for fixed rate, negative for fixed delay, 0 for one-shot and triggered tasks
+        private final long period;
+        private final Trigger trigger;
+        private final SimpleTriggerContext triggerContext;
+        //One-shot task due at a given clock time rather than after a delay
+        private final boolean absolute;
+
+        //Only changed while the task is not queued
+        private volatile long dueMillis;
+        //How long the task was to wait for the clock when it was last queued, guarded by the scheduler's lock
+        private long waitMillis;
+
+        ScheduledTask(final Callable<V> callable, final long dueMillis, final long period, final Trigger trigger, final boolean absolute) {
+            super(callable);
+            this.dueMillis = dueMillis;
+            this.period = period;
+            this.trigger = trigger;
+            this.triggerContext = trigger == null ? null : new SimpleTriggerContext();
+            this.absolute = absolute;
+        }
+
+        @Override
+        public long getDelay(final TimeUnit unit) {
+            return unit.convert(dueMillis - clockMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(final Delayed other) {
+            if (other == this) {
+                return 0;
+            }
+            if (other instanceof ScheduledTask) {
+                final ScheduledTask<?> task = (ScheduledTask<?>) other;
+                final int byDue = Long.compare(dueMillis, task.dueMillis);
+                return byDue != 0 ? byDue : Long.compare(sequenceNumber, task.sequenceNumber);
+            }
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+
+        @Override
+        public boolean isPeriodic() {
+            return period != 0L || trigger != null;
+        }
+
+        @Override
+        public boolean cancel(final boolean mayInterruptIfRunning) {
+            final boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                remove(this);
+            }
+            return cancelled;
+        }
+
+        @Override
+        public void run() {
+            final TimeTravelContext previous = DateFactory.restoreTestContext(null);
+            try {
+                if (!isPeriodic()) {
+                    super.run();
+                } else if (trigger != null) {
+                    runTriggered();
+                } else if (runAndReset()) {
+                    dueMillis = period > 0 ? nextFixedRate(clockMillis()) : clockMillis() - period;
+                    reschedule(this);
+                }
+            } finally {
+                DateFactory.restoreTestContext(previous);
+            }
+        }
+
+        private void runTriggered() {
+            final Date actual = new Date(clockMillis());
+            if (!runAndReset()) {
+                return;
+            }
+            triggerContext.update(new Date(dueMillis), actual, new Date(clockMillis()));
+            final Date next = trigger.nextExecutionTime(triggerContext);
+            if (next == null) {
+                set(null);
+            } else {
+                dueMillis = next.getTime();
+                reschedule(this);
+            }
+        }
+
+        /**
+         * Tasks scheduled after a delay, fixed rate, fixed delay and {@link PeriodicTrigger} tasks wait at most as long as they were queued to wait.
+         * Other triggers (e.g. cron) are evaluated as if the task had just completed at the new clock time. One-shot tasks scheduled for a given time
+         * stay due at that time.
+         *
+         * @return When this task is due given the clock changed to the provided time, may be later than its current due time
+         */
+        private long nextAfterClockChange(final long now) {
+            if (absolute) {
+                return dueMillis;
+            }
+            if (trigger == null || trigger instanceof PeriodicTrigger) {
+                return waitMillis > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + waitMillis;
+            }
+            final Date at = new Date(now);
+            final Date next = trigger.nextExecutionTime(new SimpleTriggerContext(at, at, at));
+            return next == null ? dueMillis : next.getTime();
+        }
+
+        //Executions the clock has already jumped past are coalesced into the next one
+        private long nextFixedRate(final long now) {
+            final long next = dueMillis + period;
+            if (next >= now) {
+                return next;
+            }
+            return next + ((now - next) / period + 1) * period;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.slalom.delorean.concurrent;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Spring {@link TaskDecorator} which runs each task with the time travel context of the thread that submitted it. Apply it to a
+ * {@link org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor} to propagate the test date into {@code @Async} methods and other work
+ * handed to Spring's {@code TaskExecutor}s.
+ *
+ * @see TimeTravelTasks
+ */
+public class TimeTravelTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(final Runnable runnable) {
+        return TimeTravelTasks.wrap(runnable);
+    }
+}
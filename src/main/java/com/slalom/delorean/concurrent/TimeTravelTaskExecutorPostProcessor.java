@@ -0,0 +1,53 @@
+package com.slalom.delorean.concurrent;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Applies a {@link TaskDecorator} to every {@link ThreadPoolTaskExecutor} in the application context before it is initialized, so that tasks submitted
+ * to them (including {@code @Async} methods) run with the submitting thread's time travel context.
+ * <p>
+ * As {@link ThreadPoolTaskExecutor} supports a single decorator, a decorator the application already configured on the executor (e.g. copying the MDC
+ * or security context) is composed with the time travel decorator rather than replaced: tasks are decorated by the application's decorator first, so
+ * its decorated task runs within the time travel context.
+ */
+public class TimeTravelTaskExecutorPostProcessor implements BeanPostProcessor {
+
+    private static final String DECORATOR_FIELD = "taskDecorator";
+
+    private final TaskDecorator taskDecorator;
+
+    public TimeTravelTaskExecutorPostProcessor(final TaskDecorator taskDecorator) {
+        this.taskDecorator = taskDecorator;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(final Object bean, final String beanName) throws BeansException {
+        if (bean instanceof ThreadPoolTaskExecutor) {
+            final ThreadPoolTaskExecutor executor = (ThreadPoolTaskExecutor) bean;
+            executor.setTaskDecorator(compose(existingDecorator(executor)));
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(final Object bean, final String beanName) throws BeansException {
+        return bean;
+    }
+
+    private TaskDecorator compose(final TaskDecorator existing) {
+        if (existing == null || existing == taskDecorator || existing instanceof TimeTravelTaskDecorator) {
+            return taskDecorator;
+        }
+        return runnable -> taskDecorator.decorate(existing.decorate(runnable));
+    }
+
+    //ThreadPoolTaskExecutor has no getter for its decorator
+    private static TaskDecorator existingDecorator(final ThreadPoolTaskExecutor executor) {
+        final DirectFieldAccessor accessor = new DirectFieldAccessor(executor);
+        return accessor.isReadableProperty(DECORATOR_FIELD) ? (TaskDecorator) accessor.getPropertyValue(DECORATOR_FIELD) : null;
+    }
+}
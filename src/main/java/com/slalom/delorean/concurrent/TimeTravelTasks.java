@@ -0,0 +1,72 @@
+package com.slalom.delorean.concurrent;
+
+import com.slalom.delorean.DateFactory;
+import com.slalom.delorean.TimeTravelContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+
+/**
+ * Wraps tasks so that they run with the time travel context of the thread that created them, regardless of which thread eventually runs them.
+ * <p>
+ * The context is captured (a single reference copy) when the task is wrapped, installed on the executing thread for the duration of the task and then
+ * the executing thread's previous context is reinstated - so pooled threads never carry a test date over from one task to the next.
+ */
+public final class TimeTravelTasks {
+
+    private TimeTravelTasks() {
+
+    }
+
+    /**
+     * @param task The task to wrap
+     * @return A task running the provided task with the current thread's time travel context
+     */
+    public static Runnable wrap(final Runnable task) {
+        Objects.requireNonNull(task);
+        final TimeTravelContext context = DateFactory.captureTestContext();
+
+        return () -> {
+            final TimeTravelContext previous = DateFactory.restoreTestContext(context);
+            try {
+                task.run();
+            } finally {
+                DateFactory.restoreTestContext(previous);
+            }
+        };
+    }
+
+    /**
+     * @param task The task to wrap
+     * @param <V>  The result type of the task
+     * @return A task running the provided task with the current thread's time travel context
+     */
+    public static <V> Callable<V> wrap(final Callable<V> task) {
+        Objects.requireNonNull(task);
+        final TimeTravelContext context = DateFactory.captureTestContext();
+
+        return () -> {
+            final TimeTravelContext previous = DateFactory.restoreTestContext(context);
+            try {
+                return task.call();
+            } finally {
+                DateFactory.restoreTestContext(previous);
+            }
+        };
+    }
+
+    /**
+     * @param tasks The tasks to wrap
+     * @param <V>   The result type of the tasks
+     * @return The provided tasks, each wrapped with the current thread's time travel context
+     */
+    public static <V> List<Callable<V>> wrapAll(final Collection<? extends Callable<V>> tasks) {
+        final List<Callable<V>> wrapped = new ArrayList<>(tasks.size());
+        for (final Callable<V> task : tasks) {
+            wrapped.add(wrap(task));
+        }
+        return wrapped;
+    }
+}
@@ -0,0 +1,108 @@
+package com.slalom.delorean.interceptors.inbound;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import java.util.Enumeration;
+
+/**
+ * Looks up a single cookie by scanning the raw {@code Cookie} request header, rather than having the container parse every cookie into a
+ * {@link Cookie} array which is then searched linearly. Only the value of the requested cookie is allocated.
+ * <p>
+ * Every {@code Cookie} header is scanned in turn, as HTTP/1.1 clients and proxies may send the cookies over several headers.
+ */
+final class CookieHeaders {
+
+    static final String COOKIE = "Cookie";
+
+    private CookieHeaders() {
+
+    }
+
+    /**
+     * Returns the value of the named cookie, falling back to {@link HttpServletRequest#getCookies()} for requests which expose cookies without a
+     * {@code Cookie} header (e.g. request wrappers and mock requests)
+     *
+     * @param request The request
+     * @param name    The name of the cookie
+     * @return The cookie's value or null if the request does not carry the cookie
+     */
+    static String getCookieValue(final HttpServletRequest request, final String name) {
+        final Enumeration<String> headers = request.getHeaders(COOKIE);
+        if (headers != null && headers.hasMoreElements()) {
+            do {
+                final String value = findValue(headers.nextElement(), name);
+                if (value != null) {
+                    return value;
+                }
+            } while (headers.hasMoreElements());
+            return null;
+        }
+
+        final Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (name.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the value of the named cookie in a {@code Cookie} header value, i.e. {@code name1=value1; name2=value2}. Surrounding whitespace and double
+     * quotes are removed from the value.
+     *
+     * @param header The {@code Cookie} header value
+     * @param name   The name of the cookie
+     * @return The cookie's value or null if the header does not contain the cookie
+     */
+    static String findValue(final String header, final String name) {
+        final int length = header.length();
+        final int nameLength = name.length();
+
+        int start = 0;
+        while (start < length) {
+            int end = header.indexOf(';', start);
+            if (end < 0) {
+                end = length;
+            }
+
+            int i = skipWhitespace(header, start, end);
+            if (end - i > nameLength && header.regionMatches(i, name, 0, nameLength)) {
+                i = skipWhitespace(header, i + nameLength, end);
+                if (i < end && header.charAt(i) == '=') {
+                    return value(header, i + 1, end);
+                }
+            }
+
+            start = end + 1;
+        }
+        return null;
+    }
+
+    private static String value(final String header, final int start, final int end) {
+        int from = skipWhitespace(header, start, end);
+        int to = end;
+        while (to > from && isWhitespace(header.charAt(to - 1))) {
+            to--;
+        }
+        if (to - from >= 2 && header.charAt(from) == '"' && header.charAt(to - 1) == '"') {
+            from++;
+            to--;
+        }
+        return header.substring(from, to);
+    }
+
+    private static int skipWhitespace(final String header, final int start, final int end) {
+        int i = start;
+        while (i < end && isWhitespace(header.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWhitespace(final char c) {
+        return c == ' ' || c == '\t';
+    }
+}
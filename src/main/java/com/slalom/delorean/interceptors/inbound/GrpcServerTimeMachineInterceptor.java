@@ -0,0 +1,161 @@
+package com.slalom.delorean.interceptors.inbound;
+
+import com.slalom.delorean.DateFactory;
+import com.slalom.delorean.TimeTravelContext;
+import com.slalom.delorean.metrics.TimeMachineMetrics;
+import com.slalom.delorean.metrics.TimeMachineMetrics.InboundSource;
+import com.slalom.delorean.propagation.TimeTravelPropagator;
+import io.grpc.Context;
+import io.grpc.ForwardingServerCallListener.SimpleForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * gRPC {@link ServerInterceptor} time traveling calls which carry the Time Machine header in their {@link Metadata}, as sent by the
+ * {@link com.slalom.delorean.interceptors.outbound.GrpcClientTimeMachineInterceptor}.
+ * <p>
+ * gRPC delivers a call's messages and events to its listener on executor threads, so the test date is set on whichever thread runs each listener
+ * callback and restored once the callback returns. The context is also attached to the call's gRPC {@link Context} under {@link #TIME_TRAVEL_CONTEXT},
+ * where it follows work handed to other threads with {@link Context#wrap(Runnable)} or {@code Context.currentContextExecutor(executor)}, and where the
+ * client interceptor finds it for downstream calls made from such threads.
+ */
+public class GrpcServerTimeMachineInterceptor implements ServerInterceptor {
+
+    /**
+     * The time travel context of the call being handled
+     */
+    public static final Context.Key<TimeTravelContext> TIME_TRAVEL_CONTEXT = Context.key("delorean-time-travel-context");
+
+    private final TimeTravelPropagator propagator;
+    private final TimeMachineMetrics metrics;
+    private final TimeTravelPropagator.Getter<Metadata> getter;
+
+    /**
+     * @param propagator Extracts the Time Machine header, which is read from the binary ({@code -bin}) metadata key of the inbound header name
+     */
+    public GrpcServerTimeMachineInterceptor(final TimeTravelPropagator propagator) {
+        this.propagator = Objects.requireNonNull(propagator);
+        this.metrics = propagator.getMetrics();
+        final Metadata.Key<byte[]> key = metadataKey(propagator.getInboundHeaderName());
+        this.getter = (headers, name) -> headers.get(key);
+    }
+
+    /**
+     * @param headerName A Time Machine header name
+     * @return The binary metadata key the header is carried in, e.g. {@code x-delorean-time-machine-bin}
+     */
+    public static Metadata.Key<byte[]> metadataKey(final String headerName) {
+        return Metadata.Key.of(headerName.toLowerCase(Locale.ROOT) + Metadata.BINARY_HEADER_SUFFIX, Metadata.BINARY_BYTE_MARSHALLER);
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(final ServerCall<ReqT, RespT> call, final Metadata headers,
+            final ServerCallHandler<ReqT, RespT> next) {
+        final TimeTravelContext context = propagator.extract(headers, getter);
+        if (context == null) {
+            return next.startCall(call, headers);
+        }
+
+        metrics.inboundTimeTraveling(InboundSource.HEADER);
+        final Context grpcContext = Context.current().withValue(TIME_TRAVEL_CONTEXT, context);
+        final Context previousGrpcContext = grpcContext.attach();
+        final TimeTravelContext previous = DateFactory.restoreTestContext(context);
+        try {
+            return new TimeTravelingListener<>(next.startCall(call, headers), grpcContext, context);
+        } catch (RuntimeException | Error e) {
+            metrics.inboundCompleted();
+            throw e;
+        } finally {
+            DateFactory.restoreTestContext(previous);
+            grpcContext.detach(previousGrpcContext);
+        }
+    }
+
+    /**
+     * Runs each callback in the call's gRPC context and at its test date. gRPC calls a listener's callbacks one at a time (though not necessarily on
+     * the same thread) and ends every call with exactly one of onComplete or onCancel.
+     */
+    private final class TimeTravelingListener<ReqT> extends SimpleForwardingServerCallListener<ReqT> {
+
+        private final Context grpcContext;
+        private final TimeTravelContext context;
+
+        //Only touched within a callback, which gRPC serializes
+        private Context previousGrpcContext;
+        private TimeTravelContext previous;
+
+        private TimeTravelingListener(final ServerCall.Listener<ReqT> delegate, final Context grpcContext, final TimeTravelContext context) {
+            super(delegate);
+            this.grpcContext = grpcContext;
+            this.context = context;
+        }
+
+        @Override
+        public void onMessage(final ReqT message) {
+            enter();
+            try {
+                super.onMessage(message);
+            } finally {
+                exit();
+            }
+        }
+
+        @Override
+        public void onHalfClose() {
+            enter();
+            try {
+                super.onHalfClose();
+            } finally {
+                exit();
+            }
+        }
+
+        @Override
+        public void onReady() {
+            enter();
+            try {
+                super.onReady();
+            } finally {
+                exit();
+            }
+        }
+
+        @Override
+        public void onCancel() {
+            enter();
+            try {
+                super.onCancel();
+            } finally {
+                exit();
+                metrics.inboundCompleted();
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            enter();
+            try {
+                super.onComplete();
+            } finally {
+                exit();
+                metrics.inboundCompleted();
+            }
+        }
+
+        private void enter() {
+            previousGrpcContext = grpcContext.attach();
+            previous = DateFactory.restoreTestContext(context);
+        }
+
+        private void exit() {
+            DateFactory.restoreTestContext(previous);
+            grpcContext.detach(previousGrpcContext);
+            previous = null;
+            previousGrpcContext = null;
+        }
+    }
+}
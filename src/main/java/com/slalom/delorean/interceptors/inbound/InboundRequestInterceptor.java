@@ -1,39 +1,64 @@
 package com.slalom.delorean.interceptors.inbound;
 
 import static com.slalom.delorean.DateFactory.clearTestDate;
-import static com.slalom.delorean.DateFactory.setTestDate;
+import static com.slalom.delorean.DateFactory.setTestContext;
 
 import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.slalom.delorean.TimeTravelContext;
+import com.slalom.delorean.metrics.TimeMachineMetrics;
+import com.slalom.delorean.session.TimeTravelSessionStore;
 import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
-import org.springframework.web.util.WebUtils;
-import javax.servlet.http.Cookie;
+import javax.servlet.DispatcherType;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.time.temporal.TemporalAccessor;
-import java.util.Optional;
 
 /**
  * Inbound Request Handler Interceptor to process Inbound Servlet and attempt to set the time travel date based on either a Cookie or HTTP Request Header value
  */
 public class InboundRequestInterceptor extends HandlerInterceptorAdapter {
 
-    private static final Logger log = LoggerFactory.getLogger(InboundRequestInterceptor.class);
-    private static DateTimeFormatter[] formats = { DateTimeFormatter.ISO_LOCAL_DATE, DateTimeFormatter.ISO_LOCAL_DATE_TIME };
+    private static final String TIME_TRAVELING_ATTRIBUTE = InboundRequestInterceptor.class.getName() + ".TIME_TRAVELING";
 
     private final TimeMachineConfigurationProperties properties;
-    private final String inboundHeaderName;
-    private final String cookieName;
+    private final InboundTimeTravelResolver resolver;
+    private final TimeMachineMetrics metrics;
+    private final boolean trackRequests;
 
     public InboundRequestInterceptor(final TimeMachineConfigurationProperties properties) {
+        this(properties, null);
+    }
+
+    /**
+     * @param properties         Delorean configuration
+     * @param tenantKeyExtractor Resolves the tenant of requests which do not provide their own test date, may be null if tenants are not used
+     */
+    public InboundRequestInterceptor(final TimeMachineConfigurationProperties properties, final TenantKeyExtractor tenantKeyExtractor) {
+        this(properties, tenantKeyExtractor, TimeMachineMetrics.NOOP);
+    }
+
+    /**
+     * @param properties         Delorean configuration
+     * @param tenantKeyExtractor Resolves the tenant of requests which do not provide their own test date, may be null if tenants are not used
+     * @param metrics            Records time traveling requests and the time spent in preHandle
+     */
+    public InboundRequestInterceptor(final TimeMachineConfigurationProperties properties, final TenantKeyExtractor tenantKeyExtractor,
+            final TimeMachineMetrics metrics) {
+        this(properties, tenantKeyExtractor, metrics, null);
+    }
+
+    /**
+     * @param properties         Delorean configuration
+     * @param tenantKeyExtractor Resolves the tenant of requests which do not provide their own test date, may be null if tenants are not used
+     * @param metrics            Records time traveling requests and the time spent in preHandle
+     * @param sessionStore       Resolves the session tokens carried by cookies, may be null if cookies carry the test date itself
+     */
+    public InboundRequestInterceptor(final TimeMachineConfigurationProperties properties, final TenantKeyExtractor tenantKeyExtractor,
+            final TimeMachineMetrics metrics, final TimeTravelSessionStore sessionStore) {
         this.properties = properties;
-        inboundHeaderName = properties.getHeaderName();
-        cookieName = properties.getCookie().getName();
+        this.metrics = metrics;
+        this.resolver = new InboundTimeTravelResolver(properties, tenantKeyExtractor, metrics, sessionStore);
+        //Only mark time traveling requests when someone is counting them
+        this.trackRequests = metrics != TimeMachineMetrics.NOOP;
     }
 
     /**
@@ -42,50 +67,32 @@ public class InboundRequestInterceptor extends HandlerInterceptorAdapter {
     @Override
     public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler) throws Exception {
 
-        if (!properties.isEnabled()) {
+        if (!properties.isActive()) {
             return true;
         }
 
-        String timeTravelDateString = null;
-
-        //First determine if cookie support is enabled, and if so, attempt to retrieve time travel date from cookie
-        if (properties.getCookie().isEnabled()) {
-            timeTravelDateString = Optional.ofNullable(WebUtils.getCookie(request, cookieName)).map(Cookie::getValue).orElse(timeTravelDateString);
+        //preHandle is called again for the async dispatch, which applies the test date but was already recorded by the initial dispatch
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            TimeTravelContext context = resolver.resolve(request, false);
+            if (context != null) {
+                setTestContext(context);
+            }
+            return true;
         }
 
-        //If the HTTP Request header is populated it should override any potential cookie value
-        timeTravelDateString = Optional.ofNullable(request.getHeader(inboundHeaderName)).orElse(timeTravelDateString);
-
-        log.trace("Interceptor test date: {}", timeTravelDateString);
-
-        if (timeTravelDateString != null && !"".equals(timeTravelDateString)) {
-            parseAndSetTestDate(timeTravelDateString);
+        final long startTime = metrics.inboundStarted();
+        TimeTravelContext context = resolver.resolve(request);
+        if (context != null) {
+            setTestContext(context);
+            if (trackRequests) {
+                request.setAttribute(TIME_TRAVELING_ATTRIBUTE, Boolean.TRUE);
+            }
         }
+        metrics.inboundResolved(startTime);
 
         return true;
     }
 
-    private void parseAndSetTestDate(final String timeTravelDateString) {
-        for (final DateTimeFormatter f : formats) {
-            try {
-                //As there is no easy way to get a readable pattern from the DateTimeFormatters, in success case we'll use this pre-formatted one
-                String pattern = "YYYY-MM-dd";
-                TemporalAccessor t = f.parse(timeTravelDateString);
-
-                if (f.equals(DateTimeFormatter.ISO_LOCAL_DATE)) {
-                    setTestDate(LocalDate.from(t));
-                } else {
-                    pattern = "YYYY-MM-ddTHH:mm:ss";
-                    setTestDate(LocalDateTime.from(t));
-                }
-
-                log.trace("Successfully parsed as pattern {} : {} ", pattern, t.toString());
-            } catch (DateTimeParseException e) {
-                log.info("Unable to parse date with pattern " + f.toString());
-            }
-        }
-    }
-
     /**
      * Cleans up Time Machine, resetting the time travel date after request completion
      */
@@ -93,6 +100,24 @@ public class InboundRequestInterceptor extends HandlerInterceptorAdapter {
     public void afterCompletion(final HttpServletRequest request, final HttpServletResponse response, final Object handler, final Exception ex)
             throws Exception {
         clearTestDate();
+        completed(request);
     }
 
+    /**
+     * Cleans up Time Machine on the original request thread when the request is handed off for asynchronous processing, as afterCompletion will only be
+     * called on the thread that completes the request
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(final HttpServletRequest request, final HttpServletResponse response, final Object handler)
+            throws Exception {
+        clearTestDate();
+        completed(request);
+    }
+
+    private void completed(final HttpServletRequest request) {
+        if (trackRequests && request.getAttribute(TIME_TRAVELING_ATTRIBUTE) != null) {
+            request.removeAttribute(TIME_TRAVELING_ATTRIBUTE);
+            metrics.inboundCompleted();
+        }
+    }
 }
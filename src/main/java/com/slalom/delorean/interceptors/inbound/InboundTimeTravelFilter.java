@@ -0,0 +1,121 @@
+package com.slalom.delorean.interceptors.inbound;
+
+import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties;
+import com.slalom.delorean.DateFactory;
+import com.slalom.delorean.TimeTravelContext;
+import com.slalom.delorean.metrics.TimeMachineMetrics;
+import com.slalom.delorean.session.TimeTravelSessionStore;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Inbound Servlet Filter alternative to the {@link InboundRequestInterceptor}, applying the time travel date from either a Cookie or HTTP Request Header
+ * value for the whole filter chain. Unlike the interceptor it also covers requests which never reach a Spring MVC handler, e.g. static resources, plain
+ * servlets and error dispatches.
+ * <p>
+ * The time travel date is set and cleared around the chain on the thread processing each dispatch, so asynchronous requests time travel on both the
+ * original request thread and the thread handling the async dispatch. Metrics are only recorded for the initial dispatch, so async and error dispatches
+ * do not count a request again.
+ */
+public class InboundTimeTravelFilter extends OncePerRequestFilter implements Ordered {
+
+    private final TimeMachineConfigurationProperties properties;
+    private final InboundTimeTravelResolver resolver;
+    private final TimeMachineMetrics metrics;
+
+    public InboundTimeTravelFilter(final TimeMachineConfigurationProperties properties) {
+        this(properties, null);
+    }
+
+    /**
+     * @param properties         Delorean configuration
+     * @param tenantKeyExtractor Resolves the tenant of requests which do not provide their own test date, may be null if tenants are not used
+     */
+    public InboundTimeTravelFilter(final TimeMachineConfigurationProperties properties, final TenantKeyExtractor tenantKeyExtractor) {
+        this(properties, tenantKeyExtractor, TimeMachineMetrics.NOOP);
+    }
+
+    /**
+     * @param properties         Delorean configuration
+     * @param tenantKeyExtractor Resolves the tenant of requests which do not provide their own test date, may be null if tenants are not used
+     * @param metrics            Records time traveling requests and the time spent resolving their test date
+     */
+    public InboundTimeTravelFilter(final TimeMachineConfigurationProperties properties, final TenantKeyExtractor tenantKeyExtractor,
+            final TimeMachineMetrics metrics) {
+        this(properties, tenantKeyExtractor, metrics, null);
+    }
+
+    /**
+     * @param properties         Delorean configuration
+     * @param tenantKeyExtractor Resolves the tenant of requests which do not provide their own test date, may be null if tenants are not used
+     * @param metrics            Records time traveling requests and the time spent resolving their test date
+     * @param sessionStore       Resolves the session tokens carried by cookies, may be null if cookies carry the test date itself
+     */
+    public InboundTimeTravelFilter(final TimeMachineConfigurationProperties properties, final TenantKeyExtractor tenantKeyExtractor,
+            final TimeMachineMetrics metrics, final TimeTravelSessionStore sessionStore) {
+        this.properties = properties;
+        this.metrics = metrics;
+        this.resolver = new InboundTimeTravelResolver(properties, tenantKeyExtractor, metrics, sessionStore);
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (!properties.isActive()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        //Async and error dispatches apply the test date again but the request was already recorded by its initial dispatch
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            TimeTravelContext previous = DateFactory.restoreTestContext(resolver.resolve(request, false));
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                DateFactory.restoreTestContext(previous);
+            }
+            return;
+        }
+
+        final long startTime = metrics.inboundStarted();
+        TimeTravelContext context = resolver.resolve(request);
+        TimeTravelContext previous = DateFactory.restoreTestContext(context);
+        metrics.inboundResolved(startTime);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            DateFactory.restoreTestContext(previous);
+            if (context != null) {
+                metrics.inboundCompleted();
+            }
+        }
+    }
+
+    /**
+     * Async dispatches are filtered so the thread completing the request also time travels
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    /**
+     * Error dispatches are filtered so error pages are rendered with the time travel date
+     */
+    @Override
+    protected boolean shouldNotFilterErrorDispatch() {
+        return false;
+    }
+
+    @Override
+    public int getOrder() {
+        return properties.getFilterOrder();
+    }
+}
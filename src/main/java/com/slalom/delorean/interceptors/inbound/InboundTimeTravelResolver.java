@@ -0,0 +1,157 @@
+package com.slalom.delorean.interceptors.inbound;
+
+import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties;
+import com.slalom.delorean.DateFactory;
+import com.slalom.delorean.TimeTravelContext;
+import com.slalom.delorean.metrics.TimeMachineMetrics;
+import com.slalom.delorean.metrics.TimeMachineMetrics.InboundSource;
+import com.slalom.delorean.session.TimeTravelSession;
+import com.slalom.delorean.session.TimeTravelSessionStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Resolves the time travel context for an inbound Servlet request from either a Cookie or HTTP Request Header value, or failing those from the test date
+ * configured for the request's tenant. Shared by the {@link InboundRequestInterceptor} and {@link InboundTimeTravelFilter}.
+ * <p>
+ * When a {@link TimeTravelSessionStore} is provided the cookie carries a session token rather than a date/time, so is looked up in the store instead
+ * of being parsed. Cookies carrying an unknown, expired or revoked token do not time travel.
+ * <p>
+ * Every request which resolves to a context is reported to {@link TimeMachineMetrics#inboundTimeTraveling(InboundSource)}, callers report its completion
+ * to {@link TimeMachineMetrics#inboundCompleted()}.
+ */
+public class InboundTimeTravelResolver {
+
+    private static final Logger log = LoggerFactory.getLogger(InboundTimeTravelResolver.class);
+
+    private final String inboundHeaderName;
+    private final boolean cookieEnabled;
+    private final String cookieName;
+    private final TimeTravelParseCache<ParsedTimeTravelValue> valueCache;
+    private final TenantKeyExtractor tenantKeyExtractor;
+    private final TimeMachineMetrics metrics;
+    private final TimeTravelSessionStore sessionStore;
+
+    /**
+     * @param properties         Delorean configuration
+     * @param tenantKeyExtractor Resolves the tenant of requests which do not provide their own test date, may be null if tenants are not used
+     */
+    public InboundTimeTravelResolver(final TimeMachineConfigurationProperties properties, final TenantKeyExtractor tenantKeyExtractor) {
+        this(properties, tenantKeyExtractor, TimeMachineMetrics.NOOP);
+    }
+
+    /**
+     * @param properties         Delorean configuration
+     * @param tenantKeyExtractor Resolves the tenant of requests which do not provide their own test date, may be null if tenants are not used
+     * @param metrics            Records time traveling requests and parse failures
+     */
+    public InboundTimeTravelResolver(final TimeMachineConfigurationProperties properties, final TenantKeyExtractor tenantKeyExtractor,
+            final TimeMachineMetrics metrics) {
+        this(properties, tenantKeyExtractor, metrics, null);
+    }
+
+    /**
+     * @param properties         Delorean configuration
+     * @param tenantKeyExtractor Resolves the tenant of requests which do not provide their own test date, may be null if tenants are not used
+     * @param metrics            Records time traveling requests and parse failures
+     * @param sessionStore       Resolves the session tokens carried by cookies, may be null if cookies carry the test date itself
+     */
+    public InboundTimeTravelResolver(final TimeMachineConfigurationProperties properties, final TenantKeyExtractor tenantKeyExtractor,
+            final TimeMachineMetrics metrics, final TimeTravelSessionStore sessionStore) {
+        this.tenantKeyExtractor = tenantKeyExtractor;
+        this.metrics = metrics;
+        this.sessionStore = sessionStore;
+        inboundHeaderName = properties.getHeaderName();
+        cookieEnabled = properties.getCookie().isEnabled();
+        cookieName = properties.getCookie().getName();
+        valueCache = new TimeTravelParseCache<>(properties.getParseCacheSize(), ParsedTimeTravelValue::parse);
+    }
+
+    /**
+     * Checks cookie and request for Time Machine header, falling back to the request's tenant
+     *
+     * @param request The inbound request
+     * @return The time travel context for the request or null if the request should not time travel
+     */
+    public TimeTravelContext resolve(final HttpServletRequest request) {
+        return resolve(request, true);
+    }
+
+    /**
+     * Checks cookie and request for Time Machine header, falling back to the request's tenant, optionally without reporting to the metrics, e.g. when
+     * resolving again for a later dispatch of a request which has already been reported
+     *
+     * @param request The inbound request
+     * @param record  Whether to report the request and any parse failure to the metrics
+     * @return The time travel context for the request or null if the request should not time travel
+     */
+    public TimeTravelContext resolve(final HttpServletRequest request, final boolean record) {
+        final TimeMachineMetrics recorder = record ? metrics : TimeMachineMetrics.NOOP;
+
+        //The HTTP Request header overrides any potential cookie value, so when present the cookies are never looked at
+        InboundSource source = InboundSource.HEADER;
+        String timeTravelDateString = request.getHeader(inboundHeaderName);
+
+        //Otherwise determine if cookie support is enabled, and if so, attempt to retrieve time travel date from cookie
+        if (timeTravelDateString == null && cookieEnabled) {
+            source = InboundSource.COOKIE;
+            timeTravelDateString = CookieHeaders.getCookieValue(request, cookieName);
+            if (timeTravelDateString != null && sessionStore != null) {
+                return timeTravelDateString.isEmpty() ? null : timeTraveling(resolveSession(timeTravelDateString), source, recorder);
+            }
+        }
+
+        if (timeTravelDateString != null) {
+            log.trace("Inbound test date: {}", timeTravelDateString);
+            return timeTravelDateString.isEmpty() ? null : timeTraveling(parseContext(timeTravelDateString, recorder), source, recorder);
+        }
+
+        if (tenantKeyExtractor != null) {
+            TimeTravelContext context = DateFactory.getTenantTestContext(tenantKeyExtractor.extractTenant(request));
+            if (context != null) {
+                log.trace("Applying tenant test date: {}", context);
+            }
+            return timeTraveling(context, InboundSource.TENANT, recorder);
+        }
+
+        return null;
+    }
+
+    /**
+     * @return The metrics this resolver reports to
+     */
+    public TimeMachineMetrics getMetrics() {
+        return metrics;
+    }
+
+    private TimeTravelContext timeTraveling(final TimeTravelContext context, final InboundSource source, final TimeMachineMetrics recorder) {
+        if (context != null) {
+            recorder.inboundTimeTraveling(source);
+        }
+        return context;
+    }
+
+    private TimeTravelContext resolveSession(final String token) {
+        TimeTravelSession session = sessionStore.get(token);
+        if (session == null) {
+            log.trace("Unknown or expired time travel session");
+            return null;
+        }
+        log.trace("Inbound time travel session: {}", session);
+        return session.getContext();
+    }
+
+    private TimeTravelContext parseContext(final String timeTravelDateString, final TimeMachineMetrics recorder) {
+        ParsedTimeTravelValue parsed = valueCache.get(timeTravelDateString);
+
+        if (!parsed.isSuccess()) {
+            log.info("Unable to parse time travel date {} : {}", timeTravelDateString, parsed.getResult().getFailure());
+            recorder.parseFailure();
+            return null;
+        }
+
+        log.trace("Successfully parsed time travel date {}", parsed.getResult());
+        return parsed.getContext();
+    }
+}
@@ -0,0 +1,69 @@
+package com.slalom.delorean.interceptors.inbound;
+
+import com.slalom.delorean.DateFactory;
+import com.slalom.delorean.TimeTravelContext;
+import com.slalom.delorean.metrics.TimeMachineMetrics;
+import com.slalom.delorean.metrics.TimeMachineMetrics.InboundSource;
+import com.slalom.delorean.propagation.TimeTravelPropagator;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Consumer side counterpart of the {@link com.slalom.delorean.interceptors.outbound.KafkaProducerTimeMachineInterceptor}: hands each consumed record
+ * to a delegate while time traveling to the date/time of the record's Time Machine header, e.g. {@code consumer.poll(timeout).forEach(handler)}.
+ * <p>
+ * A Kafka {@code ConsumerInterceptor} only sees whole batches of records, so cannot time travel per record. Records without the header are handed to
+ * the delegate as they are, and the thread's previous test date is restored once the delegate returns.
+ *
+ * @param <K> The record key type
+ * @param <V> The record value type
+ */
+public class KafkaTimeMachineRecordHandler<K, V> implements Consumer<ConsumerRecord<K, V>> {
+
+    static final TimeTravelPropagator.Getter<Headers> HEADERS_GETTER = (headers, name) -> {
+        final Header header = headers.lastHeader(name);
+        return header == null ? null : header.value();
+    };
+
+    private final TimeTravelPropagator propagator;
+    private final Consumer<? super ConsumerRecord<K, V>> delegate;
+
+    /**
+     * @param propagator Extracts the Time Machine header
+     * @param delegate   Processes the records
+     */
+    public KafkaTimeMachineRecordHandler(final TimeTravelPropagator propagator, final Consumer<? super ConsumerRecord<K, V>> delegate) {
+        this.propagator = Objects.requireNonNull(propagator);
+        this.delegate = Objects.requireNonNull(delegate);
+    }
+
+    @Override
+    public void accept(final ConsumerRecord<K, V> record) {
+        final TimeTravelContext context = extract(record);
+        if (context == null) {
+            delegate.accept(record);
+            return;
+        }
+
+        final TimeMachineMetrics metrics = propagator.getMetrics();
+        metrics.inboundTimeTraveling(InboundSource.HEADER);
+        final TimeTravelContext previous = DateFactory.restoreTestContext(context);
+        try {
+            delegate.accept(record);
+        } finally {
+            DateFactory.restoreTestContext(previous);
+            metrics.inboundCompleted();
+        }
+    }
+
+    /**
+     * @param record A consumed record
+     * @return The time travel context of the record or null if it should not time travel
+     */
+    public TimeTravelContext extract(final ConsumerRecord<?, ?> record) {
+        return propagator.extract(record.headers(), HEADERS_GETTER);
+    }
+}
@@ -0,0 +1,69 @@
+package com.slalom.delorean.interceptors.inbound;
+
+import com.slalom.delorean.IsoDateParser;
+import com.slalom.delorean.TimeTravelContext;
+
+/**
+ * A raw time travel value (e.g. an Http Request Header or Cookie value) once parsed, as held by a {@link TimeTravelParseCache}. Values which cannot be
+ * parsed are held too, so repeating them costs a cache hit rather than another parse.
+ * <p>
+ * Fixed dates, fixed instants and offsets build a single context shared by every request carrying the value. A scaled clock starts at its anchor when it
+ * is built, so {@link #getContext()} builds a new one for each request rather than handing out a clock which started at the first request.
+ */
+public final class ParsedTimeTravelValue {
+
+    private final String value;
+    private final IsoDateParser.Result result;
+    private final TimeTravelContext sharedContext;
+
+    private ParsedTimeTravelValue(final String value, final IsoDateParser.Result result, final TimeTravelContext sharedContext) {
+        this.value = value;
+        this.result = result;
+        this.sharedContext = sharedContext;
+    }
+
+    /**
+     * @param value The raw value
+     * @return The parsed value, never null
+     */
+    public static ParsedTimeTravelValue parse(final String value) {
+        final IsoDateParser.Result result = IsoDateParser.parse(value);
+        if (!result.isSuccess()) {
+            return new ParsedTimeTravelValue(value, result, null);
+        }
+        final TimeTravelContext context = TimeTravelContext.of(result.toClock());
+        return new ParsedTimeTravelValue(value, result, context.isFixed() ? context : null);
+    }
+
+    /**
+     * @return True if the value was parsed successfully, else false
+     */
+    public boolean isSuccess() {
+        return result.isSuccess();
+    }
+
+    /**
+     * @return The result of parsing the value
+     */
+    public IsoDateParser.Result getResult() {
+        return result;
+    }
+
+    /**
+     * Returns the context to time travel with. The context of a fixed date, fixed instant or offset is shared, any other context is built on each call so
+     * its clock starts running now.
+     *
+     * @return The context or null if the value could not be parsed
+     */
+    public TimeTravelContext getContext() {
+        if (sharedContext != null) {
+            return sharedContext;
+        }
+        return result.isSuccess() ? TimeTravelContext.of(result.toClock()) : null;
+    }
+
+    @Override
+    public String toString() {
+        return value + "=" + result;
+    }
+}
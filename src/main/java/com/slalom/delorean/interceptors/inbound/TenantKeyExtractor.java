@@ -0,0 +1,29 @@
+package com.slalom.delorean.interceptors.inbound;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Resolves the tenant an inbound request belongs to, so that any test date configured for the tenant via
+ * {@link com.slalom.delorean.DateFactory#setTenantTestClock(String, java.time.Clock)} can be applied to the request.
+ * <p>
+ * Register an implementation as a Spring bean to have it used by the auto-configured {@link InboundRequestInterceptor}.
+ */
+@FunctionalInterface
+public interface TenantKeyExtractor {
+
+    /**
+     * @param request The inbound request
+     * @return The tenant key for the request, or null if the request does not belong to a tenant
+     */
+    String extractTenant(HttpServletRequest request);
+
+    /**
+     * Returns an extractor that reads the tenant key from an Http Request Header
+     *
+     * @param headerName The name of the header containing the tenant key
+     * @return The extractor
+     */
+    static TenantKeyExtractor fromHeader(final String headerName) {
+        return request -> request.getHeader(headerName);
+    }
+}
@@ -0,0 +1,120 @@
+package com.slalom.delorean.interceptors.inbound;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Bounded, thread-safe cache of raw time travel values (e.g. Http Request Header or Cookie values) to the result of parsing them. Values the parser
+ * cannot handle (for which it returns null) are cached too, so a stream of repeated garbage values costs a lookup rather than a parse each.
+ * <p>
+ * Hits take no lock: they are a {@link ConcurrentHashMap} read and, the first time an entry is hit since it was last considered for eviction, a write
+ * to its reference flag. Misses parse outside of the map and publish with {@link ConcurrentHashMap#putIfAbsent(Object, Object)}, so threads racing on
+ * the same value all return the first result published. Once the cache is full an entry is evicted for each new one with the "clock" (second chance)
+ * approximation of least recently used eviction: a hand sweeps round the entries, clearing their reference flags, and the first entry not referenced
+ * since the hand last passed it is evicted. The hand carries on from where the previous eviction stopped, so every entry gets a full sweep to be hit
+ * again before it is evicted. Evictions are serialised on the hand, and the cache may briefly hold a few more entries than its limit while threads
+ * insert concurrently.
+ *
+ * @param <V> The type of the parsed value
+ */
+public final class TimeTravelParseCache<V> {
+
+    private final int sizeLimit;
+    private final Function<String, V> parser;
+
+    private final ConcurrentHashMap<String, CachedValue<V>> cache;
+
+    //Guarded by itself, restarted from the first entry only once it has passed the last
+    private final Object handLock = new Object();
+    private Iterator<Map.Entry<String, CachedValue<V>>> hand;
+
+    /**
+     * @param sizeLimit The maximum number of entries to cache, 0 disables caching
+     * @param parser    Parses a raw value, returning null if it cannot be parsed
+     */
+    public TimeTravelParseCache(final int sizeLimit, final Function<String, V> parser) {
+        if (sizeLimit < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative: " + sizeLimit);
+        }
+        this.sizeLimit = sizeLimit;
+        this.parser = Objects.requireNonNull(parser);
+        this.cache = new ConcurrentHashMap<>(Math.max(16, sizeLimit * 4 / 3 + 1));
+    }
+
+    /**
+     * Returns the parsed value for the provided raw value, parsing and caching it if it is not already cached
+     *
+     * @param value The raw value
+     * @return The parsed value or null if the value could not be parsed
+     */
+    public V get(final String value) {
+        if (sizeLimit == 0) {
+            return parser.apply(value);
+        }
+
+        final CachedValue<V> cached = cache.get(value);
+        if (cached != null) {
+            cached.touch();
+            return cached.value;
+        }
+
+        final CachedValue<V> parsed = new CachedValue<>(parser.apply(value));
+        if (cache.size() >= sizeLimit) {
+            evict();
+        }
+        final CachedValue<V> raced = cache.putIfAbsent(value, parsed);
+        return raced != null ? raced.value : parsed.value;
+    }
+
+    /**
+     * @return The number of cached entries
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Moves the hand on to the next entry which has not been referenced since the hand last passed it and evicts it, clearing the reference flags of the
+     * entries it passes. If every entry has been referenced the entry the hand started at is evicted once its flag has been cleared on the second sweep.
+     */
+    private void evict() {
+        synchronized (handLock) {
+            //Two sweeps clear every flag, the extra step allows for the hand restarting at the first entry
+            final int limit = 2 * cache.size() + 1;
+            for (int step = 0; step < limit; step++) {
+                if (hand == null || !hand.hasNext()) {
+                    hand = cache.entrySet().iterator();
+                    if (!hand.hasNext()) {
+                        return;
+                    }
+                }
+                final Map.Entry<String, CachedValue<V>> candidate = hand.next();
+                if (candidate.getValue().referenced) {
+                    candidate.getValue().referenced = false;
+                } else if (cache.remove(candidate.getKey(), candidate.getValue())) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class CachedValue<V> {
+        private final V value;
+        //Racy by design: a lost update only changes which entry is evicted next
+        private volatile boolean referenced;
+
+        private CachedValue(final V value) {
+            this.value = value;
+        }
+
+        private void touch() {
+            //Only write when the flag changes, so entries hit by many threads are not written to on every hit
+            if (!referenced) {
+                referenced = true;
+            }
+        }
+    }
+}
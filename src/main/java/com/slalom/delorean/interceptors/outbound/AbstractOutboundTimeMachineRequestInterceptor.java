@@ -1,7 +1,11 @@
 package com.slalom.delorean.interceptors.outbound;
 
 import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties;
+import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties.HeaderEncoding;
 import com.slalom.delorean.DateFactory;
+import com.slalom.delorean.TimeTravelContext;
+import com.slalom.delorean.metrics.TimeMachineMetrics;
+import com.slalom.delorean.metrics.TimeMachineMetrics.OutboundClient;
 import org.slf4j.Logger;
 import java.util.Objects;
 import java.util.Optional;
@@ -16,10 +20,26 @@ public abstract class AbstractOutboundTimeMachineRequestInterceptor {
 
     protected final TimeMachineConfigurationProperties properties;
     protected final String outboundHeaderName;
+    private final boolean compact;
+    private final TimeMachineMetrics metrics;
+    private final OutboundClient client;
 
     public AbstractOutboundTimeMachineRequestInterceptor(final TimeMachineConfigurationProperties properties) {
+        this(properties, TimeMachineMetrics.NOOP, null);
+    }
+
+    /**
+     * @param properties Delorean configuration
+     * @param metrics    Records the headers injected by this interceptor
+     * @param client     The client library this interceptor injects headers for, may be null if injected headers should not be recorded
+     */
+    protected AbstractOutboundTimeMachineRequestInterceptor(final TimeMachineConfigurationProperties properties, final TimeMachineMetrics metrics,
+            final OutboundClient client) {
         this.properties = properties;
         this.outboundHeaderName = properties.getOutboundRequestHeader().getName();
+        this.compact = properties.getOutboundRequestHeader().getEncoding() == HeaderEncoding.COMPACT;
+        this.metrics = Objects.requireNonNull(metrics);
+        this.client = client;
     }
 
     /**
@@ -38,12 +58,30 @@ public abstract class AbstractOutboundTimeMachineRequestInterceptor {
      */
     protected Optional<String> getHeaderDate() {
 
-        if (properties.getOutboundRequestHeader().isEnabled() && DateFactory.timeTraveling()) {
-            return Optional.of(DateFactory.getTestDateString());
+        if (properties.isActive() && properties.getOutboundRequestHeader().isEnabled()) {
+            return Optional.ofNullable(currentHeaderValue());
         }
         return Optional.empty();
     }
 
+    /**
+     * Allocation free alternative to {@link #addHeader(Consumer)} for implementors to inject the header themselves, calling {@link #headerInjected()}
+     * once done
+     *
+     * @return The configured TimeTravel date/time header value if it is set and Outbound Request Header functionality is active and enabled, else null
+     */
+    protected String getHeaderValue() {
+        if (!properties.isActive() || !properties.getOutboundRequestHeader().isEnabled()) {
+            return null;
+        }
+
+        final String headerDate = currentHeaderValue();
+        if (headerDate != null) {
+            log(headerDate);
+        }
+        return headerDate;
+    }
+
     /**
      * Method for accepting a lambda for header injection that does not need to return a result
      *
@@ -53,8 +91,9 @@ public abstract class AbstractOutboundTimeMachineRequestInterceptor {
         Objects.requireNonNull(consumer);
 
         getHeaderDate().ifPresent(headerDate -> {
-            log();
+            log(headerDate);
             consumer.accept(headerDate);
+            headerInjected();
         });
     }
 
@@ -69,12 +108,47 @@ public abstract class AbstractOutboundTimeMachineRequestInterceptor {
         Objects.requireNonNull(mapper);
 
         return getHeaderDate().map(headerDate -> {
-            log();
-            return Optional.ofNullable(mapper.apply(headerDate));
+            log(headerDate);
+            U result = mapper.apply(headerDate);
+            headerInjected();
+            return Optional.ofNullable(result);
         }).orElse(Optional.empty());
     }
 
+    /**
+     * Records that the header was injected into an outbound request
+     */
+    protected void headerInjected() {
+        if (client != null) {
+            metrics.outboundHeaderInjected(client);
+        }
+    }
+
+    //The header value is formatted once per test date, so this does not format a date per outbound request
+    private String currentHeaderValue() {
+        final TimeTravelContext context = DateFactory.getTestContext();
+        if (context == null) {
+            return null;
+        }
+        return compact ? context.getCompactHeaderValue() : context.getHeaderValue();
+    }
+
+    /**
+     * Called with the header value just before it is injected into an outbound request, logging it and then calling {@link #log()}
+     *
+     * @param headerDate The header value being injected
+     */
+    protected void log(final String headerDate) {
+        getLogger().debug("Adding Time Machine header to outbound request. {} = {}", outboundHeaderName, headerDate);
+        log();
+    }
+
+    /**
+     * Does nothing, called by {@link #log(String)} for subclasses which still override it
+     *
+     * @deprecated Override {@link #log(String)}, which is handed the header value being injected
+     */
+    @Deprecated
     protected void log() {
-        getLogger().debug("Adding Time Machine header to outbound request. {} = {}", outboundHeaderName, getHeaderDate().get());
     }
 }
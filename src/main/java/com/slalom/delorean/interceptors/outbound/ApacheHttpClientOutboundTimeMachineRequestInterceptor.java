@@ -1,6 +1,7 @@
 package com.slalom.delorean.interceptors.outbound;
 
 import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties;
+import com.slalom.delorean.metrics.TimeMachineMetrics;
 import org.apache.http.HttpRequest;
 import org.apache.http.HttpRequestInterceptor;
 import org.apache.http.protocol.HttpContext;
@@ -14,6 +15,10 @@ public class ApacheHttpClientOutboundTimeMachineRequestInterceptor extends Abstr
         super(properties);
     }
 
+    public ApacheHttpClientOutboundTimeMachineRequestInterceptor(final TimeMachineConfigurationProperties properties, final TimeMachineMetrics metrics) {
+        super(properties, metrics, TimeMachineMetrics.OutboundClient.APACHE_HTTP_CLIENT);
+    }
+
     @Override
     protected Logger getLogger() {
         return log;
@@ -25,6 +30,10 @@ public class ApacheHttpClientOutboundTimeMachineRequestInterceptor extends Abstr
     @Override
     public void process(final HttpRequest request, final HttpContext context) {
 
-        addHeader((String headerDate) -> request.setHeader(outboundHeaderName, headerDate));
+        final String headerDate = getHeaderValue();
+        if (headerDate != null) {
+            request.setHeader(outboundHeaderName, headerDate);
+            headerInjected();
+        }
     }
 }
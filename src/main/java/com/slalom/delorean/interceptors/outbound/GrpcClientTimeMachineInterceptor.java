@@ -0,0 +1,71 @@
+package com.slalom.delorean.interceptors.outbound;
+
+import com.slalom.delorean.DateFactory;
+import com.slalom.delorean.TimeTravelContext;
+import com.slalom.delorean.interceptors.inbound.GrpcServerTimeMachineInterceptor;
+import com.slalom.delorean.metrics.TimeMachineMetrics;
+import com.slalom.delorean.propagation.TimeTravelPropagator;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall.SimpleForwardingClientCall;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import java.util.Objects;
+
+/**
+ * gRPC {@link ClientInterceptor} adding the Time Machine header to the {@link Metadata} of calls started while time traveling. The header is carried
+ * as binary metadata under a key built once up front (see {@link GrpcServerTimeMachineInterceptor#metadataKey(String)}), its value being the context's
+ * pre-encoded bytes.
+ * <p>
+ * Calls pick up the test date of the thread creating them or, failing that, the time travel context of the current gRPC
+ * {@link io.grpc.Context} (see {@link GrpcServerTimeMachineInterceptor#TIME_TRAVEL_CONTEXT}), so downstream calls made while handling a time traveling
+ * call carry its test date even from threads gRPC's context was propagated to. The global test date is only sent when neither is set. Calls made while
+ * not time traveling are not wrapped.
+ */
+public class GrpcClientTimeMachineInterceptor implements ClientInterceptor {
+
+    private final TimeTravelPropagator propagator;
+    private final TimeMachineMetrics metrics;
+    private final TimeTravelPropagator.Setter<Metadata> setter;
+
+    /**
+     * @param propagator Injects the Time Machine header, which is written to the binary ({@code -bin}) metadata key of the outbound header name
+     */
+    public GrpcClientTimeMachineInterceptor(final TimeTravelPropagator propagator) {
+        this.propagator = Objects.requireNonNull(propagator);
+        this.metrics = propagator.getMetrics();
+        final Metadata.Key<byte[]> key = GrpcServerTimeMachineInterceptor.metadataKey(propagator.getOutboundHeaderName());
+        this.setter = (headers, name, value) -> {
+            headers.discardAll(key);
+            headers.put(key, value);
+        };
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(final MethodDescriptor<ReqT, RespT> method, final CallOptions callOptions,
+            final Channel next) {
+        TimeTravelContext captured = DateFactory.captureTestContext();
+        if (captured == null) {
+            captured = GrpcServerTimeMachineInterceptor.TIME_TRAVEL_CONTEXT.get();
+        }
+        if (captured == null) {
+            captured = DateFactory.getGlobalTestContext();
+        }
+        if (captured == null) {
+            return next.newCall(method, callOptions);
+        }
+
+        final TimeTravelContext context = captured;
+        return new SimpleForwardingClientCall<ReqT, RespT>(next.newCall(method, callOptions)) {
+            @Override
+            public void start(final Listener<RespT> responseListener, final Metadata headers) {
+                if (propagator.inject(headers, setter, context)) {
+                    metrics.outboundHeaderInjected(TimeMachineMetrics.OutboundClient.GRPC);
+                }
+                super.start(responseListener, headers);
+            }
+        };
+    }
+}
@@ -0,0 +1,74 @@
+package com.slalom.delorean.interceptors.outbound;
+
+import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties;
+import com.slalom.delorean.metrics.TimeMachineMetrics;
+import com.slalom.delorean.propagation.TimeTravelPropagator;
+import org.apache.kafka.clients.producer.ProducerInterceptor;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.header.Headers;
+import java.util.Map;
+
+/**
+ * Kafka {@link ProducerInterceptor} adding the Time Machine header to the records sent while the sending thread is time traveling. Any Time Machine
+ * header the record already carries (e.g. copied from a consumed record) is replaced.
+ * <p>
+ * Kafka creates interceptors listed under {@code interceptor.classes} itself, handing them the producer configuration. To share the application's
+ * {@link TimeTravelPropagator} (e.g. the auto-configured bean) add it to the configuration under {@link #PROPAGATOR_CONFIG}, otherwise the default
+ * Delorean configuration is used.
+ *
+ * @param <K> The record key type
+ * @param <V> The record value type
+ */
+public class KafkaProducerTimeMachineInterceptor<K, V> implements ProducerInterceptor<K, V> {
+
+    /**
+     * Producer configuration key of the {@link TimeTravelPropagator} instance to use
+     */
+    public static final String PROPAGATOR_CONFIG = "delorean.propagator";
+
+    static final TimeTravelPropagator.Setter<Headers> HEADERS_SETTER = (headers, name, value) -> headers.remove(name).add(name, value);
+
+    private TimeTravelPropagator propagator;
+
+    /**
+     * Creates an interceptor to be configured by Kafka, see {@link #configure(Map)}
+     */
+    public KafkaProducerTimeMachineInterceptor() {
+    }
+
+    /**
+     * @param propagator Injects the Time Machine header
+     */
+    public KafkaProducerTimeMachineInterceptor(final TimeTravelPropagator propagator) {
+        this.propagator = propagator;
+    }
+
+    @Override
+    public void configure(final Map<String, ?> configs) {
+        if (propagator != null) {
+            return;
+        }
+        final Object configured = configs.get(PROPAGATOR_CONFIG);
+        if (configured != null && !(configured instanceof TimeTravelPropagator)) {
+            throw new IllegalArgumentException(PROPAGATOR_CONFIG + " must be a " + TimeTravelPropagator.class.getName() + ", not " + configured);
+        }
+        propagator = configured != null ? (TimeTravelPropagator) configured : new TimeTravelPropagator(new TimeMachineConfigurationProperties());
+    }
+
+    @Override
+    public ProducerRecord<K, V> onSend(final ProducerRecord<K, V> record) {
+        if (propagator.inject(record.headers(), HEADERS_SETTER)) {
+            propagator.getMetrics().outboundHeaderInjected(TimeMachineMetrics.OutboundClient.KAFKA);
+        }
+        return record;
+    }
+
+    @Override
+    public void onAcknowledgement(final RecordMetadata metadata, final Exception exception) {
+    }
+
+    @Override
+    public void close() {
+    }
+}
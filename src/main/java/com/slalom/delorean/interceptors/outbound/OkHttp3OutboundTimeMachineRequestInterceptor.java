@@ -1,6 +1,7 @@
 package com.slalom.delorean.interceptors.outbound;
 
 import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties;
+import com.slalom.delorean.metrics.TimeMachineMetrics;
 import okhttp3.Interceptor;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -16,6 +17,10 @@ public class OkHttp3OutboundTimeMachineRequestInterceptor extends AbstractOutbou
         super(properties);
     }
 
+    public OkHttp3OutboundTimeMachineRequestInterceptor(final TimeMachineConfigurationProperties properties, final TimeMachineMetrics metrics) {
+        super(properties, metrics, TimeMachineMetrics.OutboundClient.OKHTTP3);
+    }
+
     @Override
     protected Logger getLogger() {
         return log;
@@ -25,7 +30,13 @@ public class OkHttp3OutboundTimeMachineRequestInterceptor extends AbstractOutbou
     public Response intercept(final Chain chain) throws IOException {
         final Request request = chain.request();
 
-        Request updatedRequest = addHeader((String headerDate) -> request.newBuilder().addHeader(outboundHeaderName, headerDate).build()).orElse(request);
+        final String headerDate = getHeaderValue();
+        if (headerDate == null) {
+            return chain.proceed(request);
+        }
+
+        Request updatedRequest = request.newBuilder().addHeader(outboundHeaderName, headerDate).build();
+        headerInjected();
         return chain.proceed(updatedRequest);
     }
 }
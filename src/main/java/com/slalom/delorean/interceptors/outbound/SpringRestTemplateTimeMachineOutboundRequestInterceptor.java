@@ -1,6 +1,7 @@
 package com.slalom.delorean.interceptors.outbound;
 
 import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties;
+import com.slalom.delorean.metrics.TimeMachineMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
@@ -17,6 +18,10 @@ public class SpringRestTemplateTimeMachineOutboundRequestInterceptor extends Abs
         super(properties);
     }
 
+    public SpringRestTemplateTimeMachineOutboundRequestInterceptor(final TimeMachineConfigurationProperties properties, final TimeMachineMetrics metrics) {
+        super(properties, metrics, TimeMachineMetrics.OutboundClient.REST_TEMPLATE);
+    }
+
     @Override
     protected Logger getLogger() {
         return log;
@@ -25,10 +30,12 @@ public class SpringRestTemplateTimeMachineOutboundRequestInterceptor extends Abs
     @Override
     public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
 
-        addHeader(headerDate -> {
+        final String headerDate = getHeaderValue();
+        if (headerDate != null) {
             HttpHeaders headers = request.getHeaders();
             headers.add(outboundHeaderName, headerDate);
-        });
+            headerInjected();
+        }
 
         return execution.execute(request, body);
     }
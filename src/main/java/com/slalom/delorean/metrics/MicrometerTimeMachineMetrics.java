@@ -0,0 +1,106 @@
+package com.slalom.delorean.metrics;
+
+import com.slalom.delorean.DateFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Micrometer backed {@link TimeMachineMetrics}. Every meter (and tag combination) is registered when the instance is created, so recording is a
+ * counter increment or timer update without any per call tag or meter lookup.
+ * <p>
+ * Meters:
+ * <ul>
+ * <li>{@code delorean.inbound.requests} - inbound requests which time traveled, tagged by {@code source} (header, cookie or tenant)</li>
+ * <li>{@code delorean.inbound.parse.failures} - inbound time travel values which could not be parsed</li>
+ * <li>{@code delorean.inbound.prehandle} - time spent resolving and applying inbound time travel dates (a function timer, i.e. count and total time)</li>
+ * <li>{@code delorean.outbound.headers} - time travel headers injected into outbound requests, tagged by {@code client}</li>
+ * <li>{@code delorean.overrides.active} - active test dates, tagged by {@code scope}: global (0 or 1), tenant (number of tenants) and request
+ * (inbound requests currently time traveling)</li>
+ * </ul>
+ */
+public class MicrometerTimeMachineMetrics implements TimeMachineMetrics {
+
+    private final Counter[] inboundRequests = new Counter[InboundSource.values().length];
+    private final Counter[] outboundHeaders = new Counter[OutboundClient.values().length];
+    private final Counter parseFailures;
+    private final LongAdder preHandleCount = new LongAdder();
+    private final LongAdder preHandleNanos = new LongAdder();
+    private final AtomicInteger activeRequests = new AtomicInteger();
+
+    public MicrometerTimeMachineMetrics(final MeterRegistry registry) {
+        for (InboundSource source : InboundSource.values()) {
+            inboundRequests[source.ordinal()] = Counter.builder("delorean.inbound.requests")
+                    .description("Inbound requests which time traveled")
+                    .tag("source", tagValue(source))
+                    .register(registry);
+        }
+        for (OutboundClient client : OutboundClient.values()) {
+            outboundHeaders[client.ordinal()] = Counter.builder("delorean.outbound.headers")
+                    .description("Time travel headers injected into outbound requests")
+                    .tag("client", tagValue(client))
+                    .register(registry);
+        }
+        parseFailures = Counter.builder("delorean.inbound.parse.failures")
+                .description("Inbound time travel values which could not be parsed")
+                .register(registry);
+        //A FunctionTimer over two adders rather than a Timer, whose max and histogram bookkeeping would cost more than the work being timed
+        FunctionTimer.builder("delorean.inbound.prehandle", this, m -> m.preHandleCount.sum(), m -> m.preHandleNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("Time spent resolving and applying inbound time travel dates")
+                .register(registry);
+
+        Gauge.builder("delorean.overrides.active", () -> DateFactory.getGlobalTestContext() == null ? 0 : 1)
+                .description("Active test dates")
+                .tag("scope", "global")
+                .register(registry);
+        Gauge.builder("delorean.overrides.active", () -> DateFactory.getTenantTestContexts().size())
+                .description("Active test dates")
+                .tag("scope", "tenant")
+                .register(registry);
+        Gauge.builder("delorean.overrides.active", activeRequests, AtomicInteger::get)
+                .description("Active test dates")
+                .tag("scope", "request")
+                .register(registry);
+    }
+
+    @Override
+    public void inboundTimeTraveling(final InboundSource source) {
+        inboundRequests[source.ordinal()].increment();
+        activeRequests.incrementAndGet();
+    }
+
+    @Override
+    public void inboundCompleted() {
+        activeRequests.decrementAndGet();
+    }
+
+    @Override
+    public void parseFailure() {
+        parseFailures.increment();
+    }
+
+    @Override
+    public long inboundStarted() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void inboundResolved(final long startTime) {
+        preHandleNanos.add(System.nanoTime() - startTime);
+        preHandleCount.increment();
+    }
+
+    @Override
+    public void outboundHeaderInjected(final OutboundClient client) {
+        outboundHeaders[client.ordinal()].increment();
+    }
+
+    private static String tagValue(final Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
@@ -0,0 +1,73 @@
+package com.slalom.delorean.metrics;
+
+/**
+ * Records Delorean activity. Implementations are called on the request path, so they must not allocate or block - see
+ * {@link MicrometerTimeMachineMetrics} which pre-registers every meter up front.
+ */
+public interface TimeMachineMetrics {
+
+    /**
+     * Metrics implementation that records nothing, used when no metrics backend is configured
+     */
+    TimeMachineMetrics NOOP = new TimeMachineMetrics() {
+    };
+
+    /**
+     * Where an inbound request's time travel date came from
+     */
+    enum InboundSource {
+        HEADER, COOKIE, TENANT
+    }
+
+    /**
+     * Client library an outbound time travel header was injected by
+     */
+    enum OutboundClient {
+        OKHTTP3, APACHE_HTTP_CLIENT, REST_TEMPLATE, KAFKA, GRPC
+    }
+
+    /**
+     * Called when an inbound request starts time traveling
+     *
+     * @param source Where the request's time travel date came from
+     */
+    default void inboundTimeTraveling(InboundSource source) {
+    }
+
+    /**
+     * Called when an inbound request which was time traveling completes (or is handed off for asynchronous processing)
+     */
+    default void inboundCompleted() {
+    }
+
+    /**
+     * Called when an inbound time travel value cannot be parsed
+     */
+    default void parseFailure() {
+    }
+
+    /**
+     * Called before the time travel date of an inbound request is resolved
+     *
+     * @return A start time to be handed to {@link #inboundResolved(long)}
+     */
+    default long inboundStarted() {
+        return 0L;
+    }
+
+    /**
+     * Called once the time travel date of an inbound request has been resolved and applied
+     *
+     * @param startTime The value returned by {@link #inboundStarted()}
+     */
+    default void inboundResolved(long startTime) {
+    }
+
+    /**
+     * Called when a time travel header is injected into an outbound request
+     *
+     * @param client The client library the request is made with
+     */
+    default void outboundHeaderInjected(OutboundClient client) {
+    }
+}
@@ -0,0 +1,225 @@
+package com.slalom.delorean.propagation;
+
+import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties;
+import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties.HeaderEncoding;
+import com.slalom.delorean.DateFactory;
+import com.slalom.delorean.TimeTravelContext;
+import com.slalom.delorean.interceptors.inbound.ParsedTimeTravelValue;
+import com.slalom.delorean.interceptors.inbound.TimeTravelParseCache;
+import com.slalom.delorean.metrics.TimeMachineMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Carrier agnostic counterpart of the outbound request interceptors and the inbound resolver: injects the current time travel date/time into, and
+ * extracts it from, the headers of any carrier (e.g. a message's record headers) through a {@link Setter} and {@link Getter} for that carrier.
+ * <p>
+ * Header values are the UTF-8 encoded {@link DateFactory#getTestDateString()}, or its compact counterpart if the outbound header is configured for the
+ * compact encoding. They are taken from {@link TimeTravelContext#getHeaderBytes()} (or {@link TimeTravelContext#getCompactHeaderBytes()}), so for
+ * fixed dates, instants and offsets every carrier injected while a context is in effect shares a single pre-encoded array. Extracted values are parsed
+ * once: the last fixed value extracted is matched byte for byte, other values go through a bounded cache of parsed values. Scaled clocks start at their
+ * anchor when built, so each carrier with a scaled value gets a new context.
+ */
+public class TimeTravelPropagator {
+
+    private static final Logger log = LoggerFactory.getLogger(TimeTravelPropagator.class);
+
+    /**
+     * Sets a header on a carrier
+     *
+     * @param <C> The type of the carrier
+     */
+    @FunctionalInterface
+    public interface Setter<C> {
+
+        /**
+         * @param carrier The carrier
+         * @param name    The header name
+         * @param value   The header value, which must not be modified
+         */
+        void set(C carrier, String name, byte[] value);
+    }
+
+    /**
+     * Reads a header from a carrier
+     *
+     * @param <C> The type of the carrier
+     */
+    @FunctionalInterface
+    public interface Getter<C> {
+
+        /**
+         * @param carrier The carrier
+         * @param name    The header name
+         * @return The header value or null if the carrier does not have the header
+         */
+        byte[] get(C carrier, String name);
+    }
+
+    /**
+     * Sets headers on a {@link Map}
+     */
+    public static final Setter<Map<String, byte[]>> MAP_SETTER = Map::put;
+
+    /**
+     * Reads headers from a {@link Map}
+     */
+    public static final Getter<Map<String, byte[]>> MAP_GETTER = Map::get;
+
+    private final TimeMachineConfigurationProperties properties;
+    private final String outboundHeaderName;
+    private final boolean compact;
+    private final String inboundHeaderName;
+    private final TimeMachineMetrics metrics;
+    private final TimeTravelParseCache<ParsedTimeTravelValue> valueCache;
+
+    private volatile Extracted lastExtracted;
+
+    public TimeTravelPropagator(final TimeMachineConfigurationProperties properties) {
+        this(properties, TimeMachineMetrics.NOOP);
+    }
+
+    /**
+     * @param properties Delorean configuration
+     * @param metrics    Records parse failures, and is available to the interceptors using this propagator
+     */
+    public TimeTravelPropagator(final TimeMachineConfigurationProperties properties, final TimeMachineMetrics metrics) {
+        this.properties = properties;
+        this.outboundHeaderName = properties.getOutboundRequestHeader().getName();
+        this.compact = properties.getOutboundRequestHeader().getEncoding() == HeaderEncoding.COMPACT;
+        this.inboundHeaderName = properties.getHeaderName();
+        this.metrics = Objects.requireNonNull(metrics);
+        this.valueCache = new TimeTravelParseCache<>(properties.getParseCacheSize(), ParsedTimeTravelValue::parse);
+    }
+
+    /**
+     * Injects the current time travel date/time into the carrier's outbound header
+     *
+     * @param carrier The carrier
+     * @param setter  Sets the header on the carrier
+     * @param <C>     The type of the carrier
+     * @return True if the header was injected, false if the current thread is not time traveling or the Outbound Request Header functionality is
+     * inactive or disabled
+     */
+    public <C> boolean inject(final C carrier, final Setter<C> setter) {
+        return inject(carrier, setter, DateFactory.getTestContext());
+    }
+
+    /**
+     * Injects the provided time travel context into the carrier's outbound header, e.g. a context handed over from another thread
+     *
+     * @param carrier The carrier
+     * @param setter  Sets the header on the carrier
+     * @param context The context to inject, may be null
+     * @param <C>     The type of the carrier
+     * @return True if the header was injected, false if the context is null or the Outbound Request Header functionality is inactive or disabled
+     */
+    public <C> boolean inject(final C carrier, final Setter<C> setter, final TimeTravelContext context) {
+        if (context == null || !properties.isActive() || !properties.getOutboundRequestHeader().isEnabled()) {
+            return false;
+        }
+
+        final byte[] value = compact ? context.getCompactHeaderBytes() : context.getHeaderBytes();
+        log.debug("Adding Time Machine header to outbound carrier. {} = {}", outboundHeaderName, context);
+        setter.set(carrier, outboundHeaderName, value);
+        return true;
+    }
+
+    /**
+     * Injects the current time travel date/time into a map of headers
+     *
+     * @param headers The headers
+     * @return True if the header was injected, see {@link #inject(Object, Setter)}
+     */
+    public boolean inject(final Map<String, byte[]> headers) {
+        return inject(headers, MAP_SETTER);
+    }
+
+    /**
+     * Extracts the time travel date/time from the carrier's inbound header
+     *
+     * @param carrier The carrier
+     * @param getter  Reads the header from the carrier
+     * @param <C>     The type of the carrier
+     * @return The context for the carrier or null if it should not time travel, i.e. it does not have the header, the header cannot be parsed or
+     * Delorean is inactive
+     */
+    public <C> TimeTravelContext extract(final C carrier, final Getter<C> getter) {
+        if (!properties.isActive()) {
+            return null;
+        }
+
+        final byte[] value = getter.get(carrier, inboundHeaderName);
+        if (value == null || value.length == 0) {
+            return null;
+        }
+
+        final Extracted last = lastExtracted;
+        if (last != null && Arrays.equals(last.value, value)) {
+            return last.context;
+        }
+
+        final TimeTravelContext context = parseContext(new String(value, StandardCharsets.UTF_8));
+        if (context != null && context.isFixed()) {
+            lastExtracted = new Extracted(value.clone(), context);
+        }
+        return context;
+    }
+
+    /**
+     * Extracts the time travel date/time from a map of headers
+     *
+     * @param headers The headers
+     * @return The context for the headers or null, see {@link #extract(Object, Getter)}
+     */
+    public TimeTravelContext extract(final Map<String, byte[]> headers) {
+        return extract(headers, MAP_GETTER);
+    }
+
+    /**
+     * @return The name of the header injected into outbound carriers
+     */
+    public String getOutboundHeaderName() {
+        return outboundHeaderName;
+    }
+
+    /**
+     * @return The name of the header extracted from inbound carriers
+     */
+    public String getInboundHeaderName() {
+        return inboundHeaderName;
+    }
+
+    /**
+     * @return The metrics this propagator reports to
+     */
+    public TimeMachineMetrics getMetrics() {
+        return metrics;
+    }
+
+    private TimeTravelContext parseContext(final String timeTravelDateString) {
+        final ParsedTimeTravelValue parsed = valueCache.get(timeTravelDateString);
+
+        if (!parsed.isSuccess()) {
+            log.info("Unable to parse time travel date {} : {}", timeTravelDateString, parsed.getResult().getFailure());
+            metrics.parseFailure();
+            return null;
+        }
+        return parsed.getContext();
+    }
+
+    //Only fixed contexts are cached. The value is copied as carriers (e.g. reused buffers) may change it once extraction returns
+    private static final class Extracted {
+        private final byte[] value;
+        private final TimeTravelContext context;
+
+        private Extracted(final byte[] value, final TimeTravelContext context) {
+            this.value = value;
+            this.context = context;
+        }
+    }
+}
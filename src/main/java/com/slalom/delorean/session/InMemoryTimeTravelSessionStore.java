@@ -0,0 +1,150 @@
+package com.slalom.delorean.session;
+
+import com.slalom.delorean.DateFactory;
+import com.slalom.delorean.TimeSource;
+import com.slalom.delorean.TimeTravelContext;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link TimeTravelSessionStore} keeping the sessions of a single node in memory. Sessions expire a fixed time after they were created, measured against
+ * the system clock rather than the time travel date/time. Once the store holds its maximum number of sessions the oldest is evicted to make room for a
+ * new one.
+ * <p>
+ * Lookups are a single {@link ConcurrentHashMap} probe, expired sessions found by a lookup are removed on the spot. Creating and revoking sessions is
+ * rare in comparison so is serialized, purging expired sessions as it goes.
+ */
+public class InMemoryTimeTravelSessionStore implements TimeTravelSessionStore {
+
+    private static final int TOKEN_BYTES = 16;
+
+    private final long ttlMillis;
+    private final int maxSessions;
+    private final TimeSource timeSource;
+    private final SecureRandom random = new SecureRandom();
+    private final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+
+    private final ConcurrentHashMap<String, TimeTravelSession> sessions = new ConcurrentHashMap<>();
+    //All sessions share the same TTL, so creation order is also expiry order. Guarded by this, may still hold sessions a lookup found expired
+    private final ArrayDeque<TimeTravelSession> creationOrder = new ArrayDeque<>();
+
+    /**
+     * @param ttl         How long a session lasts after it was created
+     * @param maxSessions The maximum number of sessions held at once
+     */
+    public InMemoryTimeTravelSessionStore(final Duration ttl, final int maxSessions) {
+        this(ttl, maxSessions, null);
+    }
+
+    /**
+     * @param ttl         How long a session lasts after it was created
+     * @param maxSessions The maximum number of sessions held at once
+     * @param timeSource  The source of the system time sessions expire against, null for the source installed in {@link DateFactory}
+     */
+    public InMemoryTimeTravelSessionStore(final Duration ttl, final int maxSessions, final TimeSource timeSource) {
+        Objects.requireNonNull(ttl);
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Session TTL must be positive: " + ttl);
+        }
+        if (maxSessions < 1) {
+            throw new IllegalArgumentException("Maximum number of sessions must be positive: " + maxSessions);
+        }
+        this.ttlMillis = ttl.toMillis();
+        this.maxSessions = maxSessions;
+        this.timeSource = timeSource;
+    }
+
+    @Override
+    public synchronized TimeTravelSession create(final String testDate, final TimeTravelContext context) {
+        final long now = currentTimeMillis();
+        purgeExpired(now);
+        while (sessions.size() >= maxSessions) {
+            final TimeTravelSession oldest = creationOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            sessions.remove(oldest.getToken(), oldest);
+        }
+
+        TimeTravelSession session;
+        do {
+            session = new TimeTravelSession(newToken(), testDate, context, now, now + ttlMillis);
+        } while (sessions.putIfAbsent(session.getToken(), session) != null);
+        creationOrder.offer(session);
+        return session;
+    }
+
+    @Override
+    public TimeTravelSession get(final String token) {
+        final TimeTravelSession session = sessions.get(token);
+        if (session == null || !session.isExpired(currentTimeMillis())) {
+            return session;
+        }
+        sessions.remove(token, session);
+        return null;
+    }
+
+    @Override
+    public synchronized boolean revoke(final String token) {
+        final TimeTravelSession session = sessions.remove(token);
+        if (session == null) {
+            return false;
+        }
+        creationOrder.remove(session);
+        return !session.isExpired(currentTimeMillis());
+    }
+
+    @Override
+    public synchronized int revokeAll() {
+        purgeExpired(currentTimeMillis());
+        final int revoked = sessions.size();
+        sessions.clear();
+        creationOrder.clear();
+        return revoked;
+    }
+
+    @Override
+    public List<TimeTravelSession> getSessions() {
+        final long now = currentTimeMillis();
+        final List<TimeTravelSession> active = new ArrayList<>(sessions.size());
+        for (TimeTravelSession session : sessions.values()) {
+            if (!session.isExpired(now)) {
+                active.add(session);
+            }
+        }
+        active.sort(Comparator.comparing(TimeTravelSession::getCreated));
+        return active;
+    }
+
+    /**
+     * @return The number of sessions held, including expired sessions which have not been purged yet
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    private void purgeExpired(final long now) {
+        TimeTravelSession oldest;
+        while ((oldest = creationOrder.peek()) != null && oldest.isExpired(now)) {
+            creationOrder.poll();
+            sessions.remove(oldest.getToken(), oldest);
+        }
+    }
+
+    private String newToken() {
+        final byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return encoder.encodeToString(bytes);
+    }
+
+    private long currentTimeMillis() {
+        return (timeSource == null ? DateFactory.getTimeSource() : timeSource).currentTimeMillis();
+    }
+}
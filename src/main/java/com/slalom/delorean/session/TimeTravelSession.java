@@ -0,0 +1,103 @@
+package com.slalom.delorean.session;
+
+import com.slalom.delorean.TimeTravelContext;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * A time travel date/time issued to a client as an opaque token (see {@link TimeTravelSessionStore}), paired with the context resolved from it when it
+ * was issued so requests presenting the token never parse the date/time again.
+ */
+public final class TimeTravelSession {
+
+    private static final int ID_BYTES = 9;
+
+    private final String token;
+    private final String id;
+    private final String testDate;
+    private final TimeTravelContext context;
+    private final long createdMillis;
+    private final long expiresMillis;
+
+    /**
+     * @param token         The opaque token identifying the session
+     * @param testDate      The time travel date/time the session was created for, as provided to the Time Machine
+     * @param context       The context resolved from the test date
+     * @param createdMillis The epoch millis (of the system clock) the session was created at
+     * @param expiresMillis The epoch millis (of the system clock) the session expires at
+     */
+    public TimeTravelSession(final String token, final String testDate, final TimeTravelContext context, final long createdMillis,
+            final long expiresMillis) {
+        this.token = Objects.requireNonNull(token);
+        this.id = idOf(token);
+        this.testDate = Objects.requireNonNull(testDate);
+        this.context = Objects.requireNonNull(context);
+        this.createdMillis = createdMillis;
+        this.expiresMillis = expiresMillis;
+    }
+
+    /**
+     * @return The token, which grants the session to whoever presents it so must not be disclosed other than to the client it was issued to
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * @return A non-secret identifier of the session for listing and revoking it, see {@link #idOf(String)}
+     */
+    public String getId() {
+        return id;
+    }
+
+    public String getTestDate() {
+        return testDate;
+    }
+
+    public TimeTravelContext getContext() {
+        return context;
+    }
+
+    public Instant getCreated() {
+        return Instant.ofEpochMilli(createdMillis);
+    }
+
+    public Instant getExpires() {
+        return Instant.ofEpochMilli(expiresMillis);
+    }
+
+    /**
+     * @param nowMillis The current epoch millis of the system clock
+     * @return True if the session has expired at the provided time
+     */
+    public boolean isExpired(final long nowMillis) {
+        return nowMillis >= expiresMillis;
+    }
+
+    /**
+     * Derives the identifier of the session issued a token: the URL safe Base64 encoding of the first 72 bits of the token's SHA-256 hash. The token
+     * cannot be recovered from the identifier.
+     *
+     * @param token The token issued for a session
+     * @return The session's identifier
+     */
+    public static String idOf(final String token) {
+        final byte[] hash;
+        try {
+            hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required of every Java platform", e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, ID_BYTES));
+    }
+
+    @Override
+    public String toString() {
+        return "TimeTravelSession[" + testDate + ", expires " + getExpires() + "]";
+    }
+}
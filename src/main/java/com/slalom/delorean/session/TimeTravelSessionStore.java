@@ -0,0 +1,51 @@
+package com.slalom.delorean.session;
+
+import com.slalom.delorean.TimeTravelContext;
+import java.util.List;
+
+/**
+ * Maps the opaque tokens the {@link com.slalom.delorean.spring.boot.controller.TimeMachineController} issues as cookie values to the time travel
+ * session they were issued for. Inbound requests presenting a token then resolve their context with a single lookup rather than by parsing a date/time,
+ * and sessions can be listed or revoked centrally while clients still hold the cookie.
+ * <p>
+ * {@link InMemoryTimeTravelSessionStore} keeps the sessions of a single node. Applications running several nodes can provide their own implementation
+ * backed by a shared store, keeping the test date of each session and resolving it again (see {@link com.slalom.delorean.IsoDateParser}) when loading a
+ * session another node created.
+ */
+public interface TimeTravelSessionStore {
+
+    /**
+     * Creates a session, issuing a new token for it
+     *
+     * @param testDate The time travel date/time the session is created for
+     * @param context  The context resolved from the test date
+     * @return The created session
+     */
+    TimeTravelSession create(String testDate, TimeTravelContext context);
+
+    /**
+     * Called for every inbound request carrying a token, so should be cheap
+     *
+     * @param token The token issued for the session
+     * @return The session for the token or null if the token is unknown, expired or revoked
+     */
+    TimeTravelSession get(String token);
+
+    /**
+     * @param token The token issued for the session
+     * @return True if a session was revoked, false if the token was unknown or expired
+     */
+    boolean revoke(String token);
+
+    /**
+     * Revokes every session
+     *
+     * @return The number of sessions revoked
+     */
+    int revokeAll();
+
+    /**
+     * @return The sessions which have not expired or been revoked, oldest first
+     */
+    List<TimeTravelSession> getSessions();
+}
@@ -0,0 +1,65 @@
+package com.slalom.delorean.spring.boot.clock;
+
+import com.slalom.delorean.CoarseTimeSource;
+import com.slalom.delorean.DateFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import java.time.Duration;
+
+/**
+ * Runs a {@link CoarseTimeSource} for the lifetime of the Spring context, installing it in {@link DateFactory} when the context starts and reinstating
+ * the system time source when it stops. Starts before and stops after all other lifecycle beans.
+ */
+public class CoarseClockLifecycle implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CoarseClockLifecycle.class);
+
+    private final Duration resolution;
+    private volatile CoarseTimeSource source;
+
+    /**
+     * @param resolution How often the cached system time is refreshed
+     */
+    public CoarseClockLifecycle(final Duration resolution) {
+        this.resolution = resolution;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (source == null) {
+            log.info("Serving DateFactory from a coarse clock with a resolution of {}", resolution);
+            source = CoarseTimeSource.start(resolution);
+            DateFactory.setTimeSource(source);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (source != null) {
+            source.close();
+            source = null;
+        }
+    }
+
+    @Override
+    public void stop(final Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return source != null;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return true;
+    }
+
+    @Override
+    public int getPhase() {
+        return Integer.MIN_VALUE;
+    }
+}
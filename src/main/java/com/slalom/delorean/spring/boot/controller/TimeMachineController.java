@@ -4,6 +4,10 @@ import static com.slalom.delorean.DateFactory.getTestDateString;
 import static com.slalom.delorean.DateFactory.timeTraveling;
 
 import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties;
+import com.slalom.delorean.IsoDateParser;
+import com.slalom.delorean.TimeTravelContext;
+import com.slalom.delorean.session.TimeTravelSession;
+import com.slalom.delorean.session.TimeTravelSessionStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,11 +19,10 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.WebUtils;
 import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.time.temporal.TemporalAccessor;
 
 @RestController
 @EnableConfigurationProperties(TimeMachineConfigurationProperties.class)
@@ -27,13 +30,22 @@ import java.time.temporal.TemporalAccessor;
 public class TimeMachineController {
 
     private static final Logger log = LoggerFactory.getLogger(TimeMachineController.class);
-    private static DateTimeFormatter[] formats = { DateTimeFormatter.ISO_LOCAL_DATE, DateTimeFormatter.ISO_LOCAL_DATE_TIME };
     private static final String TEST_DATE_JSON = "{ \"testDate\" : \"%s\" }";
 
     private final TimeMachineConfigurationProperties properties;
+    private final TimeTravelSessionStore sessionStore;
 
     public TimeMachineController(@Autowired TimeMachineConfigurationProperties properties) {
+        this(properties, null);
+    }
+
+    /**
+     * @param properties   Delorean configuration
+     * @param sessionStore Issues the session tokens set as cookie values instead of the test date, may be null to set the test date itself
+     */
+    public TimeMachineController(final TimeMachineConfigurationProperties properties, final TimeTravelSessionStore sessionStore) {
         this.properties = properties;
+        this.sessionStore = sessionStore;
     }
 
 
@@ -52,24 +64,31 @@ public class TimeMachineController {
      * Remove any previously set time machine cookie
      */
     @GetMapping(path = "/clear")
-    public ResponseEntity<Void> clearCurrentTestingDateGet(HttpServletResponse response) {
-        return clearCurrentTestingDate(response);
+    public ResponseEntity<Void> clearCurrentTestingDateGet(HttpServletRequest request, HttpServletResponse response) {
+        return clearCurrentTestingDate(request, response);
     }
 
 
     /**
-     * Remove any previously set time machine cookie
+     * Remove any previously set time machine cookie, revoking its session if sessions are in use
      */
     @DeleteMapping
-    public ResponseEntity<Void> clearCurrentTestingDate(HttpServletResponse response) {
+    public ResponseEntity<Void> clearCurrentTestingDate(HttpServletRequest request, HttpServletResponse response) {
         log.debug("Removing time machine cookie");
+        if (sessionStore != null) {
+            Cookie cookie = WebUtils.getCookie(request, properties.getCookie().getName());
+            if (cookie != null && cookie.getValue() != null) {
+                sessionStore.revoke(cookie.getValue());
+            }
+        }
         response.addCookie(getTimeMachineCookie(null, true));
         return ResponseEntity.noContent().build();
     }
 
 
     /**
-     * Set a cookie with the provided test date/time
+     * Set a cookie with the provided test date/time, or with the token of a new session for it if sessions are in use. Accelerated values (e.g.
+     * {@code x60@2016-10-21T00:00}) require sessions: a cookie carrying the value itself would restart the clock at its anchor on every request.
      */
     @GetMapping(path = "/{isoDate}")
     public ResponseEntity<String> setTestingDate(@PathVariable("isoDate") final String isoDate, final HttpServletResponse response) {
@@ -77,25 +96,26 @@ public class TimeMachineController {
         log.trace("Attempting to set test date to: {}", isoDate);
 
         //Ensure that the date is properly formatted by parsing it
-        for (final DateTimeFormatter f : formats) {
-            try {
-                TemporalAccessor t = f.parse(isoDate);
-
-                //As there is no easy way to get a readable pattern from the DateTimeFormatters, in success case we'll use this pre-formatted one
-                String pattern = "YYYY-MM-dd";
-                if (f == DateTimeFormatter.ISO_LOCAL_DATE_TIME) {
-                    pattern = "YYYY-MM-ddTHH:mm:ss";
-                }
+        IsoDateParser.Result result = IsoDateParser.parse(isoDate);
+        if (result.isSuccess() && result.getRate() != 0 && sessionStore == null) {
+            log.debug("Rejecting accelerated time travel date {} as sessions are not enabled", isoDate);
+            return ResponseEntity.badRequest().body(String.format("Accelerated date %s requires time travel sessions to be enabled.", isoDate));
+        }
 
+        if (result.isSuccess()) {
+            log.info("Successfully parsed time travel date {}", result);
+            if (sessionStore == null) {
                 response.addCookie(getTimeMachineCookie(isoDate, false));
-                log.info("Successfully parsed as pattern {} : {} ", pattern, t.toString());
-
-                return ResponseEntity.ok(String.format(TEST_DATE_JSON, isoDate));
-            } catch (DateTimeParseException e) {
-                log.trace("Unable to parse date with pattern " + f.toString());
+            } else {
+                TimeTravelSession session = sessionStore.create(isoDate, TimeTravelContext.of(result.toClock()));
+                response.addCookie(getTimeMachineCookie(session.getToken(), false));
+                log.debug("Created time travel session {}", session);
             }
+
+            return ResponseEntity.ok(String.format(TEST_DATE_JSON, isoDate));
         }
 
+        log.trace("Unable to parse date {} : {}", isoDate, result.getFailure());
         return ResponseEntity.badRequest().body(String.format("Unable to parse date %s for time travel.", isoDate));
     }
 
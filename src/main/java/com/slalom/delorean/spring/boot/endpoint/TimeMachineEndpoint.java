@@ -0,0 +1,163 @@
+package com.slalom.delorean.spring.boot.endpoint;
+
+import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties;
+import com.slalom.delorean.cluster.TimeTravelCluster;
+import com.slalom.delorean.cluster.TimeTravelUpdate;
+import com.slalom.delorean.session.TimeTravelSession;
+import com.slalom.delorean.session.TimeTravelSessionStore;
+import org.springframework.boot.actuate.endpoint.AbstractEndpoint;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint ({@code /delorean}) reporting whether Delorean's interceptors are currently active and, when in use, the number of active time
+ * travel sessions and the cluster wide global test date. Use {@link TimeMachineMvcEndpoint} to switch the interceptors on or off at runtime, to list
+ * or revoke sessions and to set the global test date of every node.
+ */
+@ConfigurationProperties(prefix = "endpoints.delorean")
+public class TimeMachineEndpoint extends AbstractEndpoint<Map<String, Object>> {
+
+    private final TimeMachineConfigurationProperties properties;
+    private final TimeTravelSessionStore sessionStore;
+    private final TimeTravelCluster cluster;
+
+    public TimeMachineEndpoint(final TimeMachineConfigurationProperties properties) {
+        this(properties, null);
+    }
+
+    /**
+     * @param properties   Delorean configuration
+     * @param sessionStore The time travel sessions to report on, may be null if sessions are not in use
+     */
+    public TimeMachineEndpoint(final TimeMachineConfigurationProperties properties, final TimeTravelSessionStore sessionStore) {
+        this(properties, sessionStore, null);
+    }
+
+    /**
+     * @param properties   Delorean configuration
+     * @param sessionStore The time travel sessions to report on, may be null if sessions are not in use
+     * @param cluster      Sets the global test date of every node, may be null if the node is not part of a cluster
+     */
+    public TimeMachineEndpoint(final TimeMachineConfigurationProperties properties, final TimeTravelSessionStore sessionStore,
+            final TimeTravelCluster cluster) {
+        super("delorean");
+        this.properties = properties;
+        this.sessionStore = sessionStore;
+        this.cluster = cluster;
+    }
+
+    @Override
+    public Map<String, Object> invoke() {
+        if (sessionStore == null && cluster == null) {
+            return Collections.singletonMap("active", properties.isActive());
+        }
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("active", properties.isActive());
+        if (sessionStore != null) {
+            state.put("sessions", sessionStore.getSessions().size());
+        }
+        if (cluster != null) {
+            state.put("cluster", describe(cluster.getLastApplied()));
+        }
+        return state;
+    }
+
+    /**
+     * @return True if time travel sessions are in use
+     */
+    public boolean hasSessions() {
+        return sessionStore != null;
+    }
+
+    /**
+     * Lists the sessions by their identifier (see {@link TimeTravelSession#getId()}) rather than their token, which would grant the session to whoever
+     * can read the endpoint
+     *
+     * @return The active time travel sessions, oldest first
+     */
+    public List<Map<String, Object>> getSessions() {
+        List<Map<String, Object>> sessions = new ArrayList<>();
+        for (TimeTravelSession session : sessionStore.getSessions()) {
+            Map<String, Object> described = new LinkedHashMap<>();
+            described.put("id", session.getId());
+            described.put("testDate", session.getTestDate());
+            described.put("created", session.getCreated().toString());
+            described.put("expires", session.getExpires().toString());
+            sessions.add(described);
+        }
+        return sessions;
+    }
+
+    /**
+     * @param id The identifier of the session to revoke, as listed by {@link #getSessions()}
+     * @return True if the session was revoked, false if it was unknown or had expired
+     */
+    public boolean revokeSession(final String id) {
+        for (TimeTravelSession session : sessionStore.getSessions()) {
+            if (session.getId().equals(id)) {
+                return sessionStore.revoke(session.getToken());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The number of sessions revoked
+     */
+    public int revokeSessions() {
+        return sessionStore.revokeAll();
+    }
+
+    /**
+     * Switches Delorean's inbound and outbound interceptors on or off
+     *
+     * @param active Whether the interceptors should process requests
+     * @return The endpoint's state after the switch
+     */
+    public Map<String, Object> setActive(final boolean active) {
+        properties.setActive(active);
+        return invoke();
+    }
+
+    /**
+     * @return True if the node is part of a cluster
+     */
+    public boolean hasCluster() {
+        return cluster != null;
+    }
+
+    /**
+     * Sets the global test date of every node of the cluster
+     *
+     * @param testDate An ISO formatted date, date/time or time warp specification
+     * @return The update broadcast
+     * @throws IllegalArgumentException If the test date cannot be parsed
+     */
+    public Map<String, Object> setGlobalTestDate(final String testDate) {
+        return describe(cluster.setGlobalTestDate(testDate));
+    }
+
+    /**
+     * Clears the global test date of every node of the cluster
+     *
+     * @return The update broadcast
+     */
+    public Map<String, Object> clearGlobalTestDate() {
+        return describe(cluster.clearGlobalTestDate());
+    }
+
+    private Map<String, Object> describe(final TimeTravelUpdate update) {
+        Map<String, Object> described = new LinkedHashMap<>();
+        described.put("nodeId", cluster.getNodeId());
+        if (update != null) {
+            described.put("globalTestDate", update.getTestDate());
+            described.put("origin", update.getOrigin());
+            described.put("version", update.getTimestamp());
+        }
+        return described;
+    }
+}
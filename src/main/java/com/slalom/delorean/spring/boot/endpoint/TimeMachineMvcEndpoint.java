@@ -0,0 +1,102 @@
+package com.slalom.delorean.spring.boot.endpoint;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.mvc.EndpointMvcAdapter;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import java.util.Collections;
+
+/**
+ * Exposes the {@link TimeMachineEndpoint} over HTTP. {@code GET /delorean} returns the current state and {@code POST /delorean?active=false} (or
+ * {@code true}) switches Delorean's interceptors off (or on) without restarting the application.
+ * <p>
+ * When time travel sessions are in use {@code GET /delorean/sessions} lists them, {@code DELETE /delorean/sessions/{id}} revokes a single session
+ * and {@code DELETE /delorean/sessions} revokes all of them.
+ * <p>
+ * When the node is part of a cluster {@code POST /delorean/global?testDate=2015-10-21} sets the global test date of every node and
+ * {@code DELETE /delorean/global} clears it.
+ */
+public class TimeMachineMvcEndpoint extends EndpointMvcAdapter {
+
+    private static final Logger log = LoggerFactory.getLogger(TimeMachineMvcEndpoint.class);
+
+    private final TimeMachineEndpoint delegate;
+
+    public TimeMachineMvcEndpoint(final TimeMachineEndpoint delegate) {
+        super(delegate);
+        this.delegate = delegate;
+    }
+
+    @RequestMapping(method = RequestMethod.POST, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Object setActive(@RequestParam("active") final boolean active) {
+        if (!delegate.isEnabled()) {
+            return getDisabledResponse();
+        }
+
+        log.info("Switching Delorean interceptors {}", active ? "on" : "off");
+        return delegate.setActive(active);
+    }
+
+    @RequestMapping(path = "/sessions", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Object getSessions() {
+        if (!delegate.isEnabled() || !delegate.hasSessions()) {
+            return getDisabledResponse();
+        }
+        return delegate.getSessions();
+    }
+
+    @RequestMapping(path = "/sessions/{id}", method = RequestMethod.DELETE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Object revokeSession(@PathVariable("id") final String id) {
+        if (!delegate.isEnabled() || !delegate.hasSessions()) {
+            return getDisabledResponse();
+        }
+        if (!delegate.revokeSession(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        log.info("Revoked time travel session");
+        return ResponseEntity.noContent().build();
+    }
+
+    @RequestMapping(path = "/sessions", method = RequestMethod.DELETE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Object revokeSessions() {
+        if (!delegate.isEnabled() || !delegate.hasSessions()) {
+            return getDisabledResponse();
+        }
+        int revoked = delegate.revokeSessions();
+        log.info("Revoked {} time travel sessions", revoked);
+        return Collections.singletonMap("revoked", revoked);
+    }
+
+    @RequestMapping(path = "/global", method = RequestMethod.POST, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Object setGlobalTestDate(@RequestParam("testDate") final String testDate) {
+        if (!delegate.isEnabled() || !delegate.hasCluster()) {
+            return getDisabledResponse();
+        }
+        try {
+            return delegate.setGlobalTestDate(testDate);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(Collections.singletonMap("error", e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @RequestMapping(path = "/global", method = RequestMethod.DELETE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Object clearGlobalTestDate() {
+        if (!delegate.isEnabled() || !delegate.hasCluster()) {
+            return getDisabledResponse();
+        }
+        return delegate.clearGlobalTestDate();
+    }
+}
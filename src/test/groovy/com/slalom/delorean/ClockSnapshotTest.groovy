@@ -0,0 +1,91 @@
+package com.slalom.delorean
+
+import spock.lang.Specification
+import java.time.Clock
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.ZoneId
+import java.time.ZoneOffset
+
+class ClockSnapshotTest extends Specification {
+
+    def cleanup() {
+        DateFactory.clearTestDate()
+        DateFactory.clearGlobalTestDate()
+    }
+
+    def "Snapshot of the system clock reads the current date/time"() {
+        when:
+        def snapshot = DateFactory.clockSnapshot()
+
+        then:
+        snapshot.is(DateFactory.clockSnapshot())
+        snapshot.today() == LocalDate.now()
+        Math.abs(snapshot.epochMillis() - System.currentTimeMillis()) < 1000
+    }
+
+    def "Snapshot captures the Test Date in effect when it is taken"() {
+        given:
+        def testDateTime = LocalDateTime.of(2015, 10, 21, 16, 29)
+        DateFactory.setTestDate(testDateTime)
+
+        when:
+        def snapshot = DateFactory.clockSnapshot()
+        DateFactory.setTestDate(LocalDate.of(1955, 11, 5))
+
+        then:
+        snapshot.now() == testDateTime
+        snapshot.today() == testDateTime.toLocalDate()
+        snapshot.instant() == testDateTime.atZone(ZoneId.systemDefault()).toInstant()
+        snapshot.epochMillis() == snapshot.instant().toEpochMilli()
+        snapshot.now(ZoneOffset.UTC) == testDateTime.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime()
+        DateFactory.today() == LocalDate.of(1955, 11, 5)
+    }
+
+    def "Snapshots are shared while a Test Date is in effect"() {
+        given:
+        DateFactory.setGlobalTestDate(LocalDate.of(2015, 10, 21))
+
+        expect:
+        DateFactory.clockSnapshot().is(DateFactory.clockSnapshot())
+        DateFactory.clockSnapshot().today() == LocalDate.of(2015, 10, 21)
+        DateFactory.clockSnapshot().today(ZoneId.of("Pacific/Kiritimati")) == LocalDate.of(2015, 10, 21)
+    }
+
+    def "Snapshot of a date-only Test Date keeps moving with the system clock"() {
+        given:
+        DateFactory.setTestDate(LocalDate.of(2015, 10, 21))
+        def snapshot = DateFactory.clockSnapshot()
+
+        expect:
+        Math.abs(snapshot.epochMillis() - DateFactory.epochMillis()) < 1000
+        snapshot.now().toLocalDate() == LocalDate.of(2015, 10, 21)
+    }
+
+    def "fillEpochMillis stamps the range with a single reading"() {
+        given:
+        def clock = Clock.fixed(LocalDateTime.of(2015, 10, 21, 16, 29).toInstant(ZoneOffset.UTC), ZoneOffset.UTC)
+        def snapshot = new ClockSnapshot(clock)
+        def timestamps = new long[5]
+
+        when:
+        def millis = snapshot.fillEpochMillis(timestamps, 1, 4)
+
+        then:
+        millis == clock.millis()
+        timestamps as List == [0L, millis, millis, millis, 0L]
+    }
+
+    def "DateFactory fillEpochMillis honours the Test Clock"() {
+        given:
+        DateFactory.setTestDate(LocalDateTime.of(2015, 10, 21, 16, 29))
+        def timestamps = new long[3]
+
+        when:
+        def millis = DateFactory.fillEpochMillis(timestamps)
+
+        then:
+        millis == DateFactory.epochMillis()
+        timestamps as List == [millis, millis, millis]
+    }
+}
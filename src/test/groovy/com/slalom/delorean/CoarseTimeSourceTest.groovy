@@ -0,0 +1,104 @@
+package com.slalom.delorean
+
+import spock.lang.Specification
+import java.time.Duration
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.ZoneId
+
+class CoarseTimeSourceTest extends Specification {
+
+    CoarseTimeSource source = CoarseTimeSource.start(Duration.ofMillis(1))
+
+    def cleanup() {
+        source.close()
+        DateFactory.clearTestDate()
+    }
+
+    def "Readings stay within a few resolutions of the system time and advance"() {
+        when:
+        def millis = source.currentTimeMillis()
+        def nanoTime = source.nanoTime()
+        Thread.sleep(20)
+
+        then:
+        Math.abs(millis - System.currentTimeMillis()) < 100
+        source.currentTimeMillis() > millis
+        source.nanoTime() > nanoTime
+        source.running
+    }
+
+    def "Resolution must be positive"() {
+        when:
+        CoarseTimeSource.start(resolution)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        resolution << [Duration.ZERO, Duration.ofMillis(-1)]
+    }
+
+    def "DateFactory reads the installed source when not time traveling"() {
+        given:
+        DateFactory.setTimeSource(source)
+
+        expect:
+        DateFactory.timeSource.is(source)
+        Math.abs(DateFactory.epochMillis() - System.currentTimeMillis()) < 100
+        DateFactory.today() == LocalDate.now()
+    }
+
+    def "Time travel applies on top of the installed source"() {
+        given:
+        DateFactory.setTimeSource(source)
+
+        when:
+        DateFactory.setTestDate(LocalDate.of(2015, 10, 21))
+
+        then:
+        DateFactory.today() == LocalDate.of(2015, 10, 21)
+        Math.abs(Duration.between(LocalDateTime.now().toLocalTime(), DateFactory.now().toLocalTime()).toMillis()) < 100
+
+        when:
+        DateFactory.setTestClock(DateFactory.offsetClock(Duration.ofDays(3)))
+
+        then:
+        Math.abs(DateFactory.epochMillis() - Duration.ofDays(3).toMillis() - System.currentTimeMillis()) < 100
+
+        when:
+        DateFactory.setTestDate(LocalDateTime.of(2015, 10, 21, 16, 29))
+
+        then:
+        DateFactory.now() == LocalDateTime.of(2015, 10, 21, 16, 29)
+        DateFactory.now(ZoneId.of("UTC")) == LocalDateTime.of(2015, 10, 21, 16, 29).atZone(ZoneId.systemDefault())
+                .withZoneSameInstant(ZoneId.of("UTC")).toLocalDateTime()
+    }
+
+    def "Closing the source reinstates the system time source"() {
+        given:
+        DateFactory.setTimeSource(source)
+
+        when:
+        source.close()
+
+        then:
+        !source.running
+        DateFactory.timeSource.is(TimeSource.SYSTEM)
+    }
+
+    def "Closing a source which is no longer installed leaves the installed source in place"() {
+        given:
+        def other = CoarseTimeSource.start(Duration.ofMillis(5))
+        DateFactory.setTimeSource(other)
+
+        when:
+        source.close()
+
+        then:
+        DateFactory.timeSource.is(other)
+
+        cleanup:
+        other.close()
+    }
+}
@@ -71,4 +71,252 @@ class DateFactoryTest extends Specification {
         LocalDateTime.now().plusYears(10)  | _
         LocalDateTime.now()                | _
     }
+
+    def "Test Date String is computed once for #testDate"() {
+        given:
+        setTestDate(testDate)
+
+        expect:
+        getTestDateString().is(getTestDateString())
+        getTestContext().headerValue == expected
+
+        cleanup:
+        clearTestDate()
+
+        where:
+        testDate                                 | expected
+        LocalDate.of(2016, 10, 21)               | '2016-10-21'
+        LocalDateTime.of(2016, 10, 21, 16, 29)   | '2016-10-21T16:29:00'
+    }
+
+    def "Test Date String follows a custom Test Clock"() {
+        given:
+        def clock = Clock.offset(Clock.systemDefaultZone(), Duration.ofDays(3))
+        setTestClock(clock)
+
+        expect:
+        timeTraveling()
+        !fixedInstant()
+        getTestingClock().is(clock)
+        getTestDateString() == LocalDate.now(clock).format(ISO_LOCAL_DATE)
+
+        cleanup:
+        clearTestDate()
+    }
+
+    def "Setting a null Test Clock clears the Test Date"() {
+        given:
+        setTestDate(LocalDate.of(2016, 10, 21))
+
+        when:
+        setTestClock(null)
+
+        then:
+        !timeTraveling()
+        getTestDateString() == null
+    }
+
+    def "Thread Test Date takes precedence over Global Test Date"() {
+        given:
+        def globalDate = LocalDate.of(2016, 10, 21)
+        def threadDate = LocalDate.of(1955, 11, 5)
+        setGlobalTestDate(globalDate)
+
+        expect:
+        timeTraveling()
+        today() == globalDate
+        getTestDateString() == '2016-10-21'
+
+        when:
+        setTestDate(threadDate)
+
+        then:
+        today() == threadDate
+
+        when:
+        clearTestDate()
+
+        then:
+        today() == globalDate
+
+        when:
+        clearGlobalTestDate()
+
+        then:
+        !timeTraveling()
+        getGlobalTestContext() == null
+        today() == LocalDate.now()
+    }
+
+    def "Global Test Date is visible to other threads"() {
+        given:
+        setGlobalTestDate(LocalDateTime.of(2016, 10, 21, 16, 29))
+        def otherThreadDate = null
+
+        when:
+        def thread = Thread.start { otherThreadDate = now() }
+        thread.join()
+
+        then:
+        otherThreadDate == LocalDateTime.of(2016, 10, 21, 16, 29)
+
+        cleanup:
+        clearGlobalTestDate()
+    }
+
+    def "Tenant Test Clocks are set and cleared independently"() {
+        given:
+        def clock = clockFor(LocalDate.of(2016, 10, 21))
+        setGlobalTestDate(LocalDate.of(1985, 10, 26))
+
+        when:
+        setTenantTestClock('marty', clock)
+        setTenantTestClock('doc', clockFor(LocalDate.of(1885, 9, 2)))
+        clearTenantTestDate('doc')
+
+        then:
+        getTenantTestContext('marty').clock.is(clock)
+        getTenantTestContext('doc') == null
+        getTenantTestContext(null) == null
+        getTenantTestContexts().keySet() == ['marty'] as Set
+        getGlobalTestContext().headerValue == '1985-10-26'
+
+        //Tenant test dates are only applied by inbound interceptors
+        today() == LocalDate.of(1985, 10, 26)
+
+        cleanup:
+        clearTenantTestDate('marty')
+        clearGlobalTestDate()
+    }
+
+    def "runAt applies the Test Clock only while the task runs"() {
+        given:
+        def outerDate = LocalDate.of(1985, 10, 26)
+        def scopedDate = LocalDate.of(1955, 11, 5)
+        def seenDate = null
+        setTestDate(outerDate)
+
+        when:
+        runAt(clockFor(scopedDate)) { seenDate = today() }
+
+        then:
+        seenDate == scopedDate
+        today() == outerDate
+
+        cleanup:
+        clearTestDate()
+    }
+
+    def "callAt reinstates the previous Test Date when the task fails"() {
+        when:
+        callAt(clockFor(LocalDate.of(1955, 11, 5))) { throw new IllegalStateException('1.21 gigawatts') }
+
+        then:
+        thrown(IllegalStateException)
+        !timeTraveling()
+    }
+
+    def "callAt returns the result of the task"() {
+        expect:
+        callAt(clockFor(LocalDateTime.of(2015, 10, 21, 16, 29))) { now() } == LocalDateTime.of(2015, 10, 21, 16, 29)
+        callAt(null) { timeTraveling() } == false
+        !timeTraveling()
+    }
+
+    def "Zone methods read the system clock in the provided zone when not time traveling"() {
+        given:
+        def zone = ZoneId.of("Asia/Tokyo")
+
+        expect:
+        !timeTraveling()
+        today(zone) == LocalDate.now(zone)
+        Math.abs(Duration.between(LocalDateTime.now(zone), now(zone)).toMillis()) < 1000
+        Math.abs(epochMillis() - System.currentTimeMillis()) < 1000
+        Math.abs(instant().toEpochMilli() - System.currentTimeMillis()) < 1000
+        currentDateTimeAtZone(zone).zone == zone
+    }
+
+    def "Zone methods keep a fixed Test Date and read the time of day in the provided zone"() {
+        given:
+        def zone = ZoneId.of("Pacific/Auckland")
+        setTestDate(LocalDate.of(2015, 10, 21))
+
+        expect:
+        today(zone) == LocalDate.of(2015, 10, 21)
+        now(zone).toLocalDate() == LocalDate.of(2015, 10, 21)
+        Math.abs(Duration.between(LocalTime.now(zone), now(zone).toLocalTime()).toMillis()) < 1000
+        currentDateTimeAtZone(zone).toLocalDate() == LocalDate.of(2015, 10, 21)
+        Math.abs(epochMillis() - now().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()) < 1000
+
+        cleanup:
+        clearTestDate()
+    }
+
+    def "Zone methods convert a fixed Test Instant to the provided zone"() {
+        given:
+        def testInstant = LocalDateTime.of(2015, 10, 21, 16, 29)
+        setTestDate(testInstant)
+        def expected = testInstant.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneId.of("UTC"))
+
+        expect:
+        now(ZoneId.of("UTC")) == expected.toLocalDateTime()
+        today(ZoneId.of("UTC")) == expected.toLocalDate()
+        currentDateTimeAtZone(ZoneId.of("UTC")) == expected
+        instant() == expected.toInstant()
+        epochMillis() == expected.toInstant().toEpochMilli()
+
+        cleanup:
+        clearTestDate()
+    }
+
+    def "Zone adjusted Test Clocks are reused"() {
+        given:
+        setTestDate(LocalDate.of(2015, 10, 21))
+        def context = getTestContext()
+
+        expect:
+        context.getClock(ZoneId.of("Europe/Paris")).is(context.getClock(ZoneId.of("Europe/Paris")))
+        context.getClock(ZoneId.of("Europe/Paris")).zone == ZoneId.of("Europe/Paris")
+        context.getClock(ZoneId.systemDefault()) == context.clock
+
+        cleanup:
+        clearTestDate()
+    }
+
+    def "Global clock listeners are notified when the Global Test Date changes"() {
+        given:
+        def listener = Mock(Runnable)
+        addGlobalClockListener(listener)
+
+        when:
+        setGlobalTestDate(LocalDate.of(2015, 10, 21))
+        clearGlobalTestDate()
+        setTenantTestClock("tenant", clockFor(LocalDate.of(2015, 10, 21)))
+
+        then:
+        2 * listener.run()
+
+        when:
+        removeGlobalClockListener(listener)
+        setGlobalTestDate(LocalDate.of(2015, 10, 21))
+
+        then:
+        0 * listener.run()
+
+        cleanup:
+        clearGlobalTestDate()
+        clearTenantTestDate("tenant")
+    }
+
+    def "Context rate reflects how fast the clock runs"() {
+        expect:
+        TimeTravelContext.of(clock).rate == rate
+
+        where:
+        clock                                                    | rate
+        clockFor(LocalDate.of(2015, 10, 21))                     | 1
+        clockFor(LocalDateTime.of(2015, 10, 21, 16, 29))         | 0
+        offsetClock(Duration.ofDays(3))                          | 1
+        scaledClock(60, LocalDateTime.of(2015, 10, 21, 16, 29))  | 60
+    }
 }
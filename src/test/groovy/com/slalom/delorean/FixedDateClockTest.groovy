@@ -0,0 +1,133 @@
+package com.slalom.delorean
+
+import spock.lang.Specification
+import spock.lang.Unroll
+import java.time.Clock
+import java.time.Instant
+import java.time.LocalDate
+import java.time.LocalTime
+import java.time.ZoneId
+
+class FixedDateClockTest extends Specification {
+
+    static final long SEED = 20161021L
+    static final long MIN_MILLIS = LocalDate.of(1850, 1, 1).toEpochDay() * 86_400_000L
+    static final long MAX_MILLIS = LocalDate.of(2150, 1, 1).toEpochDay() * 86_400_000L
+
+    /**
+     * The original implementation: the system clock's time of day in the zone, on the fixed date, resolved through ZonedDateTime
+     */
+    static long reference(LocalDate date, ZoneId zone, long systemMillis) {
+        def time = LocalTime.now(Clock.fixed(Instant.ofEpochMilli(systemMillis), zone))
+        date.atTime(time).atZone(zone).toInstant().toEpochMilli()
+    }
+
+    static long randomMillis(Random random) {
+        MIN_MILLIS + (long) (random.nextDouble() * (MAX_MILLIS - MIN_MILLIS))
+    }
+
+    static LocalDate randomDate(Random random) {
+        LocalDate.ofEpochDay(Math.floorDiv(randomMillis(random), 86_400_000L))
+    }
+
+    @Unroll
+    def "Random dates and system times in #zone match the reference implementation"() {
+        given:
+        def random = new Random(SEED ^ zone.hashCode())
+        def mismatches = []
+
+        when:
+        20.times {
+            def date = randomDate(random)
+            def clock = new DateFactory.FixedDateClock(date, zone)
+            //Reuse each clock so the cached system offset is exercised moving both forwards and backwards in time
+            25.times {
+                def systemMillis = randomMillis(random)
+                if (clock.millisAt(systemMillis) != reference(date, zone, systemMillis)) {
+                    mismatches << "$date @ ${Instant.ofEpochMilli(systemMillis)}"
+                }
+            }
+        }
+
+        then:
+        mismatches.isEmpty()
+
+        where:
+        zone << ZoneId.availableZoneIds.sort().collect { ZoneId.of(it) }
+    }
+
+    @Unroll
+    def "Transition days and system times either side of transitions in #zone match the reference implementation"() {
+        given:
+        def random = new Random(SEED ^ zone.hashCode())
+        def rules = zone.rules
+        def mismatches = []
+        def transitions = []
+        def transition = rules.nextTransition(Instant.ofEpochMilli(MIN_MILLIS))
+        while (transition != null && transition.instant.toEpochMilli() < MAX_MILLIS && transitions.size() < 40) {
+            transitions << transition
+            transition = rules.nextTransition(transition.instant)
+        }
+
+        when:
+        transitions.each { t ->
+            def transitionMillis = t.instant.toEpochMilli()
+            def dates = [t.dateTimeBefore.toLocalDate(), t.dateTimeAfter.toLocalDate()].collectMany { [it.minusDays(1), it, it.plusDays(1)] }.unique()
+            def systemTimes = [-1000L, -1L, 0L, 1L, 1000L].collect { transitionMillis + it } + [randomMillis(random)]
+            dates.each { date ->
+                def clock = new DateFactory.FixedDateClock(date, zone)
+                (systemTimes + systemTimes.reverse()).each { systemMillis ->
+                    if (clock.millisAt(systemMillis) != reference(date, zone, systemMillis)) {
+                        mismatches << "$date @ ${Instant.ofEpochMilli(systemMillis)}"
+                    }
+                }
+            }
+        }
+
+        then:
+        mismatches.isEmpty()
+
+        where:
+        zone << ZoneId.availableZoneIds.sort().collect { ZoneId.of(it) }.findAll { !it.rules.fixedOffset }
+    }
+
+    @Unroll
+    def "Every time of day on #date in #zone matches the reference implementation"() {
+        given:
+        def clock = new DateFactory.FixedDateClock(date, zone)
+        def start = date.atStartOfDay(zone).toInstant().toEpochMilli()
+
+        expect:
+        (0..<(26 * 60)).every { minute ->
+            def systemMillis = start + minute * 60_000L + 123
+            clock.millisAt(systemMillis) == reference(date, zone, systemMillis)
+        }
+
+        where:
+        date                       | zone
+        LocalDate.of(2016, 3, 13)  | ZoneId.of("America/New_York")
+        LocalDate.of(2016, 11, 6)  | ZoneId.of("America/New_York")
+        LocalDate.of(2016, 3, 27)  | ZoneId.of("Europe/London")
+        LocalDate.of(2016, 10, 30) | ZoneId.of("Europe/London")
+        LocalDate.of(2011, 12, 30) | ZoneId.of("Pacific/Apia")
+        LocalDate.of(2016, 4, 3)   | ZoneId.of("Australia/Lord_Howe")
+        LocalDate.of(2016, 10, 21) | ZoneId.of("UTC")
+    }
+
+    def "Reading the clock uses the system clock's time of day on the fixed date"() {
+        given:
+        def zone = ZoneId.of("America/Chicago")
+        def date = LocalDate.of(2015, 10, 21)
+        def clock = new DateFactory.FixedDateClock(date, zone)
+
+        when:
+        def before = System.currentTimeMillis()
+        def millis = clock.millis()
+        def instant = clock.instant()
+        def after = System.currentTimeMillis()
+
+        then:
+        millis >= reference(date, zone, before) && millis <= reference(date, zone, after)
+        instant.toEpochMilli() >= millis && instant.toEpochMilli() <= reference(date, zone, after)
+    }
+}
@@ -0,0 +1,293 @@
+package com.slalom.delorean
+
+import static com.slalom.delorean.IsoDateParser.Failure.EMPTY
+import static com.slalom.delorean.IsoDateParser.Failure.INVALID_VALUE
+import static com.slalom.delorean.IsoDateParser.Failure.MALFORMED
+
+import spock.lang.Specification
+import spock.lang.Unroll
+import java.time.Duration
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.ZoneOffset
+import java.time.format.DateTimeFormatter
+import java.time.format.DateTimeParseException
+
+class IsoDateParserTest extends Specification {
+
+    @Unroll
+    def "Offset #value is parsed to #expected"() {
+        when:
+        def result = IsoDateParser.parse(value)
+
+        then:
+        result.success
+        result.offset == expected
+        result.toString() == normalized
+        result.toClock() instanceof TimeWarpClock
+
+        where:
+        value       || expected             | normalized
+        '+P3D'      || Duration.ofDays(3)   | '+PT72H'
+        '-PT6H'     || Duration.ofHours(-6) | '-PT6H'
+        '+PT1H30M'  || Duration.ofMinutes(90) | '+PT1H30M'
+        '+p1dt2h3m4s' || Duration.parse('P1DT2H3M4S') | '+PT26H3M4S'
+        '-PT1.5S'   || Duration.ofMillis(-1500) | '-PT1.5S'
+        '+PT0.000000001S' || Duration.ofNanos(1) | '+PT0.000000001S'
+        '+PT0S'     || Duration.ZERO        | '+PT0S'
+        '-P3650000D' || Duration.ofDays(-3650000) | '-PT87600000H'
+    }
+
+    @Unroll
+    def "Scaled #value is parsed to rate #rate from #anchor"() {
+        when:
+        def result = IsoDateParser.parse(value)
+
+        then:
+        result.success
+        result.rate == rate
+        result.dateTime == anchor
+        result.date == null
+        result.toClock() instanceof TimeWarpClock
+
+        where:
+        value                          || rate | anchor
+        'x60@2016-10-21T00:00'         || 60   | LocalDateTime.of(2016, 10, 21, 0, 0)
+        'x1@2016-10-21'                || 1    | LocalDateTime.of(2016, 10, 21, 0, 0)
+        'x720@2016-10-21T05:31:12.345' || 720  | LocalDateTime.of(2016, 10, 21, 5, 31, 12, 345_000_000)
+    }
+
+    @Unroll
+    def "Time warp #value fails with #failure"() {
+        expect:
+        IsoDateParser.parse(value).failure == failure
+
+        where:
+        value                      || failure
+        '+'                        || MALFORMED
+        '+3D'                      || MALFORMED
+        '+P1M'                     || MALFORMED
+        '+P'                       || MALFORMED
+        '+PT'                      || MALFORMED
+        '+P3DT'                    || MALFORMED
+        '+P3'                      || MALFORMED
+        '+PT6H3D'                  || MALFORMED
+        '+PT30M6H'                 || MALFORMED
+        '+PT6H6H'                  || MALFORMED
+        '+P-3D'                    || MALFORMED
+        '+P1.5D'                   || MALFORMED
+        '+PT1.S'                   || MALFORMED
+        '+PT1.5H'                  || MALFORMED
+        '+PT1.0123456789S'         || MALFORMED
+        '+P3DT6'                   || MALFORMED
+        '+PTT6H'                   || MALFORMED
+        '+P99999999999999999999D'  || INVALID_VALUE
+        '+P106751991167301D'       || INVALID_VALUE
+        '+P3660000D'               || INVALID_VALUE
+        '-P3660000D'               || INVALID_VALUE
+        'x@2016-10-21'             || MALFORMED
+        'x60'                      || MALFORMED
+        'x60@'                     || MALFORMED
+        'x6a@2016-10-21'           || MALFORMED
+        'x0@2016-10-21'            || INVALID_VALUE
+        'x99999999@2016-10-21'     || MALFORMED
+        'x60@2016-02-30'           || INVALID_VALUE
+        'x60@+P3D'                 || MALFORMED
+        'x60@x60@2016-10-21'       || MALFORMED
+    }
+
+    @Unroll
+    def "Date #value is parsed to #expected"() {
+        when:
+        def result = IsoDateParser.parse(value)
+
+        then:
+        result.success
+        result.date == expected
+        result.dateTime == null
+        result.failure == null
+
+        where:
+        value        || expected
+        '2000-01-01' || LocalDate.of(2000, 1, 1)
+        '2016-02-29' || LocalDate.of(2016, 2, 29)
+        '2000-02-29' || LocalDate.of(2000, 2, 29)
+        '1955-11-05' || LocalDate.of(1955, 11, 5)
+        '9999-12-31' || LocalDate.of(9999, 12, 31)
+    }
+
+    @Unroll
+    def "Date/Time #value is parsed to #expected"() {
+        when:
+        def result = IsoDateParser.parse(value)
+
+        then:
+        result.success
+        result.date == null
+        result.dateTime == expected
+
+        where:
+        value                           || expected
+        '2010-01-01T13:30'              || LocalDateTime.of(2010, 1, 1, 13, 30)
+        '2010-01-01T13:30:30'           || LocalDateTime.of(2010, 1, 1, 13, 30, 30)
+        '2010-01-01t13:30:30'           || LocalDateTime.of(2010, 1, 1, 13, 30, 30)
+        '2010-01-01T00:00:00.5'         || LocalDateTime.of(2010, 1, 1, 0, 0, 0, 500_000_000)
+        '2010-01-01T23:59:59.123'       || LocalDateTime.of(2010, 1, 1, 23, 59, 59, 123_000_000)
+        '2010-01-01T23:59:59.123456789' || LocalDateTime.of(2010, 1, 1, 23, 59, 59, 123_456_789)
+    }
+
+    @Unroll
+    def "Value '#value' fails with #failure"() {
+        when:
+        def result = IsoDateParser.parse(value)
+
+        then:
+        !result.success
+        result.failure == failure
+        result.date == null
+        result.dateTime == null
+        result.toClock() == null
+
+        where:
+        value                            || failure
+        null                             || EMPTY
+        ''                               || EMPTY
+        '20110101'                       || MALFORMED
+        '2011-1-01'                      || MALFORMED
+        '2011-01-01T'                    || MALFORMED
+        '2011-01-01 13:30'               || MALFORMED
+        '2011-01-01T13'                  || MALFORMED
+        '2011-01-01T13:30:'              || MALFORMED
+        '2011-01-01T13:30:30.'           || MALFORMED
+        '2011-01-01T13:30:30.1234567890' || MALFORMED
+        '2011-01-01T13:30:3a'            || MALFORMED
+        'abcd-ef-gh'                     || MALFORMED
+        '2011-13-01'                     || INVALID_VALUE
+        '2011-00-01'                     || INVALID_VALUE
+        '2011-02-29'                     || INVALID_VALUE
+        '1900-02-29'                     || INVALID_VALUE
+        '2011-04-31'                     || INVALID_VALUE
+        '2011-01-01T24:00'               || INVALID_VALUE
+        '2011-01-01T12:60'               || INVALID_VALUE
+        '2011-01-01T12:00:60'            || INVALID_VALUE
+    }
+
+    @Unroll
+    def "Compact #value is parsed to #expected"() {
+        when:
+        def result = IsoDateParser.parse(value)
+
+        then:
+        result.success
+        result.toString() == expected
+
+        where:
+        value          || expected
+        '~dcyp'        || '2016-01-01'
+        '~d0'          || '1970-01-01'
+        '~d-1'         || '1969-12-31'
+        '~i1e3f4h6'    || LocalDateTime.ofEpochSecond(Long.parseLong('1e3f4h6', 36), 0, ZoneOffset.UTC).toString()
+        '~o5k0'        || '+PT2H'
+        '~o-5k0'       || '-PT2H'
+    }
+
+    @Unroll
+    def "Compact value '#value' fails with #failure"() {
+        expect:
+        IsoDateParser.parse(value).failure == failure
+
+        where:
+        value               || failure
+        '~'                 || MALFORMED
+        '~d'                || MALFORMED
+        '~d-'               || MALFORMED
+        '~dCYP'             || MALFORMED
+        '~x1'               || MALFORMED
+        '~d1.5'             || MALFORMED
+        '~o1234567890abc'   || MALFORMED
+        '~d-zzzz'           || INVALID_VALUE
+        '~dzzzzz'           || INVALID_VALUE
+        '~izzzzzzzz'        || INVALID_VALUE
+        '~ozzzzzzzzzzzz'    || INVALID_VALUE
+        '~o-zzzzzzzzzzzz'   || INVALID_VALUE
+        '~o' + Long.toString(IsoDateParser.MAX_OFFSET_SECONDS + 1, 36) || INVALID_VALUE
+    }
+
+    @Unroll
+    def "The largest offset #value can be read"() {
+        when:
+        def clock = IsoDateParser.parse(value).toClock()
+
+        then:
+        clock.millis()
+        clock.instant()
+
+        where:
+        value << ['+PT' + IsoDateParser.MAX_OFFSET_SECONDS + 'S', '-PT' + IsoDateParser.MAX_OFFSET_SECONDS + 'S',
+                  '~o' + Long.toString(IsoDateParser.MAX_OFFSET_SECONDS, 36), '~o-' + Long.toString(IsoDateParser.MAX_OFFSET_SECONDS, 36)]
+    }
+
+    @Unroll
+    def "Compact header value of #clockType round trips"() {
+        given:
+        def context = TimeTravelContext.of(clock)
+
+        when:
+        def compact = context.compactHeaderValue
+        def result = IsoDateParser.parse(compact)
+
+        then:
+        compact.startsWith('~')
+        result.toString() == IsoDateParser.parse(context.headerValue).toString()
+        context.compactHeaderValue.is(compact)
+        new String(context.compactHeaderBytes, 'UTF-8') == compact
+
+        where:
+        clockType       | clock
+        'a date'        | DateFactory.clockFor(LocalDate.of(2016, 1, 1))
+        'an old date'   | DateFactory.clockFor(LocalDate.of(1066, 10, 14))
+        'a date/time'   | DateFactory.clockFor(LocalDateTime.of(2016, 10, 21, 16, 29))
+        'an offset'     | DateFactory.offsetClock(Duration.ofDays(-3))
+    }
+
+    @Unroll
+    def "Compact header value of #clockType falls back to the ISO value"() {
+        given:
+        def context = TimeTravelContext.of(clock)
+
+        expect:
+        context.compactHeaderValue == context.headerValue
+
+        where:
+        clockType                   | clock
+        'fractional seconds'        | DateFactory.clockFor(LocalDateTime.of(2016, 10, 21, 16, 29, 0, 5_000_000))
+        'a fractional offset'       | DateFactory.offsetClock(Duration.ofMillis(1500))
+        'a five digit year'         | DateFactory.clockFor(LocalDate.of(10000, 1, 1))
+    }
+
+    def "Compact header value of a scaled clock falls back to the ISO value"() {
+        expect:
+        TimeTravelContext.of(DateFactory.scaledClock(60, LocalDateTime.of(2016, 10, 21, 16, 29))).compactHeaderValue.startsWith('x60@2016-10-21T16:')
+    }
+
+    @Unroll
+    def "Parsing '#value' agrees with DateTimeFormatter"() {
+        when:
+        def result = IsoDateParser.parse(value)
+
+        then:
+        result.date == parseOrNull(value, DateTimeFormatter.ISO_LOCAL_DATE, LocalDate.&from)
+        result.dateTime == parseOrNull(value, DateTimeFormatter.ISO_LOCAL_DATE_TIME, LocalDateTime.&from)
+
+        where:
+        value << ['2000-01-01', '2016-02-29', '2017-02-29', '2010-01-01T13:30', '2010-01-01T13:30:30.000000001', '2010-01-01T25:30', '2010/01/01']
+    }
+
+    private static parseOrNull(String value, DateTimeFormatter formatter, Closure from) {
+        try {
+            return from(formatter.parse(value))
+        } catch (DateTimeParseException ignored) {
+            return null
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.slalom.delorean
+
+import spock.lang.Specification
+import spock.lang.Unroll
+import java.time.Duration
+import java.time.Instant
+import java.time.LocalDateTime
+import java.time.ZoneId
+import java.time.ZoneOffset
+import java.time.temporal.ChronoUnit
+import java.util.concurrent.atomic.AtomicLong
+
+class TimeWarpClockTest extends Specification {
+
+    def cleanup() {
+        DateFactory.clearTestDate()
+        DateFactory.setTimeSource(null)
+    }
+
+    @Unroll
+    def "Offset clock #offset runs in real time shifted by the offset"() {
+        given:
+        def clock = DateFactory.offsetClock(offset)
+
+        when:
+        def before = Instant.now()
+        def reading = clock.instant()
+        def after = Instant.now()
+
+        then:
+        !reading.isBefore(before.plus(offset).minusMillis(5))
+        !reading.isAfter(after.plus(offset).plusMillis(5))
+        Math.abs(clock.millis() - clock.instant().toEpochMilli()) <= 5
+
+        where:
+        offset << [Duration.ofDays(3), Duration.ofHours(-6), Duration.ZERO, Duration.ofDays(365 * 1000)]
+    }
+
+    def "Scaled clock starts at the anchor and runs rate times faster than real time"() {
+        given:
+        def anchor = LocalDateTime.of(2016, 10, 21, 0, 0)
+        def clock = DateFactory.scaledClock(1000, anchor)
+        def start = anchor.atZone(ZoneId.systemDefault()).toInstant()
+
+        when:
+        def first = clock.instant()
+        Thread.sleep(20)
+        def second = clock.instant()
+
+        then:
+        !first.isBefore(start)
+        Duration.between(first, second) >= Duration.ofSeconds(20)
+        LocalDateTime.now(clock).isAfter(anchor)
+    }
+
+    def "Readings never go backwards"() {
+        given:
+        def clock = DateFactory.scaledClock(60, LocalDateTime.of(2016, 10, 21, 0, 0))
+
+        expect:
+        def previous = clock.millis()
+        (1..10_000).every {
+            def current = clock.millis()
+            def ordered = current >= previous
+            previous = current
+            ordered
+        }
+    }
+
+    def "Scaled clock at the maximum rate keeps reading hours of real time later"() {
+        given:
+        def ticks = new AtomicLong()
+        DateFactory.setTimeSource(new TimeSource() {
+            @Override
+            long currentTimeMillis() {
+                System.currentTimeMillis()
+            }
+
+            @Override
+            long nanoTime() {
+                ticks.get()
+            }
+        })
+        def anchor = LocalDateTime.of(2016, 10, 21, 0, 0)
+        def clock = DateFactory.scaledClock(1_000_000, anchor)
+        def start = anchor.atZone(ZoneId.systemDefault()).toInstant()
+
+        when:
+        ticks.set(Duration.ofHours(5).plusNanos(123_456_789).toNanos())
+
+        then:
+        clock.instant() == start.plus(Duration.ofHours(5).plusNanos(123_456_789).multipliedBy(1_000_000))
+        clock.millis() == clock.instant().toEpochMilli()
+    }
+
+    def "Millis agree with instant across epoch boundaries"() {
+        given:
+        def clock = DateFactory.scaledClock(1, LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_999))
+
+        expect:
+        Math.abs(clock.millis() - clock.instant().toEpochMilli()) <= 5
+    }
+
+    def "Clocks in other zones share the starting point"() {
+        given:
+        def clock = DateFactory.scaledClock(60, LocalDateTime.of(2016, 10, 21, 0, 0))
+        def utc = clock.withZone(ZoneOffset.UTC)
+
+        expect:
+        utc.zone == ZoneOffset.UTC
+        clock.withZone(clock.zone).is(clock)
+        Math.abs(utc.millis() - clock.millis()) < 1000
+    }
+
+    @Unroll
+    def "Offset clock #offset propagates #spec"() {
+        given:
+        DateFactory.setTestClock(DateFactory.offsetClock(offset))
+
+        expect:
+        DateFactory.getTestDateString() == spec
+        !DateFactory.fixedInstant()
+        IsoDateParser.parse(spec).offset == offset
+
+        where:
+        offset              || spec
+        Duration.ofDays(3)  || '+PT72H'
+        Duration.ofHours(-6) || '-PT6H'
+    }
+
+    def "Scaled clock propagates its rate anchored at its current date/time"() {
+        given:
+        def clock = DateFactory.scaledClock(60, LocalDateTime.of(2016, 10, 21, 0, 0))
+        DateFactory.setTestClock(clock)
+
+        when:
+        def spec = DateFactory.getTestDateString()
+        def parsed = IsoDateParser.parse(spec)
+
+        then:
+        spec.startsWith('x60@2016-10-21T00:')
+        parsed.rate == 60
+        Duration.between(parsed.dateTime, LocalDateTime.now(clock)).abs() < Duration.ofSeconds(60)
+        parsed.dateTime.truncatedTo(ChronoUnit.MILLIS) == parsed.dateTime
+    }
+}
@@ -0,0 +1,49 @@
+package com.slalom.delorean
+
+import spock.lang.Specification
+import java.time.Clock
+import java.time.ZoneId
+
+class ZoneClockCacheTest extends Specification {
+
+    def clock = Clock.systemUTC()
+    def cache = new ZoneClockCache(clock)
+
+    def "Returns the clock itself for its own zone"() {
+        expect:
+        cache.withZone(clock.zone).is(clock)
+    }
+
+    def "Caches the clock adjusted to each zone"() {
+        when:
+        def tokyo = cache.withZone(ZoneId.of("Asia/Tokyo"))
+        def paris = cache.withZone(ZoneId.of("Europe/Paris"))
+
+        then:
+        tokyo.zone == ZoneId.of("Asia/Tokyo")
+        paris.zone == ZoneId.of("Europe/Paris")
+        cache.withZone(ZoneId.of("Asia/Tokyo")).is(tokyo)
+        cache.withZone(ZoneId.of("Europe/Paris")).is(paris)
+    }
+
+    def "Replaces the oldest zone once full"() {
+        given:
+        def zones = ZoneId.availableZoneIds.sort().take(9).collect { ZoneId.of(it) }
+        def first = cache.withZone(zones[0])
+        def second = cache.withZone(zones[1])
+
+        when:
+        zones.drop(2).each { cache.withZone(it) }
+
+        then:
+        !cache.withZone(zones[0]).is(first)
+        cache.withZone(zones[8]).zone == zones[8]
+
+        when:
+        def evicted = cache.withZone(zones[1])
+
+        then:
+        !evicted.is(second)
+        evicted.zone == zones[1]
+    }
+}
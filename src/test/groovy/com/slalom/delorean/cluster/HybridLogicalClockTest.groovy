@@ -0,0 +1,59 @@
+package com.slalom.delorean.cluster
+
+import com.slalom.delorean.TimeSource
+import spock.lang.Specification
+
+class HybridLogicalClockTest extends Specification {
+
+    def timeSource = new ManualTimeSource(millis: 1_000L)
+    def clock = new HybridLogicalClock(timeSource)
+
+    def "Timestamps follow the physical clock"() {
+        when:
+        def first = clock.tick()
+        timeSource.millis = 2_000L
+        def second = clock.tick()
+
+        then:
+        first == 1_000L << 16
+        second == 2_000L << 16
+        HybridLogicalClock.toString(second) == "2000.0"
+    }
+
+    def "Timestamps keep increasing within a millisecond and when the physical clock goes backwards"() {
+        when:
+        def timestamps = [clock.tick(), clock.tick()]
+        timeSource.millis = 500L
+        timestamps << clock.tick()
+
+        then:
+        timestamps == [1_000L << 16, (1_000L << 16) + 1, (1_000L << 16) + 2]
+        HybridLogicalClock.toString(timestamps[2]) == "1000.2"
+    }
+
+    def "Receiving a timestamp from a node ahead moves the clock past it"() {
+        given:
+        def remote = (5_000L << 16) + 7
+
+        expect:
+        clock.receive(remote) == remote + 1
+        clock.tick() == remote + 2
+
+        and: "receiving an older timestamp still moves the clock forward"
+        clock.receive(1L) == remote + 3
+    }
+
+    static class ManualTimeSource implements TimeSource {
+        long millis
+
+        @Override
+        long currentTimeMillis() {
+            millis
+        }
+
+        @Override
+        long nanoTime() {
+            millis * 1_000_000
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.slalom.delorean.cluster
+
+import spock.lang.Specification
+import java.nio.file.Files
+import java.nio.file.Path
+import java.time.Duration
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.TimeUnit
+
+class SharedFileTimeTravelBroadcasterTest extends Specification {
+
+    Path directory = Files.createTempDirectory("delorean-cluster")
+    Path file = directory.resolve("time-travel")
+    List<SharedFileTimeTravelBroadcaster> broadcasters = []
+
+    def cleanup() {
+        broadcasters*.close()
+        directory.toFile().deleteDir()
+    }
+
+    SharedFileTimeTravelBroadcaster broadcaster() {
+        def broadcaster = new SharedFileTimeTravelBroadcaster(file, Duration.ofMillis(5))
+        broadcasters << broadcaster
+        broadcaster
+    }
+
+    def "Published updates are received by every subscriber"() {
+        given:
+        def received = (1..3).collect { new LinkedBlockingQueue<TimeTravelUpdate>() }
+        received.each { queue -> broadcaster().subscribe { queue.put(it) } }
+        def update = new TimeTravelUpdate(42L, "node-1", "2015-10-21")
+
+        when:
+        broadcaster().publish(update)
+
+        then:
+        received.every { it.poll(5, TimeUnit.SECONDS) == update }
+        new String(Files.readAllBytes(file), "UTF-8") == "1|42|node-1|2015-10-21"
+        !Files.list(directory).anyMatch { it.fileName.toString().endsWith(".tmp") }
+    }
+
+    def "Nodes subscribing later receive the current update"() {
+        given:
+        def update = new TimeTravelUpdate(42L, "node-1", "2015-10-21")
+        broadcaster().publish(update)
+        def received = new LinkedBlockingQueue<TimeTravelUpdate>()
+
+        when:
+        broadcaster().subscribe { received.put(it) }
+
+        then:
+        received.poll(5, TimeUnit.SECONDS) == update
+    }
+
+    def "An older update does not replace a newer one in the file"() {
+        given:
+        def publisher = broadcaster()
+        def newer = new TimeTravelUpdate(2L, "node-1", "2015-10-21")
+        publisher.publish(newer)
+
+        when:
+        publisher.publish(new TimeTravelUpdate(1L, "node-2", "1955-11-05"))
+
+        then:
+        TimeTravelUpdate.decode(new String(Files.readAllBytes(file), "UTF-8")) == newer
+    }
+
+    def "Unreadable file content is skipped"() {
+        given:
+        def received = new LinkedBlockingQueue<TimeTravelUpdate>()
+        broadcaster().subscribe { received.put(it) }
+        def update = new TimeTravelUpdate(42L, "node-1", "2015-10-21")
+
+        when:
+        Files.write(file, "garbage".bytes)
+        Thread.sleep(50)
+        broadcaster().publish(update)
+
+        then:
+        received.poll(5, TimeUnit.SECONDS) == update
+    }
+
+    def "Closed broadcaster stops delivering updates"() {
+        given:
+        def subscriber = broadcaster()
+        def received = new LinkedBlockingQueue<TimeTravelUpdate>()
+        subscriber.subscribe { received.put(it) }
+        subscriber.close()
+
+        when:
+        broadcaster().publish(new TimeTravelUpdate(42L, "node-1", "2015-10-21"))
+
+        then:
+        received.poll(100, TimeUnit.MILLISECONDS) == null
+
+        when:
+        subscriber.subscribe {}
+
+        then:
+        thrown(IllegalStateException)
+    }
+}
@@ -0,0 +1,61 @@
+package com.slalom.delorean.cluster
+
+import org.slf4j.LoggerFactory
+import spock.lang.Specification
+import java.nio.file.Files
+import java.time.Clock
+import java.time.Duration
+import java.time.LocalDate
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLongArray
+
+/**
+ * Harness measuring how long a global test date set on one node takes to be applied by every other node. Each node has its own broadcaster, polling the
+ * shared file as a separate process would, and records when it applies the update instead of setting the JVM wide DateFactory global clock.
+ */
+class TimeTravelClusterLatencyTest extends Specification {
+
+    private static final log = LoggerFactory.getLogger(TimeTravelClusterLatencyTest)
+    private static final int NODES = 20
+    private static final int ROUNDS = 10
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10)
+
+    def "Global test date reaches every node of a 20 node cluster within a few poll intervals"() {
+        given:
+        def directory = Files.createTempDirectory("delorean-cluster")
+        def broadcasters = (1..NODES).collect { new SharedFileTimeTravelBroadcaster(directory.resolve("time-travel"), POLL_INTERVAL) }
+        def appliedAt = new AtomicLongArray(NODES)
+        CountDownLatch applied
+        def clusters = (0..<NODES).collect { i ->
+            new TimeTravelCluster("node-$i", broadcasters[i], { Clock clock ->
+                appliedAt.set(i, System.nanoTime())
+                applied.countDown()
+            }, new HybridLogicalClock(null))
+        }
+        def latencies = []
+
+        when:
+        ROUNDS.times { round ->
+            applied = new CountDownLatch(NODES)
+            def publishedAt = System.nanoTime()
+            clusters[round % NODES].setGlobalTestDate(LocalDate.of(2015, 10, 21).plusDays(round).toString())
+            assert applied.await(10, TimeUnit.SECONDS)
+            (0..<NODES).each { latencies << TimeUnit.NANOSECONDS.toMicros(appliedAt.get(it) - publishedAt) }
+        }
+        latencies.sort()
+        def p50 = latencies[latencies.size() / 2 as int]
+        def p99 = latencies[(latencies.size() * 0.99) as int]
+        log.info("Propagation latency to {} nodes over {} rounds with a {} poll interval: p50 {}us, p99 {}us, max {}us",
+                NODES, ROUNDS, POLL_INTERVAL, p50, p99, latencies.last())
+
+        then:
+        clusters*.lastApplied.unique().size() == 1
+        latencies.last() < TimeUnit.SECONDS.toMicros(5)
+
+        cleanup:
+        clusters*.close()
+        broadcasters*.close()
+        directory.toFile().deleteDir()
+    }
+}
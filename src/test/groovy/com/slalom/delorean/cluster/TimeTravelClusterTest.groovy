@@ -0,0 +1,151 @@
+package com.slalom.delorean.cluster
+
+import com.slalom.delorean.DateFactory
+import spock.lang.Specification
+import java.time.Clock
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class TimeTravelClusterTest extends Specification {
+
+    def broadcaster = new LoopbackTimeTravelBroadcaster()
+
+    def cleanup() {
+        DateFactory.clearGlobalTestDate()
+    }
+
+    def "Global test date set on one node is applied to DateFactory"() {
+        given:
+        def cluster = new TimeTravelCluster("node-1", broadcaster)
+
+        when:
+        def update = cluster.setGlobalTestDate("2015-10-21")
+
+        then:
+        DateFactory.today() == LocalDate.of(2015, 10, 21)
+        cluster.lastApplied == update
+        update.origin == "node-1"
+
+        when:
+        cluster.clearGlobalTestDate()
+
+        then:
+        !DateFactory.timeTraveling()
+        cluster.lastApplied.testDate == null
+
+        cleanup:
+        cluster.close()
+    }
+
+    def "Every node applies the update of another node"() {
+        given:
+        def nodes = (1..3).collect { new Node("node-$it", broadcaster) }
+
+        when:
+        nodes[1].cluster.setGlobalTestDate("2015-10-21T16:29")
+
+        then:
+        nodes.every { LocalDateTime.now(it.clock) == LocalDateTime.of(2015, 10, 21, 16, 29) }
+        nodes.every { it.cluster.lastApplied.origin == "node-2" }
+    }
+
+    def "Older updates delivered late are ignored"() {
+        given:
+        def node = new Node("node-1", broadcaster)
+        def newer = new TimeTravelUpdate(2L, "node-2", "2015-10-21")
+        def older = new TimeTravelUpdate(1L, "node-3", "1955-11-05")
+
+        expect:
+        node.cluster.apply(newer)
+        !node.cluster.apply(older)
+        !node.cluster.apply(newer)
+        node.cluster.lastApplied.is(newer)
+        LocalDate.now(node.clock) == LocalDate.of(2015, 10, 21)
+        node.applied == 1
+    }
+
+    def "Updates made after receiving an update are newer than it, even when the sender's clock is ahead"() {
+        given:
+        def node = new Node("node-1", broadcaster)
+        def fromTheFuture = new TimeTravelUpdate(Long.MAX_VALUE >>> 2, "node-2", "2015-10-21")
+        node.cluster.apply(fromTheFuture)
+
+        when:
+        def update = node.cluster.setGlobalTestDate("1955-11-05")
+
+        then:
+        update.isNewerThan(fromTheFuture)
+        LocalDate.now(node.clock) == LocalDate.of(1955, 11, 5)
+    }
+
+    def "Updates with a test date the node cannot parse are ignored"() {
+        given:
+        def node = new Node("node-1", broadcaster)
+
+        expect:
+        !node.cluster.apply(new TimeTravelUpdate(1L, "node-2", "21/10/2015"))
+        node.cluster.lastApplied == null
+        node.applied == 0
+    }
+
+    def "Invalid test dates are rejected without broadcasting"() {
+        given:
+        def node = new Node("node-1", broadcaster)
+        def other = new Node("node-2", broadcaster)
+
+        when:
+        node.cluster.setGlobalTestDate("2015-02-30")
+
+        then:
+        thrown(IllegalArgumentException)
+        other.applied == 0
+    }
+
+    def "Concurrent updates from every node settle on the same latest update"() {
+        given:
+        def nodes = (1..8).collect { new Node("node-$it", broadcaster) }
+        def start = new CountDownLatch(1)
+        def threads = nodes.withIndex().collect { node, i ->
+            Thread.start {
+                start.await()
+                (1..50).each { node.cluster.setGlobalTestDate(LocalDate.of(2000 + i, 1, 1).plusDays(it).toString()) }
+            }
+        }
+
+        when:
+        start.countDown()
+        threads*.join(TimeUnit.SECONDS.toMillis(10))
+
+        then:
+        nodes*.cluster*.lastApplied.unique().size() == 1
+        nodes*.clock.collect { LocalDate.now(it) }.unique().size() == 1
+    }
+
+    def "Closed nodes stop applying updates"() {
+        given:
+        def node = new Node("node-1", broadcaster)
+        def other = new Node("node-2", broadcaster)
+        node.cluster.close()
+
+        when:
+        other.cluster.setGlobalTestDate("2015-10-21")
+
+        then:
+        node.applied == 0
+    }
+
+    /**
+     * A cluster member recording the global clock it applies, rather than setting the JVM wide DateFactory global clock every member would share
+     */
+    static class Node {
+        final TimeTravelCluster cluster
+        volatile Clock clock
+        volatile int applied
+
+        Node(String nodeId, TimeTravelBroadcaster broadcaster) {
+            cluster = new TimeTravelCluster(nodeId, broadcaster, { Clock clock -> this.clock = clock; applied++ }, new HybridLogicalClock(null))
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.slalom.delorean.cluster
+
+import spock.lang.Specification
+
+class TimeTravelUpdateTest extends Specification {
+
+    def "Updates survive encoding"() {
+        expect:
+        TimeTravelUpdate.decode(update.encode()) == update
+
+        where:
+        update << [
+                new TimeTravelUpdate(42L, "node-1", "2015-10-21"),
+                new TimeTravelUpdate(Long.MAX_VALUE, "1234@host.example", "x60@2016-10-21T00:00"),
+                new TimeTravelUpdate(7L, "node-2", null)
+        ]
+    }
+
+    def "Encoded form is a single line"() {
+        expect:
+        new TimeTravelUpdate(42L, "node-1", "+P3D").encode() == "1|42|node-1|+P3D"
+        new TimeTravelUpdate(42L, "node-1", null).encode() == "1|42|node-1|"
+    }
+
+    def "Values which are not encoded updates are rejected"() {
+        when:
+        TimeTravelUpdate.decode(encoded)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        encoded << ["", "2015-10-21", "1|42|node-1", "2|42|node-1|2015-10-21", "1|forty-two|node-1|2015-10-21", "1|42||2015-10-21"]
+    }
+
+    def "Node ids and test dates which cannot be encoded are rejected"() {
+        when:
+        new TimeTravelUpdate(42L, origin, testDate)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        origin     | testDate
+        ""         | "2015-10-21"
+        "node|1"   | "2015-10-21"
+        "node\n1"  | "2015-10-21"
+        "node-1"   | ""
+        "node-1"   | "2015-10-21\n"
+    }
+
+    def "Updates are ordered by timestamp then origin"() {
+        given:
+        def first = new TimeTravelUpdate(1L, "node-2", "2015-10-21")
+        def second = new TimeTravelUpdate(2L, "node-1", "1955-11-05")
+        def tied = new TimeTravelUpdate(2L, "node-2", null)
+
+        expect:
+        [tied, first, second].sort() == [first, second, tied]
+        second.isNewerThan(first)
+        tied.isNewerThan(second)
+        !first.isNewerThan(first)
+        first.isNewerThan(null)
+    }
+}
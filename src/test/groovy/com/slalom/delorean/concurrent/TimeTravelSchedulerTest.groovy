@@ -0,0 +1,347 @@
+package com.slalom.delorean.concurrent
+
+import com.slalom.delorean.DateFactory
+import org.springframework.scheduling.Trigger
+import org.springframework.scheduling.support.CronTrigger
+import org.springframework.scheduling.support.PeriodicTrigger
+import spock.lang.Specification
+import spock.lang.Unroll
+import java.time.Duration
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.ZoneId
+import java.util.concurrent.Callable
+import java.util.concurrent.CancellationException
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.CyclicBarrier
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.TimeoutException
+import java.util.concurrent.atomic.AtomicInteger
+
+class TimeTravelSchedulerTest extends Specification {
+
+    private static final LocalDateTime MONTH_END = LocalDateTime.of(2016, 10, 31, 23, 59, 59)
+
+    def scheduler = new TimeTravelScheduler(2, Duration.ofMillis(50))
+
+    def cleanup() {
+        scheduler.shutdown()
+        DateFactory.clearGlobalTestDate()
+        DateFactory.clearTestDate()
+    }
+
+    static long epochMillis(LocalDateTime dateTime) {
+        dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+    }
+
+    def "Delayed task waits for the clock and fires once the global clock jumps past it"() {
+        given:
+        DateFactory.setGlobalTestDate(MONTH_END)
+
+        when:
+        def future = scheduler.schedule(callable { DateFactory.now() }, 1, TimeUnit.DAYS)
+        Thread.sleep(100)
+
+        then:
+        !future.done
+        future.getDelay(TimeUnit.HOURS) == 24
+
+        when:
+        DateFactory.setGlobalTestDate(MONTH_END.plusDays(2))
+
+        then:
+        future.get(5, TimeUnit.SECONDS) == MONTH_END.plusDays(2)
+        scheduler.queueSize == 0
+    }
+
+    def "Cron trigger fires on the first of the month of the global clock"() {
+        given:
+        DateFactory.setGlobalTestDate(MONTH_END)
+        def fired = new CompletableFuture<LocalDateTime>()
+
+        when:
+        def future = scheduler.schedule({ fired.complete(DateFactory.now()) }, new CronTrigger("0 0 0 1 * *"))
+
+        then:
+        future.getDelay(TimeUnit.MILLISECONDS) == 1000
+
+        when:
+        DateFactory.setGlobalTestDate(MONTH_END.plusSeconds(2))
+
+        then:
+        fired.get(5, TimeUnit.SECONDS) == MONTH_END.plusSeconds(2)
+        waitFor { scheduler.queueSize == 1 }
+        future.getDelay(TimeUnit.DAYS) == 29
+    }
+
+    def "Cron trigger queued before the global clock moves back fires on the travelled timeline"() {
+        given:
+        DateFactory.setGlobalTestDate(MONTH_END.plusYears(10))
+        def fired = new CompletableFuture<LocalDateTime>()
+        def future = scheduler.schedule({ fired.complete(DateFactory.now()) }, new CronTrigger("0 0 0 1 * *"))
+
+        when:
+        DateFactory.setGlobalTestDate(MONTH_END.minusSeconds(1))
+
+        then:
+        future.getDelay(TimeUnit.MILLISECONDS) == 2000
+
+        when:
+        DateFactory.setGlobalTestDate(MONTH_END.plusSeconds(2))
+
+        then:
+        fired.get(5, TimeUnit.SECONDS) == MONTH_END.plusSeconds(2)
+    }
+
+    def "Periodic tasks wait no longer than they were queued to wait once the global clock moves back"() {
+        given:
+        DateFactory.setGlobalTestDate(MONTH_END)
+        def fixedRate = scheduler.scheduleAtFixedRate({}, 1, 1, TimeUnit.HOURS)
+        def trigger = new PeriodicTrigger(1, TimeUnit.MINUTES)
+        trigger.initialDelay = 60
+        def triggered = scheduler.schedule({}, trigger)
+
+        when:
+        DateFactory.setGlobalTestDate(MONTH_END.plusMinutes(30))
+
+        then:
+        fixedRate.getDelay(TimeUnit.MINUTES) == 30
+        triggered.getDelay(TimeUnit.MINUTES) == 30
+
+        when:
+        DateFactory.setGlobalTestDate(MONTH_END.minusYears(10))
+
+        then:
+        fixedRate.getDelay(TimeUnit.MINUTES) == 60
+        triggered.getDelay(TimeUnit.MINUTES) == 60
+    }
+
+    def "Delayed one-shot task waits no longer than it was queued to wait once the global clock moves back"() {
+        given:
+        DateFactory.setGlobalTestDate(MONTH_END)
+        def fired = new CompletableFuture<LocalDateTime>()
+        def future = scheduler.schedule({ fired.complete(DateFactory.now()) }, 5, TimeUnit.SECONDS)
+
+        when:
+        DateFactory.setGlobalTestDate(MONTH_END.minusYears(1))
+
+        then:
+        future.getDelay(TimeUnit.SECONDS) == 5
+
+        when:
+        DateFactory.setGlobalTestDate(MONTH_END.minusYears(1).plusSeconds(6))
+
+        then:
+        fired.get(5, TimeUnit.SECONDS) == MONTH_END.minusYears(1).plusSeconds(6)
+    }
+
+    def "One-shot task scheduled for a date keeps its due time once the global clock moves back"() {
+        given:
+        DateFactory.setGlobalTestDate(MONTH_END)
+        def future = scheduler.schedule({}, new Date(epochMillis(MONTH_END.plusHours(1))))
+
+        when:
+        DateFactory.setGlobalTestDate(MONTH_END.minusHours(1))
+
+        then:
+        future.getDelay(TimeUnit.MINUTES) == 120
+    }
+
+    @Unroll
+    def "Periodic trigger's initial delay is counted from the #when global clock"() {
+        given:
+        DateFactory.setGlobalTestDate(globalDate)
+        def trigger = new PeriodicTrigger(1, TimeUnit.MINUTES)
+        trigger.initialDelay = 60
+
+        when:
+        def future = scheduler.schedule({}, trigger)
+
+        then:
+        Math.abs(future.getDelay(TimeUnit.MILLISECONDS) - Duration.ofHours(1).toMillis()) <= 10
+
+        where:
+        when     | globalDate
+        'past'   | LocalDateTime.of(2015, 10, 21, 16, 29)
+        'future' | LocalDateTime.of(2040, 10, 21, 16, 29)
+    }
+
+    def "Fixed rate task runs faster under an accelerated global clock"() {
+        given:
+        def runs = new AtomicInteger()
+        DateFactory.setGlobalTestClock(DateFactory.scaledClock(36_000, MONTH_END))
+
+        when:
+        scheduler.scheduleAtFixedRate({ runs.incrementAndGet() }, 0, 1, TimeUnit.HOURS)
+        Thread.sleep(1000)
+
+        then:
+        runs.get() >= 4
+        runs.get() <= 12
+    }
+
+    def "Executions of a fixed rate task the clock jumps past are coalesced"() {
+        given:
+        DateFactory.setGlobalTestDate(MONTH_END)
+        def runs = new AtomicInteger()
+        def task = scheduler.scheduleAtFixedRate({ runs.incrementAndGet() }, 1, 1, TimeUnit.MINUTES)
+
+        when:
+        DateFactory.setGlobalTestDate(MONTH_END.plusDays(1).plusSeconds(30))
+        Thread.sleep(300)
+
+        then:
+        runs.get() == 1
+        task.getDelay(TimeUnit.SECONDS) == 30
+    }
+
+    def "Fixed delay task is rescheduled relative to when it completed"() {
+        given:
+        DateFactory.setGlobalTestDate(MONTH_END)
+        def ran = new CountDownLatch(1)
+
+        when:
+        def task = scheduler.scheduleWithFixedDelay({ ran.countDown() }, 0, 5, TimeUnit.MINUTES)
+
+        then:
+        ran.await(5, TimeUnit.SECONDS)
+        waitFor { scheduler.queueSize == 1 }
+        task.getDelay(TimeUnit.MINUTES) == 5
+    }
+
+    def "Tasks due together run in parallel on the pool"() {
+        given:
+        def barrier = new CyclicBarrier(2)
+        def task = callable { barrier.await(5, TimeUnit.SECONDS) }
+
+        when:
+        def first = scheduler.schedule(task, 0, TimeUnit.MILLISECONDS)
+        def second = scheduler.schedule(task, 0, TimeUnit.MILLISECONDS)
+
+        then:
+        first.get(5, TimeUnit.SECONDS) != null
+        second.get(5, TimeUnit.SECONDS) != null
+    }
+
+    def "Tasks run with the global clock regardless of the scheduling thread's Test Date"() {
+        given:
+        DateFactory.setGlobalTestDate(LocalDate.of(2015, 10, 21))
+        DateFactory.setTestDate(LocalDate.of(1955, 11, 5))
+
+        expect:
+        scheduler.submit(callable { DateFactory.today() }).get(5, TimeUnit.SECONDS) == LocalDate.of(2015, 10, 21)
+        Math.abs(scheduler.clockMillis() - DateFactory.globalTestContext.clock.millis()) < 1000
+    }
+
+    def "Spring TaskScheduler methods schedule against the clock"() {
+        given:
+        DateFactory.setGlobalTestDate(MONTH_END)
+        def ran = new CountDownLatch(2)
+
+        when:
+        def oneShot = scheduler.schedule({ ran.countDown() }, new Date(epochMillis(MONTH_END.plusHours(1))))
+        def periodic = scheduler.scheduleAtFixedRate({ ran.countDown() }, new Date(epochMillis(MONTH_END.plusHours(1))), 60_000)
+
+        then:
+        oneShot.getDelay(TimeUnit.MINUTES) == 60
+        periodic.getDelay(TimeUnit.MINUTES) == 60
+
+        when:
+        DateFactory.setGlobalTestDate(MONTH_END.plusHours(1))
+
+        then:
+        ran.await(5, TimeUnit.SECONDS)
+    }
+
+    def "Errors in periodic Spring tasks are suppressed so the task keeps running"() {
+        given:
+        def runs = new AtomicInteger()
+        DateFactory.setGlobalTestClock(DateFactory.scaledClock(36_000, MONTH_END))
+
+        when:
+        scheduler.scheduleWithFixedDelay({ runs.incrementAndGet(); throw new IllegalStateException("boom") }, 60_000)
+
+        then:
+        waitFor { runs.get() >= 2 }
+    }
+
+    def "Trigger without a first execution is not scheduled"() {
+        expect:
+        scheduler.schedule({}, { null } as Trigger) == null
+        scheduler.queueSize == 0
+    }
+
+    def "Cancelled tasks are removed from the queue"() {
+        given:
+        def future = scheduler.schedule({}, 1, TimeUnit.DAYS)
+
+        when:
+        future.cancel(false)
+        future.get()
+
+        then:
+        thrown(CancellationException)
+        scheduler.queueSize == 0
+    }
+
+    def "Shutting down cancels pending tasks and rejects new ones"() {
+        given:
+        def pending = scheduler.schedule({}, 1, TimeUnit.DAYS)
+
+        when:
+        scheduler.shutdown()
+
+        then:
+        pending.cancelled
+        scheduler.shutdown
+        scheduler.awaitTermination(5, TimeUnit.SECONDS)
+        scheduler.terminated
+
+        when:
+        scheduler.schedule({}, 1, TimeUnit.DAYS)
+
+        then:
+        thrown(RejectedExecutionException)
+    }
+
+    def "shutdownNow returns the pending tasks"() {
+        given:
+        scheduler.schedule({}, 1, TimeUnit.DAYS)
+        scheduler.schedule({}, 2, TimeUnit.DAYS)
+
+        expect:
+        scheduler.shutdownNow().size() == 2
+    }
+
+    def "A task fixed at an instant that never arrives stays pending"() {
+        given:
+        DateFactory.setGlobalTestDate(MONTH_END)
+        def future = scheduler.schedule({}, 1, TimeUnit.SECONDS)
+
+        when:
+        future.get(200, TimeUnit.MILLISECONDS)
+
+        then:
+        thrown(TimeoutException)
+    }
+
+    //Closures are both Runnable and Callable, so pin the Callable overloads explicitly
+    private static Callable<Object> callable(Closure<?> closure) {
+        new Callable<Object>() {
+            @Override
+            Object call() {
+                closure()
+            }
+        }
+    }
+
+    private static boolean waitFor(Closure<Boolean> condition) {
+        def deadline = System.currentTimeMillis() + 5000
+        while (!condition() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10)
+        }
+        condition()
+    }
+}
@@ -0,0 +1,137 @@
+package com.slalom.delorean.concurrent
+
+import com.slalom.delorean.DateFactory
+import org.springframework.core.task.TaskDecorator
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor
+import spock.lang.Specification
+import java.time.LocalDate
+import java.util.concurrent.Callable
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class TimeTravelTasksTest extends Specification {
+
+    private static final LocalDate TEST_DATE = LocalDate.of(2015, 10, 21)
+
+    def cleanup() {
+        DateFactory.clearTestDate()
+    }
+
+    def "Wrapped task runs with the submitting thread's Test Date and restores the executing thread afterwards"() {
+        given:
+        def executingThreadDate = LocalDate.of(1955, 11, 5)
+        DateFactory.setTestDate(TEST_DATE)
+        def task = TimeTravelTasks.wrap({ DateFactory.today() } as Callable)
+        DateFactory.setTestDate(executingThreadDate)
+
+        expect:
+        task.call() == TEST_DATE
+        DateFactory.today() == executingThreadDate
+    }
+
+    def "Pooled threads run each task with its own Test Date and do not leak it to later tasks"() {
+        given:
+        def executor = new TimeTravelExecutorService(Executors.newSingleThreadExecutor())
+
+        when:
+        DateFactory.setTestDate(TEST_DATE)
+        def travelingResult = executor.submit({ DateFactory.today() } as Callable).get()
+        DateFactory.clearTestDate()
+        def result = executor.submit({ DateFactory.timeTraveling() } as Callable).get()
+
+        then:
+        travelingResult == TEST_DATE
+        result == false
+
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def "invokeAll runs every task with the submitting thread's Test Date"() {
+        given:
+        def executor = new TimeTravelExecutorService(Executors.newFixedThreadPool(2))
+        DateFactory.setTestDate(TEST_DATE)
+
+        when:
+        def futures = executor.invokeAll((1..4).collect { ({ DateFactory.today() } as Callable) })
+
+        then:
+        futures*.get() == [TEST_DATE] * 4
+
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def "Scheduled tasks run with the scheduling thread's Test Date"() {
+        given:
+        def executor = new TimeTravelScheduledExecutorService(Executors.newSingleThreadScheduledExecutor())
+        DateFactory.setTestDate(TEST_DATE)
+
+        when:
+        def future = executor.schedule({ DateFactory.today() } as Callable, 10, TimeUnit.MILLISECONDS)
+
+        then:
+        future.get() == TEST_DATE
+
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def "CompletableFuture stages run with the submitting thread's Test Date"() {
+        given:
+        def pool = Executors.newSingleThreadExecutor()
+        DateFactory.setTestDate(TEST_DATE)
+
+        expect:
+        CompletableFuture.supplyAsync({ DateFactory.today() }, new TimeTravelExecutor(pool)).get() == TEST_DATE
+
+        cleanup:
+        pool.shutdownNow()
+    }
+
+    def "ThreadPoolTaskExecutor decorated by the post processor propagates the Test Date"() {
+        given:
+        def executor = new ThreadPoolTaskExecutor()
+        new TimeTravelTaskExecutorPostProcessor(new TimeTravelTaskDecorator()).postProcessBeforeInitialization(executor, 'taskExecutor')
+        executor.initialize()
+        DateFactory.setTestDate(TEST_DATE)
+
+        when:
+        def result = executor.submit(new Callable<LocalDate>() {
+            LocalDate call() {
+                DateFactory.today()
+            }
+        }).get()
+
+        then:
+        result == TEST_DATE
+
+        cleanup:
+        executor.shutdown()
+    }
+
+    def "ThreadPoolTaskExecutor decorated by the post processor keeps the application's decorator"() {
+        given:
+        def executor = new ThreadPoolTaskExecutor()
+        def applicationDecorated = new CompletableFuture<LocalDate>()
+        executor.taskDecorator = { Runnable runnable -> { -> runnable.run(); applicationDecorated.complete(DateFactory.today()) } as Runnable } as TaskDecorator
+        new TimeTravelTaskExecutorPostProcessor(new TimeTravelTaskDecorator()).postProcessBeforeInitialization(executor, 'taskExecutor')
+        executor.initialize()
+        DateFactory.setTestDate(TEST_DATE)
+
+        when:
+        def result = executor.submit(new Callable<LocalDate>() {
+            LocalDate call() {
+                DateFactory.today()
+            }
+        }).get()
+
+        then:
+        result == TEST_DATE
+        applicationDecorated.get(5, TimeUnit.SECONDS) == TEST_DATE
+
+        cleanup:
+        executor.shutdown()
+    }
+}
@@ -0,0 +1,58 @@
+package com.slalom.delorean.interceptors
+
+import com.slalom.delorean.DateFactory
+import com.slalom.delorean.interceptors.inbound.GrpcServerTimeMachineInterceptor
+import io.grpc.MethodDescriptor
+import io.grpc.ServerServiceDefinition
+import io.grpc.stub.ServerCalls
+import io.grpc.stub.StreamObserver
+import java.nio.charset.StandardCharsets
+
+/**
+ * Unary gRPC service for the interceptor tests, answering with the date/time as seen by the thread handling the call, without needing generated stubs
+ */
+class GrpcClock {
+
+    static final MethodDescriptor<String, String> TODAY = MethodDescriptor.<String, String> newBuilder()
+            .setType(MethodDescriptor.MethodType.UNARY)
+            .setFullMethodName(MethodDescriptor.generateFullMethodName("delorean.Clock", "Today"))
+            .setRequestMarshaller(new StringMarshaller())
+            .setResponseMarshaller(new StringMarshaller())
+            .build()
+
+    /**
+     * @param handler Answers a request, called on the server's executor
+     */
+    static ServerServiceDefinition service(Closure<String> handler) {
+        ServerServiceDefinition.builder("delorean.Clock")
+                .addMethod(TODAY, ServerCalls.asyncUnaryCall(new ServerCalls.UnaryMethod<String, String>() {
+                    @Override
+                    void invoke(String request, StreamObserver<String> responseObserver) {
+                        responseObserver.onNext(handler.call(request))
+                        responseObserver.onCompleted()
+                    }
+                }))
+                .build()
+    }
+
+    /**
+     * @return The test date of the calling thread and of the current gRPC context, or 'none'
+     */
+    static String today() {
+        def context = GrpcServerTimeMachineInterceptor.TIME_TRAVEL_CONTEXT.get()
+        (DateFactory.timeTraveling() ? DateFactory.today().toString() : 'none') + '|' + (context == null ? 'none' : context.headerValue)
+    }
+
+    static class StringMarshaller implements MethodDescriptor.Marshaller<String> {
+
+        @Override
+        InputStream stream(String value) {
+            new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8))
+        }
+
+        @Override
+        String parse(InputStream stream) {
+            new String(stream.bytes, StandardCharsets.UTF_8)
+        }
+    }
+}
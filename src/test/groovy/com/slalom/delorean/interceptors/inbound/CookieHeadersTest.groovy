@@ -0,0 +1,66 @@
+package com.slalom.delorean.interceptors.inbound
+
+import org.springframework.mock.web.MockHttpServletRequest
+import spock.lang.Specification
+import spock.lang.Unroll
+import javax.servlet.http.Cookie
+
+class CookieHeadersTest extends Specification {
+
+    private static final String NAME = "Delorean-Time-Machine"
+
+    @Unroll
+    def "Cookie header '#header' has value #expected"() {
+        expect:
+        CookieHeaders.findValue(header, NAME) == expected
+
+        where:
+        header                                                            || expected
+        ''                                                                || null
+        'Delorean-Time-Machine=2015-10-21'                                || '2015-10-21'
+        'a=1; Delorean-Time-Machine=2015-10-21; b=2'                      || '2015-10-21'
+        'a=1;Delorean-Time-Machine=2015-10-21'                            || '2015-10-21'
+        'a=1; Delorean-Time-Machine = 2015-10-21 '                        || '2015-10-21'
+        'Delorean-Time-Machine="2015-10-21"'                              || '2015-10-21'
+        'Delorean-Time-Machine='                                          || ''
+        'a=1; b=2'                                                        || null
+        'X-Delorean-Time-Machine=2015-10-21'                              || null
+        'Delorean-Time-Machine-Old=2015-10-21'                            || null
+        'Delorean-Time-Machine'                                           || null
+        'a=Delorean-Time-Machine=1985-10-26; Delorean-Time-Machine=2015-10-21' || '2015-10-21'
+        'Delorean-Time-Machine=2015-10-21; Delorean-Time-Machine=1985-10-26' || '2015-10-21'
+    }
+
+    def "Cookies are read from the Cookie header when present"() {
+        given:
+        def request = new MockHttpServletRequest()
+        request.addHeader(CookieHeaders.COOKIE, "a=1; ${NAME}=2015-10-21")
+        request.setCookies(new Cookie(NAME, '1985-10-26'))
+
+        expect:
+        CookieHeaders.getCookieValue(request, NAME) == '2015-10-21'
+    }
+
+    def "Every Cookie header is scanned"() {
+        given:
+        def request = new MockHttpServletRequest()
+        request.addHeader(CookieHeaders.COOKIE, 'a=1; b=2')
+        request.addHeader(CookieHeaders.COOKIE, "c=3; ${NAME}=2015-10-21")
+
+        expect:
+        CookieHeaders.getCookieValue(request, NAME) == '2015-10-21'
+        CookieHeaders.getCookieValue(request, 'b') == '2'
+        CookieHeaders.getCookieValue(request, 'd') == null
+    }
+
+    def "Cookies are read from the parsed cookies when there is no Cookie header"() {
+        given:
+        def request = new MockHttpServletRequest()
+        request.setCookies(new Cookie('a', '1'), new Cookie(NAME, '1985-10-26'))
+
+        expect:
+        CookieHeaders.getCookieValue(request, NAME) == '1985-10-26'
+        CookieHeaders.getCookieValue(request, 'b') == null
+        CookieHeaders.getCookieValue(new MockHttpServletRequest(), NAME) == null
+    }
+}
@@ -0,0 +1,148 @@
+package com.slalom.delorean.interceptors.inbound
+
+import static com.slalom.delorean.interceptors.GrpcClock.TODAY
+
+import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties
+import com.slalom.delorean.DateFactory
+import com.slalom.delorean.interceptors.GrpcClock
+import com.slalom.delorean.interceptors.outbound.GrpcClientTimeMachineInterceptor
+import com.slalom.delorean.metrics.TimeMachineMetrics
+import com.slalom.delorean.propagation.TimeTravelPropagator
+import io.grpc.CallOptions
+import io.grpc.ClientInterceptors
+import io.grpc.Context
+import io.grpc.ManagedChannel
+import io.grpc.Metadata
+import io.grpc.Server
+import io.grpc.ServerInterceptors
+import io.grpc.inprocess.InProcessChannelBuilder
+import io.grpc.inprocess.InProcessServerBuilder
+import io.grpc.stub.ClientCalls
+import io.grpc.stub.MetadataUtils
+import spock.lang.Specification
+import java.nio.charset.StandardCharsets
+import java.time.LocalDate
+import java.util.concurrent.Callable
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executors
+import java.util.function.Supplier
+
+class GrpcServerTimeMachineInterceptorTest extends Specification {
+
+    private static final Metadata.Key<byte[]> HEADER_KEY = Metadata.Key.of("x-delorean-time-machine-bin", Metadata.BINARY_BYTE_MARSHALLER)
+
+    def properties = new TimeMachineConfigurationProperties()
+    def metrics = Mock(TimeMachineMetrics)
+    def propagator = new TimeTravelPropagator(properties, metrics)
+    def executors = []
+    def servers = []
+    def channels = []
+
+    def cleanup() {
+        channels*.shutdownNow()
+        servers*.shutdownNow()
+        executors*.shutdownNow()
+        DateFactory.clearTestDate()
+    }
+
+    ManagedChannel start(Closure<String> handler) {
+        def name = InProcessServerBuilder.generateName()
+        def executor = Executors.newSingleThreadExecutor()
+        executors << executor
+        servers << InProcessServerBuilder.forName(name)
+                .executor(executor)
+                .addService(ServerInterceptors.intercept(GrpcClock.service(handler), new GrpcServerTimeMachineInterceptor(propagator)))
+                .build()
+                .start()
+        def channel = InProcessChannelBuilder.forName(name).build()
+        channels << channel
+        channel
+    }
+
+    static String call(ManagedChannel channel, String testDate) {
+        def headers = new Metadata()
+        if (testDate != null) {
+            headers.put(HEADER_KEY, testDate.getBytes(StandardCharsets.UTF_8))
+        }
+        ClientCalls.blockingUnaryCall(ClientInterceptors.intercept(channel, MetadataUtils.newAttachHeadersInterceptor(headers)), TODAY,
+                CallOptions.DEFAULT, "today")
+    }
+
+    def "Calls are handled at the test date of their metadata, on the server's executor"() {
+        given:
+        def channel = start { GrpcClock.today() }
+
+        when:
+        def traveling = call(channel, '2000-01-01')
+        def present = call(channel, null)
+
+        then:
+        1 * metrics.inboundTimeTraveling(TimeMachineMetrics.InboundSource.HEADER)
+        1 * metrics.inboundCompleted()
+        traveling == '2000-01-01|2000-01-01'
+        present == 'none|none'
+    }
+
+    def "Compact values are accepted"() {
+        given:
+        def channel = start { GrpcClock.today() }
+
+        expect:
+        call(channel, '~d' + Long.toString(LocalDate.of(2000, 1, 1).toEpochDay(), 36)) == '2000-01-01|2000-01-01'
+    }
+
+    def "Calls with an unparseable value are handled without time traveling"() {
+        given:
+        def channel = start { GrpcClock.today() }
+
+        when:
+        def result = call(channel, 'not-a-date')
+
+        then:
+        1 * metrics.parseFailure()
+        0 * metrics.inboundTimeTraveling(_)
+        result == 'none|none'
+    }
+
+    def "Calls are not time traveled while Delorean is inactive"() {
+        given:
+        def channel = start { GrpcClock.today() }
+        properties.active = false
+
+        expect:
+        call(channel, '2000-01-01') == 'none|none'
+    }
+
+    def "The gRPC context carries the test date to threads gRPC hands work to"() {
+        given:
+        def worker = Executors.newSingleThreadExecutor()
+        executors << worker
+        //Started up front, a worker thread started while handling a call would inherit the DateFactory test date
+        worker.submit({} as Runnable).get()
+        def channel = start { worker.submit({ GrpcClock.today() } as Callable<String>).get() }
+        def wrapping = start { CompletableFuture.supplyAsync({ GrpcClock.today() } as Supplier<String>, Context.currentContextExecutor(worker)).get() }
+
+        expect:
+        call(channel, '2000-01-01') == 'none|none'
+        call(wrapping, '2000-01-01') == 'none|2000-01-01'
+    }
+
+    def "Downstream calls carry the test date of the call being handled"() {
+        given:
+        def downstream = start { GrpcClock.today() }
+        def client = ClientInterceptors.intercept(downstream, new GrpcClientTimeMachineInterceptor(propagator))
+        def worker = Executors.newSingleThreadExecutor()
+        executors << worker
+        //Started up front, a worker thread started while handling a call would inherit the DateFactory test date
+        worker.submit({} as Runnable).get()
+        def upstream = start {
+            //Only the gRPC context follows the work to the worker thread, the client interceptor picks the test date up from there
+            CompletableFuture.supplyAsync({
+                ClientCalls.blockingUnaryCall(client, TODAY, CallOptions.DEFAULT, "today")
+            } as Supplier<String>, Context.currentContextExecutor(worker)).get()
+        }
+
+        expect:
+        call(upstream, '2000-01-01') == '2000-01-01|2000-01-01'
+    }
+}
@@ -5,11 +5,19 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 
 import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties
 import com.slalom.delorean.DateFactory
+import com.slalom.delorean.TimeSource
+import com.slalom.delorean.TimeTravelContext
+import com.slalom.delorean.metrics.TimeMachineMetrics
+import com.slalom.delorean.session.InMemoryTimeTravelSessionStore
 import org.springframework.mock.web.MockHttpServletResponse
 import spock.lang.Specification
 import spock.lang.Unroll
+import javax.servlet.DispatcherType
 import javax.servlet.http.Cookie
+import javax.servlet.http.HttpServletRequest
+import java.time.Duration
 import java.time.LocalDate
+import java.time.LocalDateTime
 
 class InboundRequestInterceptorTest extends Specification {
 
@@ -18,8 +26,11 @@ class InboundRequestInterceptorTest extends Specification {
 
     private static final String COOKIE_NAME = "TestCookie"
     private static final String HEADER_NAME = "X-Test-Header"
+    private static final String TENANT_HEADER_NAME = "X-Test-Tenant"
+    private static final String TENANT = "hill-valley"
     private static final String PAST_DATE_STR = '2000-01-01'
     private static final LocalDate PAST_DATE = LocalDate.parse(PAST_DATE_STR, ISO_LOCAL_DATE)
+    private static final String COMPACT_PAST_DATE = '~d' + Long.toString(PAST_DATE.toEpochDay(), 36)
     private static final String FUTURE_DATE_STR = '2040-01-01'
     private static final LocalDate FUTURE_DATE = LocalDate.parse(FUTURE_DATE_STR, ISO_LOCAL_DATE)
 
@@ -33,6 +44,7 @@ class InboundRequestInterceptorTest extends Specification {
 
     def cleanup() {
         DateFactory.clearTestDate()
+        DateFactory.clearTenantTestDate(TENANT)
     }
 
     @Unroll
@@ -86,6 +98,7 @@ class InboundRequestInterceptorTest extends Specification {
         testDate    || isTestDateSet | expectedTestDate | result
         PAST_DATE   || true          | PAST_DATE        | 'Test timeMachineClock is set from header'
         FUTURE_DATE || true          | FUTURE_DATE      | 'Test timeMachineClock is set from header'
+        COMPACT_PAST_DATE || true    | PAST_DATE        | 'Test timeMachineClock is set from compact header'
         null        || false         | LocalDate.now()  | 'No test timeMachineClock is set'
     }
 
@@ -153,6 +166,63 @@ class InboundRequestInterceptorTest extends Specification {
         null            | null
     }
 
+    def "Repeated Header values reuse the same Test Clock"() {
+        given:
+        interceptor = new InboundRequestInterceptor(properties)
+        def request = get("/").header(HEADER_NAME, PAST_DATE_STR).buildRequest(null)
+
+        when:
+        interceptor.preHandle(request, new MockHttpServletResponse(), null)
+        def firstClock = DateFactory.testingClock
+        interceptor.afterCompletion(request, null, null, null)
+        interceptor.preHandle(request, new MockHttpServletResponse(), null)
+
+        then:
+        DateFactory.currentDate() == PAST_DATE
+        DateFactory.testingClock.is(firstClock)
+    }
+
+    def "Unparseable Header value does not set a Test Date"() {
+        given:
+        interceptor = new InboundRequestInterceptor(properties)
+        def request = get("/").header(HEADER_NAME, '20000101').buildRequest(null)
+
+        when:
+        interceptor.preHandle(request, new MockHttpServletResponse(), null)
+
+        then:
+        DateFactory.timeTraveling() == false
+    }
+
+    @Unroll
+    def "When Tenant is #tenant and Header value is #headerDate - Test Date is #expectedTestDate"() {
+        given:
+        DateFactory.setTenantTestClock(TENANT, DateFactory.clockFor(FUTURE_DATE))
+        interceptor = new InboundRequestInterceptor(properties, TenantKeyExtractor.fromHeader(TENANT_HEADER_NAME))
+
+        def builder = get("/")
+        if (tenant != null) {
+            builder.header(TENANT_HEADER_NAME, tenant)
+        }
+        if (headerDate != null) {
+            builder.header(HEADER_NAME, headerDate)
+        }
+
+        when:
+        interceptor.preHandle(builder.buildRequest(null), new MockHttpServletResponse(), null)
+
+        then:
+        DateFactory.timeTraveling() == isTestDateSet
+        DateFactory.currentDate() == expectedTestDate
+
+        where:
+        tenant         | headerDate    || isTestDateSet | expectedTestDate
+        TENANT         | null          || true          | FUTURE_DATE
+        TENANT         | PAST_DATE_STR || true          | PAST_DATE
+        'other-tenant' | null          || false         | LocalDate.now()
+        null           | null          || false         | LocalDate.now()
+    }
+
     def "Test Date is cleared after Interceptor completes"() {
         given:
         interceptor = new InboundRequestInterceptor(properties)
@@ -170,4 +240,184 @@ class InboundRequestInterceptorTest extends Specification {
         DateFactory.currentDate() == LocalDate.now()
     }
 
+    def "Test Date is cleared on the request thread when async processing starts"() {
+        given:
+        interceptor = new InboundRequestInterceptor(properties)
+        def request = get("/").header(HEADER_NAME, PAST_DATE_STR).buildRequest(null)
+        def response = new MockHttpServletResponse()
+        interceptor.preHandle(request, response, null)
+
+        when:
+        interceptor.afterConcurrentHandlingStarted(request, response, null)
+
+        then:
+        DateFactory.timeTraveling() == false
+    }
+
+    def "Async redispatch applies the Test Date without recording the request again"() {
+        given:
+        def metrics = Mock(TimeMachineMetrics)
+        interceptor = new InboundRequestInterceptor(properties, null, metrics)
+        def request = get("/").header(HEADER_NAME, PAST_DATE_STR).buildRequest(null)
+        def response = new MockHttpServletResponse()
+
+        when:
+        interceptor.preHandle(request, response, null)
+        interceptor.afterConcurrentHandlingStarted(request, response, null)
+        request.dispatcherType = DispatcherType.ASYNC
+        interceptor.preHandle(request, response, null)
+
+        then:
+        DateFactory.currentDate() == PAST_DATE
+        1 * metrics.inboundStarted()
+        1 * metrics.inboundTimeTraveling(TimeMachineMetrics.InboundSource.HEADER)
+        1 * metrics.inboundResolved(_)
+        1 * metrics.inboundCompleted()
+
+        when:
+        interceptor.afterCompletion(request, response, null, null)
+
+        then:
+        DateFactory.timeTraveling() == false
+        0 * metrics.inboundCompleted()
+    }
+
+    def "Cookie is read from the raw Cookie header among many cookies"() {
+        given:
+        interceptor = new InboundRequestInterceptor(properties)
+        def cookies = (1..30).collect { "cookie$it=value$it" }.join('; ')
+        def request = get("/").header('Cookie', "$cookies; $COOKIE_NAME=$PAST_DATE_STR").buildRequest(null)
+
+        when:
+        interceptor.preHandle(request, new MockHttpServletResponse(), null)
+
+        then:
+        DateFactory.currentDate() == PAST_DATE
+    }
+
+    def "Header hit does not look at cookies"() {
+        given:
+        interceptor = new InboundRequestInterceptor(properties)
+        def request = Mock(HttpServletRequest)
+
+        when:
+        interceptor.preHandle(request, new MockHttpServletResponse(), null)
+
+        then:
+        1 * request.getHeader(HEADER_NAME) >> FUTURE_DATE_STR
+        0 * request.getHeader('Cookie')
+        0 * request.getCookies()
+        DateFactory.currentDate() == FUTURE_DATE
+    }
+
+    def "Inactive Interceptor does not look at the request"() {
+        given:
+        interceptor = new InboundRequestInterceptor(properties)
+        properties.active = false
+        def request = Mock(HttpServletRequest)
+
+        when:
+        interceptor.preHandle(request, new MockHttpServletResponse(), null)
+
+        then:
+        0 * request._
+        DateFactory.timeTraveling() == false
+
+        when:
+        properties.active = true
+        interceptor.preHandle(get("/").header(HEADER_NAME, PAST_DATE_STR).buildRequest(null), new MockHttpServletResponse(), null)
+
+        then:
+        DateFactory.currentDate() == PAST_DATE
+    }
+
+    @Unroll
+    def "Time warp Header value #spec sets a running Test Clock"() {
+        given:
+        interceptor = new InboundRequestInterceptor(properties)
+
+        when:
+        interceptor.preHandle(get("/").header(HEADER_NAME, spec).buildRequest(null), new MockHttpServletResponse(), null)
+
+        then:
+        DateFactory.timeTraveling()
+        DateFactory.currentDate() == expectedDate
+
+        where:
+        spec                   || expectedDate
+        '+P3D'                 || LocalDate.now().plusDays(3)
+        'x60@2016-10-21T00:00' || LocalDate.of(2016, 10, 21)
+    }
+
+    def "Every request carrying the same scaled Header value starts at the anchor"() {
+        given:
+        long nanos = 0
+        DateFactory.setTimeSource([currentTimeMillis: { System.currentTimeMillis() }, nanoTime: { nanos }] as TimeSource)
+        interceptor = new InboundRequestInterceptor(properties)
+        def request = { get("/").header(HEADER_NAME, 'x60@2016-10-21T00:00').buildRequest(null) }
+
+        when:
+        interceptor.preHandle(request(), new MockHttpServletResponse(), null)
+        def first = DateFactory.currentDateTime()
+        DateFactory.clearTestDate()
+        nanos += Duration.ofMinutes(1).toNanos()
+        interceptor.preHandle(request(), new MockHttpServletResponse(), null)
+        def second = DateFactory.currentDateTime()
+
+        then:
+        first == LocalDateTime.of(2016, 10, 21, 0, 0)
+        second == first
+
+        cleanup:
+        DateFactory.setTimeSource(null)
+    }
+
+    def "Cookie carrying a session token time travels with the session's clock without parsing"() {
+        given:
+        def store = new InMemoryTimeTravelSessionStore(Duration.ofMinutes(1), 10)
+        def session = store.create(PAST_DATE_STR, TimeTravelContext.of(DateFactory.clockFor(PAST_DATE)))
+        def metrics = Mock(TimeMachineMetrics)
+        interceptor = new InboundRequestInterceptor(properties, null, metrics, store)
+
+        when:
+        interceptor.preHandle(get("/").cookie(new Cookie(COOKIE_NAME, session.token)).buildRequest(null), new MockHttpServletResponse(), null)
+
+        then:
+        DateFactory.getTestContext().is(session.context)
+        1 * metrics.inboundTimeTraveling(TimeMachineMetrics.InboundSource.COOKIE)
+        0 * metrics.parseFailure()
+    }
+
+    @Unroll
+    def "Cookie carrying #description does not time travel when sessions are in use"() {
+        given:
+        def store = new InMemoryTimeTravelSessionStore(Duration.ofMinutes(1), 10)
+        def revoked = store.create(PAST_DATE_STR, TimeTravelContext.of(DateFactory.clockFor(PAST_DATE))).token
+        store.revoke(revoked)
+        interceptor = new InboundRequestInterceptor(properties, null, TimeMachineMetrics.NOOP, store)
+        def value = cookieValue == 'revoked' ? revoked : cookieValue
+
+        when:
+        interceptor.preHandle(get("/").cookie(new Cookie(COOKIE_NAME, value)).buildRequest(null), new MockHttpServletResponse(), null)
+
+        then:
+        !DateFactory.timeTraveling()
+
+        where:
+        description         | cookieValue
+        'a raw date'        | PAST_DATE_STR
+        'an unknown token'  | 'c2Vzc2lvbi10b2tlbg'
+        'a revoked token'   | 'revoked'
+    }
+
+    def "Header still carries a date when sessions are in use"() {
+        given:
+        interceptor = new InboundRequestInterceptor(properties, null, TimeMachineMetrics.NOOP, new InMemoryTimeTravelSessionStore(Duration.ofMinutes(1), 10))
+
+        when:
+        interceptor.preHandle(get("/").header(HEADER_NAME, FUTURE_DATE_STR).buildRequest(null), new MockHttpServletResponse(), null)
+
+        then:
+        DateFactory.currentDate() == FUTURE_DATE
+    }
 }
@@ -0,0 +1,158 @@
+package com.slalom.delorean.interceptors.inbound
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get
+
+import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties
+import com.slalom.delorean.DateFactory
+import com.slalom.delorean.metrics.TimeMachineMetrics
+import com.slalom.delorean.metrics.TimeMachineMetrics.InboundSource
+import org.springframework.mock.web.MockHttpServletResponse
+import spock.lang.Specification
+import spock.lang.Unroll
+import javax.servlet.DispatcherType
+import javax.servlet.FilterChain
+import javax.servlet.ServletRequest
+import javax.servlet.ServletResponse
+import javax.servlet.http.Cookie
+import javax.servlet.http.HttpServletRequest
+import java.time.LocalDate
+
+class InboundTimeTravelFilterTest extends Specification {
+
+    private static final String COOKIE_NAME = "TestCookie"
+    private static final String HEADER_NAME = "X-Test-Header"
+    private static final String PAST_DATE_STR = '2000-01-01'
+    private static final LocalDate PAST_DATE = LocalDate.parse(PAST_DATE_STR)
+
+    private TimeMachineConfigurationProperties properties
+
+    def setup() {
+        properties = new TimeMachineConfigurationProperties()
+        properties.cookie.enabled = true
+        properties.cookie.name = COOKIE_NAME
+        properties.headerName = HEADER_NAME
+    }
+
+    def cleanup() {
+        DateFactory.clearTestDate()
+    }
+
+    @Unroll
+    def "The test date is applied for the whole chain of a #dispatcherType dispatch and cleared afterwards"() {
+        given:
+        def filter = new InboundTimeTravelFilter(properties)
+        def request = get("/").header(HEADER_NAME, PAST_DATE_STR).buildRequest(null)
+        request.dispatcherType = dispatcherType
+        def chain = new RecordingChain()
+
+        when:
+        filter.doFilter(request, new MockHttpServletResponse(), chain)
+
+        then:
+        chain.date == PAST_DATE
+        !DateFactory.timeTraveling()
+
+        where:
+        dispatcherType << [DispatcherType.REQUEST, DispatcherType.ASYNC, DispatcherType.ERROR]
+    }
+
+    def "An async dispatch applies the test date without recording the request again"() {
+        given:
+        def metrics = Mock(TimeMachineMetrics)
+        def filter = new InboundTimeTravelFilter(properties, null, metrics)
+        def request = get("/").header(HEADER_NAME, PAST_DATE_STR).buildRequest(null)
+        def chain = new RecordingChain()
+
+        when:
+        filter.doFilter(request, new MockHttpServletResponse(), new RecordingChain())
+        request.dispatcherType = DispatcherType.ASYNC
+        filter.doFilter(request, new MockHttpServletResponse(), chain)
+
+        then:
+        chain.date == PAST_DATE
+        !DateFactory.timeTraveling()
+        1 * metrics.inboundStarted()
+        1 * metrics.inboundTimeTraveling(InboundSource.HEADER)
+        1 * metrics.inboundResolved(_)
+        1 * metrics.inboundCompleted()
+    }
+
+    def "The test date is read from the cookie"() {
+        given:
+        def filter = new InboundTimeTravelFilter(properties)
+        def request = get("/").cookie(new Cookie(COOKIE_NAME, PAST_DATE_STR)).buildRequest(null)
+        def chain = new RecordingChain()
+
+        when:
+        filter.doFilter(request, new MockHttpServletResponse(), chain)
+
+        then:
+        chain.date == PAST_DATE
+        !DateFactory.timeTraveling()
+    }
+
+    def "The test date is cleared when the chain throws"() {
+        given:
+        def filter = new InboundTimeTravelFilter(properties)
+        def request = get("/").header(HEADER_NAME, PAST_DATE_STR).buildRequest(null)
+        FilterChain chain = { ServletRequest req, ServletResponse res -> throw new IllegalStateException() } as FilterChain
+
+        when:
+        filter.doFilter(request, new MockHttpServletResponse(), chain)
+
+        then:
+        thrown(IllegalStateException)
+        !DateFactory.timeTraveling()
+    }
+
+    def "A test date set on the thread before the filter is reinstated afterwards"() {
+        given:
+        def filter = new InboundTimeTravelFilter(properties)
+        def request = get("/").header(HEADER_NAME, PAST_DATE_STR).buildRequest(null)
+        def chain = new RecordingChain()
+        DateFactory.setTestDate(LocalDate.of(1985, 10, 26))
+
+        when:
+        filter.doFilter(request, new MockHttpServletResponse(), chain)
+
+        then:
+        chain.date == PAST_DATE
+        DateFactory.today() == LocalDate.of(1985, 10, 26)
+    }
+
+    def "When disabled the request is not inspected"() {
+        given:
+        properties.enabled = false
+        def filter = new InboundTimeTravelFilter(properties)
+        def request = Mock(HttpServletRequest)
+        def chain = new RecordingChain()
+
+        when:
+        filter.doFilter(request, new MockHttpServletResponse(), chain)
+
+        then:
+        0 * request.getHeader(_)
+        0 * request.getCookies()
+        chain.date == LocalDate.now()
+        !chain.timeTraveling
+    }
+
+    def "The filter order is configurable"() {
+        given:
+        properties.filterOrder = 42
+
+        expect:
+        new InboundTimeTravelFilter(properties).order == 42
+    }
+
+    private static class RecordingChain implements FilterChain {
+        LocalDate date
+        boolean timeTraveling
+
+        @Override
+        void doFilter(ServletRequest request, ServletResponse response) {
+            date = DateFactory.today()
+            timeTraveling = DateFactory.timeTraveling()
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.slalom.delorean.interceptors.inbound
+
+import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties
+import com.slalom.delorean.DateFactory
+import com.slalom.delorean.interceptors.outbound.KafkaProducerTimeMachineInterceptor
+import com.slalom.delorean.metrics.TimeMachineMetrics
+import com.slalom.delorean.propagation.TimeTravelPropagator
+import org.apache.kafka.clients.consumer.ConsumerRecord
+import org.apache.kafka.clients.consumer.MockConsumer
+import org.apache.kafka.clients.consumer.OffsetResetStrategy
+import org.apache.kafka.clients.producer.MockProducer
+import org.apache.kafka.clients.producer.ProducerRecord
+import org.apache.kafka.common.TopicPartition
+import org.apache.kafka.common.record.TimestampType
+import org.apache.kafka.common.serialization.StringSerializer
+import spock.lang.Specification
+import java.nio.charset.StandardCharsets
+import java.time.Duration
+import java.time.LocalDate
+import java.util.function.Consumer
+
+class KafkaTimeMachineRecordHandlerTest extends Specification {
+
+    private static final String TOPIC = "orders"
+    private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0)
+
+    def properties = new TimeMachineConfigurationProperties()
+    def metrics = Mock(TimeMachineMetrics)
+    def propagator = new TimeTravelPropagator(properties, metrics)
+    def consumer = new MockConsumer<String, String>(OffsetResetStrategy.EARLIEST)
+    def seen = [:]
+    def handler = new KafkaTimeMachineRecordHandler<String, String>(propagator, { record ->
+        seen[record.value()] = DateFactory.timeTraveling() ? DateFactory.today() : null
+    } as Consumer)
+
+    def setup() {
+        consumer.assign([PARTITION])
+        consumer.updateBeginningOffsets([(PARTITION): 0L])
+    }
+
+    def cleanup() {
+        DateFactory.clearTestDate()
+    }
+
+    def "Records are processed at the test date they were sent with"() {
+        given:
+        def producer = new MockProducer<String, String>(true, new StringSerializer(), new StringSerializer())
+        def interceptor = new KafkaProducerTimeMachineInterceptor<String, String>(propagator)
+        DateFactory.setTestDate(LocalDate.of(2000, 1, 1))
+        producer.send(interceptor.onSend(new ProducerRecord<>(TOPIC, "a", "traveling")))
+        DateFactory.clearTestDate()
+        producer.send(interceptor.onSend(new ProducerRecord<>(TOPIC, "b", "present")))
+        producer.history().eachWithIndex { sent, i ->
+            consumer.addRecord(new ConsumerRecord<String, String>(TOPIC, 0, i, 0L, TimestampType.CREATE_TIME, 0L, 0, 0, sent.key(), sent.value(),
+                    sent.headers()))
+        }
+
+        when:
+        consumer.poll(Duration.ofMillis(100)).forEach(handler)
+
+        then:
+        1 * metrics.inboundTimeTraveling(TimeMachineMetrics.InboundSource.HEADER)
+        1 * metrics.inboundCompleted()
+        seen == [traveling: LocalDate.of(2000, 1, 1), present: null]
+        !DateFactory.timeTraveling()
+    }
+
+    def "The thread's previous test date is restored"() {
+        given:
+        DateFactory.setTestDate(LocalDate.of(1985, 10, 26))
+        def record = new ConsumerRecord<String, String>(TOPIC, 0, 0L, "key", "traveling")
+        record.headers().add("X-Delorean-Time-Machine", '2000-01-01'.getBytes(StandardCharsets.UTF_8))
+
+        when:
+        handler.accept(record)
+
+        then:
+        seen.traveling == LocalDate.of(2000, 1, 1)
+        DateFactory.today() == LocalDate.of(1985, 10, 26)
+    }
+
+    def "The previous test date is restored when the delegate fails"() {
+        given:
+        def failing = new KafkaTimeMachineRecordHandler<String, String>(propagator, { throw new IllegalStateException() } as Consumer)
+        def record = new ConsumerRecord<String, String>(TOPIC, 0, 0L, "key", "traveling")
+        record.headers().add("X-Delorean-Time-Machine", '2000-01-01'.getBytes(StandardCharsets.UTF_8))
+
+        when:
+        failing.accept(record)
+
+        then:
+        thrown(IllegalStateException)
+        1 * metrics.inboundCompleted()
+        !DateFactory.timeTraveling()
+    }
+
+    def "Records with an unparseable header are processed without time traveling"() {
+        given:
+        def record = new ConsumerRecord<String, String>(TOPIC, 0, 0L, "key", "invalid")
+        record.headers().add("X-Delorean-Time-Machine", 'not-a-date'.getBytes(StandardCharsets.UTF_8))
+
+        when:
+        handler.accept(record)
+
+        then:
+        1 * metrics.parseFailure()
+        0 * metrics.inboundTimeTraveling(_)
+        seen == [invalid: null]
+    }
+}
@@ -0,0 +1,127 @@
+package com.slalom.delorean.interceptors.inbound
+
+import spock.lang.Specification
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.function.Function
+
+class TimeTravelParseCacheTest extends Specification {
+
+    def "Cached values are only parsed once"() {
+        given:
+        Function<String, String> parser = Mock()
+        def cache = new TimeTravelParseCache<String>(2, parser)
+
+        when:
+        def first = cache.get('2000-01-01')
+        def second = cache.get('2000-01-01')
+
+        then:
+        1 * parser.apply('2000-01-01') >> 'parsed'
+        first == 'parsed'
+        second.is(first)
+        cache.size() == 1
+    }
+
+    def "Least recently used value is evicted when the cache is full"() {
+        given:
+        def parseCount = [:].withDefault { 0 }
+        def cache = new TimeTravelParseCache<String>(2, { String value -> parseCount[value]++; value.toUpperCase() } as Function)
+
+        when:
+        cache.get('a')
+        cache.get('b')
+        cache.get('a')
+        cache.get('c')
+        cache.get('a')
+        cache.get('b')
+
+        then:
+        cache.size() == 2
+        parseCount == [a: 1, b: 2, c: 1]
+    }
+
+    def "Unparseable values are cached so are only parsed once"() {
+        given:
+        Function<String, String> parser = Mock()
+        def cache = new TimeTravelParseCache<String>(2, parser)
+
+        when:
+        def first = cache.get('garbage')
+        def second = cache.get('garbage')
+
+        then:
+        1 * parser.apply('garbage') >> null
+        first == null
+        second == null
+        cache.size() == 1
+    }
+
+    def "A value in use survives a stream of distinct values"() {
+        given:
+        def parseCount = [:].withDefault { 0 }
+        def cache = new TimeTravelParseCache<String>(4, { String value -> parseCount[value]++; value.toUpperCase() } as Function)
+
+        when:
+        (1..100).each {
+            cache.get('2000-01-01')
+            cache.get('garbage-' + it)
+        }
+
+        then:
+        cache.size() == 4
+        parseCount['2000-01-01'] == 1
+    }
+
+    def "A value hit once per sweep of the eviction hand survives a stream of distinct values"() {
+        given:
+        def parseCount = [:].withDefault { 0 }
+        def cache = new TimeTravelParseCache<String>(4, { String value -> parseCount[value]++; value.toUpperCase() } as Function)
+
+        when:
+        (1..100).each {
+            if (it % 2 == 0) {
+                cache.get('2000-01-01')
+            }
+            cache.get('garbage-' + it)
+        }
+
+        then:
+        cache.size() == 4
+        parseCount['2000-01-01'] == 1
+    }
+
+    def "Threads racing on a value all return the first value cached"() {
+        given:
+        def cache = new TimeTravelParseCache<String>(2, { String value -> new String(value) } as Function)
+        def pool = Executors.newFixedThreadPool(8)
+        def start = new CountDownLatch(1)
+
+        when:
+        def futures = (1..8).collect { pool.submit({ start.await(); cache.get('2000-01-01') } as Callable<String>) }
+        start.countDown()
+        def results = futures*.get()
+
+        then:
+        results.every { it.is(results[0]) }
+        cache.get('2000-01-01').is(results[0])
+
+        cleanup:
+        pool.shutdownNow()
+    }
+
+    def "A size of zero disables caching"() {
+        given:
+        Function<String, String> parser = Mock()
+        def cache = new TimeTravelParseCache<String>(0, parser)
+
+        when:
+        cache.get('2000-01-01')
+        cache.get('2000-01-01')
+
+        then:
+        2 * parser.apply('2000-01-01') >> 'parsed'
+        cache.size() == 0
+    }
+}
@@ -75,4 +75,16 @@ class ApacheHttpClientOutboundRequestInterceptorTest extends Specification {
         then:
         request.getHeaders(HEADER_NAME).size() == 0
     }
+
+    def "When Time Machine is switched off at runtime then Request does not include header"() {
+        given:
+        DateFactory.setTestDate(TEST_DATE)
+        properties.active = false
+
+        when:
+        interceptor.process(request, context)
+
+        then:
+        request.getHeaders(HEADER_NAME).size() == 0
+    }
 }
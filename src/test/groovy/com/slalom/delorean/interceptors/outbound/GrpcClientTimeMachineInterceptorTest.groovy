@@ -0,0 +1,140 @@
+package com.slalom.delorean.interceptors.outbound
+
+import static com.slalom.delorean.interceptors.GrpcClock.TODAY
+
+import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties
+import com.slalom.delorean.DateFactory
+import com.slalom.delorean.TimeTravelContext
+import com.slalom.delorean.interceptors.GrpcClock
+import com.slalom.delorean.interceptors.inbound.GrpcServerTimeMachineInterceptor
+import com.slalom.delorean.metrics.TimeMachineMetrics
+import com.slalom.delorean.propagation.TimeTravelPropagator
+import io.grpc.CallOptions
+import io.grpc.Channel
+import io.grpc.ClientInterceptors
+import io.grpc.Context
+import io.grpc.Metadata
+import io.grpc.ServerCall
+import io.grpc.ServerCallHandler
+import io.grpc.ServerInterceptor
+import io.grpc.ServerInterceptors
+import io.grpc.inprocess.InProcessChannelBuilder
+import io.grpc.inprocess.InProcessServerBuilder
+import io.grpc.stub.ClientCalls
+import spock.lang.Specification
+import java.nio.charset.StandardCharsets
+import java.time.LocalDate
+import java.util.concurrent.Callable
+
+class GrpcClientTimeMachineInterceptorTest extends Specification {
+
+    private static final String HEADER_NAME = "X-Test-Header"
+    private static final Metadata.Key<byte[]> HEADER_KEY = Metadata.Key.of("x-test-header-bin", Metadata.BINARY_BYTE_MARSHALLER)
+
+    def properties = new TimeMachineConfigurationProperties()
+    def metrics = Mock(TimeMachineMetrics)
+    def received = []
+    def server
+    def managedChannel
+    Channel channel
+
+    def setup() {
+        properties.outboundRequestHeader.name = HEADER_NAME
+        def name = InProcessServerBuilder.generateName()
+        def recorder = new ServerInterceptor() {
+            @Override
+            <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+                received << headers.getAll(HEADER_KEY)?.collect { new String(it as byte[], StandardCharsets.UTF_8) }
+                next.startCall(call, headers)
+            }
+        }
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(ServerInterceptors.intercept(GrpcClock.service { 'ok' }, recorder))
+                .build()
+                .start()
+        managedChannel = InProcessChannelBuilder.forName(name).directExecutor().build()
+        channel = ClientInterceptors.intercept(managedChannel, new GrpcClientTimeMachineInterceptor(new TimeTravelPropagator(properties, metrics)))
+    }
+
+    def cleanup() {
+        managedChannel.shutdownNow()
+        server.shutdownNow()
+        DateFactory.clearTestDate()
+        DateFactory.clearGlobalTestDate()
+    }
+
+    def callToday() {
+        ClientCalls.blockingUnaryCall(channel, TODAY, CallOptions.DEFAULT, "today")
+    }
+
+    def "Calls made while time traveling carry the test date as binary metadata"() {
+        given:
+        DateFactory.setTestDate(LocalDate.of(2000, 1, 1))
+
+        when:
+        callToday()
+
+        then:
+        1 * metrics.outboundHeaderInjected(TimeMachineMetrics.OutboundClient.GRPC)
+        received == [['2000-01-01']]
+    }
+
+    def "Calls made while not time traveling carry no metadata"() {
+        when:
+        callToday()
+
+        then:
+        0 * metrics.outboundHeaderInjected(_)
+        received == [null]
+    }
+
+    def "Calls made in a time traveling gRPC context carry its test date"() {
+        given:
+        def context = TimeTravelContext.of(DateFactory.clockFor(LocalDate.of(2000, 1, 1)))
+
+        when:
+        Context.current().withValue(GrpcServerTimeMachineInterceptor.TIME_TRAVEL_CONTEXT, context).call({ callToday() } as Callable)
+
+        then:
+        received == [['2000-01-01']]
+    }
+
+    def "Calls made in a time traveling gRPC context carry its test date rather than the global test date"() {
+        given:
+        DateFactory.setGlobalTestDate(LocalDate.of(2015, 10, 21))
+        def context = TimeTravelContext.of(DateFactory.clockFor(LocalDate.of(2000, 1, 1)))
+
+        when:
+        Context.current().withValue(GrpcServerTimeMachineInterceptor.TIME_TRAVEL_CONTEXT, context).call({ callToday() } as Callable)
+        callToday()
+
+        then:
+        received == [['2000-01-01'], ['2015-10-21']]
+    }
+
+    def "The compact encoding is sent when configured"() {
+        given:
+        properties.outboundRequestHeader.encoding = TimeMachineConfigurationProperties.HeaderEncoding.COMPACT
+        channel = ClientInterceptors.intercept(managedChannel, new GrpcClientTimeMachineInterceptor(new TimeTravelPropagator(properties, metrics)))
+        DateFactory.setTestDate(LocalDate.of(2016, 1, 1))
+
+        when:
+        callToday()
+
+        then:
+        received == [['~dcyp']]
+    }
+
+    def "No metadata is sent while the outbound header is disabled"() {
+        given:
+        properties.outboundRequestHeader.enabled = false
+        DateFactory.setTestDate(LocalDate.of(2000, 1, 1))
+
+        when:
+        callToday()
+
+        then:
+        received == [null]
+    }
+}
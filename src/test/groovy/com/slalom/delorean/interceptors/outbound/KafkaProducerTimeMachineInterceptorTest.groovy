@@ -0,0 +1,113 @@
+package com.slalom.delorean.interceptors.outbound
+
+import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties
+import com.slalom.delorean.DateFactory
+import com.slalom.delorean.metrics.TimeMachineMetrics
+import com.slalom.delorean.propagation.TimeTravelPropagator
+import org.apache.kafka.clients.producer.MockProducer
+import org.apache.kafka.clients.producer.ProducerRecord
+import org.apache.kafka.common.serialization.StringSerializer
+import spock.lang.Specification
+import java.nio.charset.StandardCharsets
+import java.time.LocalDate
+
+class KafkaProducerTimeMachineInterceptorTest extends Specification {
+
+    private static final String HEADER_NAME = "X-Test-Header"
+    private static final String TOPIC = "orders"
+
+    def properties = new TimeMachineConfigurationProperties()
+    def metrics = Mock(TimeMachineMetrics)
+    def producer = new MockProducer<String, String>(true, new StringSerializer(), new StringSerializer())
+    KafkaProducerTimeMachineInterceptor<String, String> interceptor
+
+    def setup() {
+        properties.outboundRequestHeader.name = HEADER_NAME
+        interceptor = new KafkaProducerTimeMachineInterceptor<>(new TimeTravelPropagator(properties, metrics))
+    }
+
+    def cleanup() {
+        DateFactory.clearTestDate()
+    }
+
+    //MockProducer does not run interceptors, so hand it the record the way KafkaProducer does
+    def send(ProducerRecord<String, String> record) {
+        producer.send(interceptor.onSend(record)).get()
+        producer.history().last()
+    }
+
+    static String headerValue(ProducerRecord<?, ?> record) {
+        def header = record.headers().lastHeader(HEADER_NAME)
+        header == null ? null : new String(header.value(), StandardCharsets.UTF_8)
+    }
+
+    def "Records sent while time traveling carry the test date"() {
+        given:
+        DateFactory.setTestDate(LocalDate.of(2000, 1, 1))
+
+        when:
+        def sent = send(new ProducerRecord<>(TOPIC, "key", "value"))
+
+        then:
+        1 * metrics.outboundHeaderInjected(TimeMachineMetrics.OutboundClient.KAFKA)
+        headerValue(sent) == '2000-01-01'
+    }
+
+    def "Records sent while not time traveling carry no header"() {
+        when:
+        def sent = send(new ProducerRecord<>(TOPIC, "key", "value"))
+
+        then:
+        0 * metrics.outboundHeaderInjected(_)
+        headerValue(sent) == null
+    }
+
+    def "An existing header is replaced"() {
+        given:
+        DateFactory.setTestDate(LocalDate.of(2000, 1, 1))
+        def record = new ProducerRecord<String, String>(TOPIC, "key", "value")
+        record.headers().add(HEADER_NAME, '1999-12-31'.getBytes(StandardCharsets.UTF_8))
+
+        when:
+        def sent = send(record)
+
+        then:
+        sent.headers().headers(HEADER_NAME).size() == 1
+        headerValue(sent) == '2000-01-01'
+    }
+
+    def "Kafka created interceptors use the configured propagator"() {
+        given:
+        def configured = new KafkaProducerTimeMachineInterceptor<String, String>()
+        configured.configure([(KafkaProducerTimeMachineInterceptor.PROPAGATOR_CONFIG): new TimeTravelPropagator(properties, metrics)])
+        DateFactory.setTestDate(LocalDate.of(2000, 1, 1))
+
+        when:
+        def sent = configured.onSend(new ProducerRecord<>(TOPIC, "key", "value"))
+
+        then:
+        1 * metrics.outboundHeaderInjected(TimeMachineMetrics.OutboundClient.KAFKA)
+        headerValue(sent) == '2000-01-01'
+    }
+
+    def "Kafka created interceptors default to the default header"() {
+        given:
+        def configured = new KafkaProducerTimeMachineInterceptor<String, String>()
+        configured.configure([:])
+        DateFactory.setTestDate(LocalDate.of(2000, 1, 1))
+
+        when:
+        def sent = configured.onSend(new ProducerRecord<>(TOPIC, "key", "value"))
+
+        then:
+        new String(sent.headers().lastHeader("X-Delorean-Time-Machine").value(), StandardCharsets.UTF_8) == '2000-01-01'
+    }
+
+    def "A propagator configuration of the wrong type is rejected"() {
+        when:
+        new KafkaProducerTimeMachineInterceptor<String, String>().configure([(KafkaProducerTimeMachineInterceptor.PROPAGATOR_CONFIG): "propagator"])
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
@@ -11,6 +11,7 @@ import spock.lang.Specification
 import spock.lang.Unroll
 import java.time.LocalDate
 import java.time.LocalDateTime
+import java.time.ZoneOffset
 import java.time.format.DateTimeFormatter
 
 class OkHttp3OutboundRequestInterceptorTest extends Specification{
@@ -64,6 +65,26 @@ class OkHttp3OutboundRequestInterceptorTest extends Specification{
         TEST_DATE_TIME | TEST_DATE_TIME_STRING
     }
 
+    @Unroll
+    def "When the compact encoding is configured and the test date is set to #testDate then Request includes the compact header"() {
+        given:
+        properties.outboundRequestHeader.encoding = TimeMachineConfigurationProperties.HeaderEncoding.COMPACT
+        client = new OkHttpClient().newBuilder().addInterceptor(new OkHttp3OutboundTimeMachineRequestInterceptor(properties)).build()
+        DateFactory.setTestDate(testDate)
+
+        when:
+        client.newCall(new Request.Builder().url(server.url("/")).build()).execute()
+        RecordedRequest request = server.takeRequest();
+
+        then:
+        request.getHeader(HEADER_NAME) == compactString
+
+        where:
+        testDate       | compactString
+        TEST_DATE      | '~d' + Long.toString(TEST_DATE.toEpochDay(), 36)
+        TEST_DATE_TIME | '~i' + Long.toString(TEST_DATE_TIME.toEpochSecond(ZoneOffset.UTC), 36)
+    }
+
     def "When Time Machine test date is not set then Request does not include header"() {
 
         given:
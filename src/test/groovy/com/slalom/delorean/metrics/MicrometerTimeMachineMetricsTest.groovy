@@ -0,0 +1,165 @@
+package com.slalom.delorean.metrics
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get
+
+import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties
+import com.slalom.delorean.DateFactory
+import com.slalom.delorean.interceptors.inbound.InboundRequestInterceptor
+import com.slalom.delorean.interceptors.inbound.InboundTimeTravelFilter
+import com.slalom.delorean.interceptors.outbound.ApacheHttpClientOutboundTimeMachineRequestInterceptor
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.apache.http.client.protocol.HttpClientContext
+import org.apache.http.message.BasicHttpRequest
+import org.springframework.mock.web.MockHttpServletResponse
+import spock.lang.Specification
+import spock.lang.Unroll
+import javax.servlet.FilterChain
+import javax.servlet.ServletRequest
+import javax.servlet.ServletResponse
+import javax.servlet.http.Cookie
+import java.time.LocalDate
+
+class MicrometerTimeMachineMetricsTest extends Specification {
+
+    private static final String TENANT = "hill-valley"
+
+    private SimpleMeterRegistry registry
+    private MicrometerTimeMachineMetrics metrics
+    private TimeMachineConfigurationProperties properties
+
+    def setup() {
+        registry = new SimpleMeterRegistry()
+        metrics = new MicrometerTimeMachineMetrics(registry)
+        properties = new TimeMachineConfigurationProperties()
+        properties.cookie.enabled = true
+        properties.tenantHeaderName = 'X-Tenant'
+    }
+
+    def cleanup() {
+        DateFactory.clearTestDate()
+        DateFactory.clearGlobalTestDate()
+        DateFactory.clearTenantTestDate(TENANT)
+    }
+
+    def "All meters are registered up front"() {
+        expect:
+        registry.get('delorean.inbound.requests').counters().size() == TimeMachineMetrics.InboundSource.values().length
+        registry.get('delorean.outbound.headers').counters().size() == TimeMachineMetrics.OutboundClient.values().length
+        registry.get('delorean.inbound.parse.failures').counter().count() == 0
+        registry.get('delorean.inbound.prehandle').functionTimer().count() == 0
+        registry.get('delorean.overrides.active').gauges().size() == 3
+    }
+
+    @Unroll
+    def "Inbound requests time traveling via #source are counted"() {
+        given:
+        def interceptor = new InboundRequestInterceptor(properties, null, metrics)
+        def builder = get("/")
+        if (source == 'header') {
+            builder.header(properties.headerName, '2015-10-21')
+        } else if (source == 'cookie') {
+            builder.cookie(new Cookie(properties.cookie.name, '2015-10-21'))
+        }
+        def request = builder.buildRequest(null)
+        def response = new MockHttpServletResponse()
+
+        when:
+        interceptor.preHandle(request, response, null)
+
+        then:
+        registry.get('delorean.inbound.requests').tag('source', source).counter().count() == 1
+        registry.get('delorean.inbound.prehandle').functionTimer().count() == 1
+        registry.get('delorean.overrides.active').tag('scope', 'request').gauge().value() == 1
+
+        when:
+        interceptor.afterCompletion(request, response, null, null)
+
+        then:
+        registry.get('delorean.overrides.active').tag('scope', 'request').gauge().value() == 0
+
+        where:
+        source << ['header', 'cookie']
+    }
+
+    def "Requests which do not time travel are timed but not counted"() {
+        given:
+        def interceptor = new InboundRequestInterceptor(properties, null, metrics)
+        def request = get("/").buildRequest(null)
+        def response = new MockHttpServletResponse()
+
+        when:
+        interceptor.preHandle(request, response, null)
+        interceptor.afterCompletion(request, response, null, null)
+
+        then:
+        registry.get('delorean.inbound.requests').counters().every { it.count() == 0 }
+        registry.get('delorean.inbound.prehandle').functionTimer().count() == 1
+        registry.get('delorean.overrides.active').tag('scope', 'request').gauge().value() == 0
+    }
+
+    def "Parse failures are counted"() {
+        given:
+        def interceptor = new InboundRequestInterceptor(properties, null, metrics)
+        def request = get("/").header(properties.headerName, 'garbage').buildRequest(null)
+
+        when:
+        interceptor.preHandle(request, new MockHttpServletResponse(), null)
+
+        then:
+        registry.get('delorean.inbound.parse.failures').counter().count() == 1
+        registry.get('delorean.inbound.requests').counters().every { it.count() == 0 }
+    }
+
+    def "Tenant requests are counted by the filter and completed after the chain"() {
+        given:
+        DateFactory.setTenantTestClock(TENANT, DateFactory.clockFor(LocalDate.of(2015, 10, 21)))
+        def filter = new InboundTimeTravelFilter(properties, { it.getHeader('X-Tenant') }, metrics)
+        def request = get("/").header('X-Tenant', TENANT).buildRequest(null)
+        double activeDuringChain = -1
+        FilterChain chain = { ServletRequest req, ServletResponse res ->
+            activeDuringChain = registry.get('delorean.overrides.active').tag('scope', 'request').gauge().value()
+        } as FilterChain
+
+        when:
+        filter.doFilter(request, new MockHttpServletResponse(), chain)
+
+        then:
+        registry.get('delorean.inbound.requests').tag('source', 'tenant').counter().count() == 1
+        activeDuringChain == 1
+        registry.get('delorean.overrides.active').tag('scope', 'request').gauge().value() == 0
+        registry.get('delorean.overrides.active').tag('scope', 'tenant').gauge().value() == 1
+    }
+
+    def "Global test date is reported"() {
+        when:
+        DateFactory.setGlobalTestDate(LocalDate.of(2015, 10, 21))
+
+        then:
+        registry.get('delorean.overrides.active').tag('scope', 'global').gauge().value() == 1
+
+        when:
+        DateFactory.clearGlobalTestDate()
+
+        then:
+        registry.get('delorean.overrides.active').tag('scope', 'global').gauge().value() == 0
+    }
+
+    def "Outbound headers are counted per client"() {
+        given:
+        def interceptor = new ApacheHttpClientOutboundTimeMachineRequestInterceptor(properties, metrics)
+
+        when:
+        interceptor.process(new BasicHttpRequest("GET", "/"), HttpClientContext.create())
+
+        then:
+        registry.get('delorean.outbound.headers').tag('client', 'apache-http-client').counter().count() == 0
+
+        when:
+        DateFactory.setTestDate(LocalDate.of(2015, 10, 21))
+        interceptor.process(new BasicHttpRequest("GET", "/"), HttpClientContext.create())
+
+        then:
+        registry.get('delorean.outbound.headers').tag('client', 'apache-http-client').counter().count() == 1
+        registry.get('delorean.outbound.headers').tag('client', 'okhttp3').counter().count() == 0
+    }
+}
@@ -0,0 +1,211 @@
+package com.slalom.delorean.propagation
+
+import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties
+import com.slalom.delorean.DateFactory
+import com.slalom.delorean.TimeSource
+import com.slalom.delorean.metrics.TimeMachineMetrics
+import spock.lang.Specification
+import spock.lang.Unroll
+import java.nio.charset.StandardCharsets
+import java.time.Duration
+import java.time.LocalDate
+import java.time.LocalDateTime
+
+class TimeTravelPropagatorTest extends Specification {
+
+    private static final String HEADER_NAME = "X-Test-Header"
+
+    def properties = new TimeMachineConfigurationProperties()
+    def metrics = Mock(TimeMachineMetrics)
+    TimeTravelPropagator propagator
+
+    def setup() {
+        properties.headerName = HEADER_NAME
+        properties.outboundRequestHeader.name = HEADER_NAME
+        propagator = new TimeTravelPropagator(properties, metrics)
+    }
+
+    def cleanup() {
+        DateFactory.clearTestDate()
+        DateFactory.clearGlobalTestDate()
+    }
+
+    static byte[] bytes(String value) {
+        value.getBytes(StandardCharsets.UTF_8)
+    }
+
+    @Unroll
+    def "Injects the test date #expected as UTF-8 bytes"() {
+        given:
+        DateFactory.setTestClock(clock)
+        def headers = [:]
+
+        when:
+        def injected = propagator.inject(headers)
+
+        then:
+        injected
+        new String(headers[HEADER_NAME] as byte[], StandardCharsets.UTF_8) == expected
+
+        where:
+        clock                                                             | expected
+        DateFactory.clockFor(LocalDate.of(2000, 1, 1))                    | '2000-01-01'
+        DateFactory.clockFor(LocalDateTime.of(2010, 1, 1, 13, 30, 30))    | '2010-01-01T13:30:30'
+        DateFactory.offsetClock(Duration.ofHours(6))                      | '+PT6H'
+    }
+
+    def "Injected values are encoded once per context"() {
+        given:
+        DateFactory.setTestDate(LocalDate.of(2000, 1, 1))
+        def first = [:]
+        def second = [:]
+
+        when:
+        propagator.inject(first)
+        propagator.inject(second)
+
+        then:
+        first[HEADER_NAME].is(second[HEADER_NAME])
+    }
+
+    def "Injects the global test date"() {
+        given:
+        DateFactory.setGlobalTestDate(LocalDate.of(2000, 1, 1))
+        def headers = [:]
+
+        expect:
+        propagator.inject(headers)
+        headers[HEADER_NAME] == bytes('2000-01-01')
+    }
+
+    def "Injects the compact encoding when configured"() {
+        given:
+        properties.outboundRequestHeader.encoding = TimeMachineConfigurationProperties.HeaderEncoding.COMPACT
+        propagator = new TimeTravelPropagator(properties, metrics)
+        DateFactory.setTestDate(LocalDate.of(2016, 1, 1))
+        def headers = [:]
+
+        when:
+        propagator.inject(headers)
+        DateFactory.clearTestDate()
+
+        then:
+        headers[HEADER_NAME] == bytes('~dcyp')
+        propagator.extract(headers).headerValue == '2016-01-01'
+    }
+
+    def "Nothing is injected when not time traveling, inactive or disabled"() {
+        given:
+        def headers = [:]
+
+        expect:
+        !propagator.inject(headers)
+
+        when:
+        DateFactory.setTestDate(LocalDate.of(2000, 1, 1))
+        properties.active = false
+
+        then:
+        !propagator.inject(headers)
+
+        when:
+        properties.active = true
+        properties.outboundRequestHeader.enabled = false
+
+        then:
+        !propagator.inject(headers)
+        headers.isEmpty()
+    }
+
+    def "Injects through a custom carrier"() {
+        given:
+        DateFactory.setTestDate(LocalDate.of(2000, 1, 1))
+        def carrier = new StringBuilder()
+
+        when:
+        propagator.inject(carrier, { StringBuilder c, String name, byte[] value ->
+            c.append(name).append('=').append(new String(value, StandardCharsets.UTF_8))
+        } as TimeTravelPropagator.Setter)
+
+        then:
+        carrier.toString() == HEADER_NAME + '=2000-01-01'
+    }
+
+    def "Extracts the context of a header"() {
+        when:
+        def context = propagator.extract([(HEADER_NAME): bytes('2010-01-01T13:30:30')])
+
+        then:
+        LocalDateTime.now(context.clock) == LocalDateTime.of(2010, 1, 1, 13, 30, 30)
+        context.fixedInstant
+    }
+
+    def "Extracted values are parsed once"() {
+        given:
+        def value = bytes('2000-01-01')
+
+        when:
+        def first = propagator.extract([(HEADER_NAME): value])
+        value[3] = (byte) '1'
+        def other = propagator.extract([(HEADER_NAME): value])
+        def again = propagator.extract([(HEADER_NAME): bytes('2000-01-01')])
+
+        then:
+        LocalDate.now(other.clock) == LocalDate.of(2001, 1, 1)
+        again.is(first)
+    }
+
+    def "Every carrier with the same scaled value starts at the anchor"() {
+        given:
+        long nanos = 0
+        DateFactory.setTimeSource([currentTimeMillis: { System.currentTimeMillis() }, nanoTime: { nanos }] as TimeSource)
+        def headers = [(HEADER_NAME): bytes('x60@2016-10-21T00:00')]
+
+        when:
+        def first = propagator.extract(headers)
+        nanos += Duration.ofMinutes(1).toNanos()
+        def second = propagator.extract(headers)
+
+        then:
+        !second.is(first)
+        LocalDateTime.now(second.clock) == LocalDateTime.of(2016, 10, 21, 0, 0)
+        LocalDateTime.now(first.clock) == LocalDateTime.of(2016, 10, 21, 1, 0)
+
+        cleanup:
+        DateFactory.setTimeSource(null)
+    }
+
+    def "Round trips the test date"() {
+        given:
+        DateFactory.setTestDate(LocalDate.of(2000, 1, 1))
+        def headers = [:]
+        propagator.inject(headers)
+        DateFactory.clearTestDate()
+
+        expect:
+        propagator.extract(headers).headerValue == '2000-01-01'
+    }
+
+    def "Missing, empty and unparseable headers do not time travel"() {
+        when:
+        def missing = propagator.extract([:])
+        def empty = propagator.extract([(HEADER_NAME): new byte[0]])
+        def invalid = propagator.extract([(HEADER_NAME): bytes('not-a-date')])
+        def repeated = propagator.extract([(HEADER_NAME): bytes('not-a-date')])
+
+        then:
+        2 * metrics.parseFailure()
+        missing == null
+        empty == null
+        invalid == null
+        repeated == null
+    }
+
+    def "Nothing is extracted while inactive"() {
+        given:
+        properties.active = false
+
+        expect:
+        propagator.extract([(HEADER_NAME): bytes('2000-01-01')]) == null
+    }
+}
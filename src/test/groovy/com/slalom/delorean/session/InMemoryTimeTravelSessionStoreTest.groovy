@@ -0,0 +1,149 @@
+package com.slalom.delorean.session
+
+import com.slalom.delorean.DateFactory
+import com.slalom.delorean.TimeSource
+import com.slalom.delorean.TimeTravelContext
+import spock.lang.Specification
+import java.time.Duration
+import java.time.LocalDate
+
+class InMemoryTimeTravelSessionStoreTest extends Specification {
+
+    private static final TimeTravelContext CONTEXT = TimeTravelContext.of(DateFactory.clockFor(LocalDate.of(1985, 10, 26)))
+
+    def timeSource = new ManualTimeSource(millis: 1_000_000L)
+    def store = new InMemoryTimeTravelSessionStore(Duration.ofMinutes(1), 3, timeSource)
+
+    def "Created sessions are found by their token"() {
+        when:
+        def session = store.create("1985-10-26", CONTEXT)
+
+        then:
+        session.token ==~ /[A-Za-z0-9_-]{22}/
+        session.testDate == "1985-10-26"
+        session.created.toEpochMilli() == 1_000_000L
+        session.expires.toEpochMilli() == 1_060_000L
+        store.get(session.token).is(session)
+        store.get(session.token).context.is(CONTEXT)
+        store.get("unknown") == null
+    }
+
+    def "Every session is issued a different token"() {
+        expect:
+        (1..3).collect { store.create("1985-10-26", CONTEXT).token }.unique().size() == 3
+    }
+
+    def "Sessions expire once their TTL has passed on the system clock"() {
+        given:
+        def session = store.create("1985-10-26", CONTEXT)
+
+        when:
+        timeSource.millis += 59_999
+
+        then:
+        store.get(session.token) != null
+
+        when:
+        timeSource.millis += 1
+
+        then:
+        store.get(session.token) == null
+        store.size() == 0
+        store.sessions.empty
+    }
+
+    def "Sessions do not expire with the time travel clock"() {
+        given:
+        def realTimeStore = new InMemoryTimeTravelSessionStore(Duration.ofMinutes(1), 3)
+        def session = realTimeStore.create("1985-10-26", CONTEXT)
+
+        when:
+        DateFactory.setTestDate(LocalDate.of(2040, 1, 1))
+
+        then:
+        realTimeStore.get(session.token) != null
+
+        cleanup:
+        DateFactory.clearTestDate()
+    }
+
+    def "The oldest session is evicted once the store is full"() {
+        given:
+        def sessions = (1..3).collect {
+            timeSource.millis++
+            store.create("1985-10-2${it}", CONTEXT)
+        }
+
+        when:
+        timeSource.millis++
+        def newest = store.create("1985-10-29", CONTEXT)
+
+        then:
+        store.size() == 3
+        store.get(sessions[0].token) == null
+        store.get(sessions[1].token) != null
+        store.get(newest.token) != null
+        store.sessions*.testDate == ["1985-10-22", "1985-10-23", "1985-10-29"]
+    }
+
+    def "Expired sessions are purged before evicting live ones"() {
+        given:
+        def expired = store.create("1985-10-21", CONTEXT)
+        timeSource.millis += 30_000
+        def live = (1..2).collect { store.create("1985-10-2${it + 1}", CONTEXT) }
+        timeSource.millis += 30_000
+
+        when:
+        store.create("1985-10-24", CONTEXT)
+
+        then:
+        store.size() == 3
+        live.every { store.get(it.token) != null }
+        store.get(expired.token) == null
+    }
+
+    def "Revoked sessions are no longer found"() {
+        given:
+        def session = store.create("1985-10-26", CONTEXT)
+        def other = store.create("1955-11-05", CONTEXT)
+
+        expect:
+        store.revoke(session.token)
+        !store.revoke(session.token)
+        store.get(session.token) == null
+        store.sessions == [other]
+
+        and:
+        store.revokeAll() == 1
+        store.get(other.token) == null
+        store.sessions.empty
+    }
+
+    def "Invalid limits are rejected"() {
+        when:
+        new InMemoryTimeTravelSessionStore(ttl, maxSessions)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        ttl                  | maxSessions
+        Duration.ZERO        | 1
+        Duration.ofMillis(-1) | 1
+        Duration.ofMinutes(1) | 0
+    }
+
+    static class ManualTimeSource implements TimeSource {
+        long millis
+
+        @Override
+        long currentTimeMillis() {
+            millis
+        }
+
+        @Override
+        long nanoTime() {
+            millis * 1_000_000
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.slalom.delorean.spring.boot.clock
+
+import com.slalom.delorean.CoarseTimeSource
+import com.slalom.delorean.DateFactory
+import com.slalom.delorean.TimeSource
+import spock.lang.Specification
+import java.time.Duration
+
+class CoarseClockLifecycleTest extends Specification {
+
+    def lifecycle = new CoarseClockLifecycle(Duration.ofMillis(10))
+
+    def cleanup() {
+        lifecycle.stop()
+        DateFactory.setTimeSource(null)
+    }
+
+    def "Installs a coarse time source while running"() {
+        given:
+        def callback = Mock(Runnable)
+
+        when:
+        lifecycle.start()
+
+        then:
+        lifecycle.running
+        DateFactory.timeSource instanceof CoarseTimeSource
+        ((CoarseTimeSource) DateFactory.timeSource).resolution == Duration.ofMillis(10)
+
+        when:
+        lifecycle.stop(callback)
+
+        then:
+        1 * callback.run()
+        !lifecycle.running
+        DateFactory.timeSource.is(TimeSource.SYSTEM)
+    }
+
+    def "Starting twice keeps the running source"() {
+        when:
+        lifecycle.start()
+        def source = DateFactory.timeSource
+        lifecycle.start()
+
+        then:
+        DateFactory.timeSource.is(source)
+    }
+
+    def "Starts first and stops last"() {
+        expect:
+        lifecycle.autoStartup
+        lifecycle.phase == Integer.MIN_VALUE
+    }
+}
@@ -1,9 +1,18 @@
 package com.slalom.delorean.spring.boot.controller
 
 import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties
+import com.slalom.delorean.DateFactory
+import com.slalom.delorean.interceptors.inbound.InboundRequestInterceptor
+import com.slalom.delorean.metrics.TimeMachineMetrics
+import com.slalom.delorean.session.InMemoryTimeTravelSessionStore
+import org.springframework.mock.web.MockHttpServletResponse
 import org.springframework.test.web.servlet.MockMvc
 import spock.lang.Specification
+import javax.servlet.http.Cookie
+import java.time.Duration
+import java.time.LocalDateTime
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup
 
@@ -23,6 +32,15 @@ class TimeMachineControllerSpec extends Specification {
         response.status == 200
     }
 
+    def "Test Successful LocalDateTime"() {
+        when:
+        def response = mm.perform(get('/time-machine/2011-01-21T10:15:30')).andReturn().response
+
+        then:
+        response.status == 200
+        response.getCookie('Delorean-Time-Machine').value == '2011-01-21T10:15:30'
+    }
+
     def "Test Failing Date"() {
         when:
         def response = mm.perform(get('/time-machine/20110101')).andReturn().response
@@ -30,4 +48,98 @@ class TimeMachineControllerSpec extends Specification {
         then:
         response.status == 400
     }
+
+    def "Test Out Of Range Date"() {
+        when:
+        def response = mm.perform(get('/time-machine/2011-02-30')).andReturn().response
+
+        then:
+        response.status == 400
+        response.getCookie('Delorean-Time-Machine') == null
+    }
+
+    def "Test Successful Time Warp"() {
+        when:
+        def response = mm.perform(get('/time-machine/+P3D')).andReturn().response
+
+        then:
+        response.status == 200
+        response.getCookie('Delorean-Time-Machine').value == '+P3D'
+    }
+
+    def "Test Accelerated Time Warp Requires Sessions"() {
+        when:
+        def response = mm.perform(get('/time-machine/x60@2016-10-21T00:00')).andReturn().response
+
+        then:
+        response.status == 400
+        response.getCookie('Delorean-Time-Machine') == null
+    }
+
+    def "Test Accelerated Time Warp Session Keeps Running Between Requests"() {
+        given:
+        def properties = new TimeMachineConfigurationProperties()
+        properties.cookie.enabled = true
+        def store = new InMemoryTimeTravelSessionStore(Duration.ofMinutes(1), 10)
+        def sessionMm = standaloneSetup(new TimeMachineController(properties, store)).build()
+        def interceptor = new InboundRequestInterceptor(properties, null, TimeMachineMetrics.NOOP, store)
+        def token = sessionMm.perform(get('/time-machine/x3600@2016-10-21T00:00')).andReturn().response.getCookie('Delorean-Time-Machine').value
+
+        when:
+        def first = requestTime(interceptor, token)
+        Thread.sleep(20)
+        def second = requestTime(interceptor, token)
+
+        then:
+        !first.isBefore(LocalDateTime.of(2016, 10, 21, 0, 0))
+        Duration.between(first, second) >= Duration.ofSeconds(60)
+    }
+
+    private static LocalDateTime requestTime(InboundRequestInterceptor interceptor, String token) {
+        def request = get('/').cookie(new Cookie('Delorean-Time-Machine', token)).buildRequest(null)
+        def response = new MockHttpServletResponse()
+        interceptor.preHandle(request, response, null)
+        try {
+            DateFactory.now()
+        } finally {
+            interceptor.afterCompletion(request, response, null, null)
+        }
+    }
+
+    def "Test Session Token Issued Instead Of Date"() {
+        given:
+        def store = new InMemoryTimeTravelSessionStore(Duration.ofMinutes(1), 10)
+        def sessionMm = standaloneSetup(new TimeMachineController(new TimeMachineConfigurationProperties(), store)).build()
+
+        when:
+        def response = sessionMm.perform(get('/time-machine/2011-01-21T10:15:30')).andReturn().response
+        def token = response.getCookie('Delorean-Time-Machine').value
+
+        then:
+        response.status == 200
+        token != '2011-01-21T10:15:30'
+        store.get(token).testDate == '2011-01-21T10:15:30'
+        LocalDateTime.now(store.get(token).context.clock) == LocalDateTime.of(2011, 1, 21, 10, 15, 30)
+
+        when:
+        response = sessionMm.perform(delete('/time-machine').cookie(new Cookie('Delorean-Time-Machine', token))).andReturn().response
+
+        then:
+        response.status == 204
+        response.getCookie('Delorean-Time-Machine').maxAge == 0
+        store.get(token) == null
+    }
+
+    def "Test Failing Date Creates No Session"() {
+        given:
+        def store = new InMemoryTimeTravelSessionStore(Duration.ofMinutes(1), 10)
+        def sessionMm = standaloneSetup(new TimeMachineController(new TimeMachineConfigurationProperties(), store)).build()
+
+        when:
+        def response = sessionMm.perform(get('/time-machine/20110101')).andReturn().response
+
+        then:
+        response.status == 400
+        store.sessions.empty
+    }
 }
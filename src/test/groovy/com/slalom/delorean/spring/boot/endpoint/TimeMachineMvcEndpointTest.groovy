@@ -0,0 +1,168 @@
+package com.slalom.delorean.spring.boot.endpoint
+
+import com.slalom.autoconfiguration.delorean.TimeMachineConfigurationProperties
+import com.slalom.delorean.DateFactory
+import com.slalom.delorean.TimeTravelContext
+import com.slalom.delorean.cluster.LoopbackTimeTravelBroadcaster
+import com.slalom.delorean.cluster.TimeTravelCluster
+import com.slalom.delorean.session.InMemoryTimeTravelSessionStore
+import org.springframework.test.web.servlet.MockMvc
+import spock.lang.Specification
+import java.time.Duration
+import java.time.LocalDate
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup
+
+class TimeMachineMvcEndpointTest extends Specification {
+    def properties = new TimeMachineConfigurationProperties()
+    def endpoint = new TimeMachineEndpoint(properties)
+
+    MockMvc mm = standaloneSetup(new TimeMachineMvcEndpoint(endpoint)).build()
+
+    def "Test Reports Active"() {
+        when:
+        def response = mm.perform(get('/')).andReturn().response
+
+        then:
+        response.status == 200
+        response.contentAsString == '{"active":true}'
+    }
+
+    def "Test Switch Off And On"() {
+        when:
+        def response = mm.perform(post('/').param('active', 'false')).andReturn().response
+
+        then:
+        response.status == 200
+        response.contentAsString == '{"active":false}'
+        !properties.active
+
+        when:
+        mm.perform(post('/').param('active', 'true'))
+
+        then:
+        properties.active
+    }
+
+    def "Test Disabled Endpoint Does Not Switch"() {
+        given:
+        endpoint.enabled = false
+
+        when:
+        def response = mm.perform(post('/').param('active', 'false')).andReturn().response
+
+        then:
+        response.status == 404
+        properties.active
+    }
+
+    def "Test Disabling Delorean Deactivates Interceptors"() {
+        when:
+        properties.enabled = false
+
+        then:
+        !properties.active
+    }
+
+    def "Test Sessions Listed And Revoked"() {
+        given:
+        def store = new InMemoryTimeTravelSessionStore(Duration.ofMinutes(1), 10)
+        def first = store.create('2011-01-21', TimeTravelContext.of(DateFactory.clockFor(LocalDate.of(2011, 1, 21))))
+        def second = store.create('x60@2016-10-21T00:00', TimeTravelContext.of(DateFactory.clockFor(LocalDate.of(2016, 10, 21))))
+        def sessionMm = standaloneSetup(new TimeMachineMvcEndpoint(new TimeMachineEndpoint(properties, store))).build()
+
+        when:
+        def response = sessionMm.perform(get('/')).andReturn().response
+
+        then:
+        response.contentAsString == '{"active":true,"sessions":2}'
+
+        when:
+        response = sessionMm.perform(get('/sessions')).andReturn().response
+
+        then:
+        response.status == 200
+        response.contentAsString.contains(/"id":"${first.id}","testDate":"2011-01-21","created":"${first.created}"/)
+        response.contentAsString.contains(/"id":"${second.id}","testDate":"x60@2016-10-21T00:00"/)
+        !response.contentAsString.contains(first.token)
+        !response.contentAsString.contains(second.token)
+
+        when:
+        response = sessionMm.perform(delete("/sessions/${first.token}")).andReturn().response
+
+        then:
+        response.status == 404
+        store.get(first.token) != null
+
+        when:
+        response = sessionMm.perform(delete("/sessions/${first.id}")).andReturn().response
+
+        then:
+        response.status == 204
+        store.get(first.token) == null
+        sessionMm.perform(delete("/sessions/${first.id}")).andReturn().response.status == 404
+
+        when:
+        response = sessionMm.perform(delete('/sessions')).andReturn().response
+
+        then:
+        response.contentAsString == '{"revoked":1}'
+        store.sessions.empty
+    }
+
+    def "Test Sessions Not Found Without A Session Store"() {
+        expect:
+        mm.perform(get('/sessions')).andReturn().response.status == 404
+        mm.perform(delete('/sessions')).andReturn().response.status == 404
+    }
+
+    def "Test Global Test Date Set Across The Cluster"() {
+        given:
+        def broadcaster = new LoopbackTimeTravelBroadcaster()
+        def cluster = new TimeTravelCluster('node-1', broadcaster)
+        def other = new TimeTravelCluster('node-2', broadcaster)
+        def clusterMm = standaloneSetup(new TimeMachineMvcEndpoint(new TimeMachineEndpoint(properties, null, cluster))).build()
+
+        when:
+        def response = clusterMm.perform(post('/global').param('testDate', '2015-10-21')).andReturn().response
+
+        then:
+        response.status == 200
+        response.contentAsString.startsWith('{"nodeId":"node-1","globalTestDate":"2015-10-21","origin":"node-1","version":')
+        DateFactory.today() == LocalDate.of(2015, 10, 21)
+        other.lastApplied == cluster.lastApplied
+
+        when:
+        response = clusterMm.perform(get('/')).andReturn().response
+
+        then:
+        response.contentAsString.startsWith('{"active":true,"cluster":{"nodeId":"node-1","globalTestDate":"2015-10-21"')
+
+        when:
+        response = clusterMm.perform(post('/global').param('testDate', '2015-02-30')).andReturn().response
+
+        then:
+        response.status == 400
+        DateFactory.today() == LocalDate.of(2015, 10, 21)
+
+        when:
+        response = clusterMm.perform(delete('/global')).andReturn().response
+
+        then:
+        response.status == 200
+        !DateFactory.timeTraveling()
+        other.lastApplied.testDate == null
+
+        cleanup:
+        DateFactory.clearGlobalTestDate()
+    }
+
+    def "Test Global Test Date Not Found Outside A Cluster"() {
+        expect:
+        mm.perform(post('/global').param('testDate', '2015-10-21')).andReturn().response.status == 404
+        !DateFactory.timeTraveling()
+    }
+}